@@ -1,22 +1,140 @@
 package com.classroom;
 
 // Fix imports
+import com.classroom.dao.ChangeLogDAO;
+import com.classroom.dao.NotificationDispatcher;
+import com.classroom.dao.NotificationRetention;
+import com.classroom.io.BulkImporter;
+import com.classroom.io.CalendarFeeds;
+import com.classroom.io.Exporter;
+import com.classroom.io.ImportReport;
+import com.classroom.server.ApiServer;
 import com.classroom.ui.LoginFrame;
+import com.classroom.util.DatabaseBackup;
 import com.classroom.util.DatabaseUtil;
 
 import javax.swing.*;
+import java.nio.file.Path;
 
 /**
  * Main entry point for the Classroom Management System application.
+ *
+ * With {@code --server [port]} the application runs headless and serves the
+ * JSON HTTP API instead of opening the desktop UI. With
+ * {@code --import <courses|users|schedules|rooms> <file> [error-report.csv]} it
+ * imports a CSV or JSON file and exits, and with
+ * {@code --export <schedules|room-timetable|course-roster> <csv|jsonl|ics> <file> [room|course-code]}
+ * it exports one (gzipped when the file name ends in .gz) and exits. With
+ * {@code --feeds <dir> [interval-seconds]} it writes iCalendar feeds for every
+ * student, instructor and room, once or repeatedly with incremental updates.
+ * {@code --backup <dir> [keep]} writes a verified snapshot of the database and
+ * {@code --restore <snapshot>} copies one back over it; the server and the
+ * desktop application also take snapshots on a schedule.
  */
 public class Main {
-    public static void main(String[] args) {
+    // Request threads for the API server when virtual threads are unavailable
+    private static final int SERVER_THREADS = 64;
+    private static final int FEED_THREADS = Runtime.getRuntime().availableProcessors();
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && "--server".equals(args[0])) {
+            System.setProperty("java.awt.headless", "true");
+            int port = args.length > 1 ? Integer.parseInt(args[1]) : ApiServer.DEFAULT_PORT;
+            DatabaseUtil.initializeDatabase();
+            NotificationRetention.start(NotificationRetention.Policy.DEFAULT);
+            DatabaseBackup.start(DatabaseBackup.Policy.DEFAULT);
+            ChangeLogDAO.startPruning();
+            ApiServer.run(port, SERVER_THREADS);
+            return;
+        }
+
+        if (args.length > 0 && "--import".equals(args[0])) {
+            System.setProperty("java.awt.headless", "true");
+            BulkImporter.Kind kind = args.length > 2 ? BulkImporter.Kind.fromString(args[1]) : null;
+            if (kind == null) {
+                System.err.println("Usage: --import <courses|users|schedules|rooms> <file> [error-report.csv]");
+                System.exit(2);
+            }
+            DatabaseUtil.initializeDatabase();
+            ImportReport report = BulkImporter.importFile(kind, Path.of(args[2]),
+                    progress -> System.out.println(progress.summary()));
+            if (args.length > 3 && report.getRejected() > 0) {
+                report.writeErrorReport(Path.of(args[3]));
+                System.out.println("Rejected rows written to " + args[3]);
+            }
+            System.exit(report.getRejected() > 0 ? 1 : 0);
+        }
+
+        if (args.length > 0 && "--export".equals(args[0])) {
+            System.setProperty("java.awt.headless", "true");
+            Exporter.Dataset dataset = args.length > 3 ? Exporter.Dataset.fromString(args[1]) : null;
+            Exporter.Format format = args.length > 3 ? Exporter.Format.fromString(args[2]) : null;
+            if (dataset == null || format == null) {
+                System.err.println("Usage: --export <schedules|room-timetable|course-roster> <csv|jsonl|ics> "
+                        + "<file> [room|course-code]");
+                System.exit(2);
+            }
+            DatabaseUtil.initializeDatabase();
+            try {
+                long rows = Exporter.export(dataset, args.length > 4 ? args[4] : null, format, Path.of(args[3]),
+                        args[3].endsWith(".gz"), null);
+                System.out.println("Exported " + rows + " rows to " + args[3]);
+                System.exit(0);
+            } catch (IllegalArgumentException e) {
+                System.err.println(e.getMessage());
+                System.exit(2);
+            }
+        }
+
+        if (args.length > 1 && "--feeds".equals(args[0])) {
+            System.setProperty("java.awt.headless", "true");
+            long intervalSeconds = args.length > 2 ? Long.parseLong(args[2]) : 0;
+            DatabaseUtil.initializeDatabase();
+            try (CalendarFeeds feeds = new CalendarFeeds(Path.of(args[1]), FEED_THREADS)) {
+                do {
+                    CalendarFeeds.Result result = feeds.refresh();
+                    if (result.written > 0 || result.failed > 0) {
+                        System.out.println(result.summary());
+                    }
+                    Thread.sleep(intervalSeconds * 1000);
+                } while (intervalSeconds > 0);
+            }
+            System.exit(0);
+        }
+
+        if (args.length > 1 && "--backup".equals(args[0])) {
+            System.setProperty("java.awt.headless", "true");
+            int keep = args.length > 2 ? Integer.parseInt(args[2]) : DatabaseBackup.Policy.DEFAULT.keep;
+            DatabaseUtil.initializeDatabase();
+            DatabaseBackup.Result result = DatabaseBackup.snapshot(
+                    new DatabaseBackup.Policy(Path.of(args[1]), 0, keep));
+            System.out.println("Backed up " + result.summary());
+            System.exit(0);
+        }
+
+        if (args.length > 1 && "--restore".equals(args[0])) {
+            System.setProperty("java.awt.headless", "true");
+            // Restore before initializing, so the schema is brought up to date afterwards
+            DatabaseBackup.Result result = DatabaseBackup.restore(Path.of(args[1]));
+            System.out.println(String.format("Restored %s: %,d pages in %,d ms (%,.0f pages/s)",
+                    args[1], result.pages, result.elapsedMillis, result.getPagesPerSecond()));
+            System.out.println("Previous database saved as " + result.file);
+            DatabaseUtil.initializeDatabase();
+            System.exit(0);
+        }
+
         // Initialize database before launching the application
         DatabaseUtil.initializeDatabase();
-        
+        NotificationRetention.start(NotificationRetention.Policy.DEFAULT);
+        DatabaseBackup.start(DatabaseBackup.Policy.DEFAULT);
+        ChangeLogDAO.startPruning();
+        // The dispatcher is a daemon thread; deliver what the last actions queued before the window closes
+        Runtime.getRuntime().addShutdownHook(
+                new Thread(() -> NotificationDispatcher.flush(5000), "notification-flush"));
+
         // Launch the application
         SwingUtilities.invokeLater(() -> {
             new LoginFrame().setVisible(true);
         });
     }
-}
\ No newline at end of file
+}
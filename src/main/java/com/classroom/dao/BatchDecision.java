@@ -0,0 +1,31 @@
+package com.classroom.dao;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outcome of approving or rejecting several requests in one transaction:
+ * which were decided and why the others were left alone.
+ */
+public class BatchDecision {
+    public final String status;
+    public final List<Integer> decidedIds = new ArrayList<>();
+    public final Map<Integer, String> skipped = new LinkedHashMap<>(); // request id -> reason
+
+    public BatchDecision(String status) {
+        this.status = status;
+    }
+
+    /**
+     * One line per skipped request, for display.
+     */
+    public String describeSkipped() {
+        StringBuilder text = new StringBuilder();
+        for (Map.Entry<Integer, String> entry : skipped.entrySet()) {
+            text.append("Request ").append(entry.getKey()).append(": ").append(entry.getValue()).append('\n');
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,81 @@
+package com.classroom.dao;
+
+import com.classroom.util.DatabaseWriter;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Inserts a chunk of rows in one write. The whole chunk goes in as a single
+ * JDBC batch; if any row is refused, the chunk is retried row by row so only
+ * the bad rows are lost.
+ */
+final class BatchInsert {
+
+    /**
+     * Sets the parameters of the insert for one row.
+     */
+    interface Binder<T> {
+        void bind(PreparedStatement pstmt, T row) throws SQLException;
+    }
+
+    private BatchInsert() {
+    }
+
+    /**
+     * Insert the rows and return, for each one, null if it was inserted or
+     * the reason it was refused.
+     *
+     * @throws SQLException if the write itself failed and nothing was inserted
+     */
+    static <T> List<String> insertAll(String sql, List<T> rows, Binder<T> binder) throws SQLException {
+        if (rows.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return DatabaseWriter.write(conn -> {
+            // Nested writes run under their own savepoint, so a failed batch leaves nothing behind
+            String batchError = failure(DatabaseWriter.submit(c -> {
+                try (PreparedStatement pstmt = c.prepareStatement(sql)) {
+                    for (T row : rows) {
+                        binder.bind(pstmt, row);
+                        pstmt.addBatch();
+                    }
+                    pstmt.executeBatch();
+                }
+                return null;
+            }));
+            if (batchError == null) {
+                return new ArrayList<>(Collections.nCopies(rows.size(), (String) null));
+            }
+
+            List<String> errors = new ArrayList<>(rows.size());
+            for (T row : rows) {
+                errors.add(failure(DatabaseWriter.submit(c -> {
+                    try (PreparedStatement pstmt = c.prepareStatement(sql)) {
+                        binder.bind(pstmt, row);
+                        pstmt.executeUpdate();
+                    }
+                    return null;
+                })));
+            }
+            return errors;
+        });
+    }
+
+    private static String failure(CompletableFuture<?> nested) {
+        if (!nested.isCompletedExceptionally()) {
+            return null;
+        }
+        try {
+            nested.join();
+            return null;
+        } catch (RuntimeException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            return cause.getMessage();
+        }
+    }
+}
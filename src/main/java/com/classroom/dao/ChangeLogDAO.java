@@ -0,0 +1,242 @@
+package com.classroom.dao;
+
+import com.classroom.model.ChangeLogEntry;
+import com.classroom.monitoring.DaoQueryEvent;
+import com.classroom.monitoring.DatabaseErrorStats;
+import com.classroom.util.DatabaseUtil;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Incremental sync over the ChangeLog table.
+ *
+ * A client loads its data once, remembers {@link #getLatestSequence()}, and
+ * from then on asks only for changes after that position. Clients report how
+ * far they have applied the log with {@link #acknowledge}; entries every
+ * client has seen are removed by {@link #pruneAcknowledged()}, but never
+ * before they are an hour old, so readers that do not register (such as the
+ * timetable clash cache) can still catch up. A client whose position has
+ * already been pruned must reload fully ({@link #isResyncRequired}).
+ */
+public class ChangeLogDAO {
+    // Clients not heard from for this long no longer hold back pruning
+    private static final String CLIENT_EXPIRY = "-1 day";
+    // Entries younger than this are kept even when every registered client has seen them
+    private static final String RETENTION = "-1 hour";
+    private static final long PRUNE_INITIAL_DELAY_MS = 60_000;
+    private static final long PRUNE_INTERVAL_MS = 60_000;
+
+    private static Thread prunerThread;
+
+    /**
+     * Prune acknowledged entries every minute on a background thread, the
+     * first time a minute from now.
+     */
+    public static synchronized void startPruning() {
+        if (prunerThread != null && prunerThread.isAlive()) {
+            return;
+        }
+        prunerThread = new Thread(() -> {
+            try {
+                Thread.sleep(PRUNE_INITIAL_DELAY_MS);
+                while (true) {
+                    pruneAcknowledged();
+                    Thread.sleep(PRUNE_INTERVAL_MS);
+                }
+            } catch (InterruptedException e) {
+                // Stopped
+            }
+        }, "changelog-pruner");
+        prunerThread.setDaemon(true);
+        prunerThread.start();
+    }
+
+    public static synchronized void stopPruning() {
+        if (prunerThread != null) {
+            prunerThread.interrupt();
+            prunerThread = null;
+        }
+    }
+
+    /**
+     * Changes after the given sequence number, oldest first, optionally
+     * restricted to some tables. At most {@code limit} entries are returned;
+     * callers page by passing the last seq they received.
+     */
+    public static List<ChangeLogEntry> getChangesSince(long afterSeq, int limit, String... tables) {
+        List<ChangeLogEntry> changes = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("SELECT * FROM ChangeLog WHERE seq > ?");
+        if (tables.length > 0) {
+            sql.append(" AND table_name IN (");
+            for (int i = 0; i < tables.length; i++) {
+                sql.append(i == 0 ? "?" : ", ?");
+            }
+            sql.append(")");
+        }
+        sql.append(" ORDER BY seq LIMIT ?");
+
+        DaoQueryEvent event = DaoQueryEvent.start("ChangeLogDAO", "getChangesSince");
+
+        try (Connection conn = DatabaseUtil.getReadConnection();
+                PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+
+            int index = 1;
+            pstmt.setLong(index++, afterSeq);
+            for (String table : tables) {
+                pstmt.setString(index++, table);
+            }
+            pstmt.setInt(index, limit);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    changes.add(extractFromResultSet(rs));
+                }
+            }
+        } catch (SQLException e) {
+            event.fail(e);
+            DatabaseErrorStats.record(e);
+            e.printStackTrace();
+        }
+
+        event.finish(changes.size());
+        return changes;
+    }
+
+    /**
+     * The newest sequence number ever assigned, or 0 if nothing has changed
+     * yet. Read from sqlite_sequence so it stays correct after pruning.
+     */
+    public static long getLatestSequence() {
+        String sql = "SELECT seq FROM sqlite_sequence WHERE name = 'ChangeLog'";
+
+        try (Connection conn = DatabaseUtil.getReadConnection();
+                Statement stmt = conn.createStatement();
+                ResultSet rs = stmt.executeQuery(sql)) {
+            if (rs.next()) {
+                return rs.getLong(1);
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return 0;
+    }
+
+    /**
+     * True if entries after {@code afterSeq} have already been pruned, so the
+     * caller cannot catch up incrementally and must reload.
+     */
+    public static boolean isResyncRequired(long afterSeq) {
+        String sql = "SELECT MIN(seq) FROM ChangeLog";
+
+        try (Connection conn = DatabaseUtil.getReadConnection();
+                Statement stmt = conn.createStatement();
+                ResultSet rs = stmt.executeQuery(sql)) {
+            long oldest = rs.next() ? rs.getLong(1) : 0;
+            if (oldest == 0) {
+                // Log is empty: everything up to the latest seq was pruned
+                return afterSeq < getLatestSequence();
+            }
+            return afterSeq < oldest - 1;
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return true;
+        }
+    }
+
+    /**
+     * Record that a client has applied every change up to {@code seq}.
+     * Positions only move forward.
+     */
+    public static boolean acknowledge(String clientId, long seq) {
+        String sql = "INSERT INTO SyncClients (client_id, last_seq, last_seen) VALUES (?, ?, CURRENT_TIMESTAMP) "
+                + "ON CONFLICT(client_id) DO UPDATE SET last_seq = MAX(last_seq, excluded.last_seq), "
+                + "last_seen = CURRENT_TIMESTAMP";
+
+        try {
+            return DatabaseUtil.inImmediateTransaction(conn -> {
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    pstmt.setString(1, clientId);
+                    pstmt.setLong(2, seq);
+                    return pstmt.executeUpdate() > 0;
+                }
+            });
+        } catch (SQLException e) {
+            DatabaseErrorStats.record(e);
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * Forget a client that has shut down so it no longer holds back pruning.
+     */
+    public static boolean unregister(String clientId) {
+        try {
+            return DatabaseUtil.inImmediateTransaction(conn -> {
+                try (PreparedStatement pstmt = conn.prepareStatement("DELETE FROM SyncClients WHERE client_id = ?")) {
+                    pstmt.setString(1, clientId);
+                    return pstmt.executeUpdate() > 0;
+                }
+            });
+        } catch (SQLException e) {
+            DatabaseErrorStats.record(e);
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * Delete log entries that every live client has acknowledged and that
+     * are older than the retention window. Clients silent for longer than a
+     * day are dropped first; if they come back they will see
+     * {@link #isResyncRequired} and reload. Returns the number of entries
+     * removed, or -1 on error.
+     */
+    public static int pruneAcknowledged() {
+        try {
+            return DatabaseUtil.inImmediateTransaction(conn -> {
+                try (PreparedStatement expire = conn.prepareStatement(
+                        "DELETE FROM SyncClients WHERE last_seen < datetime('now', ?)")) {
+                    expire.setString(1, CLIENT_EXPIRY);
+                    expire.executeUpdate();
+                }
+
+                long horizon;
+                try (Statement stmt = conn.createStatement();
+                        ResultSet rs = stmt.executeQuery("SELECT COUNT(*), MIN(last_seq) FROM SyncClients")) {
+                    rs.next();
+                    // With no clients registered only the retention window applies
+                    horizon = rs.getInt(1) == 0 ? Long.MAX_VALUE : rs.getLong(2);
+                }
+
+                try (PreparedStatement prune = conn.prepareStatement(
+                        "DELETE FROM ChangeLog WHERE seq <= ? AND changed_at < datetime('now', ?)")) {
+                    prune.setLong(1, horizon);
+                    prune.setString(2, RETENTION);
+                    return prune.executeUpdate();
+                }
+            });
+        } catch (SQLException e) {
+            DatabaseErrorStats.record(e);
+            e.printStackTrace();
+            return -1;
+        }
+    }
+
+    private static ChangeLogEntry extractFromResultSet(ResultSet rs) throws SQLException {
+        ChangeLogEntry entry = new ChangeLogEntry();
+        entry.setSeq(rs.getLong("seq"));
+        entry.setTableName(rs.getString("table_name"));
+        entry.setRowId(rs.getInt("row_id"));
+        entry.setOperation(rs.getString("operation"));
+        int userId = rs.getInt("user_id");
+        entry.setUserId(rs.wasNull() ? null : userId);
+        Timestamp changedAt = rs.getTimestamp("changed_at");
+        if (changedAt != null) {
+            entry.setChangedAt(changedAt.toLocalDateTime());
+        }
+        return entry;
+    }
+}
@@ -1,11 +1,15 @@
 package com.classroom.dao;
 
 import com.classroom.model.Course;
+import com.classroom.monitoring.DatabaseErrorStats;
 import com.classroom.util.DatabaseUtil;
+import com.classroom.util.DatabaseWriter;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Data Access Object for Course-related database operations.
@@ -17,42 +21,21 @@ public class CourseDAO {
      */
     public static boolean addCourse(Course course) {
         String sql = "INSERT INTO Courses (course_name, course_code, description, credit_hours) VALUES (?, ?, ?, ?)";
-        Connection conn = null;
 
         try {
-            conn = DatabaseUtil.getConnection();
-            PreparedStatement pstmt = conn.prepareStatement(sql);
-
-            pstmt.setString(1, course.getCourseName());
-            pstmt.setString(2, course.getCourseCode());
-            pstmt.setString(3, course.getDescription());
-            pstmt.setInt(4, course.getCreditHours());
-
-            int affectedRows = pstmt.executeUpdate();
-            if (affectedRows > 0) {
-                conn.commit();
-                return true;
-            }
-            conn.rollback();
-            return false;
-        } catch (SQLException e) {
-            try {
-                if (conn != null) {
-                    conn.rollback();
+            return DatabaseWriter.write(conn -> {
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    pstmt.setString(1, course.getCourseName());
+                    pstmt.setString(2, course.getCourseCode());
+                    pstmt.setString(3, course.getDescription());
+                    pstmt.setInt(4, course.getCreditHours());
+                    return pstmt.executeUpdate() > 0;
                 }
-            } catch (SQLException ex) {
-                ex.printStackTrace();
-            }
+            });
+        } catch (SQLException e) {
+            DatabaseErrorStats.record(e);
             e.printStackTrace();
             return false;
-        } finally {
-            try {
-                if (conn != null && !conn.isClosed()) {
-                    conn.close();
-                }
-            } catch (SQLException e) {
-                e.printStackTrace();
-            }
         }
     }
 
@@ -63,7 +46,7 @@ public class CourseDAO {
         List<Course> courses = new ArrayList<>();
         String sql = "SELECT * FROM Courses";
 
-        try (Connection conn = DatabaseUtil.getConnection();
+        try (Connection conn = DatabaseUtil.getReadConnection();
                 Statement stmt = conn.createStatement();
                 ResultSet rs = stmt.executeQuery(sql)) {
 
@@ -83,7 +66,7 @@ public class CourseDAO {
     public static Course getCourseById(int courseId) {
         String sql = "SELECT * FROM Courses WHERE course_id = ?";
 
-        try (Connection conn = DatabaseUtil.getConnection();
+        try (Connection conn = DatabaseUtil.getReadConnection();
                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setInt(1, courseId);
@@ -100,6 +83,29 @@ public class CourseDAO {
         return null;
     }
 
+    /**
+     * Get course by its code, or null if there is none.
+     */
+    public static Course getCourseByCode(String courseCode) {
+        String sql = "SELECT * FROM Courses WHERE course_code = ?";
+
+        try (Connection conn = DatabaseUtil.getReadConnection();
+                PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setString(1, courseCode);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return extractCourseFromResultSet(rs);
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+
+        return null;
+    }
+
     /**
      * Get courses for a specific student.
      */
@@ -109,7 +115,7 @@ public class CourseDAO {
                 "JOIN Enrollments e ON c.course_id = e.course_id " +
                 "WHERE e.student_id = ?";
 
-        try (Connection conn = DatabaseUtil.getConnection();
+        try (Connection conn = DatabaseUtil.getReadConnection();
                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setInt(1, studentId);
@@ -136,7 +142,7 @@ public class CourseDAO {
                 "WHERE s.room = ? " +
                 "ORDER BY c.course_code";
 
-        try (Connection conn = DatabaseUtil.getConnection();
+        try (Connection conn = DatabaseUtil.getReadConnection();
                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setString(1, room);
@@ -166,7 +172,7 @@ public class CourseDAO {
 
         System.out.println("Searching for courses with room: " + room + ", program type: " + programType);
 
-        try (Connection conn = DatabaseUtil.getConnection();
+        try (Connection conn = DatabaseUtil.getReadConnection();
                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setString(1, room);
@@ -202,6 +208,47 @@ public class CourseDAO {
         return courses;
     }
 
+    /**
+     * Insert many courses in one write. Returns, for each course, null if it
+     * was inserted or the reason it was refused; or null if the write failed.
+     */
+    public static List<String> insertCourses(List<Course> courses) {
+        String sql = "INSERT INTO Courses (course_name, course_code, description, credit_hours) VALUES (?, ?, ?, ?)";
+        try {
+            return BatchInsert.insertAll(sql, courses, (pstmt, course) -> {
+                pstmt.setString(1, course.getCourseName());
+                pstmt.setString(2, course.getCourseCode());
+                pstmt.setString(3, course.getDescription());
+                pstmt.setInt(4, course.getCreditHours());
+            });
+        } catch (SQLException e) {
+            DatabaseErrorStats.record(e);
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Map every course code to its course id.
+     */
+    public static Map<String, Integer> getCourseIdsByCode() {
+        Map<String, Integer> ids = new HashMap<>();
+        String sql = "SELECT course_id, course_code FROM Courses";
+
+        try (Connection conn = DatabaseUtil.getReadConnection();
+                Statement stmt = conn.createStatement();
+                ResultSet rs = stmt.executeQuery(sql)) {
+
+            while (rs.next()) {
+                ids.put(rs.getString("course_code"), rs.getInt("course_id"));
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+
+        return ids;
+    }
+
     /**
      * Helper method to create a Course object from ResultSet.
      */
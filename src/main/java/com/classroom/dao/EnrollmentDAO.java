@@ -1,15 +1,74 @@
 package com.classroom.dao;
 
+import com.classroom.monitoring.DatabaseErrorStats;
+import com.classroom.monitoring.EnrollmentEvent;
+import com.classroom.monitoring.TransactionEvent;
 import com.classroom.util.DatabaseUtil;
+import com.classroom.util.DatabaseWriter;
 
 import java.sql.*;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
 
 /**
  * Data Access Object for Enrollment-related database operations.
  */
 public class EnrollmentDAO {
 
+    /**
+     * What a bulk enrollment did (or, for a dry run, would do) for one student.
+     */
+    public static class StudentEnrollment {
+        public final int studentId;
+        public final String studentName;
+        public final List<Integer> enrolledCourseIds = new ArrayList<>();
+        public final List<Integer> alreadyEnrolledCourseIds = new ArrayList<>();
+        public final List<Integer> clashingCourseIds = new ArrayList<>();
+
+        StudentEnrollment(int studentId, String studentName) {
+            this.studentId = studentId;
+            this.studentName = studentName;
+        }
+    }
+
+    /**
+     * Outcome of {@link #enrollRoom(String, String, boolean)}.
+     */
+    public static class BulkEnrollmentResult {
+        public final String room;
+        public final boolean dryRun;
+        public final List<StudentEnrollment> students;
+        public final int enrolledCount;
+
+        BulkEnrollmentResult(String room, boolean dryRun, List<StudentEnrollment> students) {
+            this.room = room;
+            this.dryRun = dryRun;
+            this.students = students;
+            this.enrolledCount = students.stream().mapToInt(s -> s.enrolledCourseIds.size()).sum();
+        }
+    }
+
+    // Students of a room paired with every course scheduled there for their program type
+    private static final String ROOM_COHORT_SQL = "SELECT DISTINCT u.user_id, u.full_name, s.course_id " +
+            "FROM Users u " +
+            "LEFT JOIN Schedule s ON s.room = u.assigned_room AND UPPER(s.program_type) = UPPER(u.program_type) " +
+            "WHERE u.user_type = 'student' AND u.assigned_room = ? " +
+            "AND (? IS NULL OR UPPER(u.program_type) = UPPER(?))";
+
+    // True when course c.course_id overlaps another course student c.user_id is enrolled in
+    private static final String CLASH_SQL = "EXISTS (SELECT 1 FROM Schedule n " +
+            "JOIN Schedule o ON o.day_of_week = n.day_of_week " +
+            "AND o.start_time < n.end_time AND o.end_time > n.start_time " +
+            "JOIN Enrollments x ON x.course_id = o.course_id AND x.student_id = c.user_id " +
+            "WHERE n.course_id = c.course_id AND o.course_id != c.course_id)";
+
     /**
      * Enroll a student in a course.
      * Returns:
@@ -18,86 +77,218 @@ public class EnrollmentDAO {
      * -1 - No assigned room
      * -2 - Course not available in assigned room
      * -3 - Database error
+     * -4 - Course meets at the same time as one the student already takes
      */
     public static int enrollStudent(int studentId, int courseId) {
-        Connection conn = null;
         try {
-            conn = DatabaseUtil.getConnection();
+            return enrollStudentAsync(studentId, courseId).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return -3;
+        } catch (ExecutionException e) {
+            e.printStackTrace();
+            return -3;
+        }
+    }
 
-            // Check if already enrolled
-            String checkSql = "SELECT COUNT(*) FROM Enrollments WHERE student_id = ? AND course_id = ?";
-            PreparedStatement checkStmt = conn.prepareStatement(checkSql);
+    /**
+     * Queue an enrollment on the database writer. The checks and the insert
+     * run in one write transaction, grouped with other pending writes; the
+     * future completes with the same codes as {@link #enrollStudent(int, int)}
+     * once it has committed.
+     */
+    public static CompletableFuture<Integer> enrollStudentAsync(int studentId, int courseId) {
+        EnrollmentEvent event = new EnrollmentEvent();
+        event.begin();
+
+        return DatabaseWriter.submit(conn -> enrollStudent(conn, studentId, courseId, event))
+                .exceptionally(failure -> {
+                    Throwable cause = failure instanceof CompletionException ? failure.getCause() : failure;
+                    if (cause instanceof SQLException) {
+                        DatabaseErrorStats.record((SQLException) cause);
+                    }
+                    cause.printStackTrace();
+                    return -3; // Database error
+                })
+                .thenApply(result -> {
+                    event.studentId = studentId;
+                    event.courseId = courseId;
+                    event.resultCode = result;
+                    event.outcome = describeResult(result);
+                    event.commit();
+                    return result;
+                });
+    }
+
+    private static int enrollStudent(Connection conn, int studentId, int courseId, EnrollmentEvent event)
+            throws SQLException {
+        // Check if already enrolled
+        String checkSql = "SELECT COUNT(*) FROM Enrollments WHERE student_id = ? AND course_id = ?";
+        try (PreparedStatement checkStmt = conn.prepareStatement(checkSql)) {
             checkStmt.setInt(1, studentId);
             checkStmt.setInt(2, courseId);
-            ResultSet checkRs = checkStmt.executeQuery();
-            if (checkRs.next() && checkRs.getInt(1) > 0) {
-                return 0; // Already enrolled
+            try (ResultSet checkRs = checkStmt.executeQuery()) {
+                if (checkRs.next() && checkRs.getInt(1) > 0) {
+                    return 0; // Already enrolled
+                }
             }
+        }
 
-            // Get student's assigned room
-            String roomSql = "SELECT assigned_room FROM Users WHERE user_id = ? AND user_type = 'student'";
-            PreparedStatement roomStmt = conn.prepareStatement(roomSql);
+        // Get student's assigned room
+        String assignedRoom;
+        String roomSql = "SELECT assigned_room FROM Users WHERE user_id = ? AND user_type = 'student'";
+        try (PreparedStatement roomStmt = conn.prepareStatement(roomSql)) {
             roomStmt.setInt(1, studentId);
-            ResultSet rs = roomStmt.executeQuery();
-
-            if (!rs.next() || rs.getString("assigned_room") == null) {
-                return -1; // Student has no assigned room
+            try (ResultSet rs = roomStmt.executeQuery()) {
+                if (!rs.next() || rs.getString("assigned_room") == null) {
+                    return -1; // Student has no assigned room
+                }
+                assignedRoom = rs.getString("assigned_room");
             }
+        }
+        event.room = assignedRoom;
 
-            String assignedRoom = rs.getString("assigned_room");
-
-            // Check if course is available in the assigned room with case-insensitive
-            // program type comparison
-            String courseSql = "SELECT COUNT(*) FROM Schedule s " +
-                    "WHERE s.course_id = ? AND s.room = ? " +
-                    "AND EXISTS (SELECT 1 FROM Users u " +
-                    "           WHERE u.user_id = ? " +
-                    "           AND UPPER(u.program_type) = UPPER(s.program_type))";
-            PreparedStatement courseStmt = conn.prepareStatement(courseSql);
+        // Check if course is available in the assigned room with case-insensitive
+        // program type comparison
+        String courseSql = "SELECT COUNT(*) FROM Schedule s " +
+                "WHERE s.course_id = ? AND s.room = ? " +
+                "AND EXISTS (SELECT 1 FROM Users u " +
+                "           WHERE u.user_id = ? " +
+                "           AND UPPER(u.program_type) = UPPER(s.program_type))";
+        try (PreparedStatement courseStmt = conn.prepareStatement(courseSql)) {
             courseStmt.setInt(1, courseId);
             courseStmt.setString(2, assignedRoom);
             courseStmt.setInt(3, studentId);
-            ResultSet courseRs = courseStmt.executeQuery();
-
-            if (!courseRs.next() || courseRs.getInt(1) == 0) {
-                return -2; // Course not available in student's room or program type mismatch
+            try (ResultSet courseRs = courseStmt.executeQuery()) {
+                if (!courseRs.next() || courseRs.getInt(1) == 0) {
+                    return -2; // Course not available in student's room or program type mismatch
+                }
             }
+        }
+
+        if (TimetableClashDAO.wouldClash(conn, studentId, courseId)) {
+            return -4; // Overlaps a course the student is already enrolled in
+        }
 
-            // Proceed with enrollment
-            String enrollSql = "INSERT INTO Enrollments (student_id, course_id, enrollment_date) VALUES (?, ?, ?)";
-            PreparedStatement enrollStmt = conn.prepareStatement(enrollSql);
+        // Proceed with enrollment
+        String enrollSql = "INSERT INTO Enrollments (student_id, course_id, enrollment_date) VALUES (?, ?, ?)";
+        try (PreparedStatement enrollStmt = conn.prepareStatement(enrollSql)) {
             enrollStmt.setInt(1, studentId);
             enrollStmt.setInt(2, courseId);
             enrollStmt.setString(3, LocalDate.now().toString());
+            return enrollStmt.executeUpdate() > 0 ? 1 : -3;
+        }
+    }
+
+    /**
+     * Enroll every student assigned to a room in all courses scheduled for
+     * that room and the student's program type. With a program type only that
+     * cohort is enrolled. Existing enrollments are left alone, and courses
+     * that would clash with a student's current timetable are skipped.
+     *
+     * The enrollments are written by a single INSERT OR IGNORE ... SELECT in
+     * one transaction, and the per-student preview is read in the same
+     * transaction, so it matches what was inserted. A dry run only reads.
+     * Returns null on a database error.
+     */
+    public static BulkEnrollmentResult enrollRoom(String room, String programType, boolean dryRun) {
+        TransactionEvent txEvent = TransactionEvent.start("EnrollmentDAO", dryRun ? "enrollRoomDryRun" : "enrollRoom");
+        txEvent.room = room;
 
-            int affectedRows = enrollStmt.executeUpdate();
-            if (affectedRows > 0) {
-                conn.commit();
-                return 1; // Success
+        try {
+            BulkEnrollmentResult result;
+            if (dryRun) {
+                try (Connection conn = DatabaseUtil.getReadConnection()) {
+                    result = new BulkEnrollmentResult(room, true, previewRoomEnrollment(conn, room, programType));
+                }
+                txEvent.rolledBack();
+                return result;
             }
 
-            conn.rollback();
-            return -3; // Database error
+            result = DatabaseWriter.write(conn -> {
+                List<StudentEnrollment> students = previewRoomEnrollment(conn, room, programType);
 
+                String sql = "INSERT OR IGNORE INTO Enrollments (student_id, course_id, enrollment_date) " +
+                        "SELECT c.user_id, c.course_id, ? FROM (" + ROOM_COHORT_SQL + ") c " +
+                        "WHERE c.course_id IS NOT NULL AND NOT " + CLASH_SQL;
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    pstmt.setString(1, LocalDate.now().toString());
+                    bindCohort(pstmt, 2, room, programType);
+                    pstmt.executeUpdate();
+                }
+                return new BulkEnrollmentResult(room, false, students);
+            });
+            txEvent.committed(result.enrolledCount);
+            return result;
         } catch (SQLException e) {
+            txEvent.failed(e);
+            DatabaseErrorStats.record(e);
             e.printStackTrace();
-            if (conn != null) {
-                try {
-                    conn.rollback();
-                } catch (SQLException ex) {
-                    ex.printStackTrace();
-                }
-            }
-            return -3; // Database error
-        } finally {
-            if (conn != null) {
-                try {
-                    conn.close();
-                } catch (SQLException e) {
-                    e.printStackTrace();
+            return null;
+        }
+    }
+
+    private static List<StudentEnrollment> previewRoomEnrollment(Connection conn, String room, String programType)
+            throws SQLException {
+        String sql = "SELECT c.user_id, c.full_name, c.course_id, e.enrollment_id IS NOT NULL AS enrolled, " +
+                CLASH_SQL + " AS clash " +
+                "FROM (" + ROOM_COHORT_SQL + ") c " +
+                "LEFT JOIN Enrollments e ON e.student_id = c.user_id AND e.course_id = c.course_id " +
+                "ORDER BY c.full_name, c.user_id, c.course_id";
+
+        Map<Integer, StudentEnrollment> students = new LinkedHashMap<>();
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            bindCohort(pstmt, 1, room, programType);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    int studentId = rs.getInt("user_id");
+                    StudentEnrollment student = students.get(studentId);
+                    if (student == null) {
+                        student = new StudentEnrollment(studentId, rs.getString("full_name"));
+                        students.put(studentId, student);
+                    }
+                    int courseId = rs.getInt("course_id");
+                    if (rs.wasNull()) {
+                        continue; // No courses for this student's program type
+                    }
+                    if (rs.getBoolean("enrolled")) {
+                        student.alreadyEnrolledCourseIds.add(courseId);
+                    } else if (rs.getBoolean("clash")) {
+                        student.clashingCourseIds.add(courseId);
+                    } else {
+                        student.enrolledCourseIds.add(courseId);
+                    }
                 }
             }
         }
+        return new ArrayList<>(students.values());
+    }
+
+    private static void bindCohort(PreparedStatement pstmt, int first, String room, String programType)
+            throws SQLException {
+        pstmt.setString(first, room);
+        pstmt.setString(first + 1, programType);
+        pstmt.setString(first + 2, programType);
+    }
+
+    /**
+     * Describe an {@link #enrollStudent(int, int)} result code.
+     */
+    public static String describeResult(int result) {
+        switch (result) {
+            case 1:
+                return "enrolled";
+            case 0:
+                return "already_enrolled";
+            case -1:
+                return "no_assigned_room";
+            case -2:
+                return "course_not_in_room";
+            case -4:
+                return "timetable_clash";
+            default:
+                return "error";
+        }
     }
 
     /**
@@ -106,16 +297,16 @@ public class EnrollmentDAO {
     public static boolean unenrollStudent(int studentId, int courseId) {
         String sql = "DELETE FROM Enrollments WHERE student_id = ? AND course_id = ?";
 
-        try (Connection conn = DatabaseUtil.getConnection();
-                PreparedStatement pstmt = conn.prepareStatement(sql)) {
-
-            pstmt.setInt(1, studentId);
-            pstmt.setInt(2, courseId);
-
-            int affectedRows = pstmt.executeUpdate();
-            return affectedRows > 0;
-
+        try {
+            return DatabaseWriter.write(conn -> {
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    pstmt.setInt(1, studentId);
+                    pstmt.setInt(2, courseId);
+                    return pstmt.executeUpdate() > 0;
+                }
+            });
         } catch (SQLException e) {
+            DatabaseErrorStats.record(e);
             e.printStackTrace();
             return false;
         }
@@ -127,7 +318,7 @@ public class EnrollmentDAO {
     public static boolean isStudentEnrolled(int studentId, int courseId) {
         String sql = "SELECT COUNT(*) FROM Enrollments WHERE student_id = ? AND course_id = ?";
 
-        try (Connection conn = DatabaseUtil.getConnection();
+        try (Connection conn = DatabaseUtil.getReadConnection();
                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setInt(1, studentId);
@@ -151,7 +342,7 @@ public class EnrollmentDAO {
     public static int getEnrollmentCount(int courseId) {
         String sql = "SELECT COUNT(*) FROM Enrollments WHERE course_id = ?";
 
-        try (Connection conn = DatabaseUtil.getConnection();
+        try (Connection conn = DatabaseUtil.getReadConnection();
                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setInt(1, courseId);
@@ -167,4 +358,26 @@ public class EnrollmentDAO {
 
         return 0;
     }
-}
\ No newline at end of file
+
+    /**
+     * Every enrollment as student id to the ids of their courses.
+     */
+    public static Map<Integer, List<Integer>> getCourseIdsByStudent() {
+        Map<Integer, List<Integer>> courses = new HashMap<>();
+        String sql = "SELECT student_id, course_id FROM Enrollments";
+
+        try (Connection conn = DatabaseUtil.getReadConnection();
+                Statement stmt = conn.createStatement();
+                ResultSet rs = stmt.executeQuery(sql)) {
+
+            while (rs.next()) {
+                courses.computeIfAbsent(rs.getInt("student_id"), k -> new ArrayList<>()).add(rs.getInt("course_id"));
+            }
+        } catch (SQLException e) {
+            DatabaseErrorStats.record(e);
+            e.printStackTrace();
+        }
+
+        return courses;
+    }
+}
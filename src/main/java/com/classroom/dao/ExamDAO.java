@@ -0,0 +1,196 @@
+package com.classroom.dao;
+
+import com.classroom.model.ExamSlot;
+import com.classroom.model.ProgramType;
+import com.classroom.monitoring.DatabaseErrorStats;
+import com.classroom.monitoring.TransactionEvent;
+import com.classroom.util.DatabaseUtil;
+import com.classroom.util.DatabaseWriter;
+import com.classroom.util.ExamTimetabler;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Data Access Object for the exam timetable (ExamSlots table).
+ */
+public class ExamDAO {
+    // A catalogued room of unknown capacity seats at least this many or its assigned cohort
+    private static final int DEFAULT_ROOM_CAPACITY = 40;
+    private static final int RESTARTS = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+
+    /**
+     * Build the conflict graph from current enrollments, color it into exam
+     * periods and replace the stored exam timetable with the result.
+     * Returns null on a database error.
+     */
+    public static ExamTimetabler.Result generateExamTimetable() {
+        ExamTimetabler timetabler;
+        try (Connection conn = DatabaseUtil.getReadConnection();
+                Statement stmt = conn.createStatement()) {
+            // One snapshot for rooms, programs and enrollments
+            stmt.execute("BEGIN");
+            try {
+                timetabler = new ExamTimetabler(getRoomCapacities(stmt));
+                loadCourses(stmt, timetabler);
+                loadEnrollments(stmt, timetabler);
+            } finally {
+                stmt.execute("COMMIT");
+            }
+        } catch (SQLException e) {
+            DatabaseErrorStats.record(e);
+            e.printStackTrace();
+            return null;
+        }
+
+        ExamTimetabler.Result result = timetabler.solve(RESTARTS);
+        return saveExamSlots(result.slots) ? result : null;
+    }
+
+    /**
+     * Seats per catalogued room, for each program the room is open to.
+     */
+    private static EnumMap<ProgramType, Map<String, Integer>> getRoomCapacities(Statement stmt) throws SQLException {
+        String sql = "SELECT r.name, r.capacity, r.regular_program, r.evening_program, COUNT(u.user_id) AS students " +
+                "FROM Rooms r LEFT JOIN users u ON u.room_id = r.room_id AND u.user_type = 'student' " +
+                "GROUP BY r.room_id ORDER BY r.name";
+        EnumMap<ProgramType, Map<String, Integer>> capacities = new EnumMap<>(ProgramType.class);
+        for (ProgramType program : ProgramType.values()) {
+            capacities.put(program, new LinkedHashMap<>());
+        }
+        try (ResultSet rs = stmt.executeQuery(sql)) {
+            while (rs.next()) {
+                int capacity = rs.getInt("capacity");
+                if (capacity <= 0) {
+                    capacity = Math.max(DEFAULT_ROOM_CAPACITY, rs.getInt("students"));
+                }
+                if (rs.getBoolean("regular_program")) {
+                    capacities.get(ProgramType.REGULAR).put(rs.getString("name"), capacity);
+                }
+                if (rs.getBoolean("evening_program")) {
+                    capacities.get(ProgramType.EVENING).put(rs.getString("name"), capacity);
+                }
+            }
+        }
+        return capacities;
+    }
+
+    private static void loadCourses(Statement stmt, ExamTimetabler timetabler) throws SQLException {
+        // A course's exam follows the program it is mostly scheduled for
+        String sql = "SELECT course_id, program_type, COUNT(*) AS meetings FROM Schedule " +
+                "GROUP BY course_id, program_type ORDER BY course_id, meetings ASC";
+        try (ResultSet rs = stmt.executeQuery(sql)) {
+            while (rs.next()) {
+                timetabler.addCourse(rs.getInt("course_id"), ProgramType.fromString(rs.getString("program_type")));
+            }
+        }
+    }
+
+    private static void loadEnrollments(Statement stmt, ExamTimetabler timetabler) throws SQLException {
+        String sql = "SELECT student_id, course_id FROM Enrollments ORDER BY student_id";
+        List<Integer> courses = new ArrayList<>();
+        int currentStudent = -1;
+        try (ResultSet rs = stmt.executeQuery(sql)) {
+            while (rs.next()) {
+                int studentId = rs.getInt("student_id");
+                if (studentId != currentStudent && !courses.isEmpty()) {
+                    timetabler.addStudent(courses.stream().mapToInt(Integer::intValue).toArray());
+                    courses.clear();
+                }
+                currentStudent = studentId;
+                courses.add(rs.getInt("course_id"));
+            }
+        }
+        if (!courses.isEmpty()) {
+            timetabler.addStudent(courses.stream().mapToInt(Integer::intValue).toArray());
+        }
+    }
+
+    private static boolean saveExamSlots(List<ExamSlot> slots) {
+        TransactionEvent txEvent = TransactionEvent.start("ExamDAO", "saveExamSlots");
+        String sql = "INSERT INTO ExamSlots (course_id, program_type, period, exam_day, day_of_week, " +
+                "start_time, end_time, room, students) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        try {
+            DatabaseWriter.write(conn -> {
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.execute("DELETE FROM ExamSlots");
+                }
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    for (ExamSlot slot : slots) {
+                        pstmt.setInt(1, slot.getCourseId());
+                        pstmt.setString(2, slot.getProgramType());
+                        pstmt.setInt(3, slot.getPeriod());
+                        pstmt.setInt(4, slot.getExamDay());
+                        pstmt.setString(5, slot.getDayOfWeek());
+                        pstmt.setString(6, slot.getStartTime());
+                        pstmt.setString(7, slot.getEndTime());
+                        pstmt.setString(8, slot.getRoom());
+                        pstmt.setInt(9, slot.getStudents());
+                        pstmt.addBatch();
+                    }
+                    pstmt.executeBatch();
+                }
+                return null;
+            });
+            txEvent.committed(slots.size());
+            return true;
+        } catch (SQLException e) {
+            txEvent.failed(e);
+            DatabaseErrorStats.record(e);
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * The stored exam timetable, optionally for one program type.
+     */
+    public static List<ExamSlot> getExamSlots(String programType) {
+        String sql = "SELECT x.*, c.course_code, c.course_name FROM ExamSlots x " +
+                "JOIN Courses c ON x.course_id = c.course_id " +
+                "WHERE (? IS NULL OR x.program_type = ?) " +
+                "ORDER BY x.program_type, x.period, c.course_code, x.room";
+        return queryExamSlots(sql, programType, programType);
+    }
+
+    /**
+     * The exams of the courses a student is enrolled in.
+     */
+    public static List<ExamSlot> getExamSlotsForStudent(int studentId) {
+        String sql = "SELECT x.*, c.course_code, c.course_name FROM ExamSlots x " +
+                "JOIN Courses c ON x.course_id = c.course_id " +
+                "JOIN Enrollments e ON e.course_id = x.course_id AND e.student_id = ? " +
+                "ORDER BY x.program_type, x.period, c.course_code, x.room";
+        return queryExamSlots(sql, studentId);
+    }
+
+    private static List<ExamSlot> queryExamSlots(String sql, Object... params) {
+        List<ExamSlot> slots = new ArrayList<>();
+        try (Connection conn = DatabaseUtil.getReadConnection();
+                PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            for (int i = 0; i < params.length; i++) {
+                pstmt.setObject(i + 1, params[i]);
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    ExamSlot slot = new ExamSlot(rs.getInt("course_id"), rs.getString("program_type"),
+                            rs.getInt("period"), rs.getInt("exam_day"), rs.getString("day_of_week"),
+                            rs.getString("start_time"), rs.getString("end_time"), rs.getString("room"),
+                            rs.getInt("students"));
+                    slot.setExamId(rs.getInt("exam_id"));
+                    slot.setCourseCode(rs.getString("course_code"));
+                    slot.setCourseName(rs.getString("course_name"));
+                    slots.add(slot);
+                }
+            }
+        } catch (SQLException e) {
+            DatabaseErrorStats.record(e);
+            e.printStackTrace();
+        }
+        return slots;
+    }
+}
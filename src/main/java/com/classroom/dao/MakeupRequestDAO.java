@@ -1,143 +1,415 @@
 package com.classroom.dao;
 
+import com.classroom.model.ClassMeeting;
 import com.classroom.model.MakeupRequest;
+import com.classroom.model.MakeupSlot;
 import com.classroom.model.Notification;
+import com.classroom.model.ProgramType;
+import com.classroom.model.Term;
+import com.classroom.model.TimeOfDay;
+import com.classroom.monitoring.DatabaseErrorStats;
 import com.classroom.util.DatabaseUtil;
+import com.classroom.util.DatabaseWriter;
+import com.classroom.util.MakeupAvailability;
+import com.classroom.util.TimeSlotUtil;
 import java.sql.*;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 public class MakeupRequestDAO {
+    // A makeup replaces one class period
+    public static final int MAKEUP_MINUTES = TimeSlotUtil.PERIOD_DURATION_MINUTES;
 
+    /**
+     * Create a pending request, unless the room or instructor is already busy
+     * then (see {@link #findConflict}).
+     */
     public static boolean createMakeupRequest(MakeupRequest request) {
         String sql = """
                     INSERT INTO MakeupRequests (room, course_id, rep_id, instructor_id, requested_date,
                     requested_time, status) VALUES (?, ?, ?, ?, ?, ?, 'Pending')
                 """;
 
-        Connection conn = null;
         try {
-            conn = DatabaseUtil.getConnection();
-
-            // Insert the makeup request
-            PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
-            pstmt.setString(1, request.getRoom());
-            pstmt.setInt(2, request.getCourseId());
-            pstmt.setInt(3, request.getRepId());
-            pstmt.setInt(4, request.getInstructorId());
-            pstmt.setDate(5, Date.valueOf(request.getRequestedDate()));
-            pstmt.setString(6, request.getRequestedTime());
-
-            int affectedRows = pstmt.executeUpdate();
-
-            if (affectedRows > 0) {
-                // Get the generated request ID
-                ResultSet rs = pstmt.getGeneratedKeys();
-                if (rs.next()) {
+            return DatabaseWriter.write(conn -> {
+                if (findConflict(conn, request) != null) {
+                    return false;
+                }
 
-                    // Create notification for instructor
-                    String notificationMessage = String.format(
-                            "New makeup class request for %s on %s at %s",
-                            request.getCourseCode(),
-                            request.getRequestedDate(),
-                            request.getRequestedTime());
-
-                    Notification notification = new Notification(
-                            request.getInstructorId(),
-                            notificationMessage,
-                            "MakeupRequest");
-
-                    NotificationDAO.createNotification(notification);
-                    conn.commit();
-                    return true;
+                // Insert the makeup request
+                try (PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                    pstmt.setString(1, request.getRoom());
+                    pstmt.setInt(2, request.getCourseId());
+                    pstmt.setInt(3, request.getRepId());
+                    pstmt.setInt(4, request.getInstructorId());
+                    pstmt.setDate(5, Date.valueOf(request.getRequestedDate()));
+                    pstmt.setString(6, request.getRequestedTime());
+
+                    if (pstmt.executeUpdate() == 0) {
+                        return false;
+                    }
+                    try (ResultSet rs = pstmt.getGeneratedKeys()) {
+                        if (!rs.next()) {
+                            return false;
+                        }
+                        request.setRequestId(rs.getInt(1));
+                    }
                 }
-            }
 
-            conn.rollback();
-            return false;
+                // Create notification for instructor in the same transaction
+                String notificationMessage = String.format(
+                        "New makeup class request for %s on %s at %s",
+                        request.getCourseCode(),
+                        request.getRequestedDate(),
+                        request.getRequestedTime());
+
+                Notification notification = new Notification(
+                        request.getInstructorId(),
+                        notificationMessage,
+                        "MakeupRequest");
 
+                return NotificationDAO.insertNotification(conn, notification);
+            });
         } catch (SQLException e) {
+            DatabaseErrorStats.record(e);
             e.printStackTrace();
-            if (conn != null) {
-                try {
-                    conn.rollback();
-                } catch (SQLException ex) {
-                    ex.printStackTrace();
-                }
-            }
             return false;
-        } finally {
-            try {
-                if (conn != null) {
-                    conn.close();
-                }
-            } catch (SQLException e) {
-                e.printStackTrace();
-            }
         }
     }
 
     public static boolean updateRequestStatus(int requestId, String status) {
-        String sql = "UPDATE MakeupRequests SET status = ?, updated_at = CURRENT_TIMESTAMP WHERE request_id = ?";
+        BatchDecision decision = decideRequests(List.of(requestId), status);
+        return decision != null && !decision.decidedIds.isEmpty();
+    }
 
-        Connection conn = null;
-        try {
-            conn = DatabaseUtil.getConnection();
+    /**
+     * Queue a decision on a pending request. The status change and the
+     * notification to the representative commit together; the future
+     * completes with false if the request no longer exists or was already
+     * decided.
+     */
+    public static CompletableFuture<Boolean> updateRequestStatusAsync(int requestId, String status) {
+        String sql = "UPDATE MakeupRequests SET status = ?, updated_at = CURRENT_TIMESTAMP, version = version + 1 "
+                + "WHERE request_id = ? AND status = 'Pending'"; // Only one reviewer can decide a request
+
+        // Get request details first
+        MakeupRequest request = getMakeupRequestById(requestId);
+        if (request == null) {
+            return CompletableFuture.completedFuture(false);
+        }
 
-            // Get request details first
-            MakeupRequest request = getMakeupRequestById(requestId);
-            if (request == null) {
+        return DatabaseWriter.submit(conn -> {
+            // Another makeup may have been approved for the same time since this one was requested
+            if ("Approved".equals(status) && findConflict(conn, request) != null) {
                 return false;
             }
 
             // Update the status
-            PreparedStatement pstmt = conn.prepareStatement(sql);
-            pstmt.setString(1, status);
-            pstmt.setInt(2, requestId);
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setString(1, status);
+                pstmt.setInt(2, requestId);
+                if (pstmt.executeUpdate() == 0) {
+                    return false;
+                }
+            }
 
-            int affectedRows = pstmt.executeUpdate();
+            // Create notification for rep
+            String notificationMessage = String.format(
+                    "Your makeup class request for %s on %s at %s has been %s",
+                    request.getCourseCode(),
+                    request.getRequestedDate(),
+                    request.getRequestedTime(),
+                    status.toLowerCase());
+
+            Notification notification = new Notification(
+                    request.getRepId(),
+                    notificationMessage,
+                    "Approved".equals(status) ? "MakeupApproval" : "MakeupDisapproval");
+
+            return NotificationDAO.insertNotification(conn, notification);
+        });
+    }
 
-            if (affectedRows > 0) {
-                // Create notification for rep
-                String notificationMessage = String.format(
-                        "Your makeup class request for %s on %s at %s has been %s",
-                        request.getCourseCode(),
-                        request.getRequestedDate(),
-                        request.getRequestedTime(),
-                        status.toLowerCase());
+    /**
+     * Why the requested makeup cannot take place, or null if it can. The room
+     * and the instructor must both be free of class meetings and approved
+     * makeups, and the date must be today or later and not a holiday.
+     */
+    public static String findConflict(MakeupRequest request) {
+        try (Connection conn = DatabaseUtil.getReadConnection();
+                Statement snapshot = conn.createStatement()) {
+            snapshot.execute("BEGIN");
+            try {
+                return findConflict(conn, request);
+            } finally {
+                snapshot.execute("COMMIT");
+            }
+        } catch (SQLException e) {
+            DatabaseErrorStats.record(e);
+            e.printStackTrace();
+            return "Availability could not be checked";
+        }
+    }
 
-                Notification notification = new Notification(
-                        request.getRepId(),
-                        notificationMessage,
-                        "Makeup" + status);
+    private static String findConflict(Connection conn, MakeupRequest request) throws SQLException {
+        String invalid = checkDateAndTime(request);
+        if (invalid != null) {
+            return invalid;
+        }
+        LocalDate date = request.getRequestedDate();
+        int start = TimeOfDay.parse(request.getRequestedTime());
+        MakeupAvailability availability = loadAvailability(conn, request.getRoom(), request.getInstructorId(),
+                request.getRequestId(), date, date);
+        return availability.conflict(date, start, start + MAKEUP_MINUTES);
+    }
 
-                NotificationDAO.createNotification(notification);
-                conn.commit();
-                return true;
-            }
+    private static String checkDateAndTime(MakeupRequest request) {
+        LocalDate date = request.getRequestedDate();
+        if (date.isBefore(LocalDate.now())) {
+            return date + " is in the past";
+        }
+        if (request.getRequestedTime() == null) {
+            return "A time is required";
+        }
+        if (TimeOfDay.parse(request.getRequestedTime()) == TimeOfDay.UNSET) {
+            return request.getRequestedTime() + " is not a valid time";
+        }
+        return null;
+    }
 
-            conn.rollback();
-            return false;
+    /**
+     * Approve or disapprove several pending requests in one transaction. The
+     * requests are loaded with one query, updated with one batched statement
+     * and their representatives notified with one batched insert. Requests
+     * that are gone, already decided or, when approving, clash with a class,
+     * an approved makeup or an earlier request in the same batch are skipped.
+     * Returns null on a database error.
+     */
+    public static BatchDecision decideRequests(List<Integer> requestIds, String status) {
+        String update = "UPDATE MakeupRequests SET status = ?, updated_at = CURRENT_TIMESTAMP, version = version + 1 "
+                + "WHERE request_id = ? AND status = 'Pending'";
+        boolean approving = "Approved".equals(status);
+        List<MakeupRequest> accepted = new ArrayList<>();
+
+        try {
+            BatchDecision result = DatabaseWriter.write(conn -> {
+                // The writer reruns the work if the transaction hits a busy lock
+                accepted.clear();
+                BatchDecision decision = new BatchDecision(status);
+                Map<Integer, MakeupRequest> loaded = getMakeupRequestsByIds(conn, requestIds);
+                List<AvailabilityGroup> groups = new ArrayList<>();
+                LocalDate first = null;
+                LocalDate last = null;
+                for (MakeupRequest request : loaded.values()) {
+                    LocalDate date = request.getRequestedDate();
+                    first = first == null || date.isBefore(first) ? date : first;
+                    last = last == null || date.isAfter(last) ? date : last;
+                }
+
+                for (int requestId : new LinkedHashSet<>(requestIds)) {
+                    MakeupRequest request = loaded.get(requestId);
+                    if (request == null) {
+                        decision.skipped.put(requestId, "not found");
+                        continue;
+                    }
+                    if (!"Pending".equals(request.getStatus())) {
+                        decision.skipped.put(requestId, "already " + request.getStatus().toLowerCase());
+                        continue;
+                    }
+                    if (approving) {
+                        String conflict = checkDateAndTime(request);
+                        if (conflict == null) {
+                            AvailabilityGroup group = findGroup(groups, request);
+                            if (group == null) {
+                                // One availability load per room and instructor pair covers the whole batch
+                                group = new AvailabilityGroup(request.getRoom(), request.getInstructorId(),
+                                        loadAvailability(conn, request.getRoom(), request.getInstructorId(), 0,
+                                                first, last));
+                                for (MakeupRequest earlier : accepted) {
+                                    group.block(earlier);
+                                }
+                                groups.add(group);
+                            }
+                            int start = TimeOfDay.parse(request.getRequestedTime());
+                            conflict = group.availability.conflict(request.getRequestedDate(), start,
+                                    start + MAKEUP_MINUTES);
+                        }
+                        if (conflict != null) {
+                            decision.skipped.put(requestId, conflict);
+                            continue;
+                        }
+                        for (AvailabilityGroup group : groups) {
+                            group.block(request);
+                        }
+                    }
+                    accepted.add(request);
+                }
+                if (accepted.isEmpty()) {
+                    return decision;
+                }
 
+                List<Notification> notifications = new ArrayList<>();
+                try (PreparedStatement pstmt = conn.prepareStatement(update)) {
+                    for (MakeupRequest request : accepted) {
+                        pstmt.setString(1, status);
+                        pstmt.setInt(2, request.getRequestId());
+                        pstmt.addBatch();
+                        notifications.add(new Notification(request.getRepId(),
+                                String.format("Your makeup class request for %s on %s at %s has been %s",
+                                        request.getCourseCode(), request.getRequestedDate(),
+                                        request.getRequestedTime(), status.toLowerCase()),
+                                approving ? "MakeupApproval" : "MakeupDisapproval"));
+                    }
+                    int[] counts = pstmt.executeBatch();
+                    for (int i = 0; i < counts.length; i++) {
+                        if (counts[i] != 1) {
+                            throw new SQLException("Makeup request " + accepted.get(i).getRequestId()
+                                    + " changed during the batch");
+                        }
+                    }
+                }
+                NotificationDAO.insertNotifications(conn, notifications);
+                for (MakeupRequest request : accepted) {
+                    decision.decidedIds.add(request.getRequestId());
+                }
+                return decision;
+            });
+
+            if (approving) {
+                // The rest of the room hears about the class after the approval commits
+                for (MakeupRequest request : accepted) {
+                    NotificationDispatcher.notifyRoom(request.getRoom(), request.getRepId(),
+                            String.format("Makeup class for %s scheduled on %s at %s in room %s",
+                                    request.getCourseCode(), request.getRequestedDate(),
+                                    request.getRequestedTime(), request.getRoom()),
+                            "MakeupScheduled");
+                }
+            }
+            return result;
         } catch (SQLException e) {
+            DatabaseErrorStats.record(e);
             e.printStackTrace();
-            if (conn != null) {
-                try {
-                    conn.rollback();
-                } catch (SQLException ex) {
-                    ex.printStackTrace();
-                }
+            return null;
+        }
+    }
+
+    private static AvailabilityGroup findGroup(List<AvailabilityGroup> groups, MakeupRequest request) {
+        for (AvailabilityGroup group : groups) {
+            if (group.room.equals(request.getRoom()) && group.instructorId == request.getInstructorId()) {
+                return group;
             }
-            return false;
-        } finally {
+        }
+        return null;
+    }
+
+    /**
+     * Availability of one room and instructor pair during a batch decision.
+     */
+    private static final class AvailabilityGroup {
+        final String room;
+        final int instructorId;
+        final MakeupAvailability availability;
+
+        AvailabilityGroup(String room, int instructorId, MakeupAvailability availability) {
+            this.room = room;
+            this.instructorId = instructorId;
+            this.availability = availability;
+        }
+
+        // A makeup approved earlier in the batch blocks the room or instructor it shares
+        void block(MakeupRequest approved) {
+            boolean sameRoom = room.equals(approved.getRoom());
+            if (!sameRoom && instructorId != approved.getInstructorId()) {
+                return;
+            }
+            int start = TimeOfDay.parse(approved.getRequestedTime());
+            availability.addBusy(approved.getRequestedDate(), start, start + MAKEUP_MINUTES,
+                    (sameRoom ? "Room " + room : "The instructor") + " has an approved makeup for "
+                            + approved.getCourseCode() + " at " + approved.getRequestedTime());
+        }
+    }
+
+    /**
+     * The earliest free makeup slots for a room and instructor, starting
+     * tomorrow and looking ahead the given number of weeks. Returns an empty
+     * list on a database error.
+     */
+    public static List<MakeupSlot> suggestSlots(String room, int instructorId, ProgramType program, int weeks,
+            int count) {
+        LocalDate from = LocalDate.now().plusDays(1);
+        LocalDate to = from.plusWeeks(weeks).minusDays(1);
+        try (Connection conn = DatabaseUtil.getReadConnection();
+                Statement snapshot = conn.createStatement()) {
+            snapshot.execute("BEGIN");
+            MakeupAvailability availability;
             try {
-                if (conn != null) {
-                    conn.close();
+                availability = loadAvailability(conn, room, instructorId, 0, from, to);
+            } finally {
+                snapshot.execute("COMMIT");
+            }
+            return availability.suggest(program, MAKEUP_MINUTES, count);
+        } catch (SQLException e) {
+            DatabaseErrorStats.record(e);
+            e.printStackTrace();
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * Everything that keeps the room or instructor busy between two dates.
+     * The request being checked, if already stored, does not block itself.
+     */
+    private static MakeupAvailability loadAvailability(Connection conn, String room, int instructorId,
+            int excludeRequestId, LocalDate from, LocalDate to) throws SQLException {
+        MakeupAvailability availability = new MakeupAvailability(from, to);
+
+        for (ClassMeeting meeting : ScheduleDAO.getMeetingsInRoom(conn, room, from, to)) {
+            availability.addMeeting(meeting, "Room " + room);
+        }
+        for (ClassMeeting meeting : ScheduleDAO.getMeetingsForInstructor(conn, instructorId, from, to)) {
+            availability.addMeeting(meeting, "The instructor");
+        }
+        for (Term term : TermDAO.getTermsBetween(conn, from, to)) {
+            for (Map.Entry<LocalDate, String> holiday : term.getHolidays().entrySet()) {
+                availability.blockDay(holiday.getKey(),
+                        holiday.getValue() != null ? "a holiday (" + holiday.getValue() + ")" : "a holiday");
+            }
+        }
+
+        String sql = """
+                    SELECT mr.room, mr.instructor_id, mr.requested_date, mr.requested_time, c.course_code
+                    FROM MakeupRequests mr
+                    JOIN Courses c ON mr.course_id = c.course_id
+                    WHERE mr.status = 'Approved' AND mr.request_id <> ?
+                      AND mr.requested_date BETWEEN ? AND ?
+                      AND (mr.room = ? OR mr.instructor_id = ?)
+                """;
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, excludeRequestId);
+            pstmt.setDate(2, Date.valueOf(from));
+            pstmt.setDate(3, Date.valueOf(to));
+            pstmt.setString(4, room);
+            pstmt.setInt(5, instructorId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    int start = TimeOfDay.parse(rs.getString("requested_time"));
+                    if (start == TimeOfDay.UNSET) {
+                        continue; // Legacy row without a usable time
+                    }
+                    String who = room.equals(rs.getString("room")) ? "Room " + room : "The instructor";
+                    availability.addBusy(rs.getDate("requested_date").toLocalDate(), start, start + MAKEUP_MINUTES,
+                            who + " has an approved makeup for " + rs.getString("course_code") + " at "
+                                    + rs.getString("requested_time"));
                 }
-            } catch (SQLException e) {
-                e.printStackTrace();
             }
         }
+        return availability;
     }
 
     public static List<MakeupRequest> getRequestsByInstructor(int instructorId) {
@@ -153,7 +425,7 @@ public class MakeupRequestDAO {
                     ORDER BY mr.created_at DESC
                 """;
 
-        try (Connection conn = DatabaseUtil.getConnection();
+        try (Connection conn = DatabaseUtil.getReadConnection();
                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setInt(1, instructorId);
@@ -183,7 +455,7 @@ public class MakeupRequestDAO {
                     ORDER BY mr.created_at DESC
                 """;
 
-        try (Connection conn = DatabaseUtil.getConnection();
+        try (Connection conn = DatabaseUtil.getReadConnection();
                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setInt(1, repId);
@@ -200,6 +472,35 @@ public class MakeupRequestDAO {
         return requests;
     }
 
+    /**
+     * All approved makeup classes.
+     */
+    public static List<MakeupRequest> getApprovedRequests() {
+        List<MakeupRequest> requests = new ArrayList<>();
+        String sql = """
+                    SELECT mr.*, c.course_name, c.course_code,
+                           u1.full_name as rep_name, u2.full_name as instructor_name
+                    FROM MakeupRequests mr
+                    JOIN Courses c ON mr.course_id = c.course_id
+                    JOIN Users u1 ON mr.rep_id = u1.user_id
+                    JOIN Users u2 ON mr.instructor_id = u2.user_id
+                    WHERE mr.status = 'Approved'
+                """;
+
+        try (Connection conn = DatabaseUtil.getReadConnection();
+                Statement stmt = conn.createStatement();
+                ResultSet rs = stmt.executeQuery(sql)) {
+
+            while (rs.next()) {
+                requests.add(extractMakeupRequestFromResultSet(rs));
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+
+        return requests;
+    }
+
     public static MakeupRequest getMakeupRequestById(int requestId) {
         String sql = """
                     SELECT mr.*, c.course_name, c.course_code,
@@ -211,7 +512,7 @@ public class MakeupRequestDAO {
                     WHERE mr.request_id = ?
                 """;
 
-        try (Connection conn = DatabaseUtil.getConnection();
+        try (Connection conn = DatabaseUtil.getReadConnection();
                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setInt(1, requestId);
@@ -228,6 +529,36 @@ public class MakeupRequestDAO {
         return null;
     }
 
+    private static Map<Integer, MakeupRequest> getMakeupRequestsByIds(Connection conn, List<Integer> requestIds)
+            throws SQLException {
+        Map<Integer, MakeupRequest> requests = new LinkedHashMap<>();
+        if (requestIds.isEmpty()) {
+            return requests;
+        }
+        String sql = """
+                    SELECT mr.*, c.course_name, c.course_code,
+                           u1.full_name as rep_name, u2.full_name as instructor_name
+                    FROM MakeupRequests mr
+                    JOIN Courses c ON mr.course_id = c.course_id
+                    JOIN Users u1 ON mr.rep_id = u1.user_id
+                    JOIN Users u2 ON mr.instructor_id = u2.user_id
+                    WHERE mr.request_id IN (%s)
+                """.formatted(String.join(", ", Collections.nCopies(requestIds.size(), "?")));
+
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            for (int i = 0; i < requestIds.size(); i++) {
+                pstmt.setInt(i + 1, requestIds.get(i));
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    MakeupRequest request = extractMakeupRequestFromResultSet(rs);
+                    requests.put(request.getRequestId(), request);
+                }
+            }
+        }
+        return requests;
+    }
+
     private static MakeupRequest extractMakeupRequestFromResultSet(ResultSet rs) throws SQLException {
         MakeupRequest request = new MakeupRequest();
         request.setRequestId(rs.getInt("request_id"));
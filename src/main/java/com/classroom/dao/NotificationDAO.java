@@ -1,35 +1,98 @@
 package com.classroom.dao;
 
 import com.classroom.model.Notification;
+import com.classroom.monitoring.DatabaseErrorStats;
 import com.classroom.util.DatabaseUtil;
+import com.classroom.util.DatabaseWriter;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public class NotificationDAO {
 
     public static boolean createNotification(Notification notification) {
-        String sql = "INSERT INTO Notifications (user_id, message, type) VALUES (?, ?, ?)";
+        try {
+            return DatabaseWriter.write(conn -> insertNotification(conn, notification));
+        } catch (SQLException e) {
+            DatabaseErrorStats.record(e);
+            e.printStackTrace();
+            return false;
+        }
+    }
 
-        try (Connection conn = DatabaseUtil.getConnection();
-                PreparedStatement pstmt = conn.prepareStatement(sql)) {
+    /**
+     * Queue a notification on the database writer without waiting for it.
+     * Called from inside another write it joins that write's transaction.
+     */
+    public static CompletableFuture<Boolean> createNotificationAsync(Notification notification) {
+        return DatabaseWriter.submit(conn -> insertNotification(conn, notification));
+    }
 
+    /**
+     * Insert a notification on the caller's connection, as part of the
+     * caller's transaction.
+     */
+    static boolean insertNotification(Connection conn, Notification notification) throws SQLException {
+        String sql = "INSERT INTO Notifications (user_id, message, type) VALUES (?, ?, ?)";
+
+        try (PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             pstmt.setInt(1, notification.getUserId());
             pstmt.setString(2, notification.getMessage());
             pstmt.setString(3, notification.getType());
 
-            int affectedRows = pstmt.executeUpdate();
-            if (affectedRows > 0) {
-                conn.commit();
-                return true;
+            if (pstmt.executeUpdate() == 0) {
+                return false;
+            }
+            try (ResultSet keys = pstmt.getGeneratedKeys()) {
+                if (keys.next()) {
+                    notification.setNotificationId(keys.getInt(1));
+                }
             }
+            return true;
+        }
+    }
 
-            conn.rollback();
-            return false;
+    /**
+     * Insert several notifications with one batched statement on the caller's
+     * connection, as part of the caller's transaction.
+     */
+    static void insertNotifications(Connection conn, List<Notification> notifications) throws SQLException {
+        if (notifications.isEmpty()) {
+            return;
+        }
+        String sql = "INSERT INTO Notifications (user_id, message, type) VALUES (?, ?, ?)";
 
-        } catch (SQLException e) {
-            e.printStackTrace();
-            return false;
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            for (Notification notification : notifications) {
+                pstmt.setInt(1, notification.getUserId());
+                pstmt.setString(2, notification.getMessage());
+                pstmt.setString(3, notification.getType());
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+        }
+    }
+
+    /**
+     * Send the same notification to every user selected by a query, as one
+     * INSERT ... SELECT on the caller's connection. The query must return a
+     * user_id column; its parameters are bound in order. Returns the number
+     * of notifications created.
+     */
+    static int insertForUsers(Connection conn, String userQuery, List<?> params, String message, String type)
+            throws SQLException {
+        String sql = "INSERT INTO Notifications (user_id, message, type) "
+                + "SELECT DISTINCT user_id, ?, ? FROM (" + userQuery + ")";
+
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, message);
+            pstmt.setString(2, type);
+            for (int i = 0; i < params.size(); i++) {
+                pstmt.setObject(i + 3, params.get(i));
+            }
+            return pstmt.executeUpdate();
         }
     }
 
@@ -40,10 +103,10 @@ public class NotificationDAO {
                     FROM Notifications n
                     JOIN Users u ON n.user_id = u.user_id
                     WHERE n.user_id = ?
-                    ORDER BY n.created_at DESC
+                    ORDER BY n.notification_id DESC
                 """;
 
-        try (Connection conn = DatabaseUtil.getConnection();
+        try (Connection conn = DatabaseUtil.getReadConnection();
                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setInt(1, userId);
@@ -60,47 +123,134 @@ public class NotificationDAO {
         return notifications;
     }
 
-    public static boolean markNotificationAsRead(int notificationId) {
-        String sql = "UPDATE Notifications SET is_read = 1 WHERE notification_id = ?";
+    /**
+     * One page of a user's notifications, newest first: at most {@code limit}
+     * with an id below {@code beforeId} (0 for the first page). Ids follow
+     * creation order, so the next page starts below the last id returned.
+     * With {@code includeArchived} the page also draws on notifications
+     * moved out by {@link NotificationRetention}.
+     */
+    public static List<Notification> getNotificationsForUser(int userId, int beforeId, int limit,
+            boolean includeArchived) {
+        List<Notification> notifications = new ArrayList<>();
+        String live = "SELECT notification_id, user_id, message, type, is_read, created_at FROM Notifications "
+                + "WHERE user_id = ? AND notification_id < ? ORDER BY notification_id DESC LIMIT ?";
+        String archived = "SELECT notification_id, user_id, message, type, is_read, created_at "
+                + "FROM NotificationArchive "
+                + "WHERE user_id = ? AND notification_id < ? ORDER BY notification_id DESC LIMIT ?";
+        // Each side stops at one page, so at most two pages are merged
+        String page = includeArchived
+                ? "SELECT * FROM (" + live + ") UNION ALL SELECT * FROM (" + archived + ")"
+                : live;
+        String sql = "SELECT p.*, u.full_name AS user_name FROM (" + page + ") p "
+                + "JOIN Users u ON p.user_id = u.user_id ORDER BY p.notification_id DESC LIMIT ?";
 
-        try (Connection conn = DatabaseUtil.getConnection();
+        try (Connection conn = DatabaseUtil.getReadConnection();
                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
-            pstmt.setInt(1, notificationId);
+            int index = 1;
+            for (int i = 0; i < (includeArchived ? 2 : 1); i++) {
+                pstmt.setInt(index++, userId);
+                pstmt.setInt(index++, beforeId > 0 ? beforeId : Integer.MAX_VALUE);
+                pstmt.setInt(index++, limit);
+            }
+            pstmt.setInt(index, limit);
 
-            int affectedRows = pstmt.executeUpdate();
-            if (affectedRows > 0) {
-                conn.commit();
-                return true;
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    notifications.add(extractNotificationFromResultSet(rs));
+                }
             }
+        } catch (SQLException e) {
+            DatabaseErrorStats.record(e);
+            e.printStackTrace();
+        }
 
-            conn.rollback();
-            return false;
+        return notifications;
+    }
 
+    public static boolean markNotificationAsRead(int notificationId) {
+        String sql = "UPDATE Notifications SET is_read = 1 WHERE notification_id = ?";
+
+        try {
+            return DatabaseWriter.write(conn -> {
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    pstmt.setInt(1, notificationId);
+                    return pstmt.executeUpdate() > 0;
+                }
+            });
         } catch (SQLException e) {
+            DatabaseErrorStats.record(e);
             e.printStackTrace();
             return false;
         }
     }
 
-    public static int getUnreadNotificationCount(int userId) {
-        String sql = "SELECT COUNT(*) FROM Notifications WHERE user_id = ? AND is_read = 0";
+    /**
+     * Mark several of a user's notifications read with one statement. Ids
+     * that are not the user's are ignored. Returns how many of the ids
+     * belong to the user, or -1 on a database error.
+     */
+    public static int markNotificationsAsRead(int userId, List<Integer> notificationIds) {
+        if (notificationIds.isEmpty()) {
+            return 0;
+        }
+        String in = "(" + String.join(", ", Collections.nCopies(notificationIds.size(), "?")) + ")";
+        String sql = "UPDATE Notifications SET is_read = 1 WHERE user_id = ? AND notification_id IN " + in;
 
-        try (Connection conn = DatabaseUtil.getConnection();
-                PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try {
+            return DatabaseWriter.write(conn -> {
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    pstmt.setInt(1, userId);
+                    for (int i = 0; i < notificationIds.size(); i++) {
+                        pstmt.setInt(i + 2, notificationIds.get(i));
+                    }
+                    return pstmt.executeUpdate();
+                }
+            });
+        } catch (SQLException e) {
+            DatabaseErrorStats.record(e);
+            e.printStackTrace();
+            return -1;
+        }
+    }
 
-            pstmt.setInt(1, userId);
+    /**
+     * Mark every unread notification of a user up to and including
+     * {@code upToId} read (0 for all), as one statement. Passing the newest
+     * id the user has seen leaves anything that arrived since unread.
+     * Returns the number marked, or -1 on a database error.
+     */
+    public static int markAllAsRead(int userId, int upToId) {
+        String sql = "UPDATE Notifications SET is_read = 1 WHERE user_id = ? AND is_read = 0 AND notification_id <= ?";
 
-            try (ResultSet rs = pstmt.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getInt(1);
+        try {
+            return DatabaseWriter.write(conn -> {
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    pstmt.setInt(1, userId);
+                    pstmt.setInt(2, upToId > 0 ? upToId : Integer.MAX_VALUE);
+                    return pstmt.executeUpdate();
                 }
-            }
+            });
         } catch (SQLException e) {
+            DatabaseErrorStats.record(e);
             e.printStackTrace();
+            return -1;
         }
+    }
 
-        return 0;
+    /**
+     * Unread notifications for a user, served from {@link NotificationWatcher}'s
+     * cache while nothing has changed.
+     */
+    public static int getUnreadNotificationCount(int userId) {
+        try {
+            return NotificationWatcher.getUnreadCount(userId);
+        } catch (SQLException e) {
+            DatabaseErrorStats.record(e);
+            e.printStackTrace();
+            return 0;
+        }
     }
 
     private static Notification extractNotificationFromResultSet(ResultSet rs) throws SQLException {
@@ -0,0 +1,242 @@
+package com.classroom.dao;
+
+import com.classroom.model.Notification;
+import com.classroom.monitoring.DatabaseErrorStats;
+import com.classroom.util.DatabaseWriter;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Background delivery for notifications that do not have to commit with the
+ * change that caused them, such as telling a whole room about a makeup
+ * class. Callers enqueue and return at once; one thread collects what has
+ * queued up over a short delay and writes it in a single transaction, with
+ * a batched INSERT for individual notifications and one INSERT ... SELECT
+ * per fan-out.
+ *
+ * The queue is in memory, so notifications still queued when the process
+ * dies are lost. Notifications that must appear exactly when a change
+ * commits are written inside that change's write with
+ * {@link NotificationDAO#insertNotification} instead.
+ */
+public class NotificationDispatcher {
+    private static final int MAX_BATCH = 500;
+    // Lets a burst of enqueues (e.g. a batch approval) share one transaction
+    private static final long LINGER_MS = 50;
+    private static final int MAX_ATTEMPTS = 5;
+    private static final long RETRY_BASE_MS = 100;
+
+    private static final BlockingQueue<Object> queue = new LinkedBlockingQueue<>();
+    private static final LongAdder delivered = new LongAdder();
+    private static final LongAdder dropped = new LongAdder();
+    private static Thread dispatcherThread;
+
+    /**
+     * The same notification for every user a query selects.
+     */
+    private static final class FanOut {
+        final String userQuery;
+        final List<?> params;
+        final String message;
+        final String type;
+
+        FanOut(String userQuery, List<?> params, String message, String type) {
+            this.userQuery = userQuery;
+            this.params = params;
+            this.message = message;
+            this.type = type;
+        }
+    }
+
+    private static final class Flush {
+        final CompletableFuture<Void> done = new CompletableFuture<>();
+    }
+
+    /**
+     * Queue a notification for delivery.
+     */
+    public static void enqueue(Notification notification) {
+        offer(notification);
+    }
+
+    /**
+     * Queue one notification for every student assigned to a room.
+     */
+    public static void notifyRoom(String room, String message, String type) {
+        offer(new FanOut("SELECT user_id FROM Users WHERE user_type = 'student' AND assigned_room = ?",
+                List.of(room), message, type));
+    }
+
+    /**
+     * Queue one notification for every student assigned to a room except
+     * one, typically the representative who already got a personal one.
+     */
+    public static void notifyRoom(String room, int exceptUserId, String message, String type) {
+        offer(new FanOut("SELECT user_id FROM Users WHERE user_type = 'student' AND assigned_room = ? "
+                + "AND user_id <> ?", List.of(room, exceptUserId), message, type));
+    }
+
+    /**
+     * Queue one notification for every student enrolled in a course.
+     */
+    public static void notifyCourse(int courseId, String message, String type) {
+        offer(new FanOut("SELECT student_id AS user_id FROM Enrollments WHERE course_id = ?",
+                List.of(courseId), message, type));
+    }
+
+    /**
+     * Wait until everything queued before this call has been delivered or
+     * dropped. Returns false if that took longer than the timeout.
+     */
+    public static boolean flush(long timeoutMs) {
+        Flush flush = new Flush();
+        offer(flush);
+        try {
+            flush.done.get(timeoutMs, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException | TimeoutException e) {
+            return false;
+        }
+    }
+
+    public static long getDeliveredCount() {
+        return delivered.sum();
+    }
+
+    /**
+     * Notifications given up on after every retry failed or the database
+     * rejected them. A fan-out counts once however many users it targeted.
+     */
+    public static long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    private static void offer(Object item) {
+        ensureStarted();
+        queue.add(item);
+    }
+
+    private static synchronized void ensureStarted() {
+        if (dispatcherThread != null && dispatcherThread.isAlive()) {
+            return;
+        }
+        dispatcherThread = new Thread(NotificationDispatcher::loop, "notification-dispatcher");
+        dispatcherThread.setDaemon(true);
+        dispatcherThread.start();
+    }
+
+    private static void loop() {
+        List<Object> batch = new ArrayList<>();
+        while (true) {
+            try {
+                Object first = queue.take();
+                batch.add(first);
+                if (!(first instanceof Flush)) {
+                    Thread.sleep(LINGER_MS);
+                }
+                queue.drainTo(batch, MAX_BATCH - 1);
+                deliver(batch);
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            } finally {
+                for (Object item : batch) {
+                    if (item instanceof Flush) {
+                        ((Flush) item).done.complete(null);
+                    }
+                }
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Write a batch in one transaction, backing off and retrying when the
+     * database is unavailable. If the database rejects a row the items are
+     * retried one by one so only the bad one is dropped.
+     */
+    private static void deliver(List<Object> batch) throws InterruptedException {
+        List<Notification> notifications = new ArrayList<>();
+        List<FanOut> fanOuts = new ArrayList<>();
+        for (Object item : batch) {
+            if (item instanceof Notification) {
+                notifications.add((Notification) item);
+            } else if (item instanceof FanOut) {
+                fanOuts.add((FanOut) item);
+            }
+        }
+        if (notifications.isEmpty() && fanOuts.isEmpty()) {
+            return;
+        }
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                delivered.add(DatabaseWriter.write(conn -> {
+                    NotificationDAO.insertNotifications(conn, notifications);
+                    int written = notifications.size();
+                    for (FanOut fanOut : fanOuts) {
+                        written += NotificationDAO.insertForUsers(conn, fanOut.userQuery, fanOut.params,
+                                fanOut.message, fanOut.type);
+                    }
+                    return written;
+                }));
+                return;
+            } catch (SQLException e) {
+                DatabaseErrorStats.record(e);
+                if (DatabaseErrorStats.primaryCode(e) == DatabaseErrorStats.SQLITE_CONSTRAINT) {
+                    deliverEach(notifications, fanOuts);
+                    return;
+                }
+                if (attempt >= MAX_ATTEMPTS) {
+                    e.printStackTrace();
+                    dropped.add(notifications.size() + fanOuts.size());
+                    return;
+                }
+                Thread.sleep(RETRY_BASE_MS << (attempt - 1));
+            }
+        }
+    }
+
+    private static void deliverEach(List<Notification> notifications, List<FanOut> fanOuts) {
+        try {
+            // Nested writes run under their own savepoint, so a rejected item rolls back alone
+            delivered.add(DatabaseWriter.write(conn -> {
+                int written = 0;
+                for (Notification notification : notifications) {
+                    written += count(DatabaseWriter.submit(c -> NotificationDAO.insertNotification(c, notification)
+                            ? 1 : 0));
+                }
+                for (FanOut fanOut : fanOuts) {
+                    written += count(DatabaseWriter.submit(c -> NotificationDAO.insertForUsers(c,
+                            fanOut.userQuery, fanOut.params, fanOut.message, fanOut.type)));
+                }
+                return written;
+            }));
+        } catch (SQLException e) {
+            DatabaseErrorStats.record(e);
+            e.printStackTrace();
+            dropped.add(notifications.size() + fanOuts.size());
+        }
+    }
+
+    private static int count(CompletableFuture<Integer> nested) {
+        if (nested.isCompletedExceptionally()) {
+            dropped.increment();
+            return 0;
+        }
+        return nested.join();
+    }
+}
@@ -0,0 +1,209 @@
+package com.classroom.dao;
+
+import com.classroom.monitoring.DatabaseErrorStats;
+import com.classroom.util.DatabaseUtil;
+import com.classroom.util.DatabaseWriter;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Keeps the live Notifications table small by moving old notifications to
+ * NotificationArchive, where they stay readable as history until they are
+ * purged.
+ *
+ * Compaction works in batches of {@value #BATCH_SIZE} rows, one writer
+ * transaction each, so it never holds the write lock for long. Archived
+ * rows keep their ids, so paging by id works across both tables.
+ */
+public class NotificationRetention {
+    private static final int BATCH_SIZE = 500;
+    private static final long INITIAL_DELAY_MS = 60_000;
+    private static final long INTERVAL_MS = 60 * 60_000;
+
+    private static Thread compactorThread;
+
+    /**
+     * How long notifications stay in the live table and in the archive.
+     * A limit of 0 disables that rule.
+     */
+    public static final class Policy {
+        public static final Policy DEFAULT = new Policy(30, 180, 500, 730);
+
+        /** Read notifications older than this many days are archived. */
+        public final int readDays;
+        /** Any notification older than this many days is archived, read or not. */
+        public final int unreadDays;
+        /** Only this many newest notifications per user stay live. */
+        public final int maxPerUser;
+        /** Archived notifications older than this many days are deleted. */
+        public final int archiveDays;
+
+        public Policy(int readDays, int unreadDays, int maxPerUser, int archiveDays) {
+            this.readDays = readDays;
+            this.unreadDays = unreadDays;
+            this.maxPerUser = maxPerUser;
+            this.archiveDays = archiveDays;
+        }
+    }
+
+    /**
+     * Rows moved by one compaction run.
+     */
+    public static final class Result {
+        public int archived;
+        public int purged;
+    }
+
+    /**
+     * Compact hourly on a background thread, the first time a minute from now.
+     */
+    public static synchronized void start(Policy policy) {
+        if (compactorThread != null && compactorThread.isAlive()) {
+            return;
+        }
+        compactorThread = new Thread(() -> {
+            try {
+                Thread.sleep(INITIAL_DELAY_MS);
+                while (true) {
+                    compact(policy);
+                    Thread.sleep(INTERVAL_MS);
+                }
+            } catch (InterruptedException e) {
+                // Stopped
+            }
+        }, "notification-compactor");
+        compactorThread.setDaemon(true);
+        compactorThread.start();
+    }
+
+    public static synchronized void stop() {
+        if (compactorThread != null) {
+            compactorThread.interrupt();
+            compactorThread = null;
+        }
+    }
+
+    /**
+     * Apply the policy now. Returns what was moved before any database error.
+     */
+    public static Result compact(Policy policy) {
+        Result result = new Result();
+        try {
+            if (policy.readDays > 0) {
+                String readByAge = "SELECT notification_id FROM Notifications "
+                        + "WHERE created_at < datetime('now', ?) AND is_read = 1 LIMIT ?";
+                result.archived += archiveAll(readByAge, List.of(daysAgo(policy.readDays)));
+            }
+            if (policy.unreadDays > 0) {
+                String byAge = "SELECT notification_id FROM Notifications WHERE created_at < datetime('now', ?) LIMIT ?";
+                result.archived += archiveAll(byAge, List.of(daysAgo(policy.unreadDays)));
+            }
+
+            if (policy.maxPerUser > 0) {
+                for (int userId : usersOver(policy.maxPerUser)) {
+                    String overflow = "SELECT notification_id FROM Notifications WHERE user_id = ? "
+                            + "ORDER BY notification_id DESC LIMIT ? OFFSET " + policy.maxPerUser;
+                    result.archived += archiveAll(overflow, List.of(userId));
+                }
+            }
+
+            if (policy.archiveDays > 0) {
+                result.purged += purge(policy.archiveDays);
+            }
+        } catch (SQLException e) {
+            DatabaseErrorStats.record(e);
+            e.printStackTrace();
+        }
+        return result;
+    }
+
+    /**
+     * Archive every row the query selects, a batch at a time. The query
+     * returns notification ids and ends with a LIMIT placeholder, bound
+     * after the given parameters.
+     */
+    private static int archiveAll(String idQuery, List<?> params) throws SQLException {
+        int total = 0;
+        while (true) {
+            int moved = DatabaseWriter.write(conn -> {
+                List<Integer> ids = new ArrayList<>();
+                try (PreparedStatement pstmt = conn.prepareStatement(idQuery)) {
+                    for (int i = 0; i < params.size(); i++) {
+                        pstmt.setObject(i + 1, params.get(i));
+                    }
+                    pstmt.setInt(params.size() + 1, BATCH_SIZE);
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        while (rs.next()) {
+                            ids.add(rs.getInt(1));
+                        }
+                    }
+                }
+                return ids.isEmpty() ? 0 : moveToArchive(conn, ids);
+            });
+            total += moved;
+            if (moved < BATCH_SIZE) {
+                return total;
+            }
+        }
+    }
+
+    private static int moveToArchive(Connection conn, List<Integer> ids) throws SQLException {
+        String in = "(" + String.join(", ", Collections.nCopies(ids.size(), "?")) + ")";
+        String copy = "INSERT OR REPLACE INTO NotificationArchive "
+                + "(notification_id, user_id, message, type, is_read, created_at) "
+                + "SELECT notification_id, user_id, message, type, is_read, created_at FROM Notifications "
+                + "WHERE notification_id IN " + in;
+        String delete = "DELETE FROM Notifications WHERE notification_id IN " + in;
+
+        try (PreparedStatement insert = conn.prepareStatement(copy);
+                PreparedStatement remove = conn.prepareStatement(delete)) {
+            for (int i = 0; i < ids.size(); i++) {
+                insert.setInt(i + 1, ids.get(i));
+                remove.setInt(i + 1, ids.get(i));
+            }
+            insert.executeUpdate();
+            return remove.executeUpdate();
+        }
+    }
+
+    private static List<Integer> usersOver(int maxPerUser) throws SQLException {
+        List<Integer> users = new ArrayList<>();
+        String sql = "SELECT user_id FROM Notifications GROUP BY user_id HAVING COUNT(*) > ?";
+        try (Connection conn = DatabaseUtil.getReadConnection();
+                PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, maxPerUser);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    users.add(rs.getInt(1));
+                }
+            }
+        }
+        return users;
+    }
+
+    private static int purge(int archiveDays) throws SQLException {
+        String sql = "DELETE FROM NotificationArchive WHERE notification_id IN "
+                + "(SELECT notification_id FROM NotificationArchive WHERE created_at < datetime('now', ?) LIMIT ?)";
+        int total = 0;
+        while (true) {
+            int deleted = DatabaseWriter.write(conn -> {
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    pstmt.setString(1, daysAgo(archiveDays));
+                    pstmt.setInt(2, BATCH_SIZE);
+                    return pstmt.executeUpdate();
+                }
+            });
+            total += deleted;
+            if (deleted < BATCH_SIZE) {
+                return total;
+            }
+        }
+    }
+
+    private static String daysAgo(int days) {
+        return "-" + days + " days";
+    }
+}
@@ -0,0 +1,257 @@
+package com.classroom.dao;
+
+import com.classroom.monitoring.DatabaseErrorStats;
+import com.classroom.util.DatabaseUtil;
+import org.sqlite.SQLiteConfig;
+
+import java.sql.*;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.IntConsumer;
+
+/**
+ * Cached unread notification counts, and push of count changes to
+ * listeners such as a dashboard badge.
+ *
+ * A background thread checks {@code PRAGMA data_version} on its own
+ * connection a few times a second. The value changes whenever any
+ * connection, in this process or another client's, commits to the
+ * database, so an idle check costs one pragma and no table reads. When it
+ * changes, the Notifications entries of the ChangeLog since the last check
+ * are applied to the cache: an insert adds one to the user's count, any
+ * other change drops it to be recounted. Listeners of the affected users
+ * are then called, on the watcher thread, with their new count. The thread
+ * stops when the last listener is removed and is started again by the next
+ * {@link #addListener}.
+ */
+public class NotificationWatcher {
+    private static final long POLL_MS = 250;
+
+    private static final Map<Integer, Integer> unreadCounts = new HashMap<>();
+    // ChangeLog position each cached count was taken at; entries up to it are already in the count
+    private static final Map<Integer, Long> countedAt = new HashMap<>();
+    // Users whose count changed since listeners were last called
+    private static final Set<Integer> pendingPush = new HashSet<>();
+    private static final Map<Integer, List<IntConsumer>> listeners = new ConcurrentHashMap<>();
+    // Users with a new listener that has not had its first count yet
+    private static final Set<Integer> awaitingFirstCount = ConcurrentHashMap.newKeySet();
+
+    // Guards watcherThread, so a listener added while the thread is stopping starts a new one
+    private static final Object lifecycle = new Object();
+    private static Thread watcherThread;
+
+    // Guarded by the class lock
+    private static Connection watchConnection;
+    private static String connectedUrl;
+    private static long dataVersion = -1;
+    private static long syncedSeq = -1;
+
+    /**
+     * Call the listener with the user's unread count shortly and whenever
+     * it changes. The listener runs on the watcher thread, so this is safe to
+     * call from the event dispatch thread.
+     */
+    public static void addListener(int userId, IntConsumer listener) {
+        synchronized (lifecycle) {
+            listeners.computeIfAbsent(userId, id -> new CopyOnWriteArrayList<>()).add(listener);
+            awaitingFirstCount.add(userId);
+            if (watcherThread == null) {
+                watcherThread = new Thread(NotificationWatcher::loop, "notification-watcher");
+                watcherThread.setDaemon(true);
+                watcherThread.start();
+            }
+        }
+    }
+
+    public static void removeListener(int userId, IntConsumer listener) {
+        listeners.computeIfPresent(userId, (id, list) -> {
+            list.remove(listener);
+            return list.isEmpty() ? null : list;
+        });
+    }
+
+    /**
+     * The user's unread count, from the cache when nothing has changed since
+     * it was last counted.
+     */
+    static synchronized int getUnreadCount(int userId) throws SQLException {
+        sync();
+        Integer cached = unreadCounts.get(userId);
+        if (cached != null) {
+            return cached;
+        }
+        // The count and the log position it matches come from one snapshot
+        String sql = "SELECT COUNT(*), (SELECT seq FROM sqlite_sequence WHERE name = 'ChangeLog') "
+                + "FROM Notifications WHERE user_id = ? AND is_read = 0";
+        try (PreparedStatement pstmt = connection().prepareStatement(sql)) {
+            pstmt.setInt(1, userId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                int count = rs.next() ? rs.getInt(1) : 0;
+                unreadCounts.put(userId, count);
+                countedAt.put(userId, rs.getLong(2));
+                return count;
+            }
+        }
+    }
+
+    /**
+     * Drop every cached count; the next read recounts.
+     */
+    public static synchronized void invalidate() {
+        unreadCounts.clear();
+        countedAt.clear();
+        syncedSeq = -1;
+    }
+
+    private static void loop() {
+        while (true) {
+            synchronized (lifecycle) {
+                // Checked under the lock addListener starts the thread with
+                if (listeners.isEmpty()) {
+                    watcherThread = null;
+                    return;
+                }
+            }
+            try {
+                Thread.sleep(POLL_MS);
+                Set<Integer> changed;
+                synchronized (NotificationWatcher.class) {
+                    // A reader may already have synced; its changes wait in pendingPush
+                    sync();
+                    changed = new HashSet<>(pendingPush);
+                    pendingPush.clear();
+                }
+                for (Iterator<Integer> it = awaitingFirstCount.iterator(); it.hasNext();) {
+                    changed.add(it.next());
+                    it.remove();
+                }
+                for (int userId : changed) {
+                    List<IntConsumer> userListeners = listeners.get(userId);
+                    if (userListeners != null) {
+                        int count = getUnreadCount(userId);
+                        for (IntConsumer listener : userListeners) {
+                            listener.accept(count);
+                        }
+                    }
+                }
+            } catch (InterruptedException e) {
+                synchronized (lifecycle) {
+                    watcherThread = null;
+                }
+                return;
+            } catch (SQLException e) {
+                DatabaseErrorStats.record(e);
+                e.printStackTrace();
+                closeConnection();
+            }
+        }
+    }
+
+    /**
+     * Apply committed Notifications changes to the cache and queue the users
+     * whose count may have changed for the listeners.
+     */
+    private static void sync() throws SQLException {
+        Connection conn = connection();
+        try (Statement stmt = conn.createStatement();
+                ResultSet rs = stmt.executeQuery("PRAGMA data_version")) {
+            long version = rs.next() ? rs.getLong(1) : 0;
+            if (version == dataVersion) {
+                return;
+            }
+            dataVersion = version;
+        }
+
+        long latest = 0;
+        try (Statement stmt = conn.createStatement();
+                ResultSet rs = stmt.executeQuery("SELECT seq FROM sqlite_sequence WHERE name = 'ChangeLog'")) {
+            if (rs.next()) {
+                latest = rs.getLong(1);
+            }
+        }
+        if (latest == syncedSeq) {
+            return;
+        }
+        if (syncedSeq < 0 || latest < syncedSeq) {
+            resync(latest);
+            return;
+        }
+
+        // Bounded by latest: entries committed after the read above are picked up next time
+        String sql = "SELECT seq, operation, user_id FROM ChangeLog "
+                + "WHERE seq > ? AND seq <= ? AND table_name = 'Notifications' ORDER BY seq";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setLong(1, syncedSeq);
+            pstmt.setLong(2, latest);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    int userId = rs.getInt("user_id");
+                    Integer cached = unreadCounts.get(userId);
+                    Long counted = countedAt.get(userId);
+                    // An entry committed before the count was taken is already in it
+                    if (counted == null || rs.getLong("seq") > counted) {
+                        if (cached != null && "insert".equals(rs.getString("operation"))) {
+                            unreadCounts.put(userId, cached + 1);
+                        } else {
+                            unreadCounts.remove(userId);
+                            countedAt.remove(userId);
+                        }
+                    }
+                    if (listeners.containsKey(userId)) {
+                        pendingPush.add(userId);
+                    }
+                }
+            }
+        }
+
+        // Entries we never saw may have been pruned already
+        try (Statement stmt = conn.createStatement();
+                ResultSet rs = stmt.executeQuery("SELECT MIN(seq) FROM ChangeLog")) {
+            if (rs.next() && (rs.getObject(1) == null || rs.getLong(1) > syncedSeq + 1)) {
+                resync(latest);
+                return;
+            }
+        }
+        syncedSeq = latest;
+    }
+
+    private static void resync(long latest) {
+        pendingPush.addAll(listeners.keySet());
+        unreadCounts.clear();
+        countedAt.clear();
+        syncedSeq = latest;
+    }
+
+    // Reconnects if the database was switched, like the writer does
+    private static Connection connection() throws SQLException {
+        if (watchConnection == null || !DatabaseUtil.getDatabaseUrl().equals(connectedUrl)) {
+            closeConnection();
+            connectedUrl = DatabaseUtil.getDatabaseUrl();
+            SQLiteConfig config = new SQLiteConfig();
+            config.setReadOnly(true);
+            watchConnection = config.createConnection(connectedUrl);
+            unreadCounts.clear();
+        countedAt.clear();
+            dataVersion = -1;
+            syncedSeq = -1;
+        }
+        return watchConnection;
+    }
+
+    private static synchronized void closeConnection() {
+        if (watchConnection != null) {
+            try {
+                watchConnection.close();
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+            watchConnection = null;
+        }
+    }
+}
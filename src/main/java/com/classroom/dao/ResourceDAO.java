@@ -1,16 +1,49 @@
 package com.classroom.dao;
 
 import com.classroom.model.Resource;
+import com.classroom.monitoring.DatabaseErrorStats;
 import com.classroom.util.DatabaseUtil;
+import com.classroom.util.DatabaseWriter;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.List;
 
 public class ResourceDAO {
+
+    /**
+     * Add a resource to a room. On success the resource gets its id.
+     */
+    public static boolean addResource(Resource resource) {
+        String sql = "INSERT INTO Resources (room, resource_type, quantity, status) VALUES (?, ?, ?, ?)";
+        try {
+            return DatabaseWriter.write(conn -> {
+                try (PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                    pstmt.setString(1, resource.getRoom());
+                    pstmt.setString(2, resource.getResourceType());
+                    pstmt.setInt(3, resource.getQuantity());
+                    pstmt.setString(4, resource.getStatus());
+                    if (pstmt.executeUpdate() == 0) {
+                        return false;
+                    }
+                    try (ResultSet keys = pstmt.getGeneratedKeys()) {
+                        if (keys.next()) {
+                            resource.setResourceId(keys.getInt(1));
+                        }
+                    }
+                    return true;
+                }
+            });
+        } catch (SQLException e) {
+            DatabaseErrorStats.record(e);
+            e.printStackTrace();
+            return false;
+        }
+    }
     public static List<Resource> getAvailableResources(String room) {
         List<Resource> resources = new ArrayList<>();
         String sql = """
@@ -22,7 +55,7 @@ public class ResourceDAO {
                     GROUP BY r.resource_id, r.room, r.resource_type, r.quantity, r.status, r.last_checked
                 """;
 
-        try (Connection conn = DatabaseUtil.getConnection();
+        try (Connection conn = DatabaseUtil.getReadConnection();
                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setString(1, room);
@@ -48,7 +81,7 @@ public class ResourceDAO {
     public static int getTotalResourceQuantity(String resourceType) {
         String sql = "SELECT SUM(quantity) as total FROM Resources WHERE resource_type = ?";
 
-        try (Connection conn = DatabaseUtil.getConnection();
+        try (Connection conn = DatabaseUtil.getReadConnection();
                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setString(1, resourceType);
@@ -74,7 +107,7 @@ public class ResourceDAO {
                     GROUP BY r.resource_id, r.quantity
                 """;
 
-        try (Connection conn = DatabaseUtil.getConnection();
+        try (Connection conn = DatabaseUtil.getReadConnection();
                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setString(1, resourceType);
@@ -94,17 +127,16 @@ public class ResourceDAO {
     public static boolean updateResourceStatus(int resourceId, String status) {
         String sql = "UPDATE Resources SET status = ?, last_checked = CURRENT_TIMESTAMP WHERE resource_id = ?";
 
-        try (Connection conn = DatabaseUtil.getConnection();
-                PreparedStatement pstmt = conn.prepareStatement(sql)) {
-
-            pstmt.setString(1, status);
-            pstmt.setInt(2, resourceId);
-
-            int affectedRows = pstmt.executeUpdate();
-            conn.commit();
-            return affectedRows > 0;
-
+        try {
+            return DatabaseWriter.write(conn -> {
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    pstmt.setString(1, status);
+                    pstmt.setInt(2, resourceId);
+                    return pstmt.executeUpdate() > 0;
+                }
+            });
         } catch (SQLException e) {
+            DatabaseErrorStats.record(e);
             e.printStackTrace();
             return false;
         }
@@ -113,7 +145,7 @@ public class ResourceDAO {
     public static Resource getResourceById(int resourceId) {
         String sql = "SELECT * FROM Resources WHERE resource_id = ?";
 
-        try (Connection conn = DatabaseUtil.getConnection();
+        try (Connection conn = DatabaseUtil.getReadConnection();
                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setInt(1, resourceId);
@@ -138,7 +170,7 @@ public class ResourceDAO {
     public static boolean isResourceAvailable(int resourceId, int quantityNeeded) {
         String sql = "SELECT quantity FROM Resources WHERE resource_id = ? AND status = 'Available'";
 
-        try (Connection conn = DatabaseUtil.getConnection();
+        try (Connection conn = DatabaseUtil.getReadConnection();
                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setInt(1, resourceId);
@@ -158,7 +190,7 @@ public class ResourceDAO {
     public static String getResourceType(int resourceId) {
         String sql = "SELECT resource_type FROM Resources WHERE resource_id = ?";
 
-        try (Connection conn = DatabaseUtil.getConnection();
+        try (Connection conn = DatabaseUtil.getReadConnection();
                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setInt(1, resourceId);
@@ -0,0 +1,13 @@
+package com.classroom.dao;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Consumes a forward-only result set while the query is still open, so large
+ * results can be streamed without loading them into a list first.
+ */
+@FunctionalInterface
+public interface ResultSetHandler {
+    void handle(ResultSet rs) throws SQLException;
+}
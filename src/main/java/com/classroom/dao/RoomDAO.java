@@ -0,0 +1,202 @@
+package com.classroom.dao;
+
+import com.classroom.model.ProgramType;
+import com.classroom.model.Room;
+import com.classroom.monitoring.DaoQueryEvent;
+import com.classroom.monitoring.DatabaseErrorStats;
+import com.classroom.util.DatabaseUtil;
+import com.classroom.util.DatabaseWriter;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Data Access Object for the room catalog (Rooms table).
+ *
+ * Schedule and users rows keep the room name for display and queries and
+ * reference the catalog row by room_id. Writers of those rows call
+ * {@link #ensureRooms} in their transaction and set room_id with
+ * {@link #ROOM_ID}, so a room typed in for the first time is catalogued
+ * on the spot.
+ */
+public class RoomDAO {
+    /** Parameterized lookup of a room id by name, for INSERT and UPDATE statements. */
+    static final String ROOM_ID = "(SELECT room_id FROM Rooms WHERE name = ?)";
+
+    private static final String UPSERT = "INSERT INTO Rooms (name, building, capacity, equipment, regular_program, "
+            + "evening_program) VALUES (?, ?, ?, ?, ?, ?) ON CONFLICT(name) DO UPDATE SET "
+            + "building = excluded.building, capacity = excluded.capacity, equipment = excluded.equipment, "
+            + "regular_program = excluded.regular_program, evening_program = excluded.evening_program";
+
+    /**
+     * Add a room to the catalog, or replace the details of the room with the
+     * same name. On success the room gets its id.
+     */
+    public static boolean saveRoom(Room room) {
+        try {
+            int roomId = DatabaseWriter.write(conn -> {
+                try (PreparedStatement pstmt = conn.prepareStatement(UPSERT)) {
+                    bind(pstmt, room);
+                    pstmt.executeUpdate();
+                }
+                try (PreparedStatement pstmt = conn.prepareStatement("SELECT room_id FROM Rooms WHERE name = ?")) {
+                    pstmt.setString(1, room.getName());
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        return rs.next() ? rs.getInt(1) : 0;
+                    }
+                }
+            });
+            room.setRoomId(roomId);
+            return roomId > 0;
+        } catch (SQLException e) {
+            DatabaseErrorStats.record(e);
+            e.printStackTrace();
+            return false;
+        } finally {
+            RoomRegistry.invalidate();
+        }
+    }
+
+    /**
+     * Add or update many rooms in one write. Returns, for each room, null if
+     * it was saved or the reason it was refused; or null if the write failed.
+     */
+    public static List<String> saveRooms(List<Room> rooms) {
+        try {
+            return BatchInsert.insertAll(UPSERT, rooms, RoomDAO::bind);
+        } catch (SQLException e) {
+            DatabaseErrorStats.record(e);
+            e.printStackTrace();
+            return null;
+        } finally {
+            RoomRegistry.invalidate();
+        }
+    }
+
+    private static void bind(PreparedStatement pstmt, Room room) throws SQLException {
+        pstmt.setString(1, room.getName());
+        pstmt.setString(2, room.getBuilding());
+        if (room.hasCapacity()) {
+            pstmt.setInt(3, room.getCapacity());
+        } else {
+            pstmt.setNull(3, Types.INTEGER);
+        }
+        pstmt.setString(4, room.getEquipmentList());
+        pstmt.setBoolean(5, room.isAvailableFor(ProgramType.REGULAR));
+        pstmt.setBoolean(6, room.isAvailableFor(ProgramType.EVENING));
+    }
+
+    /**
+     * Catalog any of the names not yet in Rooms, on the caller's connection.
+     */
+    static void ensureRooms(Connection conn, Collection<String> names) throws SQLException {
+        Set<String> distinct = new LinkedHashSet<>(names);
+        distinct.remove(null);
+        if (distinct.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement pstmt = conn.prepareStatement("INSERT OR IGNORE INTO Rooms (name) VALUES (?)")) {
+            for (String name : distinct) {
+                pstmt.setString(1, name);
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+        }
+    }
+
+    /**
+     * Every catalogued room, in name order.
+     */
+    public static List<Room> getAllRooms() {
+        List<Room> rooms = new ArrayList<>();
+        DaoQueryEvent event = DaoQueryEvent.start("RoomDAO", "getAllRooms");
+
+        try (Connection conn = DatabaseUtil.getReadConnection()) {
+            rooms = getAllRooms(conn);
+        } catch (SQLException e) {
+            event.fail(e);
+            DatabaseErrorStats.record(e);
+            e.printStackTrace();
+        }
+
+        event.finish(rooms.size());
+        return rooms;
+    }
+
+    /**
+     * Every catalogued room, read on the caller's connection (and snapshot).
+     */
+    static List<Room> getAllRooms(Connection conn) throws SQLException {
+        List<Room> rooms = new ArrayList<>();
+        try (Statement stmt = conn.createStatement();
+                ResultSet rs = stmt.executeQuery("SELECT * FROM Rooms ORDER BY name")) {
+            while (rs.next()) {
+                rooms.add(extractRoomFromResultSet(rs));
+            }
+        }
+        return rooms;
+    }
+
+    /**
+     * Names of every catalogued room, in name order. Reads only the name
+     * index.
+     */
+    public static List<String> getRoomNames() {
+        List<String> names = new ArrayList<>();
+        DaoQueryEvent event = DaoQueryEvent.start("RoomDAO", "getRoomNames");
+
+        try (Connection conn = DatabaseUtil.getReadConnection();
+                Statement stmt = conn.createStatement();
+                ResultSet rs = stmt.executeQuery("SELECT name FROM Rooms ORDER BY name")) {
+            while (rs.next()) {
+                names.add(rs.getString("name"));
+            }
+        } catch (SQLException e) {
+            event.fail(e);
+            DatabaseErrorStats.record(e);
+            e.printStackTrace();
+        }
+
+        event.finish(names.size());
+        return names;
+    }
+
+    /**
+     * The room, or null if there is none by that name.
+     */
+    public static Room getRoomByName(String name) {
+        try (Connection conn = DatabaseUtil.getReadConnection();
+                PreparedStatement pstmt = conn.prepareStatement("SELECT * FROM Rooms WHERE name = ?")) {
+            pstmt.setString(1, name);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return extractRoomFromResultSet(rs);
+                }
+            }
+        } catch (SQLException e) {
+            DatabaseErrorStats.record(e);
+            e.printStackTrace();
+        }
+        return null;
+    }
+
+    private static Room extractRoomFromResultSet(ResultSet rs) throws SQLException {
+        Room room = new Room(rs.getInt("room_id"), rs.getString("name"), rs.getString("building"),
+                rs.getInt("capacity")); // NULL reads as 0, unknown
+        room.setEquipmentList(rs.getString("equipment"));
+        Set<ProgramType> programs = EnumSet.noneOf(ProgramType.class);
+        if (rs.getBoolean("regular_program")) {
+            programs.add(ProgramType.REGULAR);
+        }
+        if (rs.getBoolean("evening_program")) {
+            programs.add(ProgramType.EVENING);
+        }
+        room.setPrograms(programs);
+        return room;
+    }
+}
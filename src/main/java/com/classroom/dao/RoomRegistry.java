@@ -0,0 +1,134 @@
+package com.classroom.dao;
+
+import com.classroom.model.ProgramType;
+import com.classroom.model.Room;
+import com.classroom.util.DatabaseUtil;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The room catalog held in memory and indexed by name and id, so
+ * validation and the exam timetabler can look rooms up without a query per
+ * check. A registry is an immutable snapshot; {@link #current()} is the
+ * application database's. It is reloaded after {@link RoomDAO} changes the
+ * catalog, when the database URL changes, and when the ChangeLog shows a
+ * Rooms change made by another process. A name missing from the registry is
+ * a room nothing is known about, which places no limits.
+ */
+public final class RoomRegistry {
+    // How long current() trusts its copy before looking at the ChangeLog again
+    private static final long CHECK_INTERVAL_MS = 1_000;
+
+    private static final Object LOCK = new Object();
+    private static final AtomicInteger generation = new AtomicInteger();
+    private static RoomRegistry current;
+    private static String loadedUrl;
+    private static long syncedSeq;
+    private static long checkedAt;
+
+    private final List<Room> rooms;
+    private final Map<String, Room> byName = new HashMap<>();
+    private final Map<Integer, Room> byId = new HashMap<>();
+
+    public RoomRegistry(Collection<Room> rooms) {
+        List<Room> sorted = new ArrayList<>(rooms);
+        sorted.sort((a, b) -> a.getName().compareTo(b.getName()));
+        this.rooms = Collections.unmodifiableList(sorted);
+        for (Room room : sorted) {
+            byName.put(room.getName(), room);
+            byId.put(room.getRoomId(), room);
+        }
+    }
+
+    /**
+     * The catalog of the application database.
+     */
+    public static RoomRegistry current() {
+        String url = DatabaseUtil.getDatabaseUrl();
+        RoomRegistry registry;
+        long seq;
+        int loadedAt;
+        synchronized (LOCK) {
+            registry = url.equals(loadedUrl) ? current : null;
+            if (registry != null && System.currentTimeMillis() - checkedAt < CHECK_INTERVAL_MS) {
+                return registry;
+            }
+            seq = syncedSeq;
+            loadedAt = generation.get();
+        }
+
+        // Read before the rooms, so a change made meanwhile is still ahead of the position we keep
+        long latest = ChangeLogDAO.getLatestSequence();
+        if (registry == null || roomsChanged(seq, latest)) {
+            registry = new RoomRegistry(RoomDAO.getAllRooms());
+        }
+        synchronized (LOCK) {
+            // A catalog change during the load makes this copy stale already
+            if (generation.get() == loadedAt) {
+                current = registry;
+                loadedUrl = url;
+                syncedSeq = latest;
+                checkedAt = System.currentTimeMillis();
+            }
+        }
+        return registry;
+    }
+
+    /**
+     * Drop the cached catalog; call after the Rooms table has changed, or
+     * after the database file has been replaced.
+     */
+    public static void invalidate() {
+        synchronized (LOCK) {
+            generation.incrementAndGet();
+            current = null;
+        }
+    }
+
+    /**
+     * True if the Rooms table may have changed between two ChangeLog
+     * positions, including when the entries in between were pruned or the
+     * log went backwards.
+     */
+    private static boolean roomsChanged(long afterSeq, long latest) {
+        if (latest == afterSeq) {
+            return false;
+        }
+        return latest < afterSeq || !ChangeLogDAO.getChangesSince(afterSeq, 1, "Rooms").isEmpty()
+                || ChangeLogDAO.isResyncRequired(afterSeq);
+    }
+
+    public Room get(String name) {
+        return name != null ? byName.get(name) : null;
+    }
+
+    public Room get(int roomId) {
+        return byId.get(roomId);
+    }
+
+    /**
+     * Every room, in name order.
+     */
+    public List<Room> getRooms() {
+        return rooms;
+    }
+
+    /**
+     * The rooms open to a program, in name order.
+     */
+    public List<Room> getRooms(ProgramType program) {
+        List<Room> open = new ArrayList<>();
+        for (Room room : rooms) {
+            if (room.isAvailableFor(program)) {
+                open.add(room);
+            }
+        }
+        return open;
+    }
+}
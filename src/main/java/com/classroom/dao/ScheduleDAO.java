@@ -1,277 +1,364 @@
 package com.classroom.dao;
 
+import com.classroom.model.ClassMeeting;
 import com.classroom.model.Schedule;
+import com.classroom.model.Term;
 import com.classroom.util.DatabaseUtil;
 import com.classroom.model.ScheduleResource;
+import com.classroom.monitoring.ConflictCheckEvent;
+import com.classroom.monitoring.DatabaseErrorStats;
+import com.classroom.monitoring.DaoQueryEvent;
+import com.classroom.monitoring.TransactionEvent;
+import com.classroom.util.OccurrenceIterator;
+import com.classroom.util.DatabaseWriter;
 import com.classroom.util.ScheduleValidationUtil;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 import javax.swing.JOptionPane;
+import java.awt.GraphicsEnvironment;
+import java.time.DayOfWeek;
 import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
 
 /**
  * Data Access Object for Schedule-related database operations.
  */
 public class ScheduleDAO {
 
+    /**
+     * Outcome of a schedule write, so callers can tell a validation failure
+     * from a booking conflict or a concurrent edit and react accordingly.
+     */
+    public static class WriteResult {
+        public enum Status {
+            SAVED, // Row written
+            INVALID, // Failed validation (program hours, resources, ...)
+            CONFLICT, // Room or instructor already booked at commit time
+            STALE, // Row changed by another client since it was read
+            NOT_FOUND, // Row no longer exists
+            ERROR // Database error, including SQLITE_BUSY after retries
+        }
+
+        public final Status status;
+        public final String message;
+        public final int currentVersion;
+
+        public WriteResult(Status status, String message, int currentVersion) {
+            this.status = status;
+            this.message = message;
+            this.currentVersion = currentVersion;
+        }
+
+        public WriteResult(Status status, String message) {
+            this(status, message, -1);
+        }
+
+        public boolean isSaved() {
+            return status == Status.SAVED;
+        }
+    }
+
     /**
      * Add a new schedule.
      */
     public static boolean addSchedule(Schedule schedule) {
-        System.out.println("\nAttempting to add schedule:");
-        System.out.println("Course ID: " + schedule.getCourseId());
-        System.out.println("Instructor ID: " + schedule.getInstructorId());
-        System.out.println("Day: " + schedule.getDayOfWeek());
-        System.out.println("Time: " + schedule.getStartTime() + " - " + schedule.getEndTime());
-        System.out.println("Room: " + schedule.getRoom());
-        System.out.println("Program Type: " + schedule.getProgramType());
-
-        // First validate the schedule
-        try {
-            List<ScheduleResource> resources = schedule.getRequiredResources();
-            if (resources == null) {
-                resources = new ArrayList<>();
-            }
-            System.out.println("Resources: " + resources.size());
-
-            ScheduleValidationUtil.ValidationResult validationResult = ScheduleValidationUtil.validateSchedule(schedule,
-                    resources);
-
-            if (!validationResult.isValid) {
-                System.out.println("Validation failed: " + validationResult.message);
-                JOptionPane.showMessageDialog(null,
-                        validationResult.message,
-                        "Validation Error",
-                        JOptionPane.ERROR_MESSAGE);
-                return false;
-            }
-            System.out.println("Validation passed");
+        WriteResult result = insertSchedule(schedule);
+        if (!result.isSaved()) {
+            showError(result.message,
+                    result.status == WriteResult.Status.ERROR ? "Database Error" : "Validation Error");
+        }
+        return result.isSaved();
+    }
 
-            Connection conn = null;
-            try {
-                conn = DatabaseUtil.getConnection();
-                System.out.println("Database connection established");
-
-                // Insert schedule
-                String sql = "INSERT INTO Schedule (course_id, instructor_id, day_of_week, start_time, end_time, room, program_type) "
-                        +
-                        "VALUES (?, ?, ?, ?, ?, ?, ?)";
-
-                PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
-                pstmt.setInt(1, schedule.getCourseId());
-                pstmt.setInt(2, schedule.getInstructorId());
-                pstmt.setString(3, schedule.getDayOfWeek());
-                pstmt.setString(4, schedule.getStartTime());
-                pstmt.setString(5, schedule.getEndTime());
-                pstmt.setString(6, schedule.getRoom());
-                pstmt.setString(7, schedule.getProgramType());
-
-                System.out.println("Executing SQL: " + sql);
-                System.out.println("Parameters: " + schedule.getCourseId() + ", " + schedule.getInstructorId() + ", " +
-                        schedule.getDayOfWeek() + ", " + schedule.getStartTime() + ", " + schedule.getEndTime() + ", " +
-                        schedule.getRoom() + ", " + schedule.getProgramType());
-
-                int affectedRows = pstmt.executeUpdate();
-                System.out.println("Affected rows: " + affectedRows);
-
-                if (affectedRows > 0) {
-                    // Get the generated schedule ID
-                    ResultSet generatedKeys = pstmt.getGeneratedKeys();
-                    if (generatedKeys.next()) {
-                        int scheduleId = generatedKeys.getInt(1);
-                        schedule.setScheduleId(scheduleId);
-                        System.out.println("Generated schedule ID: " + scheduleId);
-
-                        // Add resources if any
-                        if (!resources.isEmpty()) {
-                            String resourceSql = "INSERT INTO ScheduleResources (schedule_id, resource_id, quantity_needed) VALUES (?, ?, ?)";
-                            PreparedStatement resourceStmt = conn.prepareStatement(resourceSql);
-
-                            for (ScheduleResource resource : resources) {
-                                resourceStmt.setInt(1, scheduleId);
-                                resourceStmt.setInt(2, resource.getResourceId());
-                                resourceStmt.setInt(3, resource.getQuantityNeeded());
-                                resourceStmt.executeUpdate();
-                                System.out.println("Added resource: " + resource.getResourceId() + " with quantity "
-                                        + resource.getQuantityNeeded());
-                            }
-                        }
+    /**
+     * Insert a new schedule. The conflict check and the insert run in one
+     * BEGIN IMMEDIATE transaction, so two clients booking the same room at
+     * the same time cannot both succeed.
+     */
+    public static WriteResult insertSchedule(Schedule schedule) {
+        List<ScheduleResource> resources = schedule.getRequiredResources();
+        if (resources == null) {
+            resources = new ArrayList<>();
+        }
 
-                        conn.commit();
-                        System.out.println("Transaction committed successfully");
-                        return true;
-                    }
-                }
+        ScheduleValidationUtil.ValidationResult validationResult = ScheduleValidationUtil.validateSchedule(schedule,
+                resources);
+        if (!validationResult.isValid) {
+            return new WriteResult(WriteResult.Status.INVALID, validationResult.message);
+        }
 
-                conn.rollback();
-                System.out.println("Transaction rolled back - no rows affected");
-                return false;
-            } catch (SQLException e) {
-                if (conn != null) {
-                    try {
-                        conn.rollback();
-                        System.out.println("Transaction rolled back due to error");
-                    } catch (SQLException ex) {
-                        ex.printStackTrace();
-                    }
+        TransactionEvent txEvent = TransactionEvent.start("ScheduleDAO", "addSchedule");
+        txEvent.room = schedule.getRoom();
+        txEvent.day = schedule.getDayOfWeek();
+
+        final List<ScheduleResource> requested = resources;
+        try {
+            WriteResult result = DatabaseUtil.inImmediateTransaction(conn -> {
+                String conflict = getConflictDetails(conn, schedule);
+                if (conflict != null) {
+                    return new WriteResult(WriteResult.Status.CONFLICT, conflict);
                 }
-                e.printStackTrace();
-                System.out.println("SQL Error: " + e.getMessage());
-                JOptionPane.showMessageDialog(null,
-                        "Error adding schedule: " + e.getMessage(),
-                        "Database Error",
-                        JOptionPane.ERROR_MESSAGE);
-                return false;
-            } finally {
-                if (conn != null) {
-                    try {
-                        conn.close();
-                        System.out.println("Database connection closed");
-                    } catch (SQLException e) {
-                        e.printStackTrace();
+
+                RoomDAO.ensureRooms(conn, Collections.singletonList(schedule.getRoom()));
+                String sql = "INSERT INTO Schedule (course_id, instructor_id, day_of_week, start_time, end_time, room, "
+                        + "program_type, room_id) VALUES (?, ?, ?, ?, ?, ?, ?, " + RoomDAO.ROOM_ID + ")";
+                try (PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                    pstmt.setInt(1, schedule.getCourseId());
+                    pstmt.setInt(2, schedule.getInstructorId());
+                    pstmt.setString(3, schedule.getDayOfWeek());
+                    pstmt.setString(4, schedule.getStartTime());
+                    pstmt.setString(5, schedule.getEndTime());
+                    pstmt.setString(6, schedule.getRoom());
+                    pstmt.setString(7, schedule.getProgramType());
+                    pstmt.setString(8, schedule.getRoom());
+                    pstmt.executeUpdate();
+
+                    try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
+                        if (!generatedKeys.next()) {
+                            throw new SQLException("Insert into Schedule returned no key");
+                        }
+                        schedule.setScheduleId(generatedKeys.getInt(1));
                     }
                 }
+                insertScheduleResources(conn, schedule.getScheduleId(), requested);
+                schedule.setVersion(0);
+                return new WriteResult(WriteResult.Status.SAVED, "Schedule added", 0);
+            });
+
+            if (result.isSaved()) {
+                txEvent.committed(1 + requested.size());
+            } else {
+                txEvent.rolledBack();
             }
-        } catch (Exception e) {
+            return result;
+        } catch (SQLException e) {
+            txEvent.failed(e);
+            DatabaseErrorStats.record(e);
             e.printStackTrace();
-            System.out.println("Validation Error: " + e.getMessage());
-            JOptionPane.showMessageDialog(null,
-                    "Error during schedule validation: " + e.getMessage(),
-                    "Validation Error",
-                    JOptionPane.ERROR_MESSAGE);
-            return false;
+            return new WriteResult(WriteResult.Status.ERROR, "Error adding schedule: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Insert many schedules in one write, without per-row validation or
+     * conflict checks; callers such as the bulk importer check the rows
+     * first. Returns, for each schedule, null if it was inserted or the
+     * reason it was refused; or null if the write failed.
+     */
+    public static List<String> insertSchedules(List<Schedule> schedules) {
+        String sql = "INSERT INTO Schedule (course_id, instructor_id, day_of_week, start_time, end_time, room, "
+                + "program_type, status, room_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, " + RoomDAO.ROOM_ID + ")";
+        TransactionEvent txEvent = TransactionEvent.start("ScheduleDAO", "insertSchedules");
+        try {
+            List<String> errors = DatabaseWriter.write(conn -> {
+                RoomDAO.ensureRooms(conn, schedules.stream().map(Schedule::getRoom).collect(Collectors.toList()));
+                return BatchInsert.insertAll(sql, schedules, (pstmt, schedule) -> {
+                    pstmt.setInt(1, schedule.getCourseId());
+                    pstmt.setInt(2, schedule.getInstructorId());
+                    pstmt.setString(3, schedule.getDayOfWeek());
+                    pstmt.setString(4, schedule.getStartTime());
+                    pstmt.setString(5, schedule.getEndTime());
+                    pstmt.setString(6, schedule.getRoom());
+                    pstmt.setString(7, schedule.getProgramType());
+                    pstmt.setString(8, schedule.getStatus());
+                    pstmt.setString(9, schedule.getRoom());
+                });
+            });
+            txEvent.committed((int) errors.stream().filter(error -> error == null).count());
+            return errors;
+        } catch (SQLException e) {
+            txEvent.failed(e);
+            DatabaseErrorStats.record(e);
+            e.printStackTrace();
+            return null;
         }
     }
 
+    /**
+     * Report an error to the user, or to stderr when running without a display
+     * (server and load-test modes).
+     */
+    private static void showError(String message, String title) {
+        if (GraphicsEnvironment.isHeadless()) {
+            System.err.println(title + ": " + message);
+            return;
+        }
+        JOptionPane.showMessageDialog(null, message, title, JOptionPane.ERROR_MESSAGE);
+    }
+
     /**
      * Update an existing schedule.
      */
     public static boolean updateSchedule(Schedule schedule) {
-        // First validate the schedule
+        WriteResult result = updateScheduleChecked(schedule);
+        if (!result.isSaved()) {
+            String title = result.status == WriteResult.Status.STALE ? "Schedule Changed"
+                    : result.status == WriteResult.Status.ERROR ? "Database Error" : "Validation Error";
+            showError(result.message, title);
+        }
+        return result.isSaved();
+    }
+
+    /**
+     * Update a schedule if nobody else changed it since it was read
+     * (compare-and-set on the version column). The conflict re-check, the
+     * update and the resource rewrite run in one BEGIN IMMEDIATE transaction.
+     * On success the schedule's version is advanced.
+     */
+    public static WriteResult updateScheduleChecked(Schedule schedule) {
         ScheduleValidationUtil.ValidationResult validationResult = ScheduleValidationUtil.validateSchedule(schedule,
                 schedule.getRequiredResources());
-
         if (!validationResult.isValid) {
-            JOptionPane.showMessageDialog(null,
-                    validationResult.message,
-                    "Validation Error",
-                    JOptionPane.ERROR_MESSAGE);
-            return false;
+            return new WriteResult(WriteResult.Status.INVALID, validationResult.message);
         }
 
-        Connection conn = null;
+        TransactionEvent txEvent = TransactionEvent.start("ScheduleDAO", "updateSchedule");
+        txEvent.room = schedule.getRoom();
+        txEvent.day = schedule.getDayOfWeek();
+
         try {
-            conn = DatabaseUtil.getConnection();
-
-            // Update the schedule
-            String sql = "UPDATE Schedule SET course_id = ?, instructor_id = ?, day_of_week = ?, " +
-                    "start_time = ?, end_time = ?, room = ?, program_type = ? WHERE schedule_id = ?";
-
-            PreparedStatement pstmt = conn.prepareStatement(sql);
-            pstmt.setInt(1, schedule.getCourseId());
-            pstmt.setInt(2, schedule.getInstructorId());
-            pstmt.setString(3, schedule.getDayOfWeek());
-            pstmt.setString(4, schedule.getStartTime());
-            pstmt.setString(5, schedule.getEndTime());
-            pstmt.setString(6, schedule.getRoom());
-            pstmt.setString(7, schedule.getProgramType());
-            pstmt.setInt(8, schedule.getScheduleId());
-
-            int affectedRows = pstmt.executeUpdate();
-            if (affectedRows > 0) {
-                // Update resources
-                // First delete existing resources
-                String deleteResourcesSql = "DELETE FROM ScheduleResources WHERE schedule_id = ?";
-                PreparedStatement deleteStmt = conn.prepareStatement(deleteResourcesSql);
-                deleteStmt.setInt(1, schedule.getScheduleId());
-                deleteStmt.executeUpdate();
-
-                // Then add new resources
-                if (schedule.getRequiredResources() != null && !schedule.getRequiredResources().isEmpty()) {
-                    String resourceSql = "INSERT INTO ScheduleResources (schedule_id, resource_id, quantity_needed) VALUES (?, ?, ?)";
-                    PreparedStatement resourceStmt = conn.prepareStatement(resourceSql);
-
-                    for (ScheduleResource resource : schedule.getRequiredResources()) {
-                        resourceStmt.setInt(1, schedule.getScheduleId());
-                        resourceStmt.setInt(2, resource.getResourceId());
-                        resourceStmt.setInt(3, resource.getQuantityNeeded());
-                        resourceStmt.executeUpdate();
-                    }
+            WriteResult result = DatabaseUtil.inImmediateTransaction(conn -> {
+                String conflict = getConflictDetails(conn, schedule);
+                if (conflict != null) {
+                    return new WriteResult(WriteResult.Status.CONFLICT, conflict);
                 }
 
-                conn.commit();
-                return true;
-            }
+                RoomDAO.ensureRooms(conn, Collections.singletonList(schedule.getRoom()));
+                String sql = "UPDATE Schedule SET course_id = ?, instructor_id = ?, day_of_week = ?, " +
+                        "start_time = ?, end_time = ?, room = ?, program_type = ?, room_id = " + RoomDAO.ROOM_ID + ", " +
+                        "version = version + 1 WHERE schedule_id = ? AND version = ?";
+                int affectedRows;
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    pstmt.setInt(1, schedule.getCourseId());
+                    pstmt.setInt(2, schedule.getInstructorId());
+                    pstmt.setString(3, schedule.getDayOfWeek());
+                    pstmt.setString(4, schedule.getStartTime());
+                    pstmt.setString(5, schedule.getEndTime());
+                    pstmt.setString(6, schedule.getRoom());
+                    pstmt.setString(7, schedule.getProgramType());
+                    pstmt.setString(8, schedule.getRoom());
+                    pstmt.setInt(9, schedule.getScheduleId());
+                    pstmt.setInt(10, schedule.getVersion());
+                    affectedRows = pstmt.executeUpdate();
+                }
 
-            conn.rollback();
-            return false;
-        } catch (SQLException e) {
-            try {
-                if (conn != null) {
-                    conn.rollback();
+                if (affectedRows == 0) {
+                    int current = getVersion(conn, schedule.getScheduleId());
+                    if (current < 0) {
+                        return new WriteResult(WriteResult.Status.NOT_FOUND, "Schedule no longer exists");
+                    }
+                    return new WriteResult(WriteResult.Status.STALE,
+                            "This schedule was changed by another user. Reload it and try again.", current);
                 }
-            } catch (SQLException ex) {
-                ex.printStackTrace();
+
+                try (PreparedStatement deleteStmt = conn.prepareStatement(
+                        "DELETE FROM ScheduleResources WHERE schedule_id = ?")) {
+                    deleteStmt.setInt(1, schedule.getScheduleId());
+                    deleteStmt.executeUpdate();
+                }
+                insertScheduleResources(conn, schedule.getScheduleId(), schedule.getRequiredResources());
+
+                return new WriteResult(WriteResult.Status.SAVED, "Schedule updated", schedule.getVersion() + 1);
+            });
+
+            if (result.isSaved()) {
+                // Only once committed: a retried write must compare against the version that was read
+                schedule.setVersion(result.currentVersion);
+                txEvent.committed(1);
+            } else {
+                txEvent.rolledBack();
             }
+            return result;
+        } catch (SQLException e) {
+            txEvent.failed(e);
+            DatabaseErrorStats.record(e);
             e.printStackTrace();
-            return false;
-        } finally {
-            try {
-                if (conn != null && !conn.isClosed()) {
-                    conn.close();
-                }
-            } catch (SQLException e) {
-                e.printStackTrace();
+            return new WriteResult(WriteResult.Status.ERROR, "Error updating schedule: " + e.getMessage());
+        }
+    }
+
+    private static void insertScheduleResources(Connection conn, int scheduleId, List<ScheduleResource> resources)
+            throws SQLException {
+        if (resources == null || resources.isEmpty()) {
+            return;
+        }
+        String resourceSql = "INSERT INTO ScheduleResources (schedule_id, resource_id, quantity_needed) VALUES (?, ?, ?)";
+        try (PreparedStatement resourceStmt = conn.prepareStatement(resourceSql)) {
+            for (ScheduleResource resource : resources) {
+                resourceStmt.setInt(1, scheduleId);
+                resourceStmt.setInt(2, resource.getResourceId());
+                resourceStmt.setInt(3, resource.getQuantityNeeded());
+                resourceStmt.addBatch();
             }
+            resourceStmt.executeBatch();
         }
     }
 
     /**
-     * Delete a schedule.
+     * Current version of a schedule row, or -1 if it does not exist.
      */
-    public static boolean deleteSchedule(int scheduleId) {
-        Connection conn = null;
-        try {
-            conn = DatabaseUtil.getConnection();
-
-            // First delete associated resources
-            String deleteResourcesSql = "DELETE FROM ScheduleResources WHERE schedule_id = ?";
-            PreparedStatement resourceStmt = conn.prepareStatement(deleteResourcesSql);
-            resourceStmt.setInt(1, scheduleId);
-            resourceStmt.executeUpdate();
-
-            // Then delete the schedule
-            String deleteScheduleSql = "DELETE FROM Schedule WHERE schedule_id = ?";
-            PreparedStatement scheduleStmt = conn.prepareStatement(deleteScheduleSql);
-            scheduleStmt.setInt(1, scheduleId);
-
-            int affectedRows = scheduleStmt.executeUpdate();
-            if (affectedRows > 0) {
-                conn.commit();
-                return true;
+    private static int getVersion(Connection conn, int scheduleId) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT version FROM Schedule WHERE schedule_id = ?")) {
+            pstmt.setInt(1, scheduleId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : -1;
             }
+        }
+    }
 
-            conn.rollback();
-            return false;
-        } catch (SQLException e) {
-            try {
-                if (conn != null) {
-                    conn.rollback();
+    /**
+     * Delete a schedule if nobody else changed it since it was read
+     * (compare-and-set on the version column), together with its resource
+     * bookings.
+     */
+    public static WriteResult deleteSchedule(int scheduleId, int expectedVersion) {
+        TransactionEvent txEvent = TransactionEvent.start("ScheduleDAO", "deleteSchedule");
+
+        try {
+            WriteResult result = DatabaseUtil.inImmediateTransaction(conn -> {
+                int affectedRows;
+                try (PreparedStatement scheduleStmt = conn.prepareStatement(
+                        "DELETE FROM Schedule WHERE schedule_id = ? AND version = ?")) {
+                    scheduleStmt.setInt(1, scheduleId);
+                    scheduleStmt.setInt(2, expectedVersion);
+                    affectedRows = scheduleStmt.executeUpdate();
                 }
-            } catch (SQLException ex) {
-                ex.printStackTrace();
-            }
-            e.printStackTrace();
-            return false;
-        } finally {
-            try {
-                if (conn != null && !conn.isClosed()) {
-                    conn.close();
+
+                if (affectedRows == 0) {
+                    int current = getVersion(conn, scheduleId);
+                    if (current < 0) {
+                        return new WriteResult(WriteResult.Status.NOT_FOUND, "Schedule no longer exists");
+                    }
+                    return new WriteResult(WriteResult.Status.STALE,
+                            "This schedule was changed by another user. Reload it and try again.", current);
+                }
+
+                // Only once the schedule is gone, so a stale delete leaves its resources alone
+                try (PreparedStatement resourceStmt = conn.prepareStatement(
+                        "DELETE FROM ScheduleResources WHERE schedule_id = ?")) {
+                    resourceStmt.setInt(1, scheduleId);
+                    resourceStmt.executeUpdate();
                 }
-            } catch (SQLException e) {
-                e.printStackTrace();
+                return new WriteResult(WriteResult.Status.SAVED, "Schedule deleted");
+            });
+
+            if (result.isSaved()) {
+                txEvent.committed(1);
+            } else {
+                txEvent.rolledBack();
             }
+            return result;
+        } catch (SQLException e) {
+            txEvent.failed(e);
+            DatabaseErrorStats.record(e);
+            e.printStackTrace();
+            return new WriteResult(WriteResult.Status.ERROR, "Error deleting schedule: " + e.getMessage());
         }
     }
 
@@ -285,24 +372,95 @@ public class ScheduleDAO {
                 "JOIN Courses c ON s.course_id = c.course_id " +
                 "JOIN Users u ON s.instructor_id = u.user_id";
 
-        try (Connection conn = DatabaseUtil.getConnection();
+        DaoQueryEvent event = DaoQueryEvent.start("ScheduleDAO", "getAllSchedulesWithDetails");
+
+        try (Connection conn = DatabaseUtil.getReadConnection();
                 Statement stmt = conn.createStatement();
                 ResultSet rs = stmt.executeQuery(sql)) {
 
             while (rs.next()) {
-                Schedule schedule = extractScheduleFromResultSet(rs);
-                schedule.setCourseName(rs.getString("course_name"));
-                schedule.setCourseCode(rs.getString("course_code"));
-                schedule.setInstructorName(rs.getString("instructor_name"));
+                Schedule schedule = extractScheduleWithDetails(rs);
                 schedules.add(schedule);
             }
         } catch (SQLException e) {
+            event.fail(e);
+            DatabaseErrorStats.record(e);
             e.printStackTrace();
         }
 
+        event.finish(schedules.size());
         return schedules;
     }
 
+    /**
+     * Get every schedule that has been published, with details; drafts are
+     * left out as they are not yet visible to students.
+     */
+    public static List<Schedule> getPublishedSchedulesWithDetails() {
+        List<Schedule> schedules = new ArrayList<>();
+        String sql = "SELECT s.*, c.course_name, c.course_code, u.full_name as instructor_name " +
+                "FROM Schedule s " +
+                "JOIN Courses c ON s.course_id = c.course_id " +
+                "JOIN Users u ON s.instructor_id = u.user_id " +
+                "WHERE s.status <> 'draft'";
+
+        DaoQueryEvent event = DaoQueryEvent.start("ScheduleDAO", "getPublishedSchedulesWithDetails");
+
+        try (Connection conn = DatabaseUtil.getReadConnection();
+                Statement stmt = conn.createStatement();
+                ResultSet rs = stmt.executeQuery(sql)) {
+
+            while (rs.next()) {
+                schedules.add(extractScheduleWithDetails(rs));
+            }
+        } catch (SQLException e) {
+            event.fail(e);
+            DatabaseErrorStats.record(e);
+            e.printStackTrace();
+        }
+
+        event.finish(schedules.size());
+        return schedules;
+    }
+
+    /**
+     * Stream the full schedule join, or one room's timetable in day and time
+     * order when {@code room} is not null, to the handler as a forward-only
+     * result set. Columns are named for export.
+     */
+    public static void streamSchedules(String room, ResultSetHandler handler) throws SQLException {
+        String sql = "SELECT s.schedule_id, c.course_code, c.course_name, u.full_name AS instructor_name, " +
+                "s.day_of_week, s.start_time, s.end_time, s.room, s.program_type, s.status " +
+                "FROM Schedule s " +
+                "JOIN Courses c ON s.course_id = c.course_id " +
+                "JOIN Users u ON s.instructor_id = u.user_id " +
+                (room != null
+                        ? "WHERE s.room = ? ORDER BY CASE s.day_of_week WHEN 'Monday' THEN 1 WHEN 'Tuesday' THEN 2 " +
+                                "WHEN 'Wednesday' THEN 3 WHEN 'Thursday' THEN 4 WHEN 'Friday' THEN 5 " +
+                                "WHEN 'Saturday' THEN 6 ELSE 7 END, s.start_time"
+                        : "ORDER BY s.schedule_id"); // Rowid order needs no sort, so memory stays flat
+
+        DaoQueryEvent event = DaoQueryEvent.start("ScheduleDAO", "streamSchedules");
+
+        try (Connection conn = DatabaseUtil.getReadConnection();
+                PreparedStatement pstmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+                        ResultSet.CONCUR_READ_ONLY)) {
+
+            if (room != null) {
+                pstmt.setString(1, room);
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                handler.handle(rs);
+            }
+        } catch (SQLException e) {
+            event.fail(e);
+            DatabaseErrorStats.record(e);
+            throw e;
+        } finally {
+            event.finish(0); // Rows are counted by the handler
+        }
+    }
+
     /**
      * Get schedules for a specific student.
      */
@@ -315,24 +473,26 @@ public class ScheduleDAO {
                 "JOIN Enrollments e ON s.course_id = e.course_id " +
                 "WHERE e.student_id = ?";
 
-        try (Connection conn = DatabaseUtil.getConnection();
+        DaoQueryEvent event = DaoQueryEvent.start("ScheduleDAO", "getSchedulesByStudentId");
+
+        try (Connection conn = DatabaseUtil.getReadConnection();
                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setInt(1, studentId);
 
             try (ResultSet rs = pstmt.executeQuery()) {
                 while (rs.next()) {
-                    Schedule schedule = extractScheduleFromResultSet(rs);
-                    schedule.setCourseName(rs.getString("course_name"));
-                    schedule.setCourseCode(rs.getString("course_code"));
-                    schedule.setInstructorName(rs.getString("instructor_name"));
+                    Schedule schedule = extractScheduleWithDetails(rs);
                     schedules.add(schedule);
                 }
             }
         } catch (SQLException e) {
+            event.fail(e);
+            DatabaseErrorStats.record(e);
             e.printStackTrace();
         }
 
+        event.finish(schedules.size());
         return schedules;
     }
 
@@ -349,6 +509,7 @@ public class ScheduleDAO {
         schedule.setEndTime(rs.getString("end_time"));
         schedule.setRoom(rs.getString("room"));
         schedule.setProgramType(rs.getString("program_type"));
+        schedule.setVersion(rs.getInt("version"));
 
         // Properly set status and publish date
         String status = rs.getString("status");
@@ -363,24 +524,23 @@ public class ScheduleDAO {
     }
 
     /**
-     * Get all unique rooms from the Schedule table.
+     * Helper method to create a Schedule with course and instructor display
+     * data from a ResultSet joined with Courses and Users. The display values
+     * are shared per course/instructor rather than copied into every row.
      */
-    public static List<String> getAllRooms() {
-        List<String> rooms = new ArrayList<>();
-        String sql = "SELECT DISTINCT room FROM Schedule ORDER BY room";
-
-        try (Connection conn = DatabaseUtil.getConnection();
-                Statement stmt = conn.createStatement();
-                ResultSet rs = stmt.executeQuery(sql)) {
-
-            while (rs.next()) {
-                rooms.add(rs.getString("room"));
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
+    private static Schedule extractScheduleWithDetails(ResultSet rs) throws SQLException {
+        Schedule schedule = extractScheduleFromResultSet(rs);
+        schedule.setCourseDisplay(rs.getString("course_name"), rs.getString("course_code"));
+        schedule.setInstructorName(rs.getString("instructor_name"));
+        return schedule;
+    }
 
-        return rooms;
+    /**
+     * Get every room in the room catalog, which holds each room used by a
+     * schedule or a student.
+     */
+    public static List<String> getAllRooms() {
+        return RoomDAO.getRoomNames();
     }
 
     /**
@@ -394,24 +554,27 @@ public class ScheduleDAO {
                 "JOIN Users u ON s.instructor_id = u.user_id " +
                 "WHERE s.room = ?";
 
-        try (Connection conn = DatabaseUtil.getConnection();
+        DaoQueryEvent event = DaoQueryEvent.start("ScheduleDAO", "getSchedulesByRoom");
+        event.room = room;
+
+        try (Connection conn = DatabaseUtil.getReadConnection();
                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setString(1, room);
 
             try (ResultSet rs = pstmt.executeQuery()) {
                 while (rs.next()) {
-                    Schedule schedule = extractScheduleFromResultSet(rs);
-                    schedule.setCourseName(rs.getString("course_name"));
-                    schedule.setCourseCode(rs.getString("course_code"));
-                    schedule.setInstructorName(rs.getString("instructor_name"));
+                    Schedule schedule = extractScheduleWithDetails(rs);
                     schedules.add(schedule);
                 }
             }
         } catch (SQLException e) {
+            event.fail(e);
+            DatabaseErrorStats.record(e);
             e.printStackTrace();
         }
 
+        event.finish(schedules.size());
         return schedules;
     }
 
@@ -426,24 +589,26 @@ public class ScheduleDAO {
                 "JOIN Users u ON s.instructor_id = u.user_id " +
                 "WHERE s.instructor_id = ?";
 
-        try (Connection conn = DatabaseUtil.getConnection();
+        DaoQueryEvent event = DaoQueryEvent.start("ScheduleDAO", "getSchedulesByInstructorId");
+
+        try (Connection conn = DatabaseUtil.getReadConnection();
                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setInt(1, instructorId);
 
             try (ResultSet rs = pstmt.executeQuery()) {
                 while (rs.next()) {
-                    Schedule schedule = extractScheduleFromResultSet(rs);
-                    schedule.setCourseName(rs.getString("course_name"));
-                    schedule.setCourseCode(rs.getString("course_code"));
-                    schedule.setInstructorName(rs.getString("instructor_name"));
+                    Schedule schedule = extractScheduleWithDetails(rs);
                     schedules.add(schedule);
                 }
             }
         } catch (SQLException e) {
+            event.fail(e);
+            DatabaseErrorStats.record(e);
             e.printStackTrace();
         }
 
+        event.finish(schedules.size());
         return schedules;
     }
 
@@ -456,7 +621,9 @@ public class ScheduleDAO {
                 "((s.room = ? OR s.instructor_id = ?) AND " +
                 "(s.start_time < ? AND s.end_time > ?))";
 
-        try (Connection conn = DatabaseUtil.getConnection();
+        ConflictCheckEvent event = ConflictCheckEvent.start(schedule);
+
+        try (Connection conn = DatabaseUtil.getReadConnection();
                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setString(1, schedule.getDayOfWeek());
@@ -479,15 +646,30 @@ public class ScheduleDAO {
                     System.out.println(
                             "Existing schedule: " + rs.getString("start_time") + " - " + rs.getString("end_time"));
                 }
+                event.finish(hasConflict, hasConflict ? "conflict" : "clear");
                 return hasConflict;
             }
         } catch (SQLException e) {
+            event.finish(true, "error");
             e.printStackTrace();
             return true; // Assume conflict on error
         }
     }
 
     public static String getConflictDetails(Schedule schedule) {
+        try (Connection conn = DatabaseUtil.getReadConnection()) {
+            return getConflictDetails(conn, schedule);
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return "Error checking conflicts";
+        }
+    }
+
+    /**
+     * Describe the first room or instructor overlap for the schedule using the
+     * caller's connection (and transaction), or return null if there is none.
+     */
+    public static String getConflictDetails(Connection conn, Schedule schedule) throws SQLException {
         String sql = "SELECT s.*, c.course_name, c.course_code, u.full_name as instructor_name " +
                 "FROM Schedule s " +
                 "JOIN Courses c ON s.course_id = c.course_id " +
@@ -496,8 +678,9 @@ public class ScheduleDAO {
                 "((s.room = ? OR s.instructor_id = ?) AND " +
                 "NOT (s.end_time <= ? OR s.start_time >= ?))";
 
-        try (Connection conn = DatabaseUtil.getConnection();
-                PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        ConflictCheckEvent event = ConflictCheckEvent.start(schedule);
+
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setString(1, schedule.getDayOfWeek());
             pstmt.setInt(2, schedule.getScheduleId());
@@ -509,6 +692,7 @@ public class ScheduleDAO {
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
                     String conflictType = rs.getString("room").equals(schedule.getRoom()) ? "Room" : "Instructor";
+                    event.finish(true, conflictType.toLowerCase());
                     return String.format("%s conflict: %s is already scheduled for %s from %s to %s",
                             conflictType,
                             conflictType.equals("Room") ? rs.getString("room") : rs.getString("instructor_name"),
@@ -516,82 +700,58 @@ public class ScheduleDAO {
                             rs.getString("start_time"),
                             rs.getString("end_time"));
                 }
+                event.finish(false, "clear");
                 return null;
             }
         } catch (SQLException e) {
-            e.printStackTrace();
-            return "Error checking conflicts";
+            event.finish(true, "error");
+            throw e;
         }
     }
 
     public static boolean addScheduleWithResources(Schedule schedule, List<ScheduleResource> resources) {
-        Connection conn = null;
-        try {
-            conn = DatabaseUtil.getConnection();
-            conn.setAutoCommit(false);
-
-            // First insert the schedule
-            String scheduleSql = "INSERT INTO Schedule (course_id, instructor_id, day_of_week, start_time, end_time, room, program_type) "
-                    + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+        TransactionEvent txEvent = TransactionEvent.start("ScheduleDAO", "addScheduleWithResources");
+        txEvent.room = schedule.getRoom();
+        txEvent.day = schedule.getDayOfWeek();
 
-            try (PreparedStatement pstmt = conn.prepareStatement(scheduleSql, Statement.RETURN_GENERATED_KEYS)) {
-                pstmt.setInt(1, schedule.getCourseId());
-                pstmt.setInt(2, schedule.getInstructorId());
-                pstmt.setString(3, schedule.getDayOfWeek());
-                pstmt.setString(4, schedule.getStartTime());
-                pstmt.setString(5, schedule.getEndTime());
-                pstmt.setString(6, schedule.getRoom());
-                pstmt.setString(7, schedule.getProgramType());
-
-                int affectedRows = pstmt.executeUpdate();
+        try {
+            int scheduleId = DatabaseWriter.write(conn -> {
+                // First insert the schedule
+                RoomDAO.ensureRooms(conn, Collections.singletonList(schedule.getRoom()));
+                String scheduleSql = "INSERT INTO Schedule (course_id, instructor_id, day_of_week, start_time, end_time, room, "
+                        + "program_type, room_id) VALUES (?, ?, ?, ?, ?, ?, ?, " + RoomDAO.ROOM_ID + ")";
+                int id;
+                try (PreparedStatement pstmt = conn.prepareStatement(scheduleSql, Statement.RETURN_GENERATED_KEYS)) {
+                    pstmt.setInt(1, schedule.getCourseId());
+                    pstmt.setInt(2, schedule.getInstructorId());
+                    pstmt.setString(3, schedule.getDayOfWeek());
+                    pstmt.setString(4, schedule.getStartTime());
+                    pstmt.setString(5, schedule.getEndTime());
+                    pstmt.setString(6, schedule.getRoom());
+                    pstmt.setString(7, schedule.getProgramType());
+                    pstmt.setString(8, schedule.getRoom());
+                    pstmt.executeUpdate();
 
-                if (affectedRows > 0) {
                     try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
-                        if (generatedKeys.next()) {
-                            int scheduleId = generatedKeys.getInt(1);
-
-                            // Add resources if any
-                            if (!resources.isEmpty()) {
-                                String resourceSql = "INSERT INTO ScheduleResources (schedule_id, resource_id, quantity_needed) VALUES (?, ?, ?)";
-                                try (PreparedStatement resourceStmt = conn.prepareStatement(resourceSql)) {
-                                    for (ScheduleResource resource : resources) {
-                                        resourceStmt.setInt(1, scheduleId);
-                                        resourceStmt.setInt(2, resource.getResourceId());
-                                        resourceStmt.setInt(3, resource.getQuantityNeeded());
-                                        resourceStmt.executeUpdate();
-                                    }
-                                }
-                            }
-
-                            conn.commit();
-                            return true;
+                        if (!generatedKeys.next()) {
+                            throw new SQLException("Insert into Schedule returned no key");
                         }
+                        id = generatedKeys.getInt(1);
                     }
                 }
 
-                conn.rollback();
-                return false;
-
-            }
+                // Then its resources, if any
+                insertScheduleResources(conn, id, resources);
+                return id;
+            });
+            schedule.setScheduleId(scheduleId);
+            txEvent.committed(1 + resources.size());
+            return true;
         } catch (SQLException e) {
-            if (conn != null) {
-                try {
-                    conn.rollback();
-                } catch (SQLException ex) {
-                    ex.printStackTrace();
-                }
-            }
+            txEvent.failed(e);
+            DatabaseErrorStats.record(e);
             e.printStackTrace();
             return false;
-        } finally {
-            try {
-                if (conn != null) {
-                    conn.setAutoCommit(true);
-                    conn.close();
-                }
-            } catch (SQLException e) {
-                e.printStackTrace();
-            }
         }
     }
 
@@ -599,7 +759,9 @@ public class ScheduleDAO {
         List<ScheduleResource> resources = new ArrayList<>();
         String sql = "SELECT * FROM ScheduleResources WHERE schedule_id = ?";
 
-        try (Connection conn = DatabaseUtil.getConnection();
+        DaoQueryEvent event = DaoQueryEvent.start("ScheduleDAO", "getScheduleResources");
+
+        try (Connection conn = DatabaseUtil.getReadConnection();
                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setInt(1, scheduleId);
@@ -613,44 +775,172 @@ public class ScheduleDAO {
                 }
             }
         } catch (SQLException e) {
+            event.fail(e);
+            DatabaseErrorStats.record(e);
             e.printStackTrace();
         }
 
+        event.finish(resources.size());
         return resources;
     }
 
+    /**
+     * Schedules overlapping a time range on a day, with their required
+     * resources. The resources of all of them are read by a second query on
+     * the same connection rather than one lookup per schedule.
+     */
     public static List<Schedule> getSchedulesInTimeRange(String day, String startTime, String endTime) {
         List<Schedule> schedules = new ArrayList<>();
+        String overlap = "WHERE s.day_of_week = ? AND " +
+                "NOT (s.end_time <= ? OR s.start_time >= ?)";
         String sql = "SELECT s.*, c.course_name, c.course_code, u.full_name as instructor_name " +
                 "FROM Schedule s " +
                 "JOIN Courses c ON s.course_id = c.course_id " +
-                "JOIN Users u ON s.instructor_id = u.user_id " +
-                "WHERE s.day_of_week = ? AND " +
-                "NOT (s.end_time <= ? OR s.start_time >= ?)";
+                "JOIN Users u ON s.instructor_id = u.user_id " + overlap;
+        String resourcesSql = "SELECT sr.* FROM ScheduleResources sr " +
+                "JOIN Schedule s ON sr.schedule_id = s.schedule_id " + overlap;
+
+        DaoQueryEvent event = DaoQueryEvent.start("ScheduleDAO", "getSchedulesInTimeRange");
 
-        try (Connection conn = DatabaseUtil.getConnection();
+        try (Connection conn = DatabaseUtil.getReadConnection();
                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setString(1, day);
             pstmt.setString(2, startTime); // No overlap if existing ends before or at our start
             pstmt.setString(3, endTime); // No overlap if existing starts after or at our end
 
+            Map<Integer, Schedule> byId = new HashMap<>();
             try (ResultSet rs = pstmt.executeQuery()) {
                 while (rs.next()) {
-                    Schedule schedule = extractScheduleFromResultSet(rs);
-                    schedule.setCourseName(rs.getString("course_name"));
-                    schedule.setCourseCode(rs.getString("course_code"));
-                    schedule.setInstructorName(rs.getString("instructor_name"));
-                    schedule.setRequiredResources(getScheduleResources(schedule.getScheduleId()));
+                    Schedule schedule = extractScheduleWithDetails(rs);
+                    schedule.setRequiredResources(new ArrayList<>());
+                    byId.put(schedule.getScheduleId(), schedule);
                     schedules.add(schedule);
                 }
             }
+
+            if (!schedules.isEmpty()) {
+                try (PreparedStatement resources = conn.prepareStatement(resourcesSql)) {
+                    resources.setString(1, day);
+                    resources.setString(2, startTime);
+                    resources.setString(3, endTime);
+                    try (ResultSet rs = resources.executeQuery()) {
+                        while (rs.next()) {
+                            Schedule schedule = byId.get(rs.getInt("schedule_id"));
+                            if (schedule != null) {
+                                schedule.getRequiredResources().add(new ScheduleResource(
+                                        rs.getInt("schedule_id"),
+                                        rs.getInt("resource_id"),
+                                        rs.getInt("quantity_needed")));
+                            }
+                        }
+                    }
+                }
+            }
         } catch (SQLException e) {
+            event.fail(e);
+            DatabaseErrorStats.record(e);
             e.printStackTrace();
         }
+        event.finish(schedules.size());
         return schedules;
     }
 
+    /**
+     * Dated meetings in a room between two dates, inclusive. Published weekly
+     * schedules are expanded lazily over the terms in that range (see
+     * {@link OccurrenceIterator}); only the templates are loaded up front.
+     */
+    public static Iterable<ClassMeeting> getMeetingsInRoom(String room, LocalDate from, LocalDate to) {
+        return getMeetings("s.room = ?", room, from, to, "getMeetingsInRoom");
+    }
+
+    /**
+     * Dated meetings an instructor teaches between two dates, inclusive.
+     */
+    public static Iterable<ClassMeeting> getMeetingsForInstructor(int instructorId, LocalDate from, LocalDate to) {
+        return getMeetings("s.instructor_id = ?", instructorId, from, to, "getMeetingsForInstructor");
+    }
+
+    /**
+     * Dated meetings in a room and those its instructor teaches, read on the
+     * caller's connection so a check can run inside a write transaction.
+     */
+    static Iterable<ClassMeeting> getMeetingsInRoom(Connection conn, String room, LocalDate from, LocalDate to)
+            throws SQLException {
+        return loadMeetings(conn, "s.room = ?", room, from, to);
+    }
+
+    static Iterable<ClassMeeting> getMeetingsForInstructor(Connection conn, int instructorId, LocalDate from,
+            LocalDate to) throws SQLException {
+        return loadMeetings(conn, "s.instructor_id = ?", instructorId, from, to);
+    }
+
+    private static Iterable<ClassMeeting> getMeetings(String filter, Object key, LocalDate from, LocalDate to,
+            String operation) {
+        DaoQueryEvent event = DaoQueryEvent.start("ScheduleDAO", operation);
+        Iterable<ClassMeeting> meetings;
+
+        try (Connection conn = DatabaseUtil.getReadConnection();
+                Statement snapshot = conn.createStatement()) {
+            // Terms and templates from one snapshot
+            snapshot.execute("BEGIN");
+            try {
+                meetings = loadMeetings(conn, filter, key, from, to);
+            } finally {
+                snapshot.execute("COMMIT");
+            }
+        } catch (SQLException e) {
+            event.fail(e);
+            DatabaseErrorStats.record(e);
+            e.printStackTrace();
+            return Collections.emptyList();
+        }
+
+        event.finish(0); // Meetings are produced as the caller iterates
+        return meetings;
+    }
+
+    private static Iterable<ClassMeeting> loadMeetings(Connection conn, String filter, Object key, LocalDate from,
+            LocalDate to) throws SQLException {
+        if (to.isBefore(from)) {
+            return Collections.emptyList();
+        }
+        List<Term> terms = TermDAO.getTermsBetween(conn, from, to);
+        if (terms.isEmpty() && hasTerms(conn)) {
+            return Collections.emptyList(); // Range lies outside every term
+        }
+
+        // Only the days of week the range covers, so the (room|instructor, day) index narrows the scan
+        List<DayOfWeek> days = OccurrenceIterator.daysCovered(from, to);
+        String sql = "SELECT s.*, c.course_name, c.course_code, u.full_name as instructor_name " +
+                "FROM Schedule s " +
+                "JOIN Courses c ON s.course_id = c.course_id " +
+                "JOIN Users u ON s.instructor_id = u.user_id " +
+                "WHERE " + filter + " AND s.status <> 'draft' AND s.day_of_week IN (" +
+                String.join(", ", Collections.nCopies(days.size(), "?")) + ")";
+        List<Schedule> schedules = new ArrayList<>();
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setObject(1, key);
+            for (int i = 0; i < days.size(); i++) {
+                pstmt.setString(i + 2, Schedule.dayName(days.get(i)));
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    schedules.add(extractScheduleWithDetails(rs));
+                }
+            }
+        }
+        return OccurrenceIterator.meetings(schedules, terms, from, to);
+    }
+
+    private static boolean hasTerms(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+                ResultSet rs = stmt.executeQuery("SELECT EXISTS (SELECT 1 FROM Terms)")) {
+            return rs.next() && rs.getBoolean(1);
+        }
+    }
+
     /**
      * Get schedule details for a specific room for debugging
      */
@@ -660,7 +950,7 @@ public class ScheduleDAO {
                 "JOIN Courses c ON s.course_id = c.course_id " +
                 "WHERE s.room = ?";
 
-        try (Connection conn = DatabaseUtil.getConnection();
+        try (Connection conn = DatabaseUtil.getReadConnection();
                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setString(1, room);
@@ -700,24 +990,26 @@ public class ScheduleDAO {
                 "JOIN Users u ON s.instructor_id = u.user_id " +
                 "WHERE s.course_id = ?";
 
-        try (Connection conn = DatabaseUtil.getConnection();
+        DaoQueryEvent event = DaoQueryEvent.start("ScheduleDAO", "getSchedulesByCourseId");
+
+        try (Connection conn = DatabaseUtil.getReadConnection();
                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setInt(1, courseId);
 
             try (ResultSet rs = pstmt.executeQuery()) {
                 while (rs.next()) {
-                    Schedule schedule = extractScheduleFromResultSet(rs);
-                    schedule.setCourseName(rs.getString("course_name"));
-                    schedule.setCourseCode(rs.getString("course_code"));
-                    schedule.setInstructorName(rs.getString("instructor_name"));
+                    Schedule schedule = extractScheduleWithDetails(rs);
                     schedules.add(schedule);
                 }
             }
         } catch (SQLException e) {
+            event.fail(e);
+            DatabaseErrorStats.record(e);
             e.printStackTrace();
         }
 
+        event.finish(schedules.size());
         return schedules;
     }
 
@@ -732,21 +1024,23 @@ public class ScheduleDAO {
                 "JOIN Users u ON s.instructor_id = u.user_id " +
                 "WHERE s.status = 'draft'";
 
-        try (Connection conn = DatabaseUtil.getConnection();
+        DaoQueryEvent event = DaoQueryEvent.start("ScheduleDAO", "getAllDraftSchedules");
+
+        try (Connection conn = DatabaseUtil.getReadConnection();
                 Statement stmt = conn.createStatement();
                 ResultSet rs = stmt.executeQuery(sql)) {
 
             while (rs.next()) {
-                Schedule schedule = extractScheduleFromResultSet(rs);
-                schedule.setCourseName(rs.getString("course_name"));
-                schedule.setCourseCode(rs.getString("course_code"));
-                schedule.setInstructorName(rs.getString("instructor_name"));
+                Schedule schedule = extractScheduleWithDetails(rs);
                 schedules.add(schedule);
             }
         } catch (SQLException e) {
+            event.fail(e);
+            DatabaseErrorStats.record(e);
             e.printStackTrace();
         }
 
+        event.finish(schedules.size());
         return schedules;
     }
 
@@ -755,25 +1049,138 @@ public class ScheduleDAO {
      * publish date.
      */
     public static boolean finalizeSchedule(int scheduleId, LocalDate publishDate) {
-        String sql = "UPDATE Schedule SET status = 'published', publish_date = ? WHERE schedule_id = ?";
+        WriteResult result = publishSchedules(List.of(scheduleId), publishDate);
+        if (!result.isSaved() && result.status != WriteResult.Status.ERROR) {
+            System.err.println("Schedule " + scheduleId + " not finalized: " + result.message);
+        }
+        return result.isSaved();
+    }
 
-        try (Connection conn = DatabaseUtil.getConnection();
-                PreparedStatement pstmt = conn.prepareStatement(sql)) {
+    /**
+     * Publish a set of draft schedules all-or-nothing. The whole set is
+     * checked for room and instructor overlaps in one query, published with
+     * one batched update, and the affected instructors and enrolled students
+     * are notified in the same transaction. If any schedule is gone, no
+     * longer a draft, or conflicts, nothing is published.
+     */
+    public static WriteResult publishSchedules(List<Integer> scheduleIds, LocalDate publishDate) {
+        List<Integer> ids = new ArrayList<>(new LinkedHashSet<>(scheduleIds));
+        if (ids.isEmpty()) {
+            return new WriteResult(WriteResult.Status.INVALID, "No schedules selected");
+        }
+        String in = "(" + String.join(", ", Collections.nCopies(ids.size(), "?")) + ")";
 
-            pstmt.setDate(1, java.sql.Date.valueOf(publishDate));
-            pstmt.setInt(2, scheduleId);
+        TransactionEvent txEvent = TransactionEvent.start("ScheduleDAO", "publishSchedules");
+        int[] rowsWritten = new int[1];
+        try {
+            WriteResult result = DatabaseUtil.inImmediateTransaction(conn -> {
+                String sql = "SELECT schedule_id, status FROM Schedule WHERE schedule_id IN " + in;
+                int found = 0;
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    bindIds(pstmt, ids, 1);
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        while (rs.next()) {
+                            found++;
+                            if (!"draft".equals(rs.getString("status"))) {
+                                return new WriteResult(WriteResult.Status.STALE,
+                                        "Schedule " + rs.getInt("schedule_id") + " is no longer a draft");
+                            }
+                        }
+                    }
+                }
+                if (found < ids.size()) {
+                    return new WriteResult(WriteResult.Status.NOT_FOUND,
+                            (ids.size() - found) + " of the selected schedules no longer exist");
+                }
 
-            int affectedRows = pstmt.executeUpdate();
-            if (affectedRows > 0) {
-                conn.commit();
-                return true;
-            }
+                String conflict = getPublishConflict(conn, ids, in);
+                if (conflict != null) {
+                    return new WriteResult(WriteResult.Status.CONFLICT, conflict);
+                }
 
-            conn.rollback();
-            return false;
+                String update = "UPDATE Schedule SET status = 'published', publish_date = ?, version = version + 1 "
+                        + "WHERE schedule_id = ? AND status = 'draft'";
+                try (PreparedStatement pstmt = conn.prepareStatement(update)) {
+                    for (int id : ids) {
+                        pstmt.setDate(1, java.sql.Date.valueOf(publishDate));
+                        pstmt.setInt(2, id);
+                        pstmt.addBatch();
+                    }
+                    for (int count : pstmt.executeBatch()) {
+                        if (count != 1) {
+                            // Rolls back the whole batch
+                            throw new SQLException("Schedule changed while publishing");
+                        }
+                    }
+                }
+
+                List<Integer> params = new ArrayList<>(ids);
+                params.addAll(ids);
+                String affectedUsers = "SELECT instructor_id AS user_id FROM Schedule WHERE schedule_id IN " + in
+                        + " UNION SELECT e.student_id FROM Enrollments e "
+                        + "JOIN Schedule s ON s.course_id = e.course_id WHERE s.schedule_id IN " + in;
+                String message = "The timetable has been published, effective "
+                        + publishDate.format(DateTimeFormatter.ISO_LOCAL_DATE) + ". Check your calendar for your classes.";
+                int notified = NotificationDAO.insertForUsers(conn, affectedUsers, params, message,
+                        "SchedulePublished");
+
+                rowsWritten[0] = ids.size() + notified;
+                return new WriteResult(WriteResult.Status.SAVED,
+                        ids.size() + " schedules published, " + notified + " users notified");
+            });
+
+            if (result.isSaved()) {
+                txEvent.committed(rowsWritten[0]);
+            } else {
+                txEvent.rolledBack();
+            }
+            return result;
         } catch (SQLException e) {
+            txEvent.failed(e);
+            DatabaseErrorStats.record(e);
             e.printStackTrace();
-            return false;
+            return new WriteResult(WriteResult.Status.ERROR, "Error publishing schedules: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Find the first room or instructor overlap between a schedule in the set
+     * and any other schedule (including another one in the set), or null.
+     */
+    private static String getPublishConflict(Connection conn, List<Integer> ids, String in) throws SQLException {
+        String sql = "SELECT a.room, b.room AS other_room, ca.course_code, cb.course_code AS other_code, " +
+                "u.full_name AS instructor_name, b.day_of_week, b.start_time, b.end_time " +
+                "FROM Schedule a " +
+                "JOIN Schedule b ON b.day_of_week = a.day_of_week AND b.schedule_id != a.schedule_id " +
+                "AND (b.room = a.room OR b.instructor_id = a.instructor_id) " +
+                "AND b.start_time < a.end_time AND b.end_time > a.start_time " +
+                "JOIN Courses ca ON a.course_id = ca.course_id " +
+                "JOIN Courses cb ON b.course_id = cb.course_id " +
+                "JOIN Users u ON b.instructor_id = u.user_id " +
+                "WHERE a.schedule_id IN " + in + " LIMIT 1";
+
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            bindIds(pstmt, ids, 1);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (!rs.next()) {
+                    return null;
+                }
+                boolean room = rs.getString("room").equals(rs.getString("other_room"));
+                return String.format("%s conflict: %s has both %s and %s on %s from %s to %s",
+                        room ? "Room" : "Instructor",
+                        room ? rs.getString("room") : rs.getString("instructor_name"),
+                        rs.getString("course_code"),
+                        rs.getString("other_code"),
+                        rs.getString("day_of_week"),
+                        rs.getString("start_time"),
+                        rs.getString("end_time"));
+            }
+        }
+    }
+
+    private static void bindIds(PreparedStatement pstmt, List<Integer> ids, int firstIndex) throws SQLException {
+        for (int i = 0; i < ids.size(); i++) {
+            pstmt.setInt(firstIndex + i, ids.get(i));
         }
     }
 }
@@ -1,40 +1,46 @@
 package com.classroom.dao;
 
+import com.classroom.model.Notification;
 import com.classroom.model.ScheduleRevisionRequest;
+import com.classroom.monitoring.DatabaseErrorStats;
 import com.classroom.util.DatabaseUtil;
+import com.classroom.util.DatabaseWriter;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 
 public class ScheduleRevisionRequestDAO {
 
     public static boolean createRevisionRequest(ScheduleRevisionRequest request) {
         String sql = "INSERT INTO ScheduleRevisionRequests (schedule_id, instructor_id, request_reason, requested_changes) VALUES (?, ?, ?, ?)";
 
-        try (Connection conn = DatabaseUtil.getConnection();
-                PreparedStatement pstmt = conn.prepareStatement(sql)) {
-
-            pstmt.setInt(1, request.getScheduleId());
-            pstmt.setInt(2, request.getInstructorId());
-            pstmt.setString(3, request.getRequestReason());
-            pstmt.setString(4, request.getRequestedChanges());
+        try {
+            return DatabaseWriter.write(conn -> {
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    pstmt.setInt(1, request.getScheduleId());
+                    pstmt.setInt(2, request.getInstructorId());
+                    pstmt.setString(3, request.getRequestReason());
+                    pstmt.setString(4, request.getRequestedChanges());
+                    if (pstmt.executeUpdate() == 0) {
+                        return false;
+                    }
+                }
 
-            int affectedRows = pstmt.executeUpdate();
-            if (affectedRows > 0) {
-                // Update schedule status
+                // Update schedule status in the same transaction
                 String updateSql = "UPDATE Schedule SET status = 'revision_requested' WHERE schedule_id = ?";
-                PreparedStatement updateStmt = conn.prepareStatement(updateSql);
-                updateStmt.setInt(1, request.getScheduleId());
-                updateStmt.executeUpdate();
-
-                conn.commit();
+                try (PreparedStatement updateStmt = conn.prepareStatement(updateSql)) {
+                    updateStmt.setInt(1, request.getScheduleId());
+                    updateStmt.executeUpdate();
+                }
                 return true;
-            }
-
-            conn.rollback();
-            return false;
+            });
         } catch (SQLException e) {
+            DatabaseErrorStats.record(e);
             e.printStackTrace();
             return false;
         }
@@ -52,7 +58,7 @@ public class ScheduleRevisionRequestDAO {
                     ORDER BY r.created_at DESC
                 """;
 
-        try (Connection conn = DatabaseUtil.getConnection();
+        try (Connection conn = DatabaseUtil.getReadConnection();
                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setInt(1, instructorId);
@@ -84,7 +90,7 @@ public class ScheduleRevisionRequestDAO {
                     ORDER BY r.created_at DESC
                 """;
 
-        try (Connection conn = DatabaseUtil.getConnection();
+        try (Connection conn = DatabaseUtil.getReadConnection();
                 Statement stmt = conn.createStatement();
                 ResultSet rs = stmt.executeQuery(sql)) {
 
@@ -102,25 +108,94 @@ public class ScheduleRevisionRequestDAO {
     }
 
     public static boolean updateRequestStatus(int requestId, String status) {
-        String sql = "UPDATE ScheduleRevisionRequests SET status = ?, updated_at = CURRENT_TIMESTAMP WHERE request_id = ?";
-
-        try (Connection conn = DatabaseUtil.getConnection();
-                PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        BatchDecision decision = decideRequests(List.of(requestId), status, null);
+        return decision != null && !decision.decidedIds.isEmpty();
+    }
 
-            pstmt.setString(1, status);
-            pstmt.setInt(2, requestId);
+    /**
+     * Approve or reject several pending revision requests in one transaction:
+     * one query loads them, one batched statement decides them and one
+     * batched insert tells each instructor, with the coordinator's response
+     * if given. Requests that are gone or already decided are skipped.
+     * Returns null on a database error.
+     */
+    public static BatchDecision decideRequests(List<Integer> requestIds, String status, String response) {
+        String select = """
+                    SELECT r.*, c.course_name
+                    FROM ScheduleRevisionRequests r
+                    JOIN Schedule s ON r.schedule_id = s.schedule_id
+                    JOIN Courses c ON s.course_id = c.course_id
+                    WHERE r.request_id IN (%s)
+                """.formatted(String.join(", ", Collections.nCopies(requestIds.size(), "?")));
+        String update = "UPDATE ScheduleRevisionRequests SET status = ?, updated_at = CURRENT_TIMESTAMP, "
+                + "version = version + 1 WHERE request_id = ? AND status = 'pending'";
+
+        try {
+            return DatabaseWriter.write(conn -> {
+                BatchDecision decision = new BatchDecision(status);
+                if (requestIds.isEmpty()) {
+                    return decision;
+                }
+                Map<Integer, ScheduleRevisionRequest> loaded = new HashMap<>();
+                try (PreparedStatement pstmt = conn.prepareStatement(select)) {
+                    for (int i = 0; i < requestIds.size(); i++) {
+                        pstmt.setInt(i + 1, requestIds.get(i));
+                    }
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        while (rs.next()) {
+                            ScheduleRevisionRequest request = extractFromResultSet(rs);
+                            request.setCourseName(rs.getString("course_name"));
+                            loaded.put(request.getRequestId(), request);
+                        }
+                    }
+                }
 
-            int affectedRows = pstmt.executeUpdate();
-            if (affectedRows > 0) {
-                conn.commit();
-                return true;
-            }
+                List<ScheduleRevisionRequest> accepted = new ArrayList<>();
+                for (int requestId : new LinkedHashSet<>(requestIds)) {
+                    ScheduleRevisionRequest request = loaded.get(requestId);
+                    if (request == null) {
+                        decision.skipped.put(requestId, "not found");
+                    } else if (!"pending".equals(request.getStatus())) {
+                        decision.skipped.put(requestId, "already " + request.getStatus());
+                    } else {
+                        accepted.add(request);
+                    }
+                }
+                if (accepted.isEmpty()) {
+                    return decision;
+                }
 
-            conn.rollback();
-            return false;
+                List<Notification> notifications = new ArrayList<>();
+                try (PreparedStatement pstmt = conn.prepareStatement(update)) {
+                    for (ScheduleRevisionRequest request : accepted) {
+                        pstmt.setString(1, status);
+                        pstmt.setInt(2, request.getRequestId());
+                        pstmt.addBatch();
+                        String message = "Your revision request for " + request.getCourseName() + " has been "
+                                + status;
+                        if (response != null && !response.isBlank()) {
+                            message += ": " + response.trim();
+                        }
+                        notifications.add(new Notification(request.getInstructorId(), message, "RevisionDecision"));
+                    }
+                    int[] counts = pstmt.executeBatch();
+                    for (int i = 0; i < counts.length; i++) {
+                        if (counts[i] != 1) {
+                            throw new SQLException("Revision request " + accepted.get(i).getRequestId()
+                                    + " changed during the batch");
+                        }
+                    }
+                }
+                NotificationDAO.insertNotifications(conn, notifications);
+                for (ScheduleRevisionRequest request : accepted) {
+                    decision.decidedIds.add(request.getRequestId());
+                }
+                return decision;
+            });
         } catch (SQLException e) {
+            DatabaseErrorStats.record(e);
             e.printStackTrace();
-            return false;
+            return null;
         }
     }
 
@@ -0,0 +1,192 @@
+package com.classroom.dao;
+
+import com.classroom.model.Term;
+import com.classroom.monitoring.DatabaseErrorStats;
+import com.classroom.util.DatabaseUtil;
+import com.classroom.util.DatabaseWriter;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Data Access Object for academic terms and their holidays.
+ */
+public class TermDAO {
+
+    /**
+     * Add a term together with any holidays already set on it.
+     */
+    public static boolean createTerm(Term term) {
+        if (term.getEndDate().isBefore(term.getStartDate())) {
+            return false;
+        }
+        String sql = "INSERT INTO Terms (name, start_date, end_date) VALUES (?, ?, ?)";
+        try {
+            return DatabaseWriter.write(conn -> {
+                try (PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                    pstmt.setString(1, term.getName());
+                    pstmt.setDate(2, Date.valueOf(term.getStartDate()));
+                    pstmt.setDate(3, Date.valueOf(term.getEndDate()));
+                    pstmt.executeUpdate();
+                    try (ResultSet rs = pstmt.getGeneratedKeys()) {
+                        if (!rs.next()) {
+                            return false;
+                        }
+                        term.setTermId(rs.getInt(1));
+                    }
+                }
+                for (Map.Entry<LocalDate, String> holiday : term.getHolidays().entrySet()) {
+                    insertHoliday(conn, term.getTermId(), holiday.getKey(), holiday.getValue());
+                }
+                return true;
+            });
+        } catch (SQLException e) {
+            DatabaseErrorStats.record(e);
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * Mark a date of a term as a holiday, replacing any description it had.
+     */
+    public static boolean addHoliday(int termId, LocalDate date, String description) {
+        try {
+            return DatabaseWriter.write(conn -> {
+                Term term = getTerm(conn, termId);
+                if (term == null || !term.contains(date)) {
+                    return false;
+                }
+                insertHoliday(conn, termId, date, description);
+                return true;
+            });
+        } catch (SQLException e) {
+            DatabaseErrorStats.record(e);
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    public static boolean removeHoliday(int termId, LocalDate date) {
+        String sql = "DELETE FROM TermHolidays WHERE term_id = ? AND holiday_date = ?";
+        try {
+            return DatabaseWriter.write(conn -> {
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    pstmt.setInt(1, termId);
+                    pstmt.setDate(2, Date.valueOf(date));
+                    return pstmt.executeUpdate() > 0;
+                }
+            });
+        } catch (SQLException e) {
+            DatabaseErrorStats.record(e);
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    private static void insertHoliday(Connection conn, int termId, LocalDate date, String description)
+            throws SQLException {
+        String sql = "INSERT OR REPLACE INTO TermHolidays (term_id, holiday_date, description) VALUES (?, ?, ?)";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, termId);
+            pstmt.setDate(2, Date.valueOf(date));
+            pstmt.setString(3, description);
+            pstmt.executeUpdate();
+        }
+    }
+
+    /**
+     * All terms with their holidays, in start-date order.
+     */
+    public static List<Term> getAllTerms() {
+        return getTermsBetween(LocalDate.MIN, LocalDate.MAX);
+    }
+
+    /**
+     * Terms overlapping the given dates, in start-date order. Returns an
+     * empty list on a database error.
+     */
+    public static List<Term> getTermsBetween(LocalDate from, LocalDate to) {
+        try (Connection conn = DatabaseUtil.getReadConnection()) {
+            return getTermsBetween(conn, from, to);
+        } catch (SQLException e) {
+            DatabaseErrorStats.record(e);
+            e.printStackTrace();
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * The term containing a date, or null if the date falls outside every term.
+     */
+    public static Term getTermForDate(LocalDate date) {
+        List<Term> terms = getTermsBetween(date, date);
+        return terms.isEmpty() ? null : terms.get(0);
+    }
+
+    static List<Term> getTermsBetween(Connection conn, LocalDate from, LocalDate to) throws SQLException {
+        Map<Integer, Term> terms = new LinkedHashMap<>();
+        String sql = "SELECT * FROM Terms WHERE start_date <= ? AND end_date >= ? ORDER BY start_date";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            setDateBound(pstmt, 1, to);
+            setDateBound(pstmt, 2, from);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    Term term = extractTerm(rs);
+                    terms.put(term.getTermId(), term);
+                }
+            }
+        }
+        if (terms.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        String holidays = "SELECT h.term_id, h.holiday_date, h.description FROM TermHolidays h " +
+                "JOIN Terms t ON h.term_id = t.term_id " +
+                "WHERE t.start_date <= ? AND t.end_date >= ? AND h.holiday_date BETWEEN ? AND ?";
+        try (PreparedStatement pstmt = conn.prepareStatement(holidays)) {
+            setDateBound(pstmt, 1, to);
+            setDateBound(pstmt, 2, from);
+            setDateBound(pstmt, 3, from);
+            setDateBound(pstmt, 4, to);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    terms.get(rs.getInt("term_id")).addHoliday(
+                            rs.getDate("holiday_date").toLocalDate(), rs.getString("description"));
+                }
+            }
+        }
+        return new ArrayList<>(terms.values());
+    }
+
+    private static Term getTerm(Connection conn, int termId) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT * FROM Terms WHERE term_id = ?")) {
+            pstmt.setInt(1, termId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? extractTerm(rs) : null;
+            }
+        }
+    }
+
+    private static Term extractTerm(ResultSet rs) throws SQLException {
+        Term term = new Term(rs.getString("name"), rs.getDate("start_date").toLocalDate(),
+                rs.getDate("end_date").toLocalDate());
+        term.setTermId(rs.getInt("term_id"));
+        return term;
+    }
+
+    // LocalDate.MIN/MAX have no java.sql.Date; open bounds compare as numbers
+    private static void setDateBound(PreparedStatement pstmt, int index, LocalDate date) throws SQLException {
+        if (date.equals(LocalDate.MIN)) {
+            pstmt.setLong(index, Long.MIN_VALUE);
+        } else if (date.equals(LocalDate.MAX)) {
+            pstmt.setLong(index, Long.MAX_VALUE);
+        } else {
+            pstmt.setDate(index, Date.valueOf(date));
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package com.classroom.dao;
+
+import com.classroom.model.StudentClash;
+import com.classroom.model.WeeklyOccupancy;
+import com.classroom.monitoring.DatabaseErrorStats;
+import com.classroom.util.DatabaseUtil;
+import com.classroom.util.DatabaseWriter;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Detects students enrolled in courses that meet at the same time.
+ *
+ * Each course's weekly timetable and each student's combined timetable are
+ * held as {@link WeeklyOccupancy} bitsets. The full report builds them all
+ * and checks students in parallel; the enrollment check keeps them cached
+ * and answers with one bitset intersection. The cache follows the ChangeLog:
+ * new enrollments are folded into the student's bitset, anything else that
+ * touches a student's enrollments drops that student, and any Schedule
+ * change drops all course bitsets.
+ */
+public class TimetableClashDAO {
+    private static final Map<Integer, WeeklyOccupancy> courseCache = new HashMap<>();
+    private static final Map<Integer, WeeklyOccupancy> studentCache = new HashMap<>();
+    private static long syncedSeq = -1;
+
+    static {
+        // Cached bitsets may include rows from a batch that was rolled back
+        DatabaseWriter.addRollbackListener(TimetableClashDAO::invalidate);
+    }
+
+    /**
+     * Every clashing (student, course, course) triple, ordered by student.
+     * Returns an empty list on a database error.
+     */
+    public static List<StudentClash> findAllClashes() {
+        Map<Integer, WeeklyOccupancy> courses = new HashMap<>();
+        Map<Integer, String> courseCodes = new HashMap<>();
+        Map<Integer, List<Integer>> enrollments = new HashMap<>();
+        Map<Integer, String> studentNames = new HashMap<>();
+
+        try (Connection conn = DatabaseUtil.getReadConnection();
+                Statement stmt = conn.createStatement()) {
+            // One snapshot for all three reads
+            stmt.execute("BEGIN");
+            try {
+                try (ResultSet rs = stmt.executeQuery(
+                        "SELECT course_id, day_of_week, start_time, end_time FROM Schedule")) {
+                    while (rs.next()) {
+                        courses.computeIfAbsent(rs.getInt("course_id"), id -> new WeeklyOccupancy())
+                                .add(rs.getString("day_of_week"), rs.getString("start_time"),
+                                        rs.getString("end_time"));
+                    }
+                }
+                try (ResultSet rs = stmt.executeQuery("SELECT course_id, course_code FROM Courses")) {
+                    while (rs.next()) {
+                        courseCodes.put(rs.getInt("course_id"), rs.getString("course_code"));
+                    }
+                }
+                try (ResultSet rs = stmt.executeQuery(
+                        "SELECT e.student_id, u.full_name, e.course_id FROM Enrollments e " +
+                                "JOIN Users u ON e.student_id = u.user_id ORDER BY e.student_id, e.course_id")) {
+                    while (rs.next()) {
+                        int studentId = rs.getInt("student_id");
+                        studentNames.putIfAbsent(studentId, rs.getString("full_name"));
+                        enrollments.computeIfAbsent(studentId, id -> new ArrayList<>()).add(rs.getInt("course_id"));
+                    }
+                }
+            } finally {
+                stmt.execute("COMMIT");
+            }
+        } catch (SQLException e) {
+            DatabaseErrorStats.record(e);
+            e.printStackTrace();
+            return Collections.emptyList();
+        }
+
+        return enrollments.entrySet().parallelStream()
+                .flatMap(entry -> clashesFor(entry.getKey(), studentNames.get(entry.getKey()), entry.getValue(),
+                        courses, courseCodes).stream())
+                .sorted((a, b) -> Integer.compare(a.getStudentId(), b.getStudentId()))
+                .collect(Collectors.toList());
+    }
+
+    private static List<StudentClash> clashesFor(int studentId, String studentName, List<Integer> courseIds,
+            Map<Integer, WeeklyOccupancy> courses, Map<Integer, String> courseCodes) {
+        List<StudentClash> clashes = new ArrayList<>();
+        for (int i = 0; i < courseIds.size(); i++) {
+            WeeklyOccupancy first = courses.get(courseIds.get(i));
+            if (first == null) {
+                continue; // Course not scheduled
+            }
+            for (int j = i + 1; j < courseIds.size(); j++) {
+                WeeklyOccupancy second = courses.get(courseIds.get(j));
+                if (second != null && first.intersects(second)) {
+                    clashes.add(new StudentClash(studentId, studentName,
+                            courseIds.get(i), courseCodes.get(courseIds.get(i)),
+                            courseIds.get(j), courseCodes.get(courseIds.get(j)),
+                            first.firstOverlap(second)));
+                }
+            }
+        }
+        return clashes;
+    }
+
+    /**
+     * True if enrolling the student in the course would overlap a course they
+     * already take. Runs on the caller's connection, normally inside the
+     * enrollment's write transaction.
+     */
+    static synchronized boolean wouldClash(Connection conn, int studentId, int courseId) throws SQLException {
+        sync(conn);
+        WeeklyOccupancy course = courseOccupancy(conn, courseId);
+        return !course.isEmpty() && studentOccupancy(conn, studentId).intersects(course);
+    }
+
+    /**
+     * Drop all cached bitsets; the next check reloads what it needs.
+     */
+    public static synchronized void invalidate() {
+        courseCache.clear();
+        studentCache.clear();
+        syncedSeq = -1;
+    }
+
+    /**
+     * Apply ChangeLog entries written since the last check to the cache.
+     */
+    private static void sync(Connection conn) throws SQLException {
+        long latest = 0;
+        try (Statement stmt = conn.createStatement();
+                ResultSet rs = stmt.executeQuery("SELECT seq FROM sqlite_sequence WHERE name = 'ChangeLog'")) {
+            if (rs.next()) {
+                latest = rs.getLong(1);
+            }
+        }
+        if (latest == syncedSeq) {
+            return;
+        }
+        if (syncedSeq < 0 || latest < syncedSeq) {
+            invalidate();
+            syncedSeq = latest;
+            return;
+        }
+
+        String sql = "SELECT c.table_name, c.operation, c.user_id, e.course_id FROM ChangeLog c " +
+                "LEFT JOIN Enrollments e ON c.table_name = 'Enrollments' AND e.enrollment_id = c.row_id " +
+                "WHERE c.seq > ? AND c.table_name IN ('Schedule', 'Enrollments') ORDER BY c.seq";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setLong(1, syncedSeq);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    if ("Schedule".equals(rs.getString("table_name"))) {
+                        courseCache.clear();
+                        studentCache.clear();
+                        continue;
+                    }
+                    int studentId = rs.getInt("user_id");
+                    int courseId = rs.getInt("course_id");
+                    boolean rowExists = !rs.wasNull();
+                    WeeklyOccupancy student = studentCache.get(studentId);
+                    if (student != null && "insert".equals(rs.getString("operation")) && rowExists) {
+                        student.addAll(courseOccupancy(conn, courseId));
+                    } else {
+                        studentCache.remove(studentId);
+                    }
+                }
+            }
+        }
+
+        // Entries we never saw may have been pruned already
+        try (Statement stmt = conn.createStatement();
+                ResultSet rs = stmt.executeQuery("SELECT MIN(seq) FROM ChangeLog")) {
+            // An empty log with a newer sequence means everything was pruned
+            if (rs.next() && (rs.getObject(1) == null || rs.getLong(1) > syncedSeq + 1)) {
+                courseCache.clear();
+                studentCache.clear();
+            }
+        }
+        syncedSeq = latest;
+    }
+
+    private static WeeklyOccupancy courseOccupancy(Connection conn, int courseId) throws SQLException {
+        WeeklyOccupancy occupancy = courseCache.get(courseId);
+        if (occupancy != null) {
+            return occupancy;
+        }
+        occupancy = new WeeklyOccupancy();
+        String sql = "SELECT day_of_week, start_time, end_time FROM Schedule WHERE course_id = ?";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, courseId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    occupancy.add(rs.getString("day_of_week"), rs.getString("start_time"), rs.getString("end_time"));
+                }
+            }
+        }
+        courseCache.put(courseId, occupancy);
+        return occupancy;
+    }
+
+    /**
+     * The combined timetable of every course the student is enrolled in.
+     */
+    private static WeeklyOccupancy studentOccupancy(Connection conn, int studentId) throws SQLException {
+        WeeklyOccupancy occupancy = studentCache.get(studentId);
+        if (occupancy == null) {
+            occupancy = new WeeklyOccupancy();
+            String sql = "SELECT course_id FROM Enrollments WHERE student_id = ?";
+            List<Integer> courseIds = new ArrayList<>();
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setInt(1, studentId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        courseIds.add(rs.getInt(1));
+                    }
+                }
+            }
+            for (int courseId : courseIds) {
+                occupancy.addAll(courseOccupancy(conn, courseId));
+            }
+            studentCache.put(studentId, occupancy);
+        }
+        return occupancy;
+    }
+}
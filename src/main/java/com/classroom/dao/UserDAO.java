@@ -1,11 +1,19 @@
 package com.classroom.dao;
 
 import com.classroom.model.User;
+import com.classroom.monitoring.DatabaseErrorStats;
 import com.classroom.util.DatabaseUtil;
+import com.classroom.util.DatabaseWriter;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Data Access Object for User-related database operations.
@@ -22,7 +30,7 @@ public class UserDAO {
         ResultSet rs = null;
 
         try {
-            conn = DatabaseUtil.getConnection();
+            conn = DatabaseUtil.getReadConnection();
             pstmt = conn.prepareStatement(sql);
 
             pstmt.setString(1, username);
@@ -71,44 +79,33 @@ public class UserDAO {
         String checkSql = "SELECT COUNT(*) FROM users WHERE username = ?";
         String insertSql = "INSERT INTO users (username, password, full_name, email, user_type, program_type) VALUES (?, ?, ?, ?, ?, ?)";
 
-        try (Connection conn = DatabaseUtil.getConnection()) {
-            // Check for existing username
-            try (PreparedStatement checkStmt = conn.prepareStatement(checkSql)) {
-                checkStmt.setString(1, user.getUsername());
-                ResultSet rs = checkStmt.executeQuery();
-                if (rs.next() && rs.getInt(1) > 0) {
-                    conn.rollback(); // Rollback if username exists
-                    return false;
+        try {
+            return DatabaseWriter.write(conn -> {
+                // Check for existing username; on the writer, nobody can take it before the insert
+                try (PreparedStatement checkStmt = conn.prepareStatement(checkSql)) {
+                    checkStmt.setString(1, user.getUsername());
+                    try (ResultSet rs = checkStmt.executeQuery()) {
+                        if (rs.next() && rs.getInt(1) > 0) {
+                            return false;
+                        }
+                    }
                 }
-            }
 
-            // If username doesn't exist, proceed with insertion
-            try (PreparedStatement pstmt = conn.prepareStatement(insertSql)) {
-                pstmt.setString(1, user.getUsername());
-                pstmt.setString(2, user.getPassword());
-                pstmt.setString(3, user.getFullName());
-                pstmt.setString(4, user.getEmail());
-                pstmt.setString(5, user.getUserType());
-                pstmt.setString(6, user.getProgramType());
-
-                int affectedRows = pstmt.executeUpdate();
-                if (affectedRows > 0) {
-                    conn.commit(); // Commit the transaction if successful
-                    return true;
+                try (PreparedStatement pstmt = conn.prepareStatement(insertSql)) {
+                    pstmt.setString(1, user.getUsername());
+                    pstmt.setString(2, user.getPassword());
+                    pstmt.setString(3, user.getFullName());
+                    pstmt.setString(4, user.getEmail());
+                    pstmt.setString(5, user.getUserType());
+                    pstmt.setString(6, user.getProgramType());
+                    return pstmt.executeUpdate() > 0;
                 }
-                conn.rollback(); // Rollback if insert failed
-            }
+            });
         } catch (SQLException e) {
+            DatabaseErrorStats.record(e);
             e.printStackTrace();
-            try {
-                // Get connection and rollback in case of any error
-                Connection conn = DatabaseUtil.getConnection();
-                conn.rollback();
-            } catch (SQLException ex) {
-                ex.printStackTrace();
-            }
+            return false;
         }
-        return false;
     }
 
     /**
@@ -117,7 +114,7 @@ public class UserDAO {
     public static User getUserById(int userId) {
         String sql = "SELECT * FROM Users WHERE user_id = ?";
 
-        try (Connection conn = DatabaseUtil.getConnection();
+        try (Connection conn = DatabaseUtil.getReadConnection();
                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setInt(1, userId);
@@ -141,7 +138,7 @@ public class UserDAO {
         List<User> instructors = new ArrayList<>();
         String sql = "SELECT * FROM Users WHERE user_type = 'instructor'";
 
-        try (Connection conn = DatabaseUtil.getConnection();
+        try (Connection conn = DatabaseUtil.getReadConnection();
                 Statement stmt = conn.createStatement();
                 ResultSet rs = stmt.executeQuery(sql)) {
 
@@ -162,7 +159,7 @@ public class UserDAO {
         List<User> students = new ArrayList<>();
         String sql = "SELECT * FROM Users WHERE user_type = 'student'";
 
-        try (Connection conn = DatabaseUtil.getConnection();
+        try (Connection conn = DatabaseUtil.getReadConnection();
                 Statement stmt = conn.createStatement();
                 ResultSet rs = stmt.executeQuery(sql)) {
 
@@ -185,7 +182,7 @@ public class UserDAO {
                 "JOIN Enrollments e ON u.user_id = e.student_id " +
                 "WHERE e.course_id = ? AND u.user_type = 'student'";
 
-        try (Connection conn = DatabaseUtil.getConnection();
+        try (Connection conn = DatabaseUtil.getReadConnection();
                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setInt(1, courseId);
@@ -202,6 +199,114 @@ public class UserDAO {
         return students;
     }
 
+    /**
+     * Stream the roster of a course to the handler as a forward-only result
+     * set, ordered by name. Passwords are not included.
+     */
+    public static void streamStudentsByCourse(int courseId, ResultSetHandler handler) throws SQLException {
+        String sql = "SELECT u.user_id, u.username, u.full_name, u.email, u.program_type, u.assigned_room " +
+                "FROM Users u " +
+                "JOIN Enrollments e ON u.user_id = e.student_id " +
+                "WHERE e.course_id = ? AND u.user_type = 'student' " +
+                "ORDER BY u.full_name";
+
+        try (Connection conn = DatabaseUtil.getReadConnection();
+                PreparedStatement pstmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+                        ResultSet.CONCUR_READ_ONLY)) {
+
+            pstmt.setInt(1, courseId);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                handler.handle(rs);
+            }
+        } catch (SQLException e) {
+            DatabaseErrorStats.record(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Insert many users in one write. Returns, for each user, null if they
+     * were inserted or the reason they were refused; or null if the write
+     * failed.
+     */
+    public static List<String> insertUsers(List<User> users) {
+        String sql = "INSERT INTO users (username, password, full_name, email, user_type, program_type, assigned_room, "
+                + "room_id) VALUES (?, ?, ?, ?, ?, ?, ?, " + RoomDAO.ROOM_ID + ")";
+        try {
+            return DatabaseWriter.write(conn -> {
+                RoomDAO.ensureRooms(conn, users.stream().map(User::getAssignedRoom).collect(Collectors.toList()));
+                return BatchInsert.insertAll(sql, users, (pstmt, user) -> {
+                    pstmt.setString(1, user.getUsername());
+                    pstmt.setString(2, user.getPassword());
+                    pstmt.setString(3, user.getFullName());
+                    pstmt.setString(4, user.getEmail());
+                    pstmt.setString(5, user.getUserType());
+                    pstmt.setString(6, user.getProgramType());
+                    pstmt.setString(7, user.getAssignedRoom());
+                    pstmt.setString(8, user.getAssignedRoom());
+                });
+            });
+        } catch (SQLException e) {
+            DatabaseErrorStats.record(e);
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Every username already taken, for checking imports without a query per
+     * row.
+     */
+    public static Set<String> getAllUsernames() {
+        return getColumnValues("SELECT username FROM users");
+    }
+
+    /**
+     * Every email address already registered.
+     */
+    public static Set<String> getAllEmails() {
+        return getColumnValues("SELECT email FROM users");
+    }
+
+    private static Set<String> getColumnValues(String sql) {
+        Set<String> values = new HashSet<>();
+
+        try (Connection conn = DatabaseUtil.getReadConnection();
+                Statement stmt = conn.createStatement();
+                ResultSet rs = stmt.executeQuery(sql)) {
+
+            while (rs.next()) {
+                values.add(rs.getString(1));
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+
+        return values;
+    }
+
+    /**
+     * Map every instructor's username to their user id.
+     */
+    public static Map<String, Integer> getInstructorIdsByUsername() {
+        Map<String, Integer> ids = new HashMap<>();
+        String sql = "SELECT user_id, username FROM users WHERE user_type = 'instructor'";
+
+        try (Connection conn = DatabaseUtil.getReadConnection();
+                Statement stmt = conn.createStatement();
+                ResultSet rs = stmt.executeQuery(sql)) {
+
+            while (rs.next()) {
+                ids.put(rs.getString("username"), rs.getInt("user_id"));
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+
+        return ids;
+    }
+
     /**
      * Helper method to create a User object from ResultSet.
      */
@@ -222,46 +327,23 @@ public class UserDAO {
      * Assign a room to a student.
      */
     public static boolean assignRoom(int studentId, String room) {
-        String sql = "UPDATE users SET assigned_room = ? WHERE user_id = ? AND user_type = 'student'";
+        String sql = "UPDATE users SET assigned_room = ?, room_id = " + RoomDAO.ROOM_ID
+                + " WHERE user_id = ? AND user_type = 'student'";
 
-        Connection conn = null;
-        PreparedStatement pstmt = null;
         try {
-            conn = DatabaseUtil.getConnection();
-            pstmt = conn.prepareStatement(sql);
-
-            pstmt.setString(1, room);
-            pstmt.setInt(2, studentId);
-
-            int affectedRows = pstmt.executeUpdate();
-            if (affectedRows > 0) {
-                conn.commit();
-                return true;
-            }
-            conn.rollback();
-            return false;
-
+            return DatabaseWriter.write(conn -> {
+                RoomDAO.ensureRooms(conn, Collections.singletonList(room));
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    pstmt.setString(1, room);
+                    pstmt.setString(2, room);
+                    pstmt.setInt(3, studentId);
+                    return pstmt.executeUpdate() > 0;
+                }
+            });
         } catch (SQLException e) {
+            DatabaseErrorStats.record(e);
             e.printStackTrace();
-            if (conn != null) {
-                try {
-                    conn.rollback();
-                } catch (SQLException ex) {
-                    ex.printStackTrace();
-                }
-            }
             return false;
-        } finally {
-            try {
-                if (pstmt != null) {
-                    pstmt.close();
-                }
-                if (conn != null) {
-                    conn.close();
-                }
-            } catch (SQLException e) {
-                e.printStackTrace();
-            }
         }
     }
 
@@ -272,7 +354,7 @@ public class UserDAO {
         List<User> students = new ArrayList<>();
         String sql = "SELECT * FROM users WHERE assigned_room = ? AND user_type = 'student'";
 
-        try (Connection conn = DatabaseUtil.getConnection();
+        try (Connection conn = DatabaseUtil.getReadConnection();
                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setString(1, room);
@@ -296,7 +378,7 @@ public class UserDAO {
         List<User> students = new ArrayList<>();
         String sql = "SELECT * FROM users WHERE assigned_room IS NULL AND user_type = 'student'";
 
-        try (Connection conn = DatabaseUtil.getConnection();
+        try (Connection conn = DatabaseUtil.getReadConnection();
                 Statement stmt = conn.createStatement();
                 ResultSet rs = stmt.executeQuery(sql)) {
 
@@ -314,50 +396,42 @@ public class UserDAO {
      * Assign a room representative.
      */
     public static boolean assignRoomRep(int studentId, String room) {
-        String sql = "UPDATE users SET is_room_rep = 1, assigned_room = ? WHERE user_id = ? AND user_type = 'student'";
+        String sql = "UPDATE users SET is_room_rep = 1, assigned_room = ?, room_id = " + RoomDAO.ROOM_ID
+                + " WHERE user_id = ? AND user_type = 'student'";
 
-        Connection conn = null;
         try {
-            conn = DatabaseUtil.getConnection();
-
-            // First remove any existing rep for this room
-            String removeExistingRep = "UPDATE users SET is_room_rep = 0 WHERE assigned_room = ? AND is_room_rep = 1";
-            PreparedStatement removeStmt = conn.prepareStatement(removeExistingRep);
-            removeStmt.setString(1, room);
-            removeStmt.executeUpdate();
-
-            // Then assign the new rep
-            PreparedStatement pstmt = conn.prepareStatement(sql);
-            pstmt.setString(1, room);
-            pstmt.setInt(2, studentId);
-
-            int affectedRows = pstmt.executeUpdate();
-            if (affectedRows > 0) {
-                conn.commit();
-                return true;
-            }
+            return DatabaseWriter.write(conn -> {
+                // Only a student can be a rep; check before the current rep is removed
+                try (PreparedStatement checkStmt = conn.prepareStatement(
+                        "SELECT 1 FROM users WHERE user_id = ? AND user_type = 'student'")) {
+                    checkStmt.setInt(1, studentId);
+                    try (ResultSet rs = checkStmt.executeQuery()) {
+                        if (!rs.next()) {
+                            return false;
+                        }
+                    }
+                }
 
-            conn.rollback();
-            return false;
+                // First remove any existing rep for this room
+                String removeExistingRep = "UPDATE users SET is_room_rep = 0 WHERE assigned_room = ? AND is_room_rep = 1";
+                try (PreparedStatement removeStmt = conn.prepareStatement(removeExistingRep)) {
+                    removeStmt.setString(1, room);
+                    removeStmt.executeUpdate();
+                }
 
+                // Then assign the new rep
+                RoomDAO.ensureRooms(conn, Collections.singletonList(room));
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    pstmt.setString(1, room);
+                    pstmt.setString(2, room);
+                    pstmt.setInt(3, studentId);
+                    return pstmt.executeUpdate() > 0;
+                }
+            });
         } catch (SQLException e) {
+            DatabaseErrorStats.record(e);
             e.printStackTrace();
-            if (conn != null) {
-                try {
-                    conn.rollback();
-                } catch (SQLException ex) {
-                    ex.printStackTrace();
-                }
-            }
             return false;
-        } finally {
-            try {
-                if (conn != null) {
-                    conn.close();
-                }
-            } catch (SQLException e) {
-                e.printStackTrace();
-            }
         }
     }
 
@@ -367,21 +441,15 @@ public class UserDAO {
     public static boolean removeRoomRep(int studentId) {
         String sql = "UPDATE users SET is_room_rep = 0 WHERE user_id = ? AND user_type = 'student'";
 
-        try (Connection conn = DatabaseUtil.getConnection();
-                PreparedStatement pstmt = conn.prepareStatement(sql)) {
-
-            pstmt.setInt(1, studentId);
-
-            int affectedRows = pstmt.executeUpdate();
-            if (affectedRows > 0) {
-                conn.commit();
-                return true;
-            }
-
-            conn.rollback();
-            return false;
-
+        try {
+            return DatabaseWriter.write(conn -> {
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    pstmt.setInt(1, studentId);
+                    return pstmt.executeUpdate() > 0;
+                }
+            });
         } catch (SQLException e) {
+            DatabaseErrorStats.record(e);
             e.printStackTrace();
             return false;
         }
@@ -393,7 +461,7 @@ public class UserDAO {
     public static User getRoomRep(String room) {
         String sql = "SELECT * FROM users WHERE assigned_room = ? AND is_room_rep = 1 AND user_type = 'student'";
 
-        try (Connection conn = DatabaseUtil.getConnection();
+        try (Connection conn = DatabaseUtil.getReadConnection();
                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setString(1, room);
@@ -416,7 +484,7 @@ public class UserDAO {
     public static boolean isRoomRep(int userId) {
         String sql = "SELECT is_room_rep FROM users WHERE user_id = ? AND user_type = 'student'";
 
-        try (Connection conn = DatabaseUtil.getConnection();
+        try (Connection conn = DatabaseUtil.getReadConnection();
                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setInt(1, userId);
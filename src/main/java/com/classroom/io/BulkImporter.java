@@ -0,0 +1,481 @@
+package com.classroom.io;
+
+import com.classroom.dao.CourseDAO;
+import com.classroom.dao.EnrollmentDAO;
+import com.classroom.dao.RoomDAO;
+import com.classroom.dao.RoomRegistry;
+import com.classroom.dao.ScheduleDAO;
+import com.classroom.dao.UserDAO;
+import com.classroom.model.Course;
+import com.classroom.model.ProgramType;
+import com.classroom.model.Room;
+import com.classroom.model.Schedule;
+import com.classroom.model.TimeOfDay;
+import com.classroom.model.User;
+import com.classroom.util.ScheduleValidationUtil;
+import com.classroom.util.ScheduleValidationUtil.ValidationResult;
+import com.classroom.util.TimeSlotUtil;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * Imports courses, users, schedules or rooms from a CSV or JSON file.
+ *
+ * Records are streamed from a {@link RecordReader}, checked in memory against
+ * a snapshot of the existing rows (codes, usernames, emails, booked time
+ * slots and the room catalog) and written {@value #CHUNK_SIZE} at a time as
+ * one batched insert, so a large file costs a few hundred writes rather than
+ * one per row. A row that fails its checks or its insert is rejected with the
+ * reason and the rest of the file carries on. The snapshot is taken when the
+ * import starts; a conflicting row added by someone else during the import is
+ * not caught.
+ */
+public class BulkImporter {
+    static final int CHUNK_SIZE = 1000;
+
+    /**
+     * What the file holds.
+     */
+    public enum Kind {
+        COURSES("Courses"),
+        USERS("Users"),
+        SCHEDULES("Schedules"),
+        ROOMS("Rooms");
+
+        private final String label;
+
+        Kind(String label) {
+            this.label = label;
+        }
+
+        /**
+         * Case-insensitive lookup by name; returns null for unknown values.
+         */
+        public static Kind fromString(String value) {
+            for (Kind kind : values()) {
+                if (kind.name().equalsIgnoreCase(value.trim())) {
+                    return kind;
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    private BulkImporter() {
+    }
+
+    /**
+     * Import a file, calling {@code progress} (if not null) after each chunk
+     * is written.
+     */
+    public static ImportReport importFile(Kind kind, Path file, Consumer<ImportReport> progress) throws IOException {
+        try (RecordReader reader = RecordReader.open(file)) {
+            return run(kind, reader, progress);
+        }
+    }
+
+    /**
+     * Import every record the reader returns.
+     */
+    public static ImportReport run(Kind kind, RecordReader reader, Consumer<ImportReport> progress)
+            throws IOException {
+        return switch (kind) {
+            case COURSES -> run(kind, reader, new CourseTarget(), progress);
+            case USERS -> run(kind, reader, new UserTarget(), progress);
+            case SCHEDULES -> run(kind, reader, new ScheduleTarget(), progress);
+            case ROOMS -> run(kind, reader, new RoomTarget(), progress);
+        };
+    }
+
+    private static <T> ImportReport run(Kind kind, RecordReader reader, Target<T> target,
+            Consumer<ImportReport> progress) throws IOException {
+        ImportReport report = new ImportReport(kind.toString());
+        List<T> chunk = new ArrayList<>(CHUNK_SIZE);
+        List<Long> recordNumbers = new ArrayList<>(CHUNK_SIZE);
+
+        while (true) {
+            Map<String, String> record;
+            try {
+                record = reader.next();
+            } catch (RecordFormatException e) {
+                report.read();
+                report.reject(reader.getRecordNumber(), e.getMessage());
+                continue;
+            }
+            if (record == null) {
+                break;
+            }
+            report.read();
+            try {
+                chunk.add(target.parse(record));
+                recordNumbers.add(reader.getRecordNumber());
+            } catch (IllegalArgumentException e) {
+                report.reject(reader.getRecordNumber(), e.getMessage());
+            }
+            if (chunk.size() == CHUNK_SIZE) {
+                flush(target, chunk, recordNumbers, report, progress);
+            }
+        }
+        flush(target, chunk, recordNumbers, report, progress);
+        report.finish();
+        if (progress != null) {
+            progress.accept(report);
+        }
+        return report;
+    }
+
+    private static <T> void flush(Target<T> target, List<T> chunk, List<Long> recordNumbers,
+            ImportReport report, Consumer<ImportReport> progress) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        List<String> errors = target.insert(chunk);
+        int inserted = 0;
+        for (int i = 0; i < chunk.size(); i++) {
+            String error = errors == null ? "Database error, see the application log" : errors.get(i);
+            if (error == null) {
+                inserted++;
+            } else {
+                target.release(chunk.get(i));
+                report.reject(recordNumbers.get(i), error);
+            }
+        }
+        report.imported(inserted);
+        chunk.clear();
+        recordNumbers.clear();
+        if (progress != null) {
+            progress.accept(report);
+        }
+    }
+
+    /**
+     * Turns records into rows and writes them. {@code parse} throws
+     * IllegalArgumentException with the reason a record is refused, and
+     * reserves the row's keys so later records cannot reuse them;
+     * {@code release} gives them back when the insert refuses the row.
+     */
+    private interface Target<T> {
+        T parse(Map<String, String> record);
+
+        List<String> insert(List<T> rows);
+
+        void release(T row);
+    }
+
+    private static class CourseTarget implements Target<Course> {
+        private final Set<String> codes = new HashSet<>(CourseDAO.getCourseIdsByCode().keySet());
+
+        @Override
+        public Course parse(Map<String, String> record) {
+            Course course = new Course();
+            course.setCourseCode(required(record, "coursecode", "code"));
+            course.setCourseName(required(record, "coursename", "name"));
+            course.setDescription(field(record, "description"));
+            course.setCreditHours(integer(record, "credithours", "credits"));
+            if (course.getCreditHours() <= 0) {
+                throw new IllegalArgumentException("Credit hours must be greater than 0");
+            }
+            if (!codes.add(course.getCourseCode())) {
+                throw new IllegalArgumentException("Course code " + course.getCourseCode() + " already exists");
+            }
+            return course;
+        }
+
+        @Override
+        public List<String> insert(List<Course> rows) {
+            return CourseDAO.insertCourses(rows);
+        }
+
+        @Override
+        public void release(Course course) {
+            codes.remove(course.getCourseCode());
+        }
+    }
+
+    private static class UserTarget implements Target<User> {
+        private final Set<String> usernames = UserDAO.getAllUsernames();
+        private final Set<String> emails = UserDAO.getAllEmails();
+
+        @Override
+        public User parse(Map<String, String> record) {
+            User user = new User();
+            user.setUsername(required(record, "username"));
+            user.setPassword(required(record, "password"));
+            user.setFullName(required(record, "fullname", "name"));
+            user.setEmail(required(record, "email"));
+
+            String type = required(record, "usertype", "type", "role").toLowerCase(Locale.ROOT);
+            if (!type.equals("student") && !type.equals("instructor") && !type.equals("coordinator")) {
+                throw new IllegalArgumentException("Unknown user type: " + type);
+            }
+            user.setUserType(type);
+
+            String program = field(record, "programtype", "program");
+            if (program != null) {
+                ProgramType programType = ProgramType.fromString(program);
+                if (programType == null) {
+                    throw new IllegalArgumentException("Unknown program type: " + program);
+                }
+                user.setProgramType(programType.getLabel());
+            }
+            user.setAssignedRoom(field(record, "assignedroom", "room"));
+
+            if (usernames.contains(user.getUsername())) {
+                throw new IllegalArgumentException("Username " + user.getUsername() + " is already taken");
+            }
+            if (emails.contains(user.getEmail())) {
+                throw new IllegalArgumentException("Email " + user.getEmail() + " is already registered");
+            }
+            usernames.add(user.getUsername());
+            emails.add(user.getEmail());
+            return user;
+        }
+
+        @Override
+        public List<String> insert(List<User> rows) {
+            return UserDAO.insertUsers(rows);
+        }
+
+        @Override
+        public void release(User user) {
+            usernames.remove(user.getUsername());
+            emails.remove(user.getEmail());
+        }
+    }
+
+    private static class ScheduleTarget implements Target<Schedule> {
+        private final Map<String, Integer> courseIds = CourseDAO.getCourseIdsByCode();
+        private final Map<String, Integer> instructorIds = UserDAO.getInstructorIdsByUsername();
+        private final RoomRegistry rooms = RoomRegistry.current();
+        private final Map<Integer, Integer> enrollmentCounts = new HashMap<>();
+        // Booked intervals (start minute -> end minute) per room and day, and per instructor and day
+        private final Map<String, TreeMap<Integer, Integer>> roomSlots = new HashMap<>();
+        private final Map<String, TreeMap<Integer, Integer>> instructorSlots = new HashMap<>();
+
+        ScheduleTarget() {
+            for (Schedule existing : ScheduleDAO.getAllSchedulesWithDetails()) {
+                if (existing.getDay() != null && existing.getStartMinutes() != TimeOfDay.UNSET
+                        && existing.getEndMinutes() != TimeOfDay.UNSET) {
+                    book(existing);
+                }
+            }
+        }
+
+        @Override
+        public Schedule parse(Map<String, String> record) {
+            String code = required(record, "coursecode", "course");
+            Integer courseId = courseIds.get(code);
+            if (courseId == null) {
+                throw new IllegalArgumentException("Unknown course code: " + code);
+            }
+            String username = required(record, "instructor", "instructorusername");
+            Integer instructorId = instructorIds.get(username);
+            if (instructorId == null) {
+                throw new IllegalArgumentException("Unknown instructor: " + username);
+            }
+
+            String dayName = required(record, "dayofweek", "day");
+            DayOfWeek day = Schedule.parseDay(dayName);
+            if (day == null) {
+                throw new IllegalArgumentException("Invalid day of week: " + dayName);
+            }
+            String programName = required(record, "programtype", "program");
+            ProgramType program = ProgramType.fromString(programName);
+            if (program == null) {
+                throw new IllegalArgumentException("Invalid program type: " + programName);
+            }
+
+            Schedule schedule = new Schedule();
+            schedule.setCourseId(courseId);
+            schedule.setInstructorId(instructorId);
+            schedule.setDay(day);
+            schedule.setProgram(program);
+            schedule.setRoom(required(record, "room"));
+            String start = required(record, "starttime", "start");
+            String end = required(record, "endtime", "end");
+            schedule.setStartTime(start);
+            schedule.setEndTime(end);
+            if (schedule.getStartMinutes() == TimeOfDay.UNSET) {
+                throw new IllegalArgumentException("Invalid time: " + start);
+            }
+            if (schedule.getEndMinutes() == TimeOfDay.UNSET) {
+                throw new IllegalArgumentException("Invalid time: " + end);
+            }
+            if (schedule.getStartMinutes() >= schedule.getEndMinutes()) {
+                throw new IllegalArgumentException("End time must be after start time");
+            }
+
+            String dayText = schedule.getDayOfWeek();
+            boolean validSlot = program == ProgramType.REGULAR
+                    ? TimeSlotUtil.isValidRegularProgramTime(dayText, schedule.getStartTime(), schedule.getEndTime())
+                    : TimeSlotUtil.isValidEveningProgramTime(dayText, schedule.getStartTime(), schedule.getEndTime());
+            if (!validSlot) {
+                throw new IllegalArgumentException("Invalid time slot for the " + program + " program");
+            }
+            ValidationResult room = ScheduleValidationUtil.validateRoom(schedule, rooms,
+                    () -> enrollmentCounts.computeIfAbsent(courseId, EnrollmentDAO::getEnrollmentCount));
+            if (!room.isValid) {
+                throw new IllegalArgumentException(room.message);
+            }
+
+            if (overlaps(roomSlots.get(roomKey(schedule)), schedule)) {
+                throw new IllegalArgumentException("Room conflict: " + schedule.getRoom() + " is already booked on "
+                        + dayText + " between " + schedule.getStartTime() + " and " + schedule.getEndTime());
+            }
+            if (overlaps(instructorSlots.get(instructorKey(schedule)), schedule)) {
+                throw new IllegalArgumentException("Instructor conflict: " + username + " is already teaching on "
+                        + dayText + " between " + schedule.getStartTime() + " and " + schedule.getEndTime());
+            }
+            book(schedule);
+            return schedule;
+        }
+
+        @Override
+        public List<String> insert(List<Schedule> rows) {
+            return ScheduleDAO.insertSchedules(rows);
+        }
+
+        @Override
+        public void release(Schedule schedule) {
+            TreeMap<Integer, Integer> slots = roomSlots.get(roomKey(schedule));
+            if (slots != null) {
+                slots.remove(schedule.getStartMinutes(), schedule.getEndMinutes());
+            }
+            slots = instructorSlots.get(instructorKey(schedule));
+            if (slots != null) {
+                slots.remove(schedule.getStartMinutes(), schedule.getEndMinutes());
+            }
+        }
+
+        private void book(Schedule schedule) {
+            roomSlots.computeIfAbsent(roomKey(schedule), k -> new TreeMap<>())
+                    .put(schedule.getStartMinutes(), schedule.getEndMinutes());
+            instructorSlots.computeIfAbsent(instructorKey(schedule), k -> new TreeMap<>())
+                    .put(schedule.getStartMinutes(), schedule.getEndMinutes());
+        }
+
+        /**
+         * Booked intervals for one key never overlap each other, so only the
+         * neighbours on either side of the new start need checking.
+         */
+        private static boolean overlaps(TreeMap<Integer, Integer> slots, Schedule schedule) {
+            if (slots == null) {
+                return false;
+            }
+            Map.Entry<Integer, Integer> before = slots.floorEntry(schedule.getStartMinutes());
+            if (before != null && before.getValue() > schedule.getStartMinutes()) {
+                return true;
+            }
+            Integer after = slots.higherKey(schedule.getStartMinutes());
+            return after != null && after < schedule.getEndMinutes();
+        }
+
+        private static String roomKey(Schedule schedule) {
+            return schedule.getRoom() + '|' + schedule.getDay();
+        }
+
+        private static String instructorKey(Schedule schedule) {
+            return schedule.getInstructorId() + "|" + schedule.getDay();
+        }
+    }
+
+    /**
+     * Rooms for the catalog. A room already in the catalog has its details
+     * replaced by the row.
+     */
+    private static class RoomTarget implements Target<Room> {
+        private final Set<String> names = new HashSet<>();
+
+        @Override
+        public Room parse(Map<String, String> record) {
+            Room room = new Room();
+            room.setName(required(record, "name", "room"));
+            room.setBuilding(field(record, "building"));
+            if (field(record, "capacity", "seats") != null) {
+                room.setCapacity(integer(record, "capacity", "seats"));
+                if (room.getCapacity() <= 0) {
+                    throw new IllegalArgumentException("Capacity must be greater than 0");
+                }
+            }
+            String equipment = field(record, "equipment");
+            room.setEquipmentList(equipment != null ? equipment.replace(';', ',') : null);
+
+            String programs = field(record, "programs", "programtype", "program");
+            if (programs != null && !programs.isBlank() && !programs.equalsIgnoreCase("all")) {
+                Set<ProgramType> open = EnumSet.noneOf(ProgramType.class);
+                for (String name : programs.split("[,;]")) {
+                    ProgramType program = ProgramType.fromString(name.trim());
+                    if (program == null) {
+                        throw new IllegalArgumentException("Unknown program type: " + name.trim());
+                    }
+                    open.add(program);
+                }
+                room.setPrograms(open);
+            }
+
+            if (!names.add(room.getName())) {
+                throw new IllegalArgumentException("Room " + room.getName() + " appears more than once");
+            }
+            return room;
+        }
+
+        @Override
+        public List<String> insert(List<Room> rows) {
+            return RoomDAO.saveRooms(rows);
+        }
+
+        @Override
+        public void release(Room room) {
+            names.remove(room.getName());
+        }
+    }
+
+    /**
+     * The first of the named fields that is present, or null.
+     */
+    private static String field(Map<String, String> record, String... names) {
+        for (String name : names) {
+            String value = record.get(name);
+            if (value != null) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    private static String required(Map<String, String> record, String... names) {
+        String value = field(record, names);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing " + names[0]);
+        }
+        return value;
+    }
+
+    private static int integer(Map<String, String> record, String... names) {
+        String value = required(record, names);
+        try {
+            // JSON numbers arrive as "3" or "3.0"
+            return value.endsWith(".0") ? Integer.parseInt(value.substring(0, value.length() - 2))
+                    : Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Not a whole number: " + value);
+        }
+    }
+}
@@ -0,0 +1,513 @@
+package com.classroom.io;
+
+import com.classroom.dao.ChangeLogDAO;
+import com.classroom.dao.CourseDAO;
+import com.classroom.dao.EnrollmentDAO;
+import com.classroom.dao.MakeupRequestDAO;
+import com.classroom.dao.ScheduleDAO;
+import com.classroom.dao.TermDAO;
+import com.classroom.dao.UserDAO;
+import com.classroom.model.ChangeLogEntry;
+import com.classroom.model.Course;
+import com.classroom.model.MakeupRequest;
+import com.classroom.model.ProgramType;
+import com.classroom.model.Schedule;
+import com.classroom.model.Term;
+import com.classroom.model.TimeOfDay;
+import com.classroom.model.User;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * iCalendar feeds for every student, instructor and room, written as
+ * {@code students/<id>.ics}, {@code instructors/<id>.ics} and
+ * {@code rooms/<room>.ics} under one directory for a web server or shared
+ * folder to publish.
+ *
+ * Each published schedule is a weekly event through the current term and
+ * each approved makeup a single event. A student's feed holds the classes of
+ * their enrolled courses and of their assigned room (for their program).
+ *
+ * The first {@link #refresh()} writes every feed. Later calls read the
+ * ChangeLog since the last run and rewrite only the feeds touched by the
+ * changed schedules, enrollments and makeups, comparing each changed row
+ * with its previous state so a class that moved rooms updates both rooms.
+ * Room assignments and course and user names are not in the ChangeLog and
+ * are compared directly. A change of term, or of its end date or holidays,
+ * rewrites every feed.
+ * Feeds are written in parallel, each to a temporary file moved into place.
+ * The generator registers as a ChangeLog client for its directory and
+ * acknowledges each run, so pruning keeps the entries the next run needs.
+ */
+public class CalendarFeeds implements AutoCloseable {
+    private static final String STUDENTS = "students/";
+    private static final String INSTRUCTORS = "instructors/";
+    private static final String ROOMS = "rooms/";
+    private static final int CHANGE_PAGE = 5000;
+
+    /**
+     * What one refresh did.
+     */
+    public static final class Result {
+        public final boolean full;
+        public final int written;
+        public final int failed;
+        public final long elapsedMillis;
+
+        Result(boolean full, int written, int failed, long elapsedMillis) {
+            this.full = full;
+            this.written = written;
+            this.failed = failed;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public String summary() {
+            return String.format("%s refresh: %d feeds written, %d failed in %d ms",
+                    full ? "Full" : "Incremental", written, failed, elapsedMillis);
+        }
+    }
+
+    private final Path directory;
+    private final String syncClientId;
+    private final ExecutorService pool;
+    private Snapshot current; // What the feeds on disk were last built from
+    private long syncedSeq;
+    private String syncedTerm; // termKey of the term the feeds on disk run through
+
+    public CalendarFeeds(Path directory, int threads) {
+        this.directory = directory;
+        this.syncClientId = "feeds-" + directory.toAbsolutePath().normalize();
+        this.pool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "calendar-feeds");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Bring the feeds up to date: everything on the first call or when the
+     * ChangeLog has been pruned past the last run, otherwise only the feeds
+     * affected since then.
+     */
+    public synchronized Result refresh() throws IOException {
+        long started = System.currentTimeMillis();
+        // Read the position before the data, so anything committed in between is looked at again next time
+        long latest = ChangeLogDAO.getLatestSequence();
+        Term term = currentTerm();
+
+        // Every weekly event carries the term's end date and holidays
+        if (current == null || !termKey(term).equals(syncedTerm) || ChangeLogDAO.isResyncRequired(syncedSeq)) {
+            Snapshot snapshot = Snapshot.load(UserDAO.getAllStudents(), UserDAO.getAllInstructors(),
+                    CourseDAO.getAllCourses());
+            int[] outcome = write(snapshot, snapshot.allFeeds(), term);
+            current = snapshot;
+            syncedSeq = latest;
+            syncedTerm = termKey(term);
+            ChangeLogDAO.acknowledge(syncClientId, syncedSeq);
+            return new Result(true, outcome[0], outcome[1], System.currentTimeMillis() - started);
+        }
+
+        List<ChangeLogEntry> changes = new ArrayList<>();
+        for (long after = syncedSeq; after < latest;) {
+            List<ChangeLogEntry> page = ChangeLogDAO.getChangesSince(after, CHANGE_PAGE,
+                    "Schedule", "Enrollments", "MakeupRequests");
+            if (page.isEmpty()) {
+                break;
+            }
+            for (ChangeLogEntry entry : page) {
+                if (entry.getSeq() <= latest) {
+                    changes.add(entry);
+                }
+            }
+            after = page.get(page.size() - 1).getSeq();
+        }
+
+        List<User> students = UserDAO.getAllStudents();
+        List<User> instructors = UserDAO.getAllInstructors();
+        List<Course> courses = CourseDAO.getAllCourses();
+        if (changes.isEmpty() && !assignmentsChanged(students)
+                && current.instructorNames.equals(Snapshot.instructorNames(instructors))
+                && current.courseLabels.equals(Snapshot.courseLabels(courses))) {
+            syncedSeq = latest;
+            ChangeLogDAO.acknowledge(syncClientId, syncedSeq);
+            return new Result(false, 0, 0, System.currentTimeMillis() - started);
+        }
+
+        Snapshot snapshot = Snapshot.load(students, instructors, courses);
+        Set<String> affected = new HashSet<>();
+        for (ChangeLogEntry change : changes) {
+            switch (change.getTableName()) {
+                case "Schedule" -> {
+                    current.feedsOf(current.schedules.get(change.getRowId()), affected);
+                    snapshot.feedsOf(snapshot.schedules.get(change.getRowId()), affected);
+                }
+                case "MakeupRequests" -> {
+                    current.feedsOf(current.makeups.get(change.getRowId()), affected);
+                    snapshot.feedsOf(snapshot.makeups.get(change.getRowId()), affected);
+                }
+                case "Enrollments" -> {
+                    if (change.getUserId() != null) {
+                        affected.add(STUDENTS + change.getUserId());
+                    }
+                }
+                default -> {
+                }
+            }
+        }
+        for (User student : snapshot.students.values()) {
+            if (assignmentChanged(student)) {
+                affected.add(STUDENTS + student.getUserId());
+            }
+        }
+        for (Map.Entry<Integer, String> instructor : snapshot.instructorNames.entrySet()) {
+            if (!current.instructorNames.containsKey(instructor.getKey())) {
+                affected.add(INSTRUCTORS + instructor.getKey());
+            } else if (!instructor.getValue().equals(current.instructorNames.get(instructor.getKey()))) {
+                // Renamed: every event they teach names them
+                snapshot.schedulesByInstructor.getOrDefault(instructor.getKey(), Collections.emptyList())
+                        .forEach(schedule -> snapshot.feedsOf(schedule, affected));
+                snapshot.makeupsByInstructor.getOrDefault(instructor.getKey(), Collections.emptyList())
+                        .forEach(makeup -> snapshot.feedsOf(makeup, affected));
+            }
+        }
+        for (Map.Entry<Integer, String> course : snapshot.courseLabels.entrySet()) {
+            if (!course.getValue().equals(current.courseLabels.get(course.getKey()))) {
+                snapshot.schedulesByCourse.getOrDefault(course.getKey(), Collections.emptyList())
+                        .forEach(schedule -> snapshot.feedsOf(schedule, affected));
+                snapshot.makeupsByCourse.getOrDefault(course.getKey(), Collections.emptyList())
+                        .forEach(makeup -> snapshot.feedsOf(makeup, affected));
+            }
+        }
+        // A room whose classes all moved away keeps its feed, now empty;
+        // feeds of removed users are left as they were
+        current.roomNames.forEach(snapshot.roomNames::putIfAbsent);
+        affected.retainAll(snapshot.allFeeds());
+
+        int[] outcome = write(snapshot, affected, term);
+        current = snapshot;
+        syncedSeq = latest;
+        ChangeLogDAO.acknowledge(syncClientId, syncedSeq);
+        return new Result(false, outcome[0], outcome[1], System.currentTimeMillis() - started);
+    }
+
+    private boolean assignmentsChanged(List<User> students) {
+        if (students.size() != current.students.size()) {
+            return true;
+        }
+        for (User student : students) {
+            if (assignmentChanged(student)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * True if a student is new or their room, program or name (the feed's
+     * title) differs from the last run.
+     */
+    private boolean assignmentChanged(User student) {
+        User before = current.students.get(student.getUserId());
+        return before == null || !Objects.equals(before.getAssignedRoom(), student.getAssignedRoom())
+                || !Objects.equals(before.getProgramType(), student.getProgramType())
+                || !Objects.equals(before.getFullName(), student.getFullName());
+    }
+
+    /**
+     * The file a feed is written to.
+     */
+    public Path getStudentFeed(int studentId) {
+        return directory.resolve(STUDENTS + studentId + ".ics");
+    }
+
+    public Path getInstructorFeed(int instructorId) {
+        return directory.resolve(INSTRUCTORS + instructorId + ".ics");
+    }
+
+    public Path getRoomFeed(String room) {
+        return directory.resolve(roomFeed(room) + ".ics");
+    }
+
+    @Override
+    public void close() {
+        pool.shutdown();
+        // A new generator starts with a full refresh, so nothing needs the entries any more
+        ChangeLogDAO.unregister(syncClientId);
+    }
+
+    /**
+     * Write the given feeds on the pool; returns {written, failed}.
+     */
+    private int[] write(Snapshot snapshot, Collection<String> feeds, Term term) throws IOException {
+        for (String dir : new String[] { STUDENTS, INSTRUCTORS, ROOMS }) {
+            Files.createDirectories(directory.resolve(dir));
+        }
+        AtomicInteger written = new AtomicInteger();
+        List<Future<?>> tasks = new ArrayList<>(feeds.size());
+        for (String feed : feeds) {
+            tasks.add(pool.submit(() -> {
+                writeFeed(snapshot, feed, term);
+                written.incrementAndGet();
+                return null;
+            }));
+        }
+
+        int failed = 0;
+        for (Future<?> task : tasks) {
+            try {
+                task.get();
+            } catch (ExecutionException e) {
+                if (failed++ == 0) {
+                    e.getCause().printStackTrace();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while writing calendar feeds", e);
+            }
+        }
+        return new int[] { written.get(), failed };
+    }
+
+    private void writeFeed(Snapshot snapshot, String feed, Term term) throws IOException {
+        Collection<Schedule> schedules;
+        Collection<MakeupRequest> makeups;
+        String name;
+        String id = feed.substring(feed.indexOf('/') + 1);
+        if (feed.startsWith(STUDENTS)) {
+            User student = snapshot.students.get(Integer.parseInt(id));
+            schedules = snapshot.schedulesForStudent(student);
+            makeups = snapshot.makeupsForStudent(student);
+            name = student.getFullName();
+        } else if (feed.startsWith(INSTRUCTORS)) {
+            int instructorId = Integer.parseInt(id);
+            schedules = snapshot.schedulesByInstructor.getOrDefault(instructorId, Collections.emptyList());
+            makeups = snapshot.makeupsByInstructor.getOrDefault(instructorId, Collections.emptyList());
+            name = "Teaching timetable";
+        } else {
+            String room = snapshot.roomNames.get(feed);
+            schedules = snapshot.schedulesByRoom.getOrDefault(room, Collections.emptyList());
+            makeups = snapshot.makeupsByRoom.getOrDefault(room, Collections.emptyList());
+            name = "Room " + room;
+        }
+
+        Path file = directory.resolve(feed + ".ics");
+        Path partial = file.resolveSibling(file.getFileName() + ".part");
+        try (BufferedWriter out = Files.newBufferedWriter(partial, StandardCharsets.UTF_8)) {
+            IcsRecordWriter ics = new IcsRecordWriter(out, term, name);
+            for (Schedule schedule : schedules) {
+                ics.writeWeeklyEvent("schedule-" + schedule.getScheduleId() + "@classroom", schedule.getDay(),
+                        schedule.getStartMinutes(), schedule.getEndMinutes(),
+                        schedule.getCourseCode() + " - " + schedule.getCourseName(), schedule.getRoom(),
+                        "Instructor: " + schedule.getInstructorName());
+            }
+            for (MakeupRequest makeup : makeups) {
+                int start = TimeOfDay.parse(makeup.getRequestedTime());
+                ics.writeEvent("makeup-" + makeup.getRequestId() + "@classroom", makeup.getRequestedDate(),
+                        start, start + MakeupRequestDAO.MAKEUP_MINUTES,
+                        "Makeup: " + makeup.getCourseCode() + " - " + makeup.getCourseName(), makeup.getRoom(),
+                        "Instructor: " + makeup.getInstructorName());
+            }
+            ics.finish();
+        }
+        Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static Term currentTerm() {
+        List<Term> terms = TermDAO.getTermsBetween(LocalDate.now(), LocalDate.MAX);
+        return terms.isEmpty() ? null : terms.get(0);
+    }
+
+    /**
+     * Everything about a term that appears in a feed, to tell whether the
+     * feeds on disk were written for it.
+     */
+    private static String termKey(Term term) {
+        return term == null ? "none"
+                : term.getTermId() + "|" + term.getStartDate() + "|" + term.getEndDate() + "|"
+                        + term.getHolidays().keySet();
+    }
+
+    private static String roomFeed(String room) {
+        return ROOMS + URLEncoder.encode(room, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Everything the feeds are built from, indexed for building one feed and
+     * for finding the feeds a row appears in.
+     */
+    private static final class Snapshot {
+        final Map<Integer, Schedule> schedules = new HashMap<>();
+        final Map<Integer, MakeupRequest> makeups = new HashMap<>();
+        final Map<Integer, User> students = new LinkedHashMap<>();
+        final Map<Integer, String> instructorNames;
+        final Map<Integer, String> courseLabels; // Course id to "code - name" as shown in events
+        final Map<String, String> roomNames = new HashMap<>(); // Feed key to room
+
+        final Map<Integer, List<Integer>> coursesByStudent;
+        final Map<Integer, Set<Integer>> studentsByCourse = new HashMap<>();
+        final Map<String, Set<Integer>> studentsByRoom = new HashMap<>();
+        final Map<Integer, List<Schedule>> schedulesByCourse = new HashMap<>();
+        final Map<Integer, List<Schedule>> schedulesByInstructor = new HashMap<>();
+        final Map<String, List<Schedule>> schedulesByRoom = new HashMap<>();
+        final Map<Integer, List<MakeupRequest>> makeupsByCourse = new HashMap<>();
+        final Map<Integer, List<MakeupRequest>> makeupsByInstructor = new HashMap<>();
+        final Map<String, List<MakeupRequest>> makeupsByRoom = new HashMap<>();
+
+        private Snapshot(Map<Integer, List<Integer>> coursesByStudent, Map<Integer, String> instructorNames,
+                Map<Integer, String> courseLabels) {
+            this.coursesByStudent = coursesByStudent;
+            this.instructorNames = instructorNames;
+            this.courseLabels = courseLabels;
+        }
+
+        static Map<Integer, String> instructorNames(List<User> instructors) {
+            Map<Integer, String> names = new HashMap<>();
+            for (User instructor : instructors) {
+                names.put(instructor.getUserId(), String.valueOf(instructor.getFullName()));
+            }
+            return names;
+        }
+
+        static Map<Integer, String> courseLabels(List<Course> courses) {
+            Map<Integer, String> labels = new HashMap<>();
+            for (Course course : courses) {
+                labels.put(course.getCourseId(), course.getCourseCode() + " - " + course.getCourseName());
+            }
+            return labels;
+        }
+
+        static Snapshot load(List<User> students, List<User> instructors, List<Course> courses) {
+            Snapshot snapshot = new Snapshot(EnrollmentDAO.getCourseIdsByStudent(), instructorNames(instructors),
+                    courseLabels(courses));
+            for (Map.Entry<Integer, List<Integer>> enrollment : snapshot.coursesByStudent.entrySet()) {
+                for (Integer courseId : enrollment.getValue()) {
+                    snapshot.studentsByCourse.computeIfAbsent(courseId, k -> new HashSet<>())
+                            .add(enrollment.getKey());
+                }
+            }
+            for (User student : students) {
+                snapshot.students.put(student.getUserId(), student);
+                if (student.getAssignedRoom() != null) {
+                    snapshot.studentsByRoom.computeIfAbsent(student.getAssignedRoom(), k -> new HashSet<>())
+                            .add(student.getUserId());
+                }
+            }
+            for (Schedule schedule : ScheduleDAO.getPublishedSchedulesWithDetails()) {
+                if (schedule.getDay() == null || schedule.getStartMinutes() == TimeOfDay.UNSET
+                        || schedule.getEndMinutes() == TimeOfDay.UNSET) {
+                    continue;
+                }
+                snapshot.schedules.put(schedule.getScheduleId(), schedule);
+                snapshot.schedulesByCourse.computeIfAbsent(schedule.getCourseId(), k -> new ArrayList<>())
+                        .add(schedule);
+                snapshot.schedulesByInstructor.computeIfAbsent(schedule.getInstructorId(), k -> new ArrayList<>())
+                        .add(schedule);
+                snapshot.schedulesByRoom.computeIfAbsent(schedule.getRoom(), k -> new ArrayList<>()).add(schedule);
+                snapshot.roomNames.put(roomFeed(schedule.getRoom()), schedule.getRoom());
+            }
+            for (MakeupRequest makeup : MakeupRequestDAO.getApprovedRequests()) {
+                snapshot.makeups.put(makeup.getRequestId(), makeup);
+                snapshot.makeupsByCourse.computeIfAbsent(makeup.getCourseId(), k -> new ArrayList<>()).add(makeup);
+                snapshot.makeupsByInstructor.computeIfAbsent(makeup.getInstructorId(), k -> new ArrayList<>())
+                        .add(makeup);
+                snapshot.makeupsByRoom.computeIfAbsent(makeup.getRoom(), k -> new ArrayList<>()).add(makeup);
+                snapshot.roomNames.put(roomFeed(makeup.getRoom()), makeup.getRoom());
+            }
+            return snapshot;
+        }
+
+        Set<String> allFeeds() {
+            Set<String> feeds = new HashSet<>(roomNames.keySet());
+            for (Integer studentId : students.keySet()) {
+                feeds.add(STUDENTS + studentId);
+            }
+            for (Integer instructorId : instructorNames.keySet()) {
+                feeds.add(INSTRUCTORS + instructorId);
+            }
+            return feeds;
+        }
+
+        /**
+         * Add the feeds a schedule appears in, if it is in this snapshot.
+         */
+        void feedsOf(Schedule schedule, Set<String> feeds) {
+            if (schedule != null) {
+                feedsOf(schedule.getRoom(), schedule.getInstructorId(), schedule.getCourseId(), feeds);
+            }
+        }
+
+        void feedsOf(MakeupRequest makeup, Set<String> feeds) {
+            if (makeup != null) {
+                feedsOf(makeup.getRoom(), makeup.getInstructorId(), makeup.getCourseId(), feeds);
+            }
+        }
+
+        private void feedsOf(String room, int instructorId, int courseId, Set<String> feeds) {
+            feeds.add(roomFeed(room));
+            feeds.add(INSTRUCTORS + instructorId);
+            for (Integer studentId : studentsByCourse.getOrDefault(courseId, Collections.emptySet())) {
+                feeds.add(STUDENTS + studentId);
+            }
+            for (Integer studentId : studentsByRoom.getOrDefault(room, Collections.emptySet())) {
+                feeds.add(STUDENTS + studentId);
+            }
+        }
+
+        Collection<Schedule> schedulesForStudent(User student) {
+            Map<Integer, Schedule> result = new LinkedHashMap<>();
+            for (Integer courseId : coursesByStudent.getOrDefault(student.getUserId(), Collections.emptyList())) {
+                for (Schedule schedule : schedulesByCourse.getOrDefault(courseId, Collections.emptyList())) {
+                    result.put(schedule.getScheduleId(), schedule);
+                }
+            }
+            if (student.getAssignedRoom() != null) {
+                ProgramType program = ProgramType.fromString(student.getProgramType());
+                for (Schedule schedule : schedulesByRoom.getOrDefault(student.getAssignedRoom(),
+                        Collections.emptyList())) {
+                    if (program == null || program == schedule.getProgram()) {
+                        result.put(schedule.getScheduleId(), schedule);
+                    }
+                }
+            }
+            return result.values();
+        }
+
+        Collection<MakeupRequest> makeupsForStudent(User student) {
+            Map<Integer, MakeupRequest> result = new LinkedHashMap<>();
+            for (Integer courseId : coursesByStudent.getOrDefault(student.getUserId(), Collections.emptyList())) {
+                for (MakeupRequest makeup : makeupsByCourse.getOrDefault(courseId, Collections.emptyList())) {
+                    result.put(makeup.getRequestId(), makeup);
+                }
+            }
+            if (student.getAssignedRoom() != null) {
+                for (MakeupRequest makeup : makeupsByRoom.getOrDefault(student.getAssignedRoom(),
+                        Collections.emptyList())) {
+                    result.put(makeup.getRequestId(), makeup);
+                }
+            }
+            return result.values();
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.classroom.io;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * RFC 4180 CSV: the first row names the columns, fields may be quoted, and
+ * quoted fields may hold commas, doubled quotes and line breaks. Empty
+ * fields are left out of the record.
+ */
+public class CsvRecordReader implements RecordReader {
+    private final BufferedReader reader;
+    private final String[] header;
+    private long recordNumber;
+
+    public CsvRecordReader(BufferedReader reader) throws IOException {
+        this.reader = reader;
+        List<String> columns = readRow();
+        if (columns == null) {
+            throw new RecordFormatException("CSV file is empty");
+        }
+        header = new String[columns.size()];
+        for (int i = 0; i < header.length; i++) {
+            String column = columns.get(i);
+            // Spreadsheet exports often start with a byte order mark
+            if (i == 0 && !column.isEmpty() && column.charAt(0) == '\uFEFF') {
+                column = column.substring(1);
+            }
+            header[i] = RecordReader.normalize(column.trim());
+        }
+    }
+
+    @Override
+    public Map<String, String> next() throws IOException {
+        List<String> row;
+        try {
+            do {
+                row = readRow();
+                if (row == null) {
+                    return null;
+                }
+            } while (row.size() == 1 && row.get(0).isEmpty()); // Blank line
+        } finally {
+            recordNumber++;
+        }
+
+        if (row.size() > header.length) {
+            throw new RecordFormatException("Expected " + header.length + " fields but found " + row.size());
+        }
+        Map<String, String> record = new HashMap<>();
+        for (int i = 0; i < row.size(); i++) {
+            String value = row.get(i).trim();
+            if (!value.isEmpty()) {
+                record.put(header[i], value);
+            }
+        }
+        return record;
+    }
+
+    @Override
+    public long getRecordNumber() {
+        return recordNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /**
+     * The fields of the next row, which may span lines inside quotes, or null
+     * at the end of the input.
+     */
+    private List<String> readRow() throws IOException {
+        int c = reader.read();
+        if (c == -1) {
+            return null;
+        }
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new RecordFormatException("Unterminated quoted field");
+                }
+                if (c == '"') {
+                    reader.mark(1);
+                    if (reader.read() == '"') {
+                        field.append('"');
+                    } else {
+                        reader.reset();
+                        quoted = false;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c == -1) {
+                break;
+            } else if (c == '\r') {
+                reader.mark(1);
+                if (reader.read() != '\n') {
+                    reader.reset();
+                }
+                break;
+            } else {
+                field.append((char) c);
+            }
+            c = reader.read();
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
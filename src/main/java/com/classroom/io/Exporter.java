@@ -0,0 +1,240 @@
+package com.classroom.io;
+
+import com.classroom.dao.CourseDAO;
+import com.classroom.dao.ResultSetHandler;
+import com.classroom.dao.ScheduleDAO;
+import com.classroom.dao.TermDAO;
+import com.classroom.dao.UserDAO;
+import com.classroom.model.Course;
+import com.classroom.model.Term;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.LongConsumer;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exports timetables and rosters for other systems.
+ *
+ * Rows are read from a forward-only result set and handed to a
+ * {@link RecordWriter} one at a time, through a buffered writer on a file
+ * channel (optionally gzipped), so memory use does not grow with the size of
+ * the export. A file export is written next to its target and moved into
+ * place when complete, so a failed export never leaves a truncated file.
+ */
+public class Exporter {
+    private static final int PROGRESS_INTERVAL = 1000;
+
+    /**
+     * What to export. Room timetables take a room name and rosters a course
+     * code.
+     */
+    public enum Dataset {
+        SCHEDULES("Schedules", false),
+        ROOM_TIMETABLE("Room timetable", true),
+        COURSE_ROSTER("Course roster", true);
+
+        private final String label;
+        private final boolean keyed;
+
+        Dataset(String label, boolean keyed) {
+            this.label = label;
+            this.keyed = keyed;
+        }
+
+        public boolean isKeyed() {
+            return keyed;
+        }
+
+        /**
+         * Case-insensitive lookup by name, with dashes for underscores;
+         * returns null for unknown values.
+         */
+        public static Dataset fromString(String value) {
+            for (Dataset dataset : values()) {
+                if (dataset.name().equalsIgnoreCase(value.trim().replace('-', '_'))) {
+                    return dataset;
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    /**
+     * Output format, with the file extension it is written under.
+     */
+    public enum Format {
+        CSV("CSV", "csv"),
+        JSON_LINES("JSON Lines", "jsonl"),
+        ICALENDAR("iCalendar", "ics");
+
+        private final String label;
+        private final String extension;
+
+        Format(String label, String extension) {
+            this.label = label;
+            this.extension = extension;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        /**
+         * Lookup by extension ("csv", "jsonl" or "json", "ics"); returns null
+         * for unknown values.
+         */
+        public static Format fromString(String value) {
+            String name = value.trim().toLowerCase(Locale.ROOT);
+            if (name.equals("json")) {
+                return JSON_LINES;
+            }
+            for (Format format : values()) {
+                if (format.extension.equals(name)) {
+                    return format;
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    private Exporter() {
+    }
+
+    /**
+     * Export to a file, gzipped if asked, calling {@code progress} (if not
+     * null) with the number of rows written so far.
+     *
+     * @return the number of rows exported
+     * @throws IllegalArgumentException if the key is missing or unknown, or
+     *                                  the format does not suit the dataset
+     */
+    public static long export(Dataset dataset, String key, Format format, Path file, boolean gzip,
+            LongConsumer progress) throws IOException {
+        Path partial = file.resolveSibling(file.getFileName() + ".part");
+        try {
+            long rows;
+            try (FileChannel channel = FileChannel.open(partial, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                OutputStream out = Channels.newOutputStream(channel);
+                if (gzip) {
+                    GZIPOutputStream zipped = new GZIPOutputStream(out, RecordReader.BUFFER_SIZE);
+                    rows = export(dataset, key, format, zipped, progress);
+                    zipped.finish();
+                } else {
+                    rows = export(dataset, key, format, out, progress);
+                }
+                channel.force(false);
+            }
+            Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return rows;
+        } finally {
+            Files.deleteIfExists(partial);
+        }
+    }
+
+    /**
+     * Export to a stream the caller owns; it is flushed but not closed.
+     */
+    public static long export(Dataset dataset, String key, Format format, OutputStream out,
+            LongConsumer progress) throws IOException {
+        if (dataset.isKeyed() && (key == null || key.isBlank())) {
+            throw new IllegalArgumentException(dataset + " export needs a "
+                    + (dataset == Dataset.ROOM_TIMETABLE ? "room" : "course code"));
+        }
+        if (format == Format.ICALENDAR && dataset == Dataset.COURSE_ROSTER) {
+            throw new IllegalArgumentException("Rosters cannot be exported as iCalendar");
+        }
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8),
+                RecordReader.BUFFER_SIZE);
+        RecordWriter records = switch (format) {
+            case CSV -> new CsvRecordWriter(writer);
+            case JSON_LINES -> new JsonRecordWriter(writer);
+            case ICALENDAR -> new IcsRecordWriter(writer, currentTerm());
+        };
+
+        long[] rows = new long[1];
+        ResultSetHandler handler = rs -> {
+            try {
+                ResultSetMetaData meta = rs.getMetaData();
+                String[] columns = new String[meta.getColumnCount()];
+                for (int i = 0; i < columns.length; i++) {
+                    columns[i] = meta.getColumnLabel(i + 1);
+                }
+                records.writeHeader(columns);
+
+                Object[] values = new Object[columns.length];
+                while (rs.next()) {
+                    for (int i = 0; i < values.length; i++) {
+                        values[i] = rs.getObject(i + 1);
+                    }
+                    records.writeRecord(values);
+                    if (++rows[0] % PROGRESS_INTERVAL == 0 && progress != null) {
+                        progress.accept(rows[0]);
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+
+        try {
+            switch (dataset) {
+                case SCHEDULES -> ScheduleDAO.streamSchedules(null, handler);
+                case ROOM_TIMETABLE -> ScheduleDAO.streamSchedules(key.trim(), handler);
+                case COURSE_ROSTER -> {
+                    Course course = CourseDAO.getCourseByCode(key.trim());
+                    if (course == null) {
+                        throw new IllegalArgumentException("Unknown course code: " + key);
+                    }
+                    UserDAO.streamStudentsByCourse(course.getCourseId(), handler);
+                }
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } catch (SQLException e) {
+            throw new IOException("Database error during export: " + e.getMessage(), e);
+        }
+        records.finish();
+        if (progress != null) {
+            progress.accept(rows[0]);
+        }
+        return rows[0];
+    }
+
+    /**
+     * The term in progress, or the next one to start, for calendar
+     * recurrence; null when no term covers today or later.
+     */
+    private static Term currentTerm() {
+        List<Term> terms = TermDAO.getTermsBetween(LocalDate.now(), LocalDate.MAX);
+        return terms.isEmpty() ? null : terms.get(0);
+    }
+}
@@ -0,0 +1,208 @@
+package com.classroom.io;
+
+import com.classroom.model.Schedule;
+import com.classroom.model.Term;
+import com.classroom.model.TimeOfDay;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * iCalendar (RFC 5545) timetable: each schedule row becomes a weekly
+ * recurring event, except drafts, which the calendar feeds leave out too.
+ * Within a term the recurrence runs from the first matching day to the end
+ * of the term and skips its holidays; without a term it starts from today
+ * and has no end. Times are floating local times.
+ */
+public class IcsRecordWriter implements RecordWriter {
+    private static final DateTimeFormatter DATE = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final DateTimeFormatter STAMP = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'");
+    private static final int MAX_LINE = 75;
+
+    private final Writer out;
+    private final Term term;
+    private final String stamp = STAMP.format(ZonedDateTime.now(ZoneOffset.UTC));
+    private int idColumn;
+    private int dayColumn;
+    private int startColumn;
+    private int endColumn;
+    private int codeColumn;
+    private int nameColumn;
+    private int roomColumn;
+    private int instructorColumn;
+    private int statusColumn;
+
+    /**
+     * @param term the term the events repeat through, or null
+     */
+    public IcsRecordWriter(Writer out, Term term) throws IOException {
+        this(out, term, null);
+    }
+
+    /**
+     * @param term the term the events repeat through, or null
+     * @param name the calendar name shown by calendar apps, or null
+     */
+    public IcsRecordWriter(Writer out, Term term, String name) throws IOException {
+        this.out = out;
+        this.term = term;
+        line("BEGIN:VCALENDAR");
+        line("VERSION:2.0");
+        line("PRODID:-//Classroom Management System//Timetable//EN");
+        line("CALSCALE:GREGORIAN");
+        if (name != null) {
+            line("X-WR-CALNAME:" + escape(name));
+        }
+    }
+
+    @Override
+    public void writeHeader(String[] columns) throws IOException {
+        idColumn = column(columns, "schedule_id", true);
+        dayColumn = column(columns, "day_of_week", true);
+        startColumn = column(columns, "start_time", true);
+        endColumn = column(columns, "end_time", true);
+        codeColumn = column(columns, "course_code", true);
+        nameColumn = column(columns, "course_name", false);
+        roomColumn = column(columns, "room", false);
+        instructorColumn = column(columns, "instructor_name", false);
+        statusColumn = column(columns, "status", false);
+    }
+
+    @Override
+    public void writeRecord(Object[] values) throws IOException {
+        if ("draft".equalsIgnoreCase(text(values, statusColumn))) {
+            return;
+        }
+        DayOfWeek day = Schedule.parseDay(text(values, dayColumn));
+        int start = TimeOfDay.parse(text(values, startColumn));
+        int end = TimeOfDay.parse(text(values, endColumn));
+        if (day == null || start == TimeOfDay.UNSET || end == TimeOfDay.UNSET) {
+            return;
+        }
+        String name = text(values, nameColumn);
+        String instructor = text(values, instructorColumn);
+        writeWeeklyEvent("schedule-" + values[idColumn] + "@classroom", day, start, end,
+                text(values, codeColumn) + (name != null ? " - " + name : ""),
+                text(values, roomColumn),
+                instructor != null ? "Instructor: " + instructor : null);
+    }
+
+    /**
+     * A class meeting every week on the given day.
+     */
+    public void writeWeeklyEvent(String uid, DayOfWeek day, int startMinutes, int endMinutes, String summary,
+            String location, String description) throws IOException {
+        LocalDate first = (term != null ? term.getStartDate() : LocalDate.now())
+                .with(TemporalAdjusters.nextOrSame(day));
+        if (term != null && first.isAfter(term.getEndDate())) {
+            return;
+        }
+        beginEvent(uid, first, startMinutes, endMinutes);
+        if (term != null) {
+            line("RRULE:FREQ=WEEKLY;UNTIL=" + DATE.format(term.getEndDate()) + "T235959");
+            List<String> skipped = new ArrayList<>();
+            for (LocalDate holiday : term.getHolidays().keySet()) {
+                if (holiday.getDayOfWeek() == day && !holiday.isBefore(first)) {
+                    skipped.add(dateTime(holiday, startMinutes));
+                }
+            }
+            if (!skipped.isEmpty()) {
+                line("EXDATE:" + String.join(",", skipped));
+            }
+        } else {
+            line("RRULE:FREQ=WEEKLY");
+        }
+        endEvent(summary, location, description);
+    }
+
+    /**
+     * A single meeting on one date.
+     */
+    public void writeEvent(String uid, LocalDate date, int startMinutes, int endMinutes, String summary,
+            String location, String description) throws IOException {
+        beginEvent(uid, date, startMinutes, endMinutes);
+        endEvent(summary, location, description);
+    }
+
+    @Override
+    public void finish() throws IOException {
+        line("END:VCALENDAR");
+        out.flush();
+    }
+
+    private void beginEvent(String uid, LocalDate date, int startMinutes, int endMinutes) throws IOException {
+        line("BEGIN:VEVENT");
+        line("UID:" + uid);
+        line("DTSTAMP:" + stamp);
+        line("DTSTART:" + dateTime(date, startMinutes));
+        line("DTEND:" + dateTime(date, endMinutes));
+    }
+
+    private void endEvent(String summary, String location, String description) throws IOException {
+        line("SUMMARY:" + escape(summary));
+        if (location != null) {
+            line("LOCATION:" + escape(location));
+        }
+        if (description != null) {
+            line("DESCRIPTION:" + escape(description));
+        }
+        line("END:VEVENT");
+    }
+
+    private static String dateTime(LocalDate date, int minutes) {
+        return DATE.format(date) + "T" + TimeOfDay.format(minutes).replace(":", "") + "00";
+    }
+
+    private static String escape(String text) {
+        return text.replace("\\", "\\\\").replace(";", "\\;").replace(",", "\\,").replace("\n", "\\n");
+    }
+
+    private static String text(Object[] values, int column) {
+        return column >= 0 && values[column] != null ? values[column].toString() : null;
+    }
+
+    private static int column(String[] columns, String name, boolean required) throws IOException {
+        for (int i = 0; i < columns.length; i++) {
+            if (columns[i].equalsIgnoreCase(name)) {
+                return i;
+            }
+        }
+        if (required) {
+            throw new IOException("iCalendar export needs a " + name + " column");
+        }
+        return -1;
+    }
+
+    /**
+     * Write a content line, folded so no line exceeds 75 octets of UTF-8.
+     * Folds fall between code points, never inside a multi-byte character.
+     */
+    private void line(String content) throws IOException {
+        int start = 0;
+        int octets = 0;
+        int width = MAX_LINE;
+        for (int i = 0; i < content.length();) {
+            int codePoint = content.codePointAt(i);
+            int size = codePoint < 0x80 ? 1 : codePoint < 0x800 ? 2 : codePoint < 0x10000 ? 3 : 4;
+            if (octets + size > width) {
+                out.write(content, start, i - start);
+                out.write("\r\n ");
+                start = i;
+                octets = 0;
+                width = MAX_LINE - 1; // Continuation lines start with a space
+            }
+            octets += size;
+            i += Character.charCount(codePoint);
+        }
+        out.write(content, start, content.length() - start);
+        out.write("\r\n");
+    }
+}
@@ -0,0 +1,118 @@
+package com.classroom.io;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Progress and outcome of one import: counts, throughput and the rows that
+ * were rejected with the reason. Only the first {@value #MAX_ERRORS} errors
+ * are kept; the rest are counted.
+ */
+public class ImportReport {
+    public static final int MAX_ERRORS = 10_000;
+
+    /**
+     * A rejected row: its position in the file and why it was refused.
+     */
+    public static final class RowError {
+        public final long record;
+        public final String message;
+
+        RowError(long record, String message) {
+            this.record = record;
+            this.message = message;
+        }
+    }
+
+    private final String kind;
+    private final long startNanos = System.nanoTime();
+    private final List<RowError> errors = new ArrayList<>();
+    private volatile long rowsRead;
+    private volatile long imported;
+    private volatile long rejected;
+    private volatile long elapsedNanos;
+    private volatile boolean finished;
+
+    ImportReport(String kind) {
+        this.kind = kind;
+    }
+
+    synchronized void reject(long record, String message) {
+        rejected++;
+        if (errors.size() < MAX_ERRORS) {
+            errors.add(new RowError(record, message));
+        }
+    }
+
+    synchronized void read() {
+        rowsRead++;
+    }
+
+    synchronized void imported(int count) {
+        imported += count;
+        elapsedNanos = System.nanoTime() - startNanos;
+    }
+
+    synchronized void finish() {
+        elapsedNanos = System.nanoTime() - startNanos;
+        finished = true;
+    }
+
+    public String getKind() {
+        return kind;
+    }
+
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+
+    public double getElapsedSeconds() {
+        return elapsedNanos / 1e9;
+    }
+
+    public double getRowsPerSecond() {
+        return elapsedNanos == 0 ? 0 : rowsRead / (elapsedNanos / 1e9);
+    }
+
+    public synchronized List<RowError> getErrors() {
+        return Collections.unmodifiableList(new ArrayList<>(errors));
+    }
+
+    public String summary() {
+        return String.format("%s: %d read, %d imported, %d rejected in %.1f s (%.0f rows/s)",
+                kind, rowsRead, imported, rejected, getElapsedSeconds(), getRowsPerSecond());
+    }
+
+    /**
+     * Write the rejected rows as CSV (record, error).
+     */
+    public synchronized void writeErrorReport(Path file) throws IOException {
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write("record,error\n");
+            for (RowError error : errors) {
+                out.write(error.record + ",\"" + error.message.replace("\"", "\"\"") + "\"\n");
+            }
+            if (rejected > errors.size()) {
+                out.write(",\"" + (rejected - errors.size()) + " more errors not recorded\"\n");
+            }
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.classroom.io;
+
+import com.classroom.util.JsonUtil;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reads JSON objects one at a time from either a top-level array or JSON
+ * Lines (one object per line). Only the text of the current object is
+ * buffered, so a file of any size streams through. Object values must be
+ * scalars; nulls are left out of the record.
+ */
+public class JsonRecordReader implements RecordReader {
+    private final BufferedReader reader;
+    private final StringBuilder object = new StringBuilder();
+    private long recordNumber;
+
+    public JsonRecordReader(BufferedReader reader) {
+        this.reader = reader;
+    }
+
+    @Override
+    public Map<String, String> next() throws IOException {
+        // Skip whatever separates objects: whitespace, commas and the array brackets
+        int c;
+        do {
+            c = reader.read();
+        } while (c != -1 && (Character.isWhitespace(c) || c == ',' || c == '[' || c == ']'));
+        if (c == -1) {
+            return null;
+        }
+        recordNumber++;
+        if (c != '{') {
+            skipLine();
+            throw new RecordFormatException("Expected a JSON object but found '" + (char) c + "'");
+        }
+
+        readObject(c);
+        Map<String, Object> parsed;
+        try {
+            parsed = JsonUtil.parseObject(object.toString());
+        } catch (IllegalArgumentException e) {
+            throw new RecordFormatException("Invalid JSON: " + e.getMessage());
+        }
+
+        Map<String, String> record = new HashMap<>();
+        for (Map.Entry<String, Object> field : parsed.entrySet()) {
+            Object value = field.getValue();
+            if (value instanceof Map || value instanceof Iterable) {
+                throw new RecordFormatException("Field '" + field.getKey() + "' must be a single value");
+            }
+            if (value != null) {
+                record.put(RecordReader.normalize(field.getKey()), value.toString().trim());
+            }
+        }
+        return record;
+    }
+
+    @Override
+    public long getRecordNumber() {
+        return recordNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /**
+     * Copy one balanced {...} into the buffer, minding braces inside strings.
+     */
+    private void readObject(int first) throws IOException {
+        object.setLength(0);
+        object.append((char) first);
+        int depth = 1;
+        boolean inString = false;
+        while (depth > 0) {
+            int c = reader.read();
+            if (c == -1) {
+                throw new RecordFormatException("Unexpected end of input inside an object");
+            }
+            object.append((char) c);
+            if (inString) {
+                if (c == '\\') {
+                    int escaped = reader.read();
+                    if (escaped == -1) {
+                        throw new RecordFormatException("Unexpected end of input inside a string");
+                    }
+                    object.append((char) escaped);
+                } else if (c == '"') {
+                    inString = false;
+                }
+            } else if (c == '"') {
+                inString = true;
+            } else if (c == '{') {
+                depth++;
+            } else if (c == '}') {
+                depth--;
+            }
+        }
+    }
+
+    private void skipLine() throws IOException {
+        int c;
+        do {
+            c = reader.read();
+        } while (c != -1 && c != '\n');
+    }
+}
@@ -0,0 +1,46 @@
+package com.classroom.io;
+
+import com.classroom.util.JsonUtil;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * JSON Lines: one object per line keyed by column name, readable back by
+ * {@link JsonRecordReader}.
+ */
+public class JsonRecordWriter implements RecordWriter {
+    private final Writer out;
+    private String[] keys;
+
+    public JsonRecordWriter(Writer out) {
+        this.out = out;
+    }
+
+    @Override
+    public void writeHeader(String[] columns) throws IOException {
+        // Encode the keys once rather than per record
+        keys = new String[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            keys[i] = JsonUtil.toJson(columns[i]) + ":";
+        }
+    }
+
+    @Override
+    public void writeRecord(Object[] values) throws IOException {
+        out.write('{');
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            out.write(keys[i]);
+            out.write(JsonUtil.toJson(values[i]));
+        }
+        out.write("}\n");
+    }
+
+    @Override
+    public void finish() throws IOException {
+        out.flush();
+    }
+}
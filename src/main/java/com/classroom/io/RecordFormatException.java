@@ -0,0 +1,13 @@
+package com.classroom.io;
+
+import java.io.IOException;
+
+/**
+ * A single record in an import file could not be parsed. The rest of the
+ * file can still be read.
+ */
+public class RecordFormatException extends IOException {
+    public RecordFormatException(String message) {
+        super(message);
+    }
+}
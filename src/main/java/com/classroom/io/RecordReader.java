@@ -0,0 +1,74 @@
+package com.classroom.io;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Reads flat records one at a time from a file, so an import never holds
+ * more than the current record in memory. Field names are normalized with
+ * {@link #normalize} so "course_code", "Course Code" and "courseCode" all
+ * read as "coursecode".
+ */
+public interface RecordReader extends AutoCloseable {
+    int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * The next record, or null at the end of the input.
+     *
+     * @throws RecordFormatException if the record cannot be parsed; the
+     *                               reader can carry on with the next one
+     */
+    Map<String, String> next() throws IOException;
+
+    /**
+     * 1-based position of the record last returned.
+     */
+    long getRecordNumber();
+
+    @Override
+    void close() throws IOException;
+
+    /**
+     * Open a CSV (.csv) or JSON (.json, .jsonl, .ndjson) file, optionally
+     * gzipped (.gz), choosing the format by extension.
+     */
+    static RecordReader open(Path file) throws IOException {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        InputStream in = Files.newInputStream(file);
+        if (name.endsWith(".gz")) {
+            in = new GZIPInputStream(in, BUFFER_SIZE);
+            name = name.substring(0, name.length() - 3);
+        }
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), BUFFER_SIZE);
+        if (name.endsWith(".csv")) {
+            return new CsvRecordReader(reader);
+        }
+        if (name.endsWith(".json") || name.endsWith(".jsonl") || name.endsWith(".ndjson")) {
+            return new JsonRecordReader(reader);
+        }
+        reader.close();
+        throw new IOException("Unsupported file type: " + file.getFileName());
+    }
+
+    /**
+     * Lower-case a field name and drop spaces, underscores and dashes.
+     */
+    static String normalize(String field) {
+        StringBuilder sb = new StringBuilder(field.length());
+        for (int i = 0; i < field.length(); i++) {
+            char c = field.charAt(i);
+            if (c != ' ' && c != '_' && c != '-') {
+                sb.append(Character.toLowerCase(c));
+            }
+        }
+        return sb.toString();
+    }
+}
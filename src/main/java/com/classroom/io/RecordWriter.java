@@ -0,0 +1,26 @@
+package com.classroom.io;
+
+import java.io.IOException;
+
+/**
+ * Writes flat records one at a time in an export format. Nothing is kept
+ * between records beyond what the format needs, so an export of any size
+ * runs in constant memory.
+ */
+public interface RecordWriter {
+
+    /**
+     * Called once before the first record with the column names.
+     */
+    void writeHeader(String[] columns) throws IOException;
+
+    /**
+     * Write one record; values line up with the header and may be null.
+     */
+    void writeRecord(Object[] values) throws IOException;
+
+    /**
+     * Write any trailer and flush. The underlying stream is left open.
+     */
+    void finish() throws IOException;
+}
@@ -0,0 +1,78 @@
+package com.classroom.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row of the change log: a single insert, update or delete on a tracked
+ * table. Clients re-read the affected row (or drop it on delete) rather than
+ * reloading the whole table.
+ */
+public class ChangeLogEntry {
+    private long seq;
+    private String tableName;
+    private int rowId;
+    private String operation;
+    private Integer userId;
+    private LocalDateTime changedAt;
+
+    public ChangeLogEntry() {
+    }
+
+    // Getters and Setters
+    public long getSeq() {
+        return seq;
+    }
+
+    public void setSeq(long seq) {
+        this.seq = seq;
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    public void setTableName(String tableName) {
+        this.tableName = tableName;
+    }
+
+    public int getRowId() {
+        return rowId;
+    }
+
+    public void setRowId(int rowId) {
+        this.rowId = rowId;
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    public void setOperation(String operation) {
+        this.operation = operation;
+    }
+
+    public boolean isDelete() {
+        return "delete".equals(operation);
+    }
+
+    public Integer getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Integer userId) {
+        this.userId = userId;
+    }
+
+    public LocalDateTime getChangedAt() {
+        return changedAt;
+    }
+
+    public void setChangedAt(LocalDateTime changedAt) {
+        this.changedAt = changedAt;
+    }
+
+    @Override
+    public String toString() {
+        return seq + " " + operation + " " + tableName + "#" + rowId;
+    }
+}
@@ -0,0 +1,51 @@
+package com.classroom.model;
+
+import java.time.LocalDate;
+
+/**
+ * One dated meeting of a weekly schedule. The schedule is shared by all of
+ * its meetings rather than copied into each.
+ */
+public final class ClassMeeting {
+    private final Schedule schedule;
+    private final LocalDate date;
+
+    public ClassMeeting(Schedule schedule, LocalDate date) {
+        this.schedule = schedule;
+        this.date = date;
+    }
+
+    public Schedule getSchedule() {
+        return schedule;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public String getRoom() {
+        return schedule.getRoom();
+    }
+
+    public String getStartTime() {
+        return schedule.getStartTime();
+    }
+
+    public String getEndTime() {
+        return schedule.getEndTime();
+    }
+
+    /**
+     * True if this meeting overlaps the given time on the given date.
+     */
+    public boolean overlaps(LocalDate otherDate, int startMinutes, int endMinutes) {
+        return date.equals(otherDate)
+                && schedule.getStartMinutes() < endMinutes && startMinutes < schedule.getEndMinutes();
+    }
+
+    @Override
+    public String toString() {
+        return date + " " + schedule.getStartTime() + "-" + schedule.getEndTime() + " "
+                + schedule.getCourseCode() + " @ " + schedule.getRoom();
+    }
+}
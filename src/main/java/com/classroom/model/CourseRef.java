@@ -0,0 +1,55 @@
+package com.classroom.model;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shared, immutable course display data (name and code). Schedules keep a
+ * reference to one instance per course instead of their own string copies.
+ */
+public final class CourseRef {
+    private static final ConcurrentHashMap<Integer, CourseRef> CACHE = new ConcurrentHashMap<>();
+
+    private final int courseId;
+    private final String courseName;
+    private final String courseCode;
+
+    private CourseRef(int courseId, String courseName, String courseCode) {
+        this.courseId = courseId;
+        this.courseName = courseName;
+        this.courseCode = courseCode;
+    }
+
+    /**
+     * Return the shared instance for this course, replacing it if the course
+     * was renamed since it was cached. Incomplete values are not cached.
+     */
+    public static CourseRef of(int courseId, String courseName, String courseCode) {
+        if (courseName == null || courseCode == null) {
+            return new CourseRef(courseId, courseName, courseCode);
+        }
+        CourseRef cached = CACHE.get(courseId);
+        if (cached != null && cached.matches(courseName, courseCode)) {
+            return cached;
+        }
+        CourseRef ref = new CourseRef(courseId, courseName, courseCode);
+        CACHE.put(courseId, ref);
+        return ref;
+    }
+
+    boolean matches(String name, String code) {
+        return Objects.equals(courseName, name) && Objects.equals(courseCode, code);
+    }
+
+    public int getCourseId() {
+        return courseId;
+    }
+
+    public String getCourseName() {
+        return courseName;
+    }
+
+    public String getCourseCode() {
+        return courseCode;
+    }
+}
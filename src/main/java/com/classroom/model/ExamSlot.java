@@ -0,0 +1,132 @@
+package com.classroom.model;
+
+/**
+ * One room booked for a course's exam. A course too large for any single
+ * room has one slot per room, all in the same period.
+ */
+public class ExamSlot {
+    private int examId;
+    private int courseId;
+    private String courseCode;
+    private String courseName;
+    private String programType;
+    private int period; // exam period index within the program's session sequence
+    private int examDay; // 1-based exam day within the program's session sequence
+    private String dayOfWeek;
+    private String startTime;
+    private String endTime;
+    private String room;
+    private int students; // students seated in this room
+
+    public ExamSlot() {
+    }
+
+    public ExamSlot(int courseId, String programType, int period, int examDay, String dayOfWeek,
+            String startTime, String endTime, String room, int students) {
+        this.courseId = courseId;
+        this.programType = programType;
+        this.period = period;
+        this.examDay = examDay;
+        this.dayOfWeek = dayOfWeek;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.room = room;
+        this.students = students;
+    }
+
+    public int getExamId() {
+        return examId;
+    }
+
+    public void setExamId(int examId) {
+        this.examId = examId;
+    }
+
+    public int getCourseId() {
+        return courseId;
+    }
+
+    public void setCourseId(int courseId) {
+        this.courseId = courseId;
+    }
+
+    public String getCourseCode() {
+        return courseCode;
+    }
+
+    public void setCourseCode(String courseCode) {
+        this.courseCode = courseCode;
+    }
+
+    public String getCourseName() {
+        return courseName;
+    }
+
+    public void setCourseName(String courseName) {
+        this.courseName = courseName;
+    }
+
+    public String getProgramType() {
+        return programType;
+    }
+
+    public void setProgramType(String programType) {
+        this.programType = programType;
+    }
+
+    public int getPeriod() {
+        return period;
+    }
+
+    public void setPeriod(int period) {
+        this.period = period;
+    }
+
+    public int getExamDay() {
+        return examDay;
+    }
+
+    public void setExamDay(int examDay) {
+        this.examDay = examDay;
+    }
+
+    public String getDayOfWeek() {
+        return dayOfWeek;
+    }
+
+    public void setDayOfWeek(String dayOfWeek) {
+        this.dayOfWeek = dayOfWeek;
+    }
+
+    public String getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(String startTime) {
+        this.startTime = startTime;
+    }
+
+    public String getEndTime() {
+        return endTime;
+    }
+
+    public void setEndTime(String endTime) {
+        this.endTime = endTime;
+    }
+
+    public String getRoom() {
+        return room;
+    }
+
+    public void setRoom(String room) {
+        this.room = room;
+    }
+
+    public int getStudents() {
+        return students;
+    }
+
+    public void setStudents(int students) {
+        this.students = students;
+    }
+}
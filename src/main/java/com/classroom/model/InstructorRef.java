@@ -0,0 +1,43 @@
+package com.classroom.model;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shared, immutable instructor display name, one instance per instructor.
+ */
+public final class InstructorRef {
+    private static final ConcurrentHashMap<Integer, InstructorRef> CACHE = new ConcurrentHashMap<>();
+
+    private final int instructorId;
+    private final String instructorName;
+
+    private InstructorRef(int instructorId, String instructorName) {
+        this.instructorId = instructorId;
+        this.instructorName = instructorName;
+    }
+
+    /**
+     * Return the shared instance for this instructor, replacing it if the
+     * name changed since it was cached.
+     */
+    public static InstructorRef of(int instructorId, String instructorName) {
+        if (instructorName == null) {
+            return null;
+        }
+        InstructorRef cached = CACHE.get(instructorId);
+        if (cached != null && cached.instructorName.equals(instructorName)) {
+            return cached;
+        }
+        InstructorRef ref = new InstructorRef(instructorId, instructorName);
+        CACHE.put(instructorId, ref);
+        return ref;
+    }
+
+    public int getInstructorId() {
+        return instructorId;
+    }
+
+    public String getInstructorName() {
+        return instructorName;
+    }
+}
@@ -0,0 +1,38 @@
+package com.classroom.model;
+
+import java.time.LocalDate;
+import java.time.format.TextStyle;
+import java.util.Locale;
+
+/**
+ * A free date and time proposed for a makeup class.
+ */
+public final class MakeupSlot {
+    private final LocalDate date;
+    private final String startTime;
+    private final String endTime;
+
+    public MakeupSlot(LocalDate date, String startTime, String endTime) {
+        this.date = date;
+        this.startTime = startTime;
+        this.endTime = endTime;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public String getStartTime() {
+        return startTime;
+    }
+
+    public String getEndTime() {
+        return endTime;
+    }
+
+    @Override
+    public String toString() {
+        return date.getDayOfWeek().getDisplayName(TextStyle.SHORT, Locale.ENGLISH)
+                + " " + date + " " + startTime + "-" + endTime;
+    }
+}
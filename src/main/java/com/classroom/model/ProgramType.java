@@ -0,0 +1,40 @@
+package com.classroom.model;
+
+/**
+ * Program a schedule belongs to. Labels match the values stored in the
+ * Schedule.program_type column.
+ */
+public enum ProgramType {
+    REGULAR("Regular"),
+    EVENING("Evening");
+
+    private final String label;
+
+    ProgramType(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Case-insensitive lookup; returns null for unknown values.
+     */
+    public static ProgramType fromString(String value) {
+        if (value == null) {
+            return null;
+        }
+        for (ProgramType type : values()) {
+            if (type.label.equalsIgnoreCase(value.trim())) {
+                return type;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
@@ -0,0 +1,131 @@
+package com.classroom.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A room in the catalog (Rooms table). Rooms first seen on a schedule or a
+ * student are catalogued by name alone, with no capacity, no equipment and
+ * open to every program, until someone fills them in.
+ */
+public class Room {
+    private int roomId;
+    private String name;
+    private String building;
+    private int capacity; // seats, 0 if not known
+    private List<String> equipment = new ArrayList<>();
+    private Set<ProgramType> programs = EnumSet.allOf(ProgramType.class);
+
+    public Room() {
+    }
+
+    public Room(int roomId, String name, String building, int capacity) {
+        this.roomId = roomId;
+        setName(name);
+        this.building = building;
+        this.capacity = capacity;
+    }
+
+    public int getRoomId() {
+        return roomId;
+    }
+
+    public void setRoomId(int roomId) {
+        this.roomId = roomId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = RoomNames.intern(name);
+    }
+
+    public String getBuilding() {
+        return building;
+    }
+
+    public void setBuilding(String building) {
+        this.building = building;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public void setCapacity(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public boolean hasCapacity() {
+        return capacity > 0;
+    }
+
+    /**
+     * Whether the room seats this many students; a room of unknown capacity
+     * is taken to seat anyone.
+     */
+    public boolean seats(int students) {
+        return !hasCapacity() || students <= capacity;
+    }
+
+    public List<String> getEquipment() {
+        return Collections.unmodifiableList(equipment);
+    }
+
+    public void setEquipment(List<String> equipment) {
+        this.equipment = new ArrayList<>(equipment);
+    }
+
+    /**
+     * Case-insensitive check for one kind of equipment, e.g. "Projector".
+     */
+    public boolean hasEquipment(String item) {
+        for (String installed : equipment) {
+            if (installed.equalsIgnoreCase(item)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public Set<ProgramType> getPrograms() {
+        return Collections.unmodifiableSet(programs);
+    }
+
+    public void setPrograms(Set<ProgramType> programs) {
+        this.programs = programs.isEmpty() ? EnumSet.noneOf(ProgramType.class) : EnumSet.copyOf(programs);
+    }
+
+    public boolean isAvailableFor(ProgramType program) {
+        return programs.contains(program);
+    }
+
+    /**
+     * Equipment as stored in the Rooms.equipment column: comma-separated.
+     */
+    public String getEquipmentList() {
+        return equipment.isEmpty() ? null : String.join(",", equipment);
+    }
+
+    public void setEquipmentList(String list) {
+        equipment = new ArrayList<>();
+        if (list == null) {
+            return;
+        }
+        for (String item : list.split(",")) {
+            if (!item.isBlank()) {
+                equipment.add(item.trim());
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,22 @@
+package com.classroom.model;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Canonical instances of room names, so the thousands of schedules that sit
+ * in the same handful of rooms share one String per room.
+ */
+public final class RoomNames {
+    private static final ConcurrentHashMap<String, String> POOL = new ConcurrentHashMap<>();
+
+    private RoomNames() {
+    }
+
+    public static String intern(String room) {
+        if (room == null) {
+            return null;
+        }
+        String existing = POOL.putIfAbsent(room, room);
+        return existing != null ? existing : room;
+    }
+}
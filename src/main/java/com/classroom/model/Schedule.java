@@ -1,30 +1,42 @@
 package com.classroom.model;
 
+import java.time.DayOfWeek;
+import java.util.Collections;
 import java.util.List;
 import java.util.ArrayList;
 
 /**
  * Represents a course schedule in the system.
+ *
+ * Dashboards hold tens of thousands of these, so the row is kept compact:
+ * day, program and status are enums, times are minutes since midnight, the
+ * room name is interned and course/instructor display data is shared through
+ * {@link CourseRef} and {@link InstructorRef}. The String accessors are kept
+ * for existing callers and return shared instances.
  */
 public class Schedule {
+    private static final String[] DAY_NAMES = {
+            "Monday", "Tuesday", "Wednesday", "Thursday", "Friday", "Saturday", "Sunday"
+    };
+
     private int scheduleId;
     private int courseId;
     private int instructorId;
-    private String dayOfWeek;
-    private String startTime;
-    private String endTime;
-    private String room;
-    private String programType; // "regular" or "evening"
-    private String status; // "draft", "published", "revision_requested"
+    private DayOfWeek dayOfWeek;
+    private short startMinutes = TimeOfDay.UNSET;
+    private short endMinutes = TimeOfDay.UNSET;
+    private String room; // interned through RoomNames
+    private ProgramType programType;
+    private ScheduleStatus status = ScheduleStatus.DRAFT;
     private String publishDate;
+    private int version; // row version for optimistic concurrency control
 
-    // Additional fields for display purposes (not in database)
-    private String courseName;
-    private String courseCode;
-    private String instructorName;
+    // Shared display data (not in Schedule table)
+    private CourseRef course;
+    private InstructorRef instructor;
 
-    // Required resources for this schedule
-    private List<ScheduleResource> requiredResources;
+    // Required resources for this schedule; most rows have none and share the empty list
+    private List<ScheduleResource> requiredResources = Collections.emptyList();
 
     // Constructor
     public Schedule(int scheduleId, int courseId, int instructorId, String dayOfWeek,
@@ -32,19 +44,37 @@ public class Schedule {
         this.scheduleId = scheduleId;
         this.courseId = courseId;
         this.instructorId = instructorId;
-        this.dayOfWeek = dayOfWeek;
-        this.startTime = startTime;
-        this.endTime = endTime;
-        this.room = room;
-        this.programType = programType;
-        this.status = "draft"; // Default status
-        this.requiredResources = new ArrayList<>();
+        setDayOfWeek(dayOfWeek);
+        setStartTime(startTime);
+        setEndTime(endTime);
+        setRoom(room);
+        setProgramType(programType);
     }
 
     // Default constructor
     public Schedule() {
-        this.requiredResources = new ArrayList<>();
-        this.status = "draft"; // Default status
+    }
+
+    /**
+     * Parse a day name such as "Monday" (case-insensitive); null if unknown.
+     */
+    public static DayOfWeek parseDay(String day) {
+        if (day == null) {
+            return null;
+        }
+        for (int i = 0; i < DAY_NAMES.length; i++) {
+            if (DAY_NAMES[i].equalsIgnoreCase(day.trim())) {
+                return DayOfWeek.of(i + 1);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Display name of a day, e.g. "Monday", as stored in Schedule.day_of_week.
+     */
+    public static String dayName(DayOfWeek day) {
+        return day != null ? DAY_NAMES[day.getValue() - 1] : null;
     }
 
     // Getters and Setters
@@ -73,27 +103,49 @@ public class Schedule {
     }
 
     public String getDayOfWeek() {
-        return dayOfWeek;
+        return dayName(dayOfWeek);
     }
 
     public void setDayOfWeek(String dayOfWeek) {
-        this.dayOfWeek = dayOfWeek;
+        this.dayOfWeek = parseDay(dayOfWeek);
+    }
+
+    public DayOfWeek getDay() {
+        return dayOfWeek;
+    }
+
+    public void setDay(DayOfWeek day) {
+        this.dayOfWeek = day;
     }
 
     public String getStartTime() {
-        return startTime;
+        return TimeOfDay.format(startMinutes);
     }
 
     public void setStartTime(String startTime) {
-        this.startTime = startTime;
+        this.startMinutes = (short) TimeOfDay.parse(startTime);
     }
 
     public String getEndTime() {
-        return endTime;
+        return TimeOfDay.format(endMinutes);
     }
 
     public void setEndTime(String endTime) {
-        this.endTime = endTime;
+        this.endMinutes = (short) TimeOfDay.parse(endTime);
+    }
+
+    /**
+     * Start time in minutes since midnight, or {@link TimeOfDay#UNSET}.
+     */
+    public int getStartMinutes() {
+        return startMinutes;
+    }
+
+    /**
+     * End time in minutes since midnight, or {@link TimeOfDay#UNSET}.
+     */
+    public int getEndMinutes() {
+        return endMinutes;
     }
 
     public String getRoom() {
@@ -101,52 +153,74 @@ public class Schedule {
     }
 
     public void setRoom(String room) {
-        this.room = room;
+        this.room = RoomNames.intern(room);
     }
 
     public String getProgramType() {
-        return programType;
+        return programType != null ? programType.getLabel() : null;
     }
 
     public void setProgramType(String programType) {
+        this.programType = ProgramType.fromString(programType);
+    }
+
+    public ProgramType getProgram() {
+        return programType;
+    }
+
+    public void setProgram(ProgramType programType) {
         this.programType = programType;
     }
 
     public String getCourseName() {
-        return courseName;
+        return course != null ? course.getCourseName() : null;
     }
 
     public void setCourseName(String courseName) {
-        this.courseName = courseName;
+        setCourseDisplay(courseName, getCourseCode());
     }
 
     public String getCourseCode() {
-        return courseCode;
+        return course != null ? course.getCourseCode() : null;
     }
 
     public void setCourseCode(String courseCode) {
-        this.courseCode = courseCode;
+        setCourseDisplay(getCourseName(), courseCode);
+    }
+
+    /**
+     * Set course name and code together through the shared {@link CourseRef}.
+     */
+    public void setCourseDisplay(String courseName, String courseCode) {
+        if (course != null && course.getCourseId() == courseId && course.matches(courseName, courseCode)) {
+            return;
+        }
+        this.course = CourseRef.of(courseId, courseName, courseCode);
     }
 
     public String getInstructorName() {
-        return instructorName;
+        return instructor != null ? instructor.getInstructorName() : null;
     }
 
     public void setInstructorName(String instructorName) {
-        this.instructorName = instructorName;
+        this.instructor = InstructorRef.of(instructorId, instructorName);
     }
 
     public String getStatus() {
-        return status != null ? status : "draft"; // Default to draft if null
+        return status.getValue();
     }
 
     public void setStatus(String status) {
-        if (status != null
-                && (status.equals("draft") || status.equals("published") || status.equals("revision_requested"))) {
-            this.status = status;
-        } else {
-            this.status = "draft"; // Default to draft for invalid values
-        }
+        // Unknown values default to draft
+        this.status = ScheduleStatus.fromString(status);
+    }
+
+    public ScheduleStatus getScheduleStatus() {
+        return status;
+    }
+
+    public void setScheduleStatus(ScheduleStatus status) {
+        this.status = status != null ? status : ScheduleStatus.DRAFT;
     }
 
     public String getPublishDate() {
@@ -157,21 +231,33 @@ public class Schedule {
         this.publishDate = publishDate;
     }
 
+    /**
+     * Row version read from the database; updates only succeed if it still
+     * matches the stored value.
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    public void setVersion(int version) {
+        this.version = version;
+    }
+
     public boolean isDraft() {
-        return "draft".equals(getStatus());
+        return status == ScheduleStatus.DRAFT;
     }
 
     public boolean isPublished() {
-        return "published".equals(getStatus());
+        return status == ScheduleStatus.PUBLISHED;
     }
 
     public boolean isRevisionRequested() {
-        return "revision_requested".equals(getStatus());
+        return status == ScheduleStatus.REVISION_REQUESTED;
     }
 
     @Override
     public String toString() {
-        return courseCode + " - " + startTime + " to " + endTime + " in " + room;
+        return getCourseCode() + " - " + getStartTime() + " to " + getEndTime() + " in " + room;
     }
 
     public List<ScheduleResource> getRequiredResources() {
@@ -183,9 +269,9 @@ public class Schedule {
     }
 
     public void addRequiredResource(ScheduleResource resource) {
-        if (this.requiredResources == null) {
+        if (this.requiredResources == null || this.requiredResources == Collections.<ScheduleResource>emptyList()) {
             this.requiredResources = new ArrayList<>();
         }
         this.requiredResources.add(resource);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,37 @@
+package com.classroom.model;
+
+/**
+ * Lifecycle state of a schedule. Values match the Schedule.status column.
+ */
+public enum ScheduleStatus {
+    DRAFT("draft"),
+    PUBLISHED("published"),
+    REVISION_REQUESTED("revision_requested");
+
+    private final String value;
+
+    ScheduleStatus(String value) {
+        this.value = value;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    /**
+     * Exact lookup; unknown or null values fall back to {@link #DRAFT}.
+     */
+    public static ScheduleStatus fromString(String value) {
+        for (ScheduleStatus status : values()) {
+            if (status.value.equals(value)) {
+                return status;
+            }
+        }
+        return DRAFT;
+    }
+
+    @Override
+    public String toString() {
+        return value;
+    }
+}
@@ -0,0 +1,58 @@
+package com.classroom.model;
+
+/**
+ * Two courses a student is enrolled in that meet at the same time.
+ */
+public class StudentClash {
+    private final int studentId;
+    private final String studentName;
+    private final int courseId;
+    private final String courseCode;
+    private final int otherCourseId;
+    private final String otherCourseCode;
+    private final String overlap; // e.g. "Monday 09:00-09:50"
+
+    public StudentClash(int studentId, String studentName, int courseId, String courseCode,
+            int otherCourseId, String otherCourseCode, String overlap) {
+        this.studentId = studentId;
+        this.studentName = studentName;
+        this.courseId = courseId;
+        this.courseCode = courseCode;
+        this.otherCourseId = otherCourseId;
+        this.otherCourseCode = otherCourseCode;
+        this.overlap = overlap;
+    }
+
+    public int getStudentId() {
+        return studentId;
+    }
+
+    public String getStudentName() {
+        return studentName;
+    }
+
+    public int getCourseId() {
+        return courseId;
+    }
+
+    public String getCourseCode() {
+        return courseCode;
+    }
+
+    public int getOtherCourseId() {
+        return otherCourseId;
+    }
+
+    public String getOtherCourseCode() {
+        return otherCourseCode;
+    }
+
+    public String getOverlap() {
+        return overlap;
+    }
+
+    @Override
+    public String toString() {
+        return studentName + ": " + courseCode + " and " + otherCourseCode + " (" + overlap + ")";
+    }
+}
@@ -0,0 +1,86 @@
+package com.classroom.model;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * An academic term: the dates weekly schedules run between, minus holidays.
+ */
+public class Term {
+    private int termId;
+    private String name;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private final TreeMap<LocalDate, String> holidays = new TreeMap<>(); // date -> description
+
+    public Term() {
+    }
+
+    public Term(String name, LocalDate startDate, LocalDate endDate) {
+        this.name = name;
+        this.startDate = startDate;
+        this.endDate = endDate;
+    }
+
+    public int getTermId() {
+        return termId;
+    }
+
+    public void setTermId(int termId) {
+        this.termId = termId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(LocalDate startDate) {
+        this.startDate = startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(LocalDate endDate) {
+        this.endDate = endDate;
+    }
+
+    public Map<LocalDate, String> getHolidays() {
+        return Collections.unmodifiableMap(holidays);
+    }
+
+    public void addHoliday(LocalDate date, String description) {
+        holidays.put(date, description);
+    }
+
+    public boolean contains(LocalDate date) {
+        return !date.isBefore(startDate) && !date.isAfter(endDate);
+    }
+
+    public boolean isHoliday(LocalDate date) {
+        return holidays.containsKey(date);
+    }
+
+    /**
+     * True if weekly classes meet on this date.
+     */
+    public boolean isTeachingDay(LocalDate date) {
+        return contains(date) && !isHoliday(date);
+    }
+
+    @Override
+    public String toString() {
+        return name + " (" + startDate + " to " + endDate + ")";
+    }
+}
@@ -0,0 +1,62 @@
+package com.classroom.model;
+
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Conversions between "HH:mm" strings and minutes since midnight. Formatted
+ * values come from a shared table, so every schedule starting at 09:00 hands
+ * out the same String instance.
+ */
+public final class TimeOfDay {
+    public static final int UNSET = -1;
+
+    private static final String[] FORMATTED = new String[24 * 60];
+
+    static {
+        for (int minute = 0; minute < FORMATTED.length; minute++) {
+            FORMATTED[minute] = String.format("%02d:%02d", minute / 60, minute % 60);
+        }
+    }
+
+    private TimeOfDay() {
+    }
+
+    /**
+     * Parse "HH:mm" (or any ISO local time) to minutes since midnight.
+     * Returns {@link #UNSET} for null or anything else, such as "9:00",
+     * so callers validate the result instead of catching an exception.
+     */
+    public static int parse(String time) {
+        if (time == null) {
+            return UNSET;
+        }
+        if (time.length() == 5 && time.charAt(2) == ':') {
+            int h = digit(time, 0) * 10 + digit(time, 1);
+            int m = digit(time, 3) * 10 + digit(time, 4);
+            if (h >= 0 && h < 24 && m >= 0 && m < 60) {
+                return h * 60 + m;
+            }
+        }
+        try {
+            return LocalTime.parse(time).toSecondOfDay() / 60;
+        } catch (DateTimeParseException e) {
+            return UNSET;
+        }
+    }
+
+    /**
+     * Format minutes since midnight as "HH:mm"; returns null for {@link #UNSET}.
+     */
+    public static String format(int minutes) {
+        if (minutes == UNSET) {
+            return null;
+        }
+        return FORMATTED[minutes];
+    }
+
+    private static int digit(String s, int index) {
+        char c = s.charAt(index);
+        return c >= '0' && c <= '9' ? c - '0' : -100;
+    }
+}
@@ -0,0 +1,71 @@
+package com.classroom.model;
+
+import java.time.DayOfWeek;
+import java.util.BitSet;
+
+/**
+ * The times in a week that are taken, as a bitset of 5-minute slots
+ * (7 days x 288 slots). Overlap between two timetables is then a single
+ * intersects() over 32 longs, however many classes each contains.
+ *
+ * Times are rounded outward to the slot grid, so classes that meet on the
+ * hour or half hour are represented exactly.
+ */
+public class WeeklyOccupancy {
+    public static final int SLOT_MINUTES = 5;
+    private static final int SLOTS_PER_DAY = 24 * 60 / SLOT_MINUTES;
+
+    private final BitSet slots = new BitSet(7 * SLOTS_PER_DAY);
+
+    /**
+     * Mark a class as taking the given day from start to end ("HH:mm").
+     * Rows with an unknown day or time are ignored.
+     */
+    public void add(String day, String startTime, String endTime) {
+        DayOfWeek dayOfWeek = Schedule.parseDay(day);
+        if (dayOfWeek == null || startTime == null || endTime == null) {
+            return;
+        }
+        int start = TimeOfDay.parse(startTime);
+        int end = TimeOfDay.parse(endTime);
+        if (start == TimeOfDay.UNSET || end == TimeOfDay.UNSET) {
+            return;
+        }
+        int base = (dayOfWeek.getValue() - 1) * SLOTS_PER_DAY;
+        int from = start / SLOT_MINUTES;
+        int to = (end + SLOT_MINUTES - 1) / SLOT_MINUTES;
+        if (to > from) {
+            slots.set(base + from, base + to);
+        }
+    }
+
+    public void addAll(WeeklyOccupancy other) {
+        slots.or(other.slots);
+    }
+
+    public boolean intersects(WeeklyOccupancy other) {
+        return slots.intersects(other.slots);
+    }
+
+    public boolean isEmpty() {
+        return slots.isEmpty();
+    }
+
+    /**
+     * Describe the first stretch of time both timetables occupy, e.g.
+     * "Monday 09:00-09:50", or null if they do not overlap.
+     */
+    public String firstOverlap(WeeklyOccupancy other) {
+        BitSet common = (BitSet) slots.clone();
+        common.and(other.slots);
+        int start = common.nextSetBit(0);
+        if (start < 0) {
+            return null;
+        }
+        int day = start / SLOTS_PER_DAY;
+        int end = Math.min(common.nextClearBit(start), (day + 1) * SLOTS_PER_DAY);
+        return Schedule.dayName(DayOfWeek.of(day + 1)) + " "
+                + TimeOfDay.format((start - day * SLOTS_PER_DAY) * SLOT_MINUTES) + "-"
+                + TimeOfDay.format(Math.min((end - day * SLOTS_PER_DAY) * SLOT_MINUTES, 24 * 60 - 1));
+    }
+}
@@ -0,0 +1,34 @@
+package com.classroom.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event for a full rebuild of the weekly calendar grid.
+ */
+@Name("com.classroom.CalendarRebuild")
+@Label("Calendar Rebuild")
+@Category({ "Classroom", "UI" })
+@Description("Reload and re-layout of the weekly calendar panel")
+public class CalendarRebuildEvent extends Event {
+    @Label("User Type")
+    public String userType;
+
+    @Label("Room")
+    public String room;
+
+    @Label("Program Type")
+    public String programType;
+
+    @Label("Status Filter")
+    public String status;
+
+    @Label("Rows")
+    public int rows;
+
+    @Label("Cells")
+    public int cells;
+}
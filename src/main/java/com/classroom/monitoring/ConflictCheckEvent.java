@@ -0,0 +1,58 @@
+package com.classroom.monitoring;
+
+import com.classroom.model.Schedule;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event for a room/instructor overlap query.
+ */
+@Name("com.classroom.ConflictCheck")
+@Label("Conflict Check")
+@Category({ "Classroom", "Scheduling" })
+@Description("Room and instructor overlap check against the Schedule table")
+public class ConflictCheckEvent extends Event {
+    @Label("Room")
+    public String room;
+
+    @Label("Day")
+    public String day;
+
+    @Label("Start Time")
+    public String startTime;
+
+    @Label("End Time")
+    public String endTime;
+
+    @Label("Instructor ID")
+    public int instructorId;
+
+    @Label("Conflict")
+    public boolean conflict;
+
+    @Label("Outcome")
+    public String outcome;
+
+    /**
+     * Create and begin a conflict check event for the given schedule.
+     */
+    public static ConflictCheckEvent start(Schedule schedule) {
+        ConflictCheckEvent event = new ConflictCheckEvent();
+        event.room = schedule.getRoom();
+        event.day = schedule.getDayOfWeek();
+        event.startTime = schedule.getStartTime();
+        event.endTime = schedule.getEndTime();
+        event.instructorId = schedule.getInstructorId();
+        event.begin();
+        return event;
+    }
+
+    public void finish(boolean conflict, String outcome) {
+        this.conflict = conflict;
+        this.outcome = outcome;
+        commit();
+    }
+}
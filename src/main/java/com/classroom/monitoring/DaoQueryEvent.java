@@ -0,0 +1,66 @@
+package com.classroom.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import java.sql.SQLException;
+
+/**
+ * Flight Recorder event emitted around a single DAO read query.
+ */
+@Name("com.classroom.DaoQuery")
+@Label("DAO Query")
+@Category({ "Classroom", "Database" })
+@Description("A read query issued by a DAO")
+public class DaoQueryEvent extends Event {
+    @Label("DAO")
+    public String dao;
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Room")
+    public String room;
+
+    @Label("Rows")
+    public int rows;
+
+    @Label("Outcome")
+    public String outcome;
+
+    @Label("SQLite Error Code")
+    public int errorCode;
+
+    /**
+     * Create and begin a query event.
+     */
+    public static DaoQueryEvent start(String dao, String operation) {
+        DaoQueryEvent event = new DaoQueryEvent();
+        event.dao = dao;
+        event.operation = operation;
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Record a failed query; the event is still committed by {@link #finish(int)}.
+     */
+    public void fail(SQLException e) {
+        this.outcome = "error";
+        this.errorCode = e.getErrorCode();
+    }
+
+    /**
+     * End the event with the number of rows read and commit it.
+     */
+    public void finish(int rows) {
+        this.rows = rows;
+        if (this.outcome == null) {
+            this.outcome = "ok";
+        }
+        commit();
+    }
+}
@@ -0,0 +1,64 @@
+package com.classroom.monitoring;
+
+import java.sql.SQLException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Process-wide counters for SQLite failures seen by the DAO write paths.
+ * The DAOs still swallow and print these exceptions; the counters let a
+ * load driver tell lock contention apart from constraint violations.
+ */
+public class DatabaseErrorStats {
+    // Primary SQLite result codes (extended codes keep these in the low byte)
+    public static final int SQLITE_BUSY = 5;
+    public static final int SQLITE_LOCKED = 6;
+    public static final int SQLITE_CONSTRAINT = 19;
+
+    private static final LongAdder busy = new LongAdder();
+    private static final LongAdder constraint = new LongAdder();
+    private static final LongAdder other = new LongAdder();
+
+    /**
+     * Classify and count a failed statement.
+     */
+    public static void record(SQLException e) {
+        switch (primaryCode(e)) {
+            case SQLITE_BUSY:
+            case SQLITE_LOCKED:
+                busy.increment();
+                break;
+            case SQLITE_CONSTRAINT:
+                constraint.increment();
+                break;
+            default:
+                other.increment();
+        }
+    }
+
+    public static boolean isBusy(SQLException e) {
+        int code = primaryCode(e);
+        return code == SQLITE_BUSY || code == SQLITE_LOCKED;
+    }
+
+    public static int primaryCode(SQLException e) {
+        return e.getErrorCode() & 0xff;
+    }
+
+    public static long getBusyCount() {
+        return busy.sum();
+    }
+
+    public static long getConstraintCount() {
+        return constraint.sum();
+    }
+
+    public static long getOtherCount() {
+        return other.sum();
+    }
+
+    public static void reset() {
+        busy.reset();
+        constraint.reset();
+        other.reset();
+    }
+}
@@ -0,0 +1,31 @@
+package com.classroom.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event for a single student enrollment attempt.
+ */
+@Name("com.classroom.Enrollment")
+@Label("Enrollment")
+@Category({ "Classroom", "Database" })
+@Description("Enrollment of a student in a course")
+public class EnrollmentEvent extends Event {
+    @Label("Student ID")
+    public int studentId;
+
+    @Label("Course ID")
+    public int courseId;
+
+    @Label("Room")
+    public String room;
+
+    @Label("Result Code")
+    public int resultCode;
+
+    @Label("Outcome")
+    public String outcome;
+}
@@ -0,0 +1,47 @@
+package com.classroom.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event covering a full schedule validation pass
+ * (time range, program hours, conflicts and resources).
+ */
+@Name("com.classroom.ScheduleValidation")
+@Label("Schedule Validation")
+@Category({ "Classroom", "Scheduling" })
+@Description("Validation of a schedule before it is saved")
+public class ScheduleValidationEvent extends Event {
+    @Label("Schedule ID")
+    public int scheduleId;
+
+    @Label("Course ID")
+    public int courseId;
+
+    @Label("Room")
+    public String room;
+
+    @Label("Day")
+    public String day;
+
+    @Label("Start Time")
+    public String startTime;
+
+    @Label("End Time")
+    public String endTime;
+
+    @Label("Program Type")
+    public String programType;
+
+    @Label("Resources")
+    public int resources;
+
+    @Label("Valid")
+    public boolean valid;
+
+    @Label("Outcome")
+    public String outcome;
+}
@@ -0,0 +1,68 @@
+package com.classroom.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import java.sql.SQLException;
+
+/**
+ * Flight Recorder event spanning a DAO write transaction, from the first
+ * statement to commit or rollback.
+ */
+@Name("com.classroom.Transaction")
+@Label("Transaction")
+@Category({ "Classroom", "Database" })
+@Description("A write transaction issued by a DAO")
+public class TransactionEvent extends Event {
+    @Label("DAO")
+    public String dao;
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Room")
+    public String room;
+
+    @Label("Day")
+    public String day;
+
+    @Label("Rows")
+    public int rows;
+
+    @Label("Outcome")
+    public String outcome;
+
+    @Label("SQLite Error Code")
+    public int errorCode;
+
+    /**
+     * Create and begin a transaction event.
+     */
+    public static TransactionEvent start(String dao, String operation) {
+        TransactionEvent event = new TransactionEvent();
+        event.dao = dao;
+        event.operation = operation;
+        event.begin();
+        return event;
+    }
+
+    public void committed(int rows) {
+        this.rows = rows;
+        this.outcome = "commit";
+        commit();
+    }
+
+    public void rolledBack() {
+        this.outcome = "rollback";
+        commit();
+    }
+
+    public void failed(SQLException e) {
+        this.outcome = "error";
+        this.errorCode = e.getErrorCode();
+        commit();
+    }
+}
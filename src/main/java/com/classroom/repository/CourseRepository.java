@@ -0,0 +1,44 @@
+package com.classroom.repository;
+
+import com.classroom.model.Course;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Storage for courses.
+ */
+public interface CourseRepository {
+
+    boolean addCourse(Course course);
+
+    /**
+     * Insert many courses. Returns, for each course, null if it was inserted
+     * or the reason it was refused; or null if the write failed.
+     */
+    List<String> insertCourses(List<Course> courses);
+
+    List<Course> getAllCourses();
+
+    /**
+     * The course, or null if there is none.
+     */
+    Course getCourseById(int courseId);
+
+    /**
+     * The course with this code, or null if there is none.
+     */
+    Course getCourseByCode(String courseCode);
+
+    /**
+     * Courses the student is enrolled in.
+     */
+    List<Course> getCoursesByStudentId(int studentId);
+
+    /**
+     * Courses with a schedule in the room, by course code.
+     */
+    List<Course> getCoursesByRoom(String room);
+
+    Map<String, Integer> getCourseIdsByCode();
+}
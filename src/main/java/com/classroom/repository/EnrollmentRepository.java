@@ -0,0 +1,27 @@
+package com.classroom.repository;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Storage for course enrollments.
+ */
+public interface EnrollmentRepository {
+
+    /**
+     * Enroll a student in a course, with the result codes of
+     * {@link com.classroom.dao.EnrollmentDAO#enrollStudent(int, int)}.
+     */
+    int enrollStudent(int studentId, int courseId);
+
+    boolean unenrollStudent(int studentId, int courseId);
+
+    boolean isStudentEnrolled(int studentId, int courseId);
+
+    int getEnrollmentCount(int courseId);
+
+    /**
+     * Every enrollment as student id to the ids of their courses.
+     */
+    Map<Integer, List<Integer>> getCourseIdsByStudent();
+}
@@ -0,0 +1,48 @@
+package com.classroom.repository;
+
+import com.classroom.dao.BatchDecision;
+import com.classroom.model.MakeupRequest;
+
+import java.util.List;
+
+/**
+ * Storage for makeup class requests. Requests are returned with course,
+ * representative and instructor display data.
+ */
+public interface MakeupRequestRepository {
+
+    /**
+     * Create a pending request and notify the instructor, unless the room
+     * or instructor is busy then. On success the request gets its id.
+     */
+    boolean createMakeupRequest(MakeupRequest request);
+
+    /**
+     * Why the requested makeup cannot take place, or null if it can.
+     */
+    String findConflict(MakeupRequest request);
+
+    /**
+     * Approve or disapprove pending requests together; see
+     * {@link com.classroom.dao.MakeupRequestDAO#decideRequests(List, String)}.
+     * Returns null if the write failed.
+     */
+    BatchDecision decideRequests(List<Integer> requestIds, String status);
+
+    /**
+     * The request, or null if there is none.
+     */
+    MakeupRequest getMakeupRequestById(int requestId);
+
+    /**
+     * The instructor's requests, newest first.
+     */
+    List<MakeupRequest> getRequestsByInstructor(int instructorId);
+
+    /**
+     * The representative's requests, newest first.
+     */
+    List<MakeupRequest> getRequestsByRep(int repId);
+
+    List<MakeupRequest> getApprovedRequests();
+}
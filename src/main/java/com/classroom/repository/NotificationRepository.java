@@ -0,0 +1,43 @@
+package com.classroom.repository;
+
+import com.classroom.model.Notification;
+
+import java.util.List;
+
+/**
+ * Storage for user notifications.
+ */
+public interface NotificationRepository {
+
+    /**
+     * Store a notification; on success it gets its id.
+     */
+    boolean createNotification(Notification notification);
+
+    /**
+     * All of a user's notifications, newest first.
+     */
+    List<Notification> getNotificationsForUser(int userId);
+
+    /**
+     * One page of a user's notifications, newest first: at most
+     * {@code limit} with an id below {@code beforeId} (0 for the first page).
+     */
+    List<Notification> getNotificationsForUser(int userId, int beforeId, int limit);
+
+    boolean markNotificationAsRead(int notificationId);
+
+    /**
+     * Mark several of a user's notifications read, ignoring ids that are not
+     * theirs. Returns how many of the ids are the user's, or -1 on failure.
+     */
+    int markNotificationsAsRead(int userId, List<Integer> notificationIds);
+
+    /**
+     * Mark the user's unread notifications up to {@code upToId} read (0 for
+     * all). Returns the number marked, or -1 on failure.
+     */
+    int markAllAsRead(int userId, int upToId);
+
+    int getUnreadNotificationCount(int userId);
+}
@@ -0,0 +1,114 @@
+package com.classroom.repository;
+
+import com.classroom.repository.memory.MemoryCourseRepository;
+import com.classroom.repository.memory.MemoryEnrollmentRepository;
+import com.classroom.repository.memory.MemoryMakeupRequestRepository;
+import com.classroom.repository.memory.MemoryNotificationRepository;
+import com.classroom.repository.memory.MemoryResourceRepository;
+import com.classroom.repository.memory.MemoryRevisionRequestRepository;
+import com.classroom.repository.memory.MemoryRoomRepository;
+import com.classroom.repository.memory.MemoryScheduleRepository;
+import com.classroom.repository.memory.MemoryStore;
+import com.classroom.repository.memory.MemoryUserRepository;
+import com.classroom.repository.sqlite.SqliteCourseRepository;
+import com.classroom.repository.sqlite.SqliteEnrollmentRepository;
+import com.classroom.repository.sqlite.SqliteMakeupRequestRepository;
+import com.classroom.repository.sqlite.SqliteNotificationRepository;
+import com.classroom.repository.sqlite.SqliteResourceRepository;
+import com.classroom.repository.sqlite.SqliteRevisionRequestRepository;
+import com.classroom.repository.sqlite.SqliteRoomRepository;
+import com.classroom.repository.sqlite.SqliteScheduleRepository;
+import com.classroom.repository.sqlite.SqliteUserRepository;
+
+/**
+ * One storage backend: a repository for each kind of record, all reading
+ * and writing the same data.
+ *
+ * {@link #sqlite()} is the application database through the DAOs;
+ * {@link #inMemory()} keeps everything on the heap with the same checks and
+ * results, for tests, demos and benchmarks that should not touch a file.
+ */
+public final class Repositories {
+    private final CourseRepository courses;
+    private final UserRepository users;
+    private final ScheduleRepository schedules;
+    private final EnrollmentRepository enrollments;
+    private final ResourceRepository resources;
+    private final MakeupRequestRepository makeupRequests;
+    private final RevisionRequestRepository revisionRequests;
+    private final NotificationRepository notifications;
+    private final RoomRepository rooms;
+
+    public Repositories(CourseRepository courses, UserRepository users, ScheduleRepository schedules,
+            EnrollmentRepository enrollments, ResourceRepository resources, MakeupRequestRepository makeupRequests,
+            RevisionRequestRepository revisionRequests, NotificationRepository notifications, RoomRepository rooms) {
+        this.courses = courses;
+        this.users = users;
+        this.schedules = schedules;
+        this.enrollments = enrollments;
+        this.resources = resources;
+        this.makeupRequests = makeupRequests;
+        this.revisionRequests = revisionRequests;
+        this.notifications = notifications;
+        this.rooms = rooms;
+    }
+
+    /**
+     * The application database, as configured in
+     * {@link com.classroom.util.DatabaseUtil}.
+     */
+    public static Repositories sqlite() {
+        return new Repositories(new SqliteCourseRepository(), new SqliteUserRepository(),
+                new SqliteScheduleRepository(), new SqliteEnrollmentRepository(), new SqliteResourceRepository(),
+                new SqliteMakeupRequestRepository(), new SqliteRevisionRequestRepository(),
+                new SqliteNotificationRepository(), new SqliteRoomRepository());
+    }
+
+    /**
+     * A new, empty in-memory store.
+     */
+    public static Repositories inMemory() {
+        MemoryStore store = new MemoryStore();
+        return new Repositories(new MemoryCourseRepository(store), new MemoryUserRepository(store),
+                new MemoryScheduleRepository(store), new MemoryEnrollmentRepository(store),
+                new MemoryResourceRepository(store), new MemoryMakeupRequestRepository(store),
+                new MemoryRevisionRequestRepository(store), new MemoryNotificationRepository(store),
+                new MemoryRoomRepository(store));
+    }
+
+    public CourseRepository courses() {
+        return courses;
+    }
+
+    public UserRepository users() {
+        return users;
+    }
+
+    public ScheduleRepository schedules() {
+        return schedules;
+    }
+
+    public EnrollmentRepository enrollments() {
+        return enrollments;
+    }
+
+    public ResourceRepository resources() {
+        return resources;
+    }
+
+    public MakeupRequestRepository makeupRequests() {
+        return makeupRequests;
+    }
+
+    public RevisionRequestRepository revisionRequests() {
+        return revisionRequests;
+    }
+
+    public NotificationRepository notifications() {
+        return notifications;
+    }
+
+    public RoomRepository rooms() {
+        return rooms;
+    }
+}
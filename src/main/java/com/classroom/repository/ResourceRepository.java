@@ -0,0 +1,36 @@
+package com.classroom.repository;
+
+import com.classroom.model.Resource;
+
+import java.util.List;
+
+/**
+ * Storage for room equipment.
+ */
+public interface ResourceRepository {
+
+    /**
+     * Add a resource; on success it gets its id.
+     */
+    boolean addResource(Resource resource);
+
+    /**
+     * Available resources in the room, with the quantity not yet taken by
+     * schedules.
+     */
+    List<Resource> getAvailableResources(String room);
+
+    /**
+     * The resource, or null if there is none.
+     */
+    Resource getResourceById(int resourceId);
+
+    boolean updateResourceStatus(int resourceId, String status);
+
+    /**
+     * Whether the resource is available in at least this quantity.
+     */
+    boolean isResourceAvailable(int resourceId, int quantityNeeded);
+
+    int getTotalResourceQuantity(String resourceType);
+}
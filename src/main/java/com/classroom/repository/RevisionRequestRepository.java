@@ -0,0 +1,33 @@
+package com.classroom.repository;
+
+import com.classroom.dao.BatchDecision;
+import com.classroom.model.ScheduleRevisionRequest;
+
+import java.util.List;
+
+/**
+ * Storage for instructors' schedule revision requests.
+ */
+public interface RevisionRequestRepository {
+
+    /**
+     * Create a pending request and mark its schedule as revision requested.
+     */
+    boolean createRevisionRequest(ScheduleRevisionRequest request);
+
+    /**
+     * The instructor's requests, newest first.
+     */
+    List<ScheduleRevisionRequest> getRevisionRequestsByInstructor(int instructorId);
+
+    /**
+     * Every pending request, newest first.
+     */
+    List<ScheduleRevisionRequest> getAllPendingRevisionRequests();
+
+    /**
+     * Approve or reject pending requests together and tell each instructor,
+     * with the response if given. Returns null if the write failed.
+     */
+    BatchDecision decideRequests(List<Integer> requestIds, String status, String response);
+}
@@ -0,0 +1,34 @@
+package com.classroom.repository;
+
+import com.classroom.dao.RoomRegistry;
+import com.classroom.model.Room;
+
+import java.util.List;
+
+/**
+ * Storage for the room catalog: capacity, building, equipment and the
+ * programs each room is open to.
+ */
+public interface RoomRepository {
+
+    /**
+     * Add a room, or replace the details of the room with the same name; on
+     * success it gets its id.
+     */
+    boolean saveRoom(Room room);
+
+    /**
+     * Every catalogued room, in name order.
+     */
+    List<Room> getAllRooms();
+
+    /**
+     * The room, or null if there is none by that name.
+     */
+    Room getRoomByName(String name);
+
+    /**
+     * The catalog indexed by name and id, as of the last catalog write.
+     */
+    RoomRegistry getRegistry();
+}
@@ -0,0 +1,75 @@
+package com.classroom.repository;
+
+import com.classroom.dao.ScheduleDAO.WriteResult;
+import com.classroom.model.Schedule;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Storage for weekly schedules. Schedules are returned with their course
+ * and instructor display data.
+ */
+public interface ScheduleRepository {
+
+    /**
+     * Validate the schedule and insert it unless the room or instructor is
+     * already booked. On success the schedule gets its id.
+     */
+    WriteResult insertSchedule(Schedule schedule);
+
+    /**
+     * Insert many schedules without validation or conflict checks. Returns,
+     * for each schedule, null if it was inserted or the reason it was
+     * refused; or null if the write failed.
+     */
+    List<String> insertSchedules(List<Schedule> schedules);
+
+    /**
+     * Update a schedule if its version still matches the stored one; on
+     * success the version is advanced.
+     */
+    WriteResult updateScheduleChecked(Schedule schedule);
+
+    /**
+     * Delete a schedule if its version still matches the stored one.
+     */
+    WriteResult deleteSchedule(int scheduleId, int expectedVersion);
+
+    List<Schedule> getAllSchedulesWithDetails();
+
+    /**
+     * Schedules that are not drafts.
+     */
+    List<Schedule> getPublishedSchedulesWithDetails();
+
+    List<Schedule> getAllDraftSchedules();
+
+    /**
+     * Schedules of every course the student is enrolled in.
+     */
+    List<Schedule> getSchedulesByStudentId(int studentId);
+
+    List<Schedule> getSchedulesByRoom(String room);
+
+    List<Schedule> getSchedulesByInstructorId(int instructorId);
+
+    List<Schedule> getSchedulesByCourseId(int courseId);
+
+    /**
+     * Every room in the room catalog, in name order.
+     */
+    List<String> getAllRooms();
+
+    /**
+     * Describe the first room or instructor overlap with another schedule,
+     * or return null if there is none.
+     */
+    String getConflictDetails(Schedule schedule);
+
+    /**
+     * Publish a set of drafts all-or-nothing and notify their instructors
+     * and enrolled students.
+     */
+    WriteResult publishSchedules(List<Integer> scheduleIds, LocalDate publishDate);
+}
@@ -0,0 +1,70 @@
+package com.classroom.repository;
+
+import com.classroom.model.User;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Storage for users and their room assignments.
+ */
+public interface UserRepository {
+
+    /**
+     * The user with these credentials, or null.
+     */
+    User authenticateUser(String username, String password);
+
+    /**
+     * Add a user; false if the username is taken.
+     */
+    boolean registerUser(User user);
+
+    /**
+     * Insert many users. Returns, for each user, null if they were inserted
+     * or the reason they were refused; or null if the write failed.
+     */
+    List<String> insertUsers(List<User> users);
+
+    /**
+     * The user, or null if there is none.
+     */
+    User getUserById(int userId);
+
+    List<User> getAllInstructors();
+
+    List<User> getAllStudents();
+
+    /**
+     * Students enrolled in the course.
+     */
+    List<User> getStudentsByCourse(int courseId);
+
+    Set<String> getAllUsernames();
+
+    Set<String> getAllEmails();
+
+    Map<String, Integer> getInstructorIdsByUsername();
+
+    boolean assignRoom(int studentId, String room);
+
+    List<User> getStudentsByRoom(String room);
+
+    List<User> getUnassignedStudents();
+
+    /**
+     * Make the student the representative of the room, replacing any
+     * current one, and assign them to it.
+     */
+    boolean assignRoomRep(int studentId, String room);
+
+    boolean removeRoomRep(int studentId);
+
+    /**
+     * The room's representative, or null.
+     */
+    User getRoomRep(String room);
+
+    boolean isRoomRep(int userId);
+}
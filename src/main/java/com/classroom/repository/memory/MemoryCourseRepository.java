@@ -0,0 +1,112 @@
+package com.classroom.repository.memory;
+
+import com.classroom.model.Course;
+import com.classroom.model.Schedule;
+import com.classroom.repository.CourseRepository;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Courses in a {@link MemoryStore}, indexed by code.
+ */
+public class MemoryCourseRepository implements CourseRepository {
+    private final MemoryStore store;
+
+    public MemoryCourseRepository(MemoryStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public boolean addCourse(Course course) {
+        return store.write(() -> insert(course) == null);
+    }
+
+    @Override
+    public List<String> insertCourses(List<Course> courses) {
+        return store.write(() -> {
+            List<String> errors = new ArrayList<>(courses.size());
+            for (Course course : courses) {
+                errors.add(insert(course));
+            }
+            return errors;
+        });
+    }
+
+    /**
+     * Insert one course under the write lock; returns why it was refused, or
+     * null.
+     */
+    private String insert(Course course) {
+        if (course.getCourseCode() == null || course.getCourseName() == null) {
+            return "Course code and name are required";
+        }
+        if (store.courseIdsByCode.containsKey(course.getCourseCode())) {
+            return "Course code " + course.getCourseCode() + " already exists";
+        }
+        int id = store.nextCourseId.getAndIncrement();
+        course.setCourseId(id);
+        store.courses.put(id, MemoryStore.copy(course));
+        store.courseIdsByCode.put(course.getCourseCode(), id);
+        return null;
+    }
+
+    @Override
+    public List<Course> getAllCourses() {
+        List<Course> courses = new ArrayList<>(store.courses.size());
+        for (Course course : store.courses.values()) {
+            courses.add(MemoryStore.copy(course));
+        }
+        return courses;
+    }
+
+    @Override
+    public Course getCourseById(int courseId) {
+        Course course = store.courses.get(courseId);
+        return course != null ? MemoryStore.copy(course) : null;
+    }
+
+    @Override
+    public Course getCourseByCode(String courseCode) {
+        Integer id = courseCode != null ? store.courseIdsByCode.get(courseCode) : null;
+        return id != null ? getCourseById(id) : null;
+    }
+
+    @Override
+    public List<Course> getCoursesByStudentId(int studentId) {
+        List<Course> courses = new ArrayList<>();
+        for (int courseId : MemoryStore.lookup(store.coursesByStudent, studentId)) {
+            Course course = store.courses.get(courseId);
+            if (course != null) {
+                courses.add(MemoryStore.copy(course));
+            }
+        }
+        return courses;
+    }
+
+    @Override
+    public List<Course> getCoursesByRoom(String room) {
+        TreeSet<Course> courses = new TreeSet<>(Comparator.comparing(Course::getCourseCode));
+        for (int scheduleId : MemoryStore.lookup(store.schedulesByRoom, room)) {
+            Schedule schedule = store.schedules.get(scheduleId);
+            Course course = schedule != null ? store.courses.get(schedule.getCourseId()) : null;
+            if (course != null) {
+                courses.add(course);
+            }
+        }
+        List<Course> copies = new ArrayList<>(courses.size());
+        for (Course course : courses) {
+            copies.add(MemoryStore.copy(course));
+        }
+        return copies;
+    }
+
+    @Override
+    public Map<String, Integer> getCourseIdsByCode() {
+        return new HashMap<>(store.courseIdsByCode);
+    }
+}
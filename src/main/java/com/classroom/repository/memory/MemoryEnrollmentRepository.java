@@ -0,0 +1,107 @@
+package com.classroom.repository.memory;
+
+import com.classroom.model.Schedule;
+import com.classroom.model.User;
+import com.classroom.model.WeeklyOccupancy;
+import com.classroom.repository.EnrollmentRepository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+
+/**
+ * Enrollments in a {@link MemoryStore}, indexed both by student and by
+ * course.
+ */
+public class MemoryEnrollmentRepository implements EnrollmentRepository {
+    private final MemoryStore store;
+
+    public MemoryEnrollmentRepository(MemoryStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public int enrollStudent(int studentId, int courseId) {
+        return store.write(() -> {
+            if (isStudentEnrolled(studentId, courseId)) {
+                return 0; // Already enrolled
+            }
+            User student = store.users.get(studentId);
+            if (student == null || !student.isStudent() || student.getAssignedRoom() == null) {
+                return -1; // Student has no assigned room
+            }
+
+            WeeklyOccupancy course = new WeeklyOccupancy();
+            for (int id : MemoryStore.lookup(store.schedulesByCourse, courseId)) {
+                Schedule schedule = store.schedules.get(id);
+                if (schedule != null && student.getAssignedRoom().equals(schedule.getRoom())
+                        && schedule.getProgramType() != null
+                        && schedule.getProgramType().equalsIgnoreCase(student.getProgramType())) {
+                    course.add(schedule.getDayOfWeek(), schedule.getStartTime(), schedule.getEndTime());
+                }
+            }
+            if (course.isEmpty()) {
+                return -2; // Course not available in student's room or program type mismatch
+            }
+            if (course.intersects(timetable(studentId, courseId))) {
+                return -4; // Overlaps a course the student is already enrolled in
+            }
+
+            MemoryStore.index(store.coursesByStudent, studentId, courseId);
+            MemoryStore.index(store.studentsByCourse, courseId, studentId);
+            return 1;
+        });
+    }
+
+    /**
+     * Every meeting of the student's courses other than the one given.
+     */
+    private WeeklyOccupancy timetable(int studentId, int exceptCourseId) {
+        WeeklyOccupancy timetable = new WeeklyOccupancy();
+        for (int courseId : MemoryStore.lookup(store.coursesByStudent, studentId)) {
+            if (courseId == exceptCourseId) {
+                continue;
+            }
+            for (int id : MemoryStore.lookup(store.schedulesByCourse, courseId)) {
+                Schedule schedule = store.schedules.get(id);
+                if (schedule != null) {
+                    timetable.add(schedule.getDayOfWeek(), schedule.getStartTime(), schedule.getEndTime());
+                }
+            }
+        }
+        return timetable;
+    }
+
+    @Override
+    public boolean unenrollStudent(int studentId, int courseId) {
+        return store.write(() -> {
+            if (!isStudentEnrolled(studentId, courseId)) {
+                return false;
+            }
+            MemoryStore.unindex(store.coursesByStudent, studentId, courseId);
+            MemoryStore.unindex(store.studentsByCourse, courseId, studentId);
+            return true;
+        });
+    }
+
+    @Override
+    public boolean isStudentEnrolled(int studentId, int courseId) {
+        return MemoryStore.lookup(store.coursesByStudent, studentId).contains(courseId);
+    }
+
+    @Override
+    public int getEnrollmentCount(int courseId) {
+        return MemoryStore.lookup(store.studentsByCourse, courseId).size();
+    }
+
+    @Override
+    public Map<Integer, List<Integer>> getCourseIdsByStudent() {
+        Map<Integer, List<Integer>> courses = new HashMap<>();
+        for (Map.Entry<Integer, NavigableSet<Integer>> entry : store.coursesByStudent.entrySet()) {
+            courses.put(entry.getKey(), new ArrayList<>(entry.getValue()));
+        }
+        return courses;
+    }
+}
@@ -0,0 +1,275 @@
+package com.classroom.repository.memory;
+
+import com.classroom.dao.BatchDecision;
+import com.classroom.dao.MakeupRequestDAO;
+import com.classroom.model.ClassMeeting;
+import com.classroom.model.Course;
+import com.classroom.model.MakeupRequest;
+import com.classroom.model.Schedule;
+import com.classroom.model.TimeOfDay;
+import com.classroom.model.User;
+import com.classroom.repository.MakeupRequestRepository;
+import com.classroom.util.MakeupAvailability;
+import com.classroom.util.OccurrenceIterator;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Makeup class requests in a {@link MemoryStore}. The store has no terms,
+ * so published schedules meet every week and no day is a holiday.
+ */
+public class MemoryMakeupRequestRepository implements MakeupRequestRepository {
+    private static final int MAKEUP_MINUTES = MakeupRequestDAO.MAKEUP_MINUTES;
+
+    private final MemoryStore store;
+
+    public MemoryMakeupRequestRepository(MemoryStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public boolean createMakeupRequest(MakeupRequest request) {
+        return store.write(() -> {
+            if (conflict(request) != null) {
+                return false;
+            }
+            MakeupRequest stored = MemoryStore.copy(request);
+            stored.setRequestId(store.nextMakeupRequestId.getAndIncrement());
+            stored.setStatus("Pending");
+            stored.setCreatedAt(MemoryStore.now());
+            stored.setUpdatedAt(stored.getCreatedAt());
+            store.makeupRequests.put(stored.getRequestId(), stored);
+            MemoryStore.index(store.makeupRequestsByInstructor, stored.getInstructorId(), stored.getRequestId());
+            MemoryStore.index(store.makeupRequestsByRep, stored.getRepId(), stored.getRequestId());
+            MemoryStore.index(store.makeupRequestsByRoom, stored.getRoom(), stored.getRequestId());
+            request.setRequestId(stored.getRequestId());
+
+            store.addNotifications(Set.of(stored.getInstructorId()),
+                    String.format("New makeup class request for %s on %s at %s",
+                            courseCode(stored), stored.getRequestedDate(), stored.getRequestedTime()),
+                    "MakeupRequest");
+            return true;
+        });
+    }
+
+    @Override
+    public String findConflict(MakeupRequest request) {
+        return conflict(request);
+    }
+
+    /**
+     * Why the makeup cannot take place, or null; the room and instructor
+     * must be free of class meetings and approved makeups.
+     */
+    private String conflict(MakeupRequest request) {
+        String invalid = checkDateAndTime(request);
+        if (invalid != null) {
+            return invalid;
+        }
+        LocalDate date = request.getRequestedDate();
+        int start = TimeOfDay.parse(request.getRequestedTime());
+        return availability(request.getRoom(), request.getInstructorId(), request.getRequestId(), date)
+                .conflict(date, start, start + MAKEUP_MINUTES);
+    }
+
+    private static String checkDateAndTime(MakeupRequest request) {
+        LocalDate date = request.getRequestedDate();
+        if (date.isBefore(LocalDate.now())) {
+            return date + " is in the past";
+        }
+        if (request.getRequestedTime() == null) {
+            return "A time is required";
+        }
+        if (TimeOfDay.parse(request.getRequestedTime()) == TimeOfDay.UNSET) {
+            return request.getRequestedTime() + " is not a valid time";
+        }
+        return null;
+    }
+
+    /**
+     * Everything that keeps the room or instructor busy on a date, other
+     * than the request being checked.
+     */
+    private MakeupAvailability availability(String room, int instructorId, int excludeRequestId, LocalDate date) {
+        MakeupAvailability availability = new MakeupAvailability(date, date);
+        for (ClassMeeting meeting : meetings(MemoryStore.lookup(store.schedulesByRoom, room), date)) {
+            availability.addMeeting(meeting, "Room " + room);
+        }
+        for (ClassMeeting meeting : meetings(MemoryStore.lookup(store.schedulesByInstructor, instructorId), date)) {
+            availability.addMeeting(meeting, "The instructor");
+        }
+
+        Set<Integer> candidates = new TreeSet<>(MemoryStore.lookup(store.makeupRequestsByRoom, room));
+        candidates.addAll(MemoryStore.lookup(store.makeupRequestsByInstructor, instructorId));
+        for (int id : candidates) {
+            MakeupRequest other = store.makeupRequests.get(id);
+            if (id != excludeRequestId && "Approved".equals(other.getStatus())
+                    && other.getRequestedDate().equals(date)) {
+                block(availability, room, other);
+            }
+        }
+        return availability;
+    }
+
+    private Iterable<ClassMeeting> meetings(Collection<Integer> scheduleIds, LocalDate date) {
+        List<Schedule> schedules = new ArrayList<>();
+        for (int id : scheduleIds) {
+            Schedule stored = store.schedules.get(id);
+            if (stored != null && !stored.isDraft() && stored.getDay() == date.getDayOfWeek()) {
+                Schedule schedule = store.scheduleWithDetails(stored);
+                if (schedule != null) {
+                    schedules.add(schedule);
+                }
+            }
+        }
+        return OccurrenceIterator.meetings(schedules, List.of(), date, date);
+    }
+
+    private void block(MakeupAvailability availability, String room, MakeupRequest approved) {
+        int start = TimeOfDay.parse(approved.getRequestedTime());
+        String who = room.equals(approved.getRoom()) ? "Room " + room : "The instructor";
+        availability.addBusy(approved.getRequestedDate(), start, start + MAKEUP_MINUTES,
+                who + " has an approved makeup for " + courseCode(approved) + " at " + approved.getRequestedTime());
+    }
+
+    @Override
+    public BatchDecision decideRequests(List<Integer> requestIds, String status) {
+        if (!"Approved".equals(status) && !"Disapproved".equals(status)) {
+            return null; // The status column only allows these
+        }
+        boolean approving = "Approved".equals(status);
+
+        return store.write(() -> {
+            BatchDecision decision = new BatchDecision(status);
+            List<MakeupRequest> accepted = new ArrayList<>();
+            for (int requestId : new LinkedHashSet<>(requestIds)) {
+                MakeupRequest request = store.makeupRequests.get(requestId);
+                if (request == null) {
+                    decision.skipped.put(requestId, "not found");
+                    continue;
+                }
+                if (!"Pending".equals(request.getStatus())) {
+                    decision.skipped.put(requestId, "already " + request.getStatus().toLowerCase());
+                    continue;
+                }
+                if (approving) {
+                    String conflict = checkDateAndTime(request);
+                    if (conflict == null) {
+                        MakeupAvailability availability = availability(request.getRoom(),
+                                request.getInstructorId(), 0, request.getRequestedDate());
+                        // Requests approved earlier in the batch are not stored yet
+                        for (MakeupRequest earlier : accepted) {
+                            if (earlier.getRoom().equals(request.getRoom())
+                                    || earlier.getInstructorId() == request.getInstructorId()) {
+                                block(availability, request.getRoom(), earlier);
+                            }
+                        }
+                        int start = TimeOfDay.parse(request.getRequestedTime());
+                        conflict = availability.conflict(request.getRequestedDate(), start, start + MAKEUP_MINUTES);
+                    }
+                    if (conflict != null) {
+                        decision.skipped.put(requestId, conflict);
+                        continue;
+                    }
+                }
+                accepted.add(request);
+            }
+
+            for (MakeupRequest request : accepted) {
+                MakeupRequest decided = MemoryStore.copy(request);
+                decided.setStatus(status);
+                decided.setUpdatedAt(MemoryStore.now());
+                store.makeupRequests.put(decided.getRequestId(), decided);
+                decision.decidedIds.add(decided.getRequestId());
+
+                String code = courseCode(request);
+                store.addNotifications(Set.of(request.getRepId()),
+                        String.format("Your makeup class request for %s on %s at %s has been %s",
+                                code, request.getRequestedDate(), request.getRequestedTime(), status.toLowerCase()),
+                        approving ? "MakeupApproval" : "MakeupDisapproval");
+                if (approving) {
+                    Set<Integer> classmates = new TreeSet<>(
+                            MemoryStore.lookup(store.studentsByRoom, request.getRoom()));
+                    classmates.remove(request.getRepId());
+                    store.addNotifications(classmates,
+                            String.format("Makeup class for %s scheduled on %s at %s in room %s",
+                                    code, request.getRequestedDate(), request.getRequestedTime(), request.getRoom()),
+                            "MakeupScheduled");
+                }
+            }
+            return decision;
+        });
+    }
+
+    @Override
+    public MakeupRequest getMakeupRequestById(int requestId) {
+        MakeupRequest stored = store.makeupRequests.get(requestId);
+        return stored != null ? withDetails(stored) : null;
+    }
+
+    @Override
+    public List<MakeupRequest> getRequestsByInstructor(int instructorId) {
+        return withDetails(MemoryStore.lookup(store.makeupRequestsByInstructor, instructorId).descendingSet());
+    }
+
+    @Override
+    public List<MakeupRequest> getRequestsByRep(int repId) {
+        return withDetails(MemoryStore.lookup(store.makeupRequestsByRep, repId).descendingSet());
+    }
+
+    @Override
+    public List<MakeupRequest> getApprovedRequests() {
+        List<MakeupRequest> requests = new ArrayList<>();
+        for (MakeupRequest stored : store.makeupRequests.values()) {
+            if ("Approved".equals(stored.getStatus())) {
+                MakeupRequest request = withDetails(stored);
+                if (request != null) {
+                    requests.add(request);
+                }
+            }
+        }
+        return requests;
+    }
+
+    private List<MakeupRequest> withDetails(Collection<Integer> ids) {
+        List<MakeupRequest> requests = new ArrayList<>(ids.size());
+        for (int id : ids) {
+            MakeupRequest stored = store.makeupRequests.get(id);
+            MakeupRequest request = stored != null ? withDetails(stored) : null;
+            if (request != null) {
+                requests.add(request);
+            }
+        }
+        return requests;
+    }
+
+    /**
+     * A copy with course, representative and instructor display data, or
+     * null if any of them is missing.
+     */
+    private MakeupRequest withDetails(MakeupRequest stored) {
+        Course course = store.courses.get(stored.getCourseId());
+        User rep = store.users.get(stored.getRepId());
+        User instructor = store.users.get(stored.getInstructorId());
+        if (course == null || rep == null || instructor == null) {
+            return null;
+        }
+        MakeupRequest request = MemoryStore.copy(stored);
+        request.setCourseName(course.getCourseName());
+        request.setCourseCode(course.getCourseCode());
+        request.setRepName(rep.getFullName());
+        request.setInstructorName(instructor.getFullName());
+        return request;
+    }
+
+    private String courseCode(MakeupRequest request) {
+        Course course = store.courses.get(request.getCourseId());
+        return course != null ? course.getCourseCode() : request.getCourseCode();
+    }
+}
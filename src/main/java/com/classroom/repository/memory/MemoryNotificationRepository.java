@@ -0,0 +1,125 @@
+package com.classroom.repository.memory;
+
+import com.classroom.model.Notification;
+import com.classroom.model.User;
+import com.classroom.repository.NotificationRepository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Notifications in a {@link MemoryStore}, indexed by user. Ids follow
+ * creation order, so a user's index read backwards is newest first and a
+ * page is a range of it.
+ */
+public class MemoryNotificationRepository implements NotificationRepository {
+    private final MemoryStore store;
+
+    public MemoryNotificationRepository(MemoryStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public boolean createNotification(Notification notification) {
+        return store.write(() -> {
+            if (!store.users.containsKey(notification.getUserId())) {
+                return false;
+            }
+            store.addNotification(notification);
+            return true;
+        });
+    }
+
+    @Override
+    public List<Notification> getNotificationsForUser(int userId) {
+        return withUserName(MemoryStore.lookup(store.notificationsByUser, userId).descendingSet(), Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<Notification> getNotificationsForUser(int userId, int beforeId, int limit) {
+        return withUserName(MemoryStore.lookup(store.notificationsByUser, userId)
+                .headSet(beforeId > 0 ? beforeId : Integer.MAX_VALUE, false).descendingSet(), limit);
+    }
+
+    @Override
+    public boolean markNotificationAsRead(int notificationId) {
+        return store.write(() -> markRead(notificationId) != null);
+    }
+
+    @Override
+    public int markNotificationsAsRead(int userId, List<Integer> notificationIds) {
+        return store.write(() -> {
+            int marked = 0;
+            for (int id : new TreeSet<>(notificationIds)) {
+                Notification notification = store.notifications.get(id);
+                if (notification != null && notification.getUserId() == userId) {
+                    markRead(id);
+                    marked++;
+                }
+            }
+            return marked;
+        });
+    }
+
+    @Override
+    public int markAllAsRead(int userId, int upToId) {
+        return store.write(() -> {
+            int marked = 0;
+            for (int id : MemoryStore.lookup(store.notificationsByUser, userId)
+                    .headSet(upToId > 0 ? upToId : Integer.MAX_VALUE, true)) {
+                Notification notification = store.notifications.get(id);
+                if (notification != null && !notification.isRead()) {
+                    markRead(id);
+                    marked++;
+                }
+            }
+            return marked;
+        });
+    }
+
+    @Override
+    public int getUnreadNotificationCount(int userId) {
+        int unread = 0;
+        for (int id : MemoryStore.lookup(store.notificationsByUser, userId)) {
+            Notification notification = store.notifications.get(id);
+            if (notification != null && !notification.isRead()) {
+                unread++;
+            }
+        }
+        return unread;
+    }
+
+    /**
+     * Store a read copy of the notification; returns it, or null if there
+     * is none.
+     */
+    private Notification markRead(int notificationId) {
+        Notification current = store.notifications.get(notificationId);
+        if (current == null) {
+            return null;
+        }
+        Notification read = MemoryStore.copy(current);
+        read.setRead(true);
+        store.notifications.put(notificationId, read);
+        return read;
+    }
+
+    private List<Notification> withUserName(Collection<Integer> ids, int limit) {
+        List<Notification> notifications = new ArrayList<>();
+        for (int id : ids) {
+            if (notifications.size() >= limit) {
+                break;
+            }
+            Notification stored = store.notifications.get(id);
+            User user = stored != null ? store.users.get(stored.getUserId()) : null;
+            if (user != null) {
+                Notification notification = MemoryStore.copy(stored);
+                notification.setUserName(user.getFullName());
+                notifications.add(notification);
+            }
+        }
+        return notifications;
+    }
+}
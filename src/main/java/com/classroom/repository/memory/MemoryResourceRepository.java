@@ -0,0 +1,86 @@
+package com.classroom.repository.memory;
+
+import com.classroom.model.Resource;
+import com.classroom.repository.ResourceRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Room equipment in a {@link MemoryStore}. The quantity taken by schedules
+ * is kept per resource as schedules are written, so availability needs no
+ * scan of the schedules.
+ */
+public class MemoryResourceRepository implements ResourceRepository {
+    private final MemoryStore store;
+
+    public MemoryResourceRepository(MemoryStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public boolean addResource(Resource resource) {
+        if (resource.getRoom() == null || resource.getResourceType() == null || resource.getStatus() == null) {
+            return false;
+        }
+        return store.write(() -> {
+            int id = store.nextResourceId.getAndIncrement();
+            resource.setResourceId(id);
+            store.resources.put(id, MemoryStore.copy(resource));
+            return true;
+        });
+    }
+
+    @Override
+    public List<Resource> getAvailableResources(String room) {
+        List<Resource> resources = new ArrayList<>();
+        for (Resource stored : store.resources.values()) {
+            if (Objects.equals(stored.getRoom(), room) && "Available".equals(stored.getStatus())) {
+                Resource resource = MemoryStore.copy(stored);
+                resource.setQuantity(stored.getQuantity()
+                        - store.resourceDemand.getOrDefault(stored.getResourceId(), 0));
+                resources.add(resource);
+            }
+        }
+        return resources;
+    }
+
+    @Override
+    public Resource getResourceById(int resourceId) {
+        Resource resource = store.resources.get(resourceId);
+        return resource != null ? MemoryStore.copy(resource) : null;
+    }
+
+    @Override
+    public boolean updateResourceStatus(int resourceId, String status) {
+        return store.write(() -> {
+            Resource current = store.resources.get(resourceId);
+            if (current == null) {
+                return false;
+            }
+            Resource updated = MemoryStore.copy(current);
+            updated.setStatus(status);
+            updated.setLastChecked(MemoryStore.timestamp());
+            store.resources.put(resourceId, updated);
+            return true;
+        });
+    }
+
+    @Override
+    public boolean isResourceAvailable(int resourceId, int quantityNeeded) {
+        Resource resource = store.resources.get(resourceId);
+        return resource != null && "Available".equals(resource.getStatus()) && resource.getQuantity() >= quantityNeeded;
+    }
+
+    @Override
+    public int getTotalResourceQuantity(String resourceType) {
+        int total = 0;
+        for (Resource resource : store.resources.values()) {
+            if (Objects.equals(resource.getResourceType(), resourceType)) {
+                total += resource.getQuantity();
+            }
+        }
+        return total;
+    }
+}
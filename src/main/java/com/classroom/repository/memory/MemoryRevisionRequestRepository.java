@@ -0,0 +1,124 @@
+package com.classroom.repository.memory;
+
+import com.classroom.dao.BatchDecision;
+import com.classroom.model.Course;
+import com.classroom.model.Schedule;
+import com.classroom.model.ScheduleRevisionRequest;
+import com.classroom.model.ScheduleStatus;
+import com.classroom.model.User;
+import com.classroom.repository.RevisionRequestRepository;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Schedule revision requests in a {@link MemoryStore}, indexed by
+ * instructor.
+ */
+public class MemoryRevisionRequestRepository implements RevisionRequestRepository {
+    private final MemoryStore store;
+
+    public MemoryRevisionRequestRepository(MemoryStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public boolean createRevisionRequest(ScheduleRevisionRequest request) {
+        return store.write(() -> {
+            Schedule schedule = store.schedules.get(request.getScheduleId());
+            if (schedule == null || !store.users.containsKey(request.getInstructorId())) {
+                return false;
+            }
+            ScheduleRevisionRequest stored = MemoryStore.copy(request);
+            stored.setRequestId(store.nextRevisionRequestId.getAndIncrement());
+            stored.setStatus("pending");
+            stored.setCreatedAt(MemoryStore.timestamp());
+            stored.setUpdatedAt(stored.getCreatedAt());
+            store.revisionRequests.put(stored.getRequestId(), stored);
+            MemoryStore.index(store.revisionRequestsByInstructor, stored.getInstructorId(), stored.getRequestId());
+            request.setRequestId(stored.getRequestId());
+
+            Schedule flagged = MemoryStore.copy(schedule);
+            flagged.setScheduleStatus(ScheduleStatus.REVISION_REQUESTED);
+            store.schedules.put(flagged.getScheduleId(), flagged);
+            return true;
+        });
+    }
+
+    @Override
+    public List<ScheduleRevisionRequest> getRevisionRequestsByInstructor(int instructorId) {
+        List<ScheduleRevisionRequest> requests = new ArrayList<>();
+        for (int id : MemoryStore.lookup(store.revisionRequestsByInstructor, instructorId).descendingSet()) {
+            addWithDetails(requests, store.revisionRequests.get(id));
+        }
+        return requests;
+    }
+
+    @Override
+    public List<ScheduleRevisionRequest> getAllPendingRevisionRequests() {
+        List<ScheduleRevisionRequest> requests = new ArrayList<>();
+        for (ScheduleRevisionRequest stored : store.revisionRequests.descendingMap().values()) {
+            if (stored.isPending()) {
+                addWithDetails(requests, stored);
+            }
+        }
+        return requests;
+    }
+
+    @Override
+    public BatchDecision decideRequests(List<Integer> requestIds, String status, String response) {
+        if (!"approved".equals(status) && !"rejected".equals(status)) {
+            return null; // The status column only allows these
+        }
+
+        return store.write(() -> {
+            BatchDecision decision = new BatchDecision(status);
+            for (int requestId : new LinkedHashSet<>(requestIds)) {
+                ScheduleRevisionRequest request = store.revisionRequests.get(requestId);
+                Course course = request != null ? course(request) : null;
+                if (course == null) {
+                    decision.skipped.put(requestId, "not found");
+                    continue;
+                }
+                if (!request.isPending()) {
+                    decision.skipped.put(requestId, "already " + request.getStatus());
+                    continue;
+                }
+
+                ScheduleRevisionRequest decided = MemoryStore.copy(request);
+                decided.setStatus(status);
+                decided.setUpdatedAt(MemoryStore.timestamp());
+                store.revisionRequests.put(requestId, decided);
+                decision.decidedIds.add(requestId);
+
+                String message = "Your revision request for " + course.getCourseName() + " has been " + status;
+                if (response != null && !response.isBlank()) {
+                    message += ": " + response.trim();
+                }
+                store.addNotifications(Set.of(request.getInstructorId()), message, "RevisionDecision");
+            }
+            return decision;
+        });
+    }
+
+    /**
+     * The course of the request's schedule, or null if either is gone.
+     */
+    private Course course(ScheduleRevisionRequest request) {
+        Schedule schedule = store.schedules.get(request.getScheduleId());
+        return schedule != null ? store.courses.get(schedule.getCourseId()) : null;
+    }
+
+    private void addWithDetails(List<ScheduleRevisionRequest> requests, ScheduleRevisionRequest stored) {
+        Course course = stored != null ? course(stored) : null;
+        User instructor = stored != null ? store.users.get(stored.getInstructorId()) : null;
+        if (course != null && instructor != null) {
+            ScheduleRevisionRequest request = MemoryStore.copy(stored);
+            request.setCourseName(course.getCourseName());
+            request.setInstructorName(instructor.getFullName());
+            requests.add(request);
+        }
+    }
+}
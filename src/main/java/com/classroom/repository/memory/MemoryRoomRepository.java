@@ -0,0 +1,59 @@
+package com.classroom.repository.memory;
+
+import com.classroom.dao.RoomRegistry;
+import com.classroom.model.Room;
+import com.classroom.repository.RoomRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The room catalog in a {@link MemoryStore}. Rooms first seen on a schedule
+ * or a student are added by name as those are written, as the SQLite
+ * backend does.
+ */
+public class MemoryRoomRepository implements RoomRepository {
+    private final MemoryStore store;
+
+    public MemoryRoomRepository(MemoryStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public boolean saveRoom(Room room) {
+        if (room.getName() == null || room.getCapacity() < 0) {
+            return false;
+        }
+        return store.write(() -> {
+            Integer existing = store.roomIdsByName.get(room.getName());
+            int id = existing != null ? existing : store.nextRoomId.getAndIncrement();
+            room.setRoomId(id);
+            store.putRoom(MemoryStore.copy(room));
+            return true;
+        });
+    }
+
+    @Override
+    public List<Room> getAllRooms() {
+        List<Room> rooms = new ArrayList<>();
+        for (int id : store.roomIdsByName.values()) {
+            Room room = store.rooms.get(id);
+            if (room != null) {
+                rooms.add(MemoryStore.copy(room));
+            }
+        }
+        return rooms;
+    }
+
+    @Override
+    public Room getRoomByName(String name) {
+        Integer id = name != null ? store.roomIdsByName.get(name) : null;
+        Room room = id != null ? store.rooms.get(id) : null;
+        return room != null ? MemoryStore.copy(room) : null;
+    }
+
+    @Override
+    public RoomRegistry getRegistry() {
+        return store.roomRegistry();
+    }
+}
@@ -0,0 +1,423 @@
+package com.classroom.repository.memory;
+
+import com.classroom.dao.ScheduleDAO.WriteResult;
+import com.classroom.model.Course;
+import com.classroom.model.Resource;
+import com.classroom.model.Schedule;
+import com.classroom.model.ScheduleResource;
+import com.classroom.model.ScheduleStatus;
+import com.classroom.model.User;
+import com.classroom.repository.ScheduleRepository;
+import com.classroom.util.ScheduleValidationUtil;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Schedules in a {@link MemoryStore}, indexed by room, instructor and
+ * course. A conflict check only looks at the schedules of the same room and
+ * instructor, and runs under the write lock together with the write it
+ * guards, as the SQLite backend does in one immediate transaction.
+ */
+public class MemoryScheduleRepository implements ScheduleRepository {
+    private final MemoryStore store;
+
+    public MemoryScheduleRepository(MemoryStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public WriteResult insertSchedule(Schedule schedule) {
+        List<ScheduleResource> resources = schedule.getRequiredResources() != null
+                ? schedule.getRequiredResources() : List.of();
+        ScheduleValidationUtil.ValidationResult slot = ScheduleValidationUtil.validateSlot(schedule);
+        if (!slot.isValid) {
+            return new WriteResult(WriteResult.Status.INVALID, slot.message);
+        }
+
+        return store.write(() -> {
+            ScheduleValidationUtil.ValidationResult room = ScheduleValidationUtil.validateRoom(schedule,
+                    store.roomRegistry(), () -> MemoryStore.lookup(store.studentsByCourse, schedule.getCourseId()).size());
+            if (!room.isValid) {
+                return new WriteResult(WriteResult.Status.INVALID, room.message);
+            }
+            String problem = checkResources(resources);
+            if (problem != null) {
+                return new WriteResult(WriteResult.Status.INVALID, problem);
+            }
+            String conflict = conflictDetails(schedule);
+            if (conflict != null) {
+                // The SQLite backend finds an existing booking during validation; CONFLICT is only its commit-time race
+                return new WriteResult(WriteResult.Status.INVALID, conflict);
+            }
+
+            Schedule stored = MemoryStore.copy(schedule);
+            stored.setScheduleId(store.nextScheduleId.getAndIncrement());
+            stored.setScheduleStatus(ScheduleStatus.DRAFT);
+            stored.setPublishDate(null);
+            stored.setVersion(0);
+            put(stored);
+            setResources(stored.getScheduleId(), resources);
+            schedule.setScheduleId(stored.getScheduleId());
+            schedule.setVersion(0);
+            return new WriteResult(WriteResult.Status.SAVED, "Schedule added", 0);
+        });
+    }
+
+    @Override
+    public List<String> insertSchedules(List<Schedule> schedules) {
+        return store.write(() -> {
+            List<String> errors = new ArrayList<>(schedules.size());
+            for (Schedule schedule : schedules) {
+                if (!store.courses.containsKey(schedule.getCourseId())) {
+                    errors.add("Course " + schedule.getCourseId() + " does not exist");
+                    continue;
+                }
+                if (!store.users.containsKey(schedule.getInstructorId())) {
+                    errors.add("Instructor " + schedule.getInstructorId() + " does not exist");
+                    continue;
+                }
+                Schedule stored = MemoryStore.copy(schedule);
+                stored.setScheduleId(store.nextScheduleId.getAndIncrement());
+                stored.setVersion(0);
+                put(stored);
+                schedule.setScheduleId(stored.getScheduleId());
+                errors.add(null);
+            }
+            return errors;
+        });
+    }
+
+    @Override
+    public WriteResult updateScheduleChecked(Schedule schedule) {
+        ScheduleValidationUtil.ValidationResult slot = ScheduleValidationUtil.validateSlot(schedule);
+        if (!slot.isValid) {
+            return new WriteResult(WriteResult.Status.INVALID, slot.message);
+        }
+
+        return store.write(() -> {
+            ScheduleValidationUtil.ValidationResult room = ScheduleValidationUtil.validateRoom(schedule,
+                    store.roomRegistry(), () -> MemoryStore.lookup(store.studentsByCourse, schedule.getCourseId()).size());
+            if (!room.isValid) {
+                return new WriteResult(WriteResult.Status.INVALID, room.message);
+            }
+            String problem = checkResources(schedule.getRequiredResources());
+            if (problem != null) {
+                return new WriteResult(WriteResult.Status.INVALID, problem);
+            }
+            String conflict = conflictDetails(schedule);
+            if (conflict != null) {
+                // The SQLite backend finds an existing booking during validation; CONFLICT is only its commit-time race
+                return new WriteResult(WriteResult.Status.INVALID, conflict);
+            }
+
+            Schedule current = store.schedules.get(schedule.getScheduleId());
+            if (current == null) {
+                return new WriteResult(WriteResult.Status.NOT_FOUND, "Schedule no longer exists");
+            }
+            if (current.getVersion() != schedule.getVersion()) {
+                return new WriteResult(WriteResult.Status.STALE,
+                        "This schedule was changed by another user. Reload it and try again.", current.getVersion());
+            }
+
+            // Status and publish date are not changed by an edit
+            Schedule stored = MemoryStore.copy(schedule);
+            stored.setScheduleStatus(current.getScheduleStatus());
+            stored.setPublishDate(current.getPublishDate());
+            stored.setVersion(current.getVersion() + 1);
+            replace(current, stored);
+            setResources(stored.getScheduleId(), schedule.getRequiredResources());
+
+            schedule.setVersion(stored.getVersion());
+            return new WriteResult(WriteResult.Status.SAVED, "Schedule updated", stored.getVersion());
+        });
+    }
+
+    @Override
+    public WriteResult deleteSchedule(int scheduleId, int expectedVersion) {
+        return store.write(() -> {
+            Schedule current = store.schedules.get(scheduleId);
+            if (current == null) {
+                return new WriteResult(WriteResult.Status.NOT_FOUND, "Schedule no longer exists");
+            }
+            if (current.getVersion() != expectedVersion) {
+                return new WriteResult(WriteResult.Status.STALE,
+                        "This schedule was changed by another user. Reload it and try again.", current.getVersion());
+            }
+            setResources(scheduleId, null);
+            remove(current);
+            return new WriteResult(WriteResult.Status.SAVED, "Schedule deleted");
+        });
+    }
+
+    @Override
+    public List<Schedule> getAllSchedulesWithDetails() {
+        return withDetails(store.schedules.keySet(), null);
+    }
+
+    @Override
+    public List<Schedule> getPublishedSchedulesWithDetails() {
+        List<Schedule> schedules = new ArrayList<>();
+        for (Schedule stored : store.schedules.values()) {
+            if (!stored.isDraft()) {
+                addWithDetails(schedules, stored);
+            }
+        }
+        return schedules;
+    }
+
+    @Override
+    public List<Schedule> getAllDraftSchedules() {
+        return withDetails(store.schedules.keySet(), ScheduleStatus.DRAFT);
+    }
+
+    @Override
+    public List<Schedule> getSchedulesByStudentId(int studentId) {
+        List<Schedule> schedules = new ArrayList<>();
+        for (int courseId : MemoryStore.lookup(store.coursesByStudent, studentId)) {
+            schedules.addAll(getSchedulesByCourseId(courseId));
+        }
+        return schedules;
+    }
+
+    @Override
+    public List<Schedule> getSchedulesByRoom(String room) {
+        return withDetails(MemoryStore.lookup(store.schedulesByRoom, room), null);
+    }
+
+    @Override
+    public List<Schedule> getSchedulesByInstructorId(int instructorId) {
+        return withDetails(MemoryStore.lookup(store.schedulesByInstructor, instructorId), null);
+    }
+
+    @Override
+    public List<Schedule> getSchedulesByCourseId(int courseId) {
+        return withDetails(MemoryStore.lookup(store.schedulesByCourse, courseId), null);
+    }
+
+    @Override
+    public List<String> getAllRooms() {
+        return new ArrayList<>(store.roomIdsByName.keySet());
+    }
+
+    @Override
+    public String getConflictDetails(Schedule schedule) {
+        return conflictDetails(schedule);
+    }
+
+    @Override
+    public WriteResult publishSchedules(List<Integer> scheduleIds, LocalDate publishDate) {
+        List<Integer> ids = new ArrayList<>(new LinkedHashSet<>(scheduleIds));
+        if (ids.isEmpty()) {
+            return new WriteResult(WriteResult.Status.INVALID, "No schedules selected");
+        }
+
+        return store.write(() -> {
+            int found = 0;
+            for (int id : ids) {
+                Schedule current = store.schedules.get(id);
+                if (current == null) {
+                    continue;
+                }
+                found++;
+                if (!current.isDraft()) {
+                    return new WriteResult(WriteResult.Status.STALE, "Schedule " + id + " is no longer a draft");
+                }
+            }
+            if (found < ids.size()) {
+                return new WriteResult(WriteResult.Status.NOT_FOUND,
+                        (ids.size() - found) + " of the selected schedules no longer exist");
+            }
+            for (int id : ids) {
+                String conflict = publishConflict(store.schedules.get(id));
+                if (conflict != null) {
+                    return new WriteResult(WriteResult.Status.CONFLICT, conflict);
+                }
+            }
+
+            Set<Integer> affectedUsers = new TreeSet<>();
+            for (int id : ids) {
+                Schedule current = store.schedules.get(id);
+                Schedule published = MemoryStore.copy(current);
+                published.setScheduleStatus(ScheduleStatus.PUBLISHED);
+                published.setPublishDate(publishDate.toString());
+                published.setVersion(current.getVersion() + 1);
+                store.schedules.put(id, published);
+
+                affectedUsers.add(current.getInstructorId());
+                affectedUsers.addAll(MemoryStore.lookup(store.studentsByCourse, current.getCourseId()));
+            }
+            String message = "The timetable has been published, effective "
+                    + publishDate.format(DateTimeFormatter.ISO_LOCAL_DATE) + ". Check your calendar for your classes.";
+            int notified = store.addNotifications(affectedUsers, message, "SchedulePublished");
+            return new WriteResult(WriteResult.Status.SAVED,
+                    ids.size() + " schedules published, " + notified + " users notified");
+        });
+    }
+
+    /**
+     * The first room, then instructor, overlap with another schedule on the
+     * same day, described as the SQLite backend does, or null.
+     */
+    private String conflictDetails(Schedule schedule) {
+        Schedule other = firstOverlap(MemoryStore.lookup(store.schedulesByRoom, schedule.getRoom()), schedule);
+        String type = "Room";
+        if (other == null) {
+            other = firstOverlap(MemoryStore.lookup(store.schedulesByInstructor, schedule.getInstructorId()), schedule);
+            type = "Instructor";
+        }
+        if (other == null) {
+            return null;
+        }
+        Course course = store.courses.get(other.getCourseId());
+        User instructor = store.users.get(other.getInstructorId());
+        return String.format("%s conflict: %s is already scheduled for %s from %s to %s",
+                type,
+                type.equals("Room") ? other.getRoom() : instructor != null ? instructor.getFullName() : null,
+                course != null ? course.getCourseCode() : null,
+                other.getStartTime(),
+                other.getEndTime());
+    }
+
+    /**
+     * The first conflict between a schedule being published and any other
+     * schedule, or null.
+     */
+    private String publishConflict(Schedule schedule) {
+        Schedule other = firstOverlap(MemoryStore.lookup(store.schedulesByRoom, schedule.getRoom()), schedule);
+        boolean room = other != null;
+        if (other == null) {
+            other = firstOverlap(MemoryStore.lookup(store.schedulesByInstructor, schedule.getInstructorId()), schedule);
+        }
+        if (other == null) {
+            return null;
+        }
+        Course course = store.courses.get(schedule.getCourseId());
+        Course otherCourse = store.courses.get(other.getCourseId());
+        User instructor = store.users.get(other.getInstructorId());
+        return String.format("%s conflict: %s has both %s and %s on %s from %s to %s",
+                room ? "Room" : "Instructor",
+                room ? schedule.getRoom() : instructor != null ? instructor.getFullName() : null,
+                course != null ? course.getCourseCode() : null,
+                otherCourse != null ? otherCourse.getCourseCode() : null,
+                other.getDayOfWeek(),
+                other.getStartTime(),
+                other.getEndTime());
+    }
+
+    private Schedule firstOverlap(Collection<Integer> candidates, Schedule schedule) {
+        for (int id : candidates) {
+            Schedule other = store.schedules.get(id);
+            if (other != null && id != schedule.getScheduleId() && other.getDay() == schedule.getDay()
+                    && other.getStartMinutes() < schedule.getEndMinutes()
+                    && other.getEndMinutes() > schedule.getStartMinutes()) {
+                return other;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Why the required resources cannot be had, or null if they can.
+     */
+    private String checkResources(List<ScheduleResource> resources) {
+        if (resources == null) {
+            return null;
+        }
+        for (ScheduleResource required : resources) {
+            if (required.getQuantityNeeded() <= 0) {
+                return "Invalid resource quantity requested";
+            }
+            Resource resource = store.resources.get(required.getResourceId());
+            if (resource == null || !"Available".equals(resource.getStatus())
+                    || resource.getQuantity() < required.getQuantityNeeded()) {
+                return "Not enough " + (resource != null ? resource.getResourceType() : null)
+                        + "s available for this schedule";
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Replace the resources a schedule takes, keeping the demand per
+     * resource in step.
+     */
+    private void setResources(int scheduleId, List<ScheduleResource> resources) {
+        List<ScheduleResource> previous = store.scheduleResources.remove(scheduleId);
+        if (previous != null) {
+            for (ScheduleResource resource : previous) {
+                store.resourceDemand.merge(resource.getResourceId(), -resource.getQuantityNeeded(),
+                        (a, b) -> a + b == 0 ? null : a + b);
+            }
+        }
+        if (resources == null || resources.isEmpty()) {
+            return;
+        }
+        List<ScheduleResource> stored = new ArrayList<>(resources.size());
+        for (ScheduleResource resource : resources) {
+            stored.add(new ScheduleResource(scheduleId, resource.getResourceId(), resource.getQuantityNeeded()));
+            store.resourceDemand.merge(resource.getResourceId(), resource.getQuantityNeeded(), Integer::sum);
+        }
+        store.scheduleResources.put(scheduleId, stored);
+    }
+
+    private void put(Schedule stored) {
+        int id = stored.getScheduleId();
+        store.ensureRoom(stored.getRoom());
+        store.schedules.put(id, stored);
+        MemoryStore.index(store.schedulesByRoom, stored.getRoom(), id);
+        MemoryStore.index(store.schedulesByInstructor, stored.getInstructorId(), id);
+        MemoryStore.index(store.schedulesByCourse, stored.getCourseId(), id);
+    }
+
+    /**
+     * Put an edited row in place of the current one; readers see one or the
+     * other, never neither.
+     */
+    private void replace(Schedule current, Schedule stored) {
+        put(stored);
+        int id = stored.getScheduleId();
+        if (!Objects.equals(current.getRoom(), stored.getRoom())) {
+            MemoryStore.unindex(store.schedulesByRoom, current.getRoom(), id);
+        }
+        if (current.getInstructorId() != stored.getInstructorId()) {
+            MemoryStore.unindex(store.schedulesByInstructor, current.getInstructorId(), id);
+        }
+        if (current.getCourseId() != stored.getCourseId()) {
+            MemoryStore.unindex(store.schedulesByCourse, current.getCourseId(), id);
+        }
+    }
+
+    private void remove(Schedule stored) {
+        int id = stored.getScheduleId();
+        store.schedules.remove(id);
+        MemoryStore.unindex(store.schedulesByRoom, stored.getRoom(), id);
+        MemoryStore.unindex(store.schedulesByInstructor, stored.getInstructorId(), id);
+        MemoryStore.unindex(store.schedulesByCourse, stored.getCourseId(), id);
+    }
+
+    private List<Schedule> withDetails(Collection<Integer> ids, ScheduleStatus status) {
+        List<Schedule> schedules = new ArrayList<>(ids.size());
+        for (int id : ids) {
+            Schedule stored = store.schedules.get(id);
+            if (stored != null && (status == null || stored.getScheduleStatus() == status)) {
+                addWithDetails(schedules, stored);
+            }
+        }
+        return schedules;
+    }
+
+    private void addWithDetails(List<Schedule> schedules, Schedule stored) {
+        Schedule schedule = store.scheduleWithDetails(stored);
+        if (schedule != null) {
+            schedules.add(schedule);
+        }
+    }
+}
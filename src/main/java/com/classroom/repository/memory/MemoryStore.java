@@ -0,0 +1,288 @@
+package com.classroom.repository.memory;
+
+import com.classroom.dao.RoomRegistry;
+import com.classroom.model.Course;
+import com.classroom.model.MakeupRequest;
+import com.classroom.model.Notification;
+import com.classroom.model.Resource;
+import com.classroom.model.Room;
+import com.classroom.model.Schedule;
+import com.classroom.model.ScheduleResource;
+import com.classroom.model.ScheduleRevisionRequest;
+import com.classroom.model.User;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Tables and indexes shared by the in-memory repositories.
+ *
+ * Tables are concurrent sorted maps keyed by id, so they iterate in id
+ * order like a rowid scan, and each index maps a key to a sorted set of ids.
+ * Like {@link com.classroom.util.DatabaseWriter}, writes run one at a time
+ * (see {@link #write}), so a check followed by an insert cannot interleave
+ * with another write. Reads take no lock. Stored rows are never modified in
+ * place: a write puts a new copy, so a reader sees either the old row or the
+ * new one, and callers get copies they are free to change.
+ */
+public class MemoryStore {
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    final NavigableMap<Integer, Course> courses = new ConcurrentSkipListMap<>();
+    final Map<String, Integer> courseIdsByCode = new ConcurrentHashMap<>();
+
+    final NavigableMap<Integer, User> users = new ConcurrentSkipListMap<>();
+    final Map<String, Integer> userIdsByUsername = new ConcurrentHashMap<>();
+    final Set<String> emails = ConcurrentHashMap.newKeySet();
+    final Map<String, NavigableSet<Integer>> usersByType = new ConcurrentHashMap<>();
+    final Map<String, NavigableSet<Integer>> studentsByRoom = new ConcurrentHashMap<>();
+    final Set<Integer> roomReps = ConcurrentHashMap.newKeySet();
+
+    final NavigableMap<Integer, Schedule> schedules = new ConcurrentSkipListMap<>();
+    final Map<String, NavigableSet<Integer>> schedulesByRoom = new ConcurrentHashMap<>();
+    final Map<Integer, NavigableSet<Integer>> schedulesByInstructor = new ConcurrentHashMap<>();
+    final Map<Integer, NavigableSet<Integer>> schedulesByCourse = new ConcurrentHashMap<>();
+    final Map<Integer, List<ScheduleResource>> scheduleResources = new ConcurrentHashMap<>();
+    // Quantity of each resource taken by schedules
+    final Map<Integer, Integer> resourceDemand = new ConcurrentHashMap<>();
+
+    final Map<Integer, NavigableSet<Integer>> coursesByStudent = new ConcurrentHashMap<>();
+    final Map<Integer, NavigableSet<Integer>> studentsByCourse = new ConcurrentHashMap<>();
+
+    final NavigableMap<Integer, Resource> resources = new ConcurrentSkipListMap<>();
+
+    final NavigableMap<Integer, Room> rooms = new ConcurrentSkipListMap<>();
+    final NavigableMap<String, Integer> roomIdsByName = new ConcurrentSkipListMap<>();
+    // Built on first use after the catalog changes
+    private volatile RoomRegistry roomRegistry;
+
+    final NavigableMap<Integer, MakeupRequest> makeupRequests = new ConcurrentSkipListMap<>();
+    final Map<Integer, NavigableSet<Integer>> makeupRequestsByInstructor = new ConcurrentHashMap<>();
+    final Map<Integer, NavigableSet<Integer>> makeupRequestsByRep = new ConcurrentHashMap<>();
+    final Map<String, NavigableSet<Integer>> makeupRequestsByRoom = new ConcurrentHashMap<>();
+
+    final NavigableMap<Integer, ScheduleRevisionRequest> revisionRequests = new ConcurrentSkipListMap<>();
+    final Map<Integer, NavigableSet<Integer>> revisionRequestsByInstructor = new ConcurrentHashMap<>();
+
+    final NavigableMap<Integer, Notification> notifications = new ConcurrentSkipListMap<>();
+    final Map<Integer, NavigableSet<Integer>> notificationsByUser = new ConcurrentHashMap<>();
+
+    final AtomicInteger nextCourseId = new AtomicInteger(1);
+    final AtomicInteger nextUserId = new AtomicInteger(1);
+    final AtomicInteger nextScheduleId = new AtomicInteger(1);
+    final AtomicInteger nextResourceId = new AtomicInteger(1);
+    final AtomicInteger nextRoomId = new AtomicInteger(1);
+    final AtomicInteger nextMakeupRequestId = new AtomicInteger(1);
+    final AtomicInteger nextRevisionRequestId = new AtomicInteger(1);
+    final AtomicInteger nextNotificationId = new AtomicInteger(1);
+
+    private final Object writeLock = new Object();
+
+    /**
+     * Run a write on its own; writes that check before they change anything
+     * see no other write in between.
+     */
+    <T> T write(Supplier<T> work) {
+        synchronized (writeLock) {
+            return work.get();
+        }
+    }
+
+    static <K> void index(Map<K, NavigableSet<Integer>> index, K key, int id) {
+        if (key != null) {
+            index.computeIfAbsent(key, k -> new ConcurrentSkipListSet<>()).add(id);
+        }
+    }
+
+    static <K> void unindex(Map<K, NavigableSet<Integer>> index, K key, int id) {
+        if (key != null) {
+            index.computeIfPresent(key, (k, ids) -> {
+                ids.remove(id);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+
+    static <K> NavigableSet<Integer> lookup(Map<K, NavigableSet<Integer>> index, K key) {
+        NavigableSet<Integer> ids = key != null ? index.get(key) : null;
+        return ids != null ? ids : Collections.emptyNavigableSet();
+    }
+
+    /**
+     * The current time as SQLite's CURRENT_TIMESTAMP gives it: UTC, to the
+     * second.
+     */
+    static LocalDateTime now() {
+        return LocalDateTime.now(ZoneOffset.UTC).withNano(0);
+    }
+
+    static String timestamp() {
+        return TIMESTAMP.format(now());
+    }
+
+    /**
+     * Store a room in the catalog, replacing the one with its id; callers
+     * hold the write lock.
+     */
+    void putRoom(Room stored) {
+        rooms.put(stored.getRoomId(), stored);
+        roomIdsByName.put(stored.getName(), stored.getRoomId());
+        roomRegistry = null;
+    }
+
+    /**
+     * Catalog a room first seen on a schedule or a student, by name alone;
+     * callers hold the write lock.
+     */
+    void ensureRoom(String name) {
+        if (name != null && !roomIdsByName.containsKey(name)) {
+            putRoom(new Room(nextRoomId.getAndIncrement(), name, null, 0));
+        }
+    }
+
+    /**
+     * The room catalog indexed for lookups, as of the last catalog write.
+     */
+    RoomRegistry roomRegistry() {
+        RoomRegistry registry = roomRegistry;
+        if (registry != null) {
+            return registry;
+        }
+        // Built under the write lock so a catalog write cannot slip in between
+        return write(() -> {
+            if (roomRegistry == null) {
+                List<Room> copies = new ArrayList<>(rooms.size());
+                for (Room room : rooms.values()) {
+                    copies.add(copy(room));
+                }
+                roomRegistry = new RoomRegistry(copies);
+            }
+            return roomRegistry;
+        });
+    }
+
+    /**
+     * Store a notification; callers hold the write lock.
+     */
+    void addNotification(Notification notification) {
+        int id = nextNotificationId.getAndIncrement();
+        Notification stored = new Notification(notification.getUserId(), notification.getMessage(),
+                notification.getType());
+        stored.setNotificationId(id);
+        stored.setCreatedAt(now());
+        notifications.put(id, stored);
+        index(notificationsByUser, stored.getUserId(), id);
+        notification.setNotificationId(id);
+    }
+
+    /**
+     * Store the same notification for each user; callers hold the write lock.
+     */
+    int addNotifications(Set<Integer> userIds, String message, String type) {
+        for (int userId : userIds) {
+            addNotification(new Notification(userId, message, type));
+        }
+        return userIds.size();
+    }
+
+    /**
+     * A copy of a stored schedule with its course and instructor display
+     * data, or null if either is missing (as the SQL join would drop it).
+     */
+    Schedule scheduleWithDetails(Schedule stored) {
+        Course course = courses.get(stored.getCourseId());
+        User instructor = users.get(stored.getInstructorId());
+        if (course == null || instructor == null) {
+            return null;
+        }
+        Schedule schedule = copy(stored);
+        schedule.setCourseDisplay(course.getCourseName(), course.getCourseCode());
+        schedule.setInstructorName(instructor.getFullName());
+        return schedule;
+    }
+
+    static Course copy(Course course) {
+        return new Course(course.getCourseId(), course.getCourseName(), course.getCourseCode(),
+                course.getDescription(), course.getCreditHours());
+    }
+
+    static User copy(User user) {
+        return new User(user.getUserId(), user.getUsername(), user.getPassword(), user.getFullName(),
+                user.getEmail(), user.getUserType(), user.getProgramType(), user.getAssignedRoom());
+    }
+
+    static Schedule copy(Schedule schedule) {
+        Schedule copy = new Schedule();
+        copy.setScheduleId(schedule.getScheduleId());
+        copy.setCourseId(schedule.getCourseId());
+        copy.setInstructorId(schedule.getInstructorId());
+        copy.setDay(schedule.getDay());
+        copy.setStartTime(schedule.getStartTime());
+        copy.setEndTime(schedule.getEndTime());
+        copy.setRoom(schedule.getRoom());
+        copy.setProgram(schedule.getProgram());
+        copy.setScheduleStatus(schedule.getScheduleStatus());
+        copy.setPublishDate(schedule.getPublishDate());
+        copy.setVersion(schedule.getVersion());
+        return copy;
+    }
+
+    static Resource copy(Resource resource) {
+        return new Resource(resource.getResourceId(), resource.getRoom(), resource.getResourceType(),
+                resource.getQuantity(), resource.getStatus(), resource.getLastChecked());
+    }
+
+    static Room copy(Room room) {
+        Room copy = new Room(room.getRoomId(), room.getName(), room.getBuilding(), room.getCapacity());
+        copy.setEquipment(room.getEquipment());
+        copy.setPrograms(room.getPrograms());
+        return copy;
+    }
+
+    static MakeupRequest copy(MakeupRequest request) {
+        MakeupRequest copy = new MakeupRequest();
+        copy.setRequestId(request.getRequestId());
+        copy.setRoom(request.getRoom());
+        copy.setCourseId(request.getCourseId());
+        copy.setRepId(request.getRepId());
+        copy.setInstructorId(request.getInstructorId());
+        copy.setRequestedDate(request.getRequestedDate());
+        copy.setRequestedTime(request.getRequestedTime());
+        copy.setStatus(request.getStatus());
+        copy.setCreatedAt(request.getCreatedAt());
+        copy.setUpdatedAt(request.getUpdatedAt());
+        return copy;
+    }
+
+    static ScheduleRevisionRequest copy(ScheduleRevisionRequest request) {
+        ScheduleRevisionRequest copy = new ScheduleRevisionRequest(request.getScheduleId(),
+                request.getInstructorId(), request.getRequestReason(), request.getRequestedChanges());
+        copy.setRequestId(request.getRequestId());
+        copy.setStatus(request.getStatus());
+        copy.setCreatedAt(request.getCreatedAt());
+        copy.setUpdatedAt(request.getUpdatedAt());
+        return copy;
+    }
+
+    static Notification copy(Notification notification) {
+        Notification copy = new Notification(notification.getUserId(), notification.getMessage(),
+                notification.getType());
+        copy.setNotificationId(notification.getNotificationId());
+        copy.setRead(notification.isRead());
+        copy.setCreatedAt(notification.getCreatedAt());
+        return copy;
+    }
+}
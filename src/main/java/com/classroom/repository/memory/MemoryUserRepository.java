@@ -0,0 +1,227 @@
+package com.classroom.repository.memory;
+
+import com.classroom.model.User;
+import com.classroom.repository.UserRepository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Users in a {@link MemoryStore}, indexed by username, type and assigned
+ * room.
+ */
+public class MemoryUserRepository implements UserRepository {
+    private final MemoryStore store;
+
+    public MemoryUserRepository(MemoryStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public User authenticateUser(String username, String password) {
+        Integer id = username != null ? store.userIdsByUsername.get(username) : null;
+        User user = id != null ? store.users.get(id) : null;
+        return user != null && user.getPassword().equals(password) ? MemoryStore.copy(user) : null;
+    }
+
+    @Override
+    public boolean registerUser(User user) {
+        User registered = MemoryStore.copy(user);
+        registered.setAssignedRoom(null); // Registration does not assign a room
+        return store.write(() -> {
+            if (insert(registered) != null) {
+                return false;
+            }
+            user.setUserId(registered.getUserId());
+            return true;
+        });
+    }
+
+    @Override
+    public List<String> insertUsers(List<User> users) {
+        return store.write(() -> {
+            List<String> errors = new ArrayList<>(users.size());
+            for (User user : users) {
+                errors.add(insert(user));
+            }
+            return errors;
+        });
+    }
+
+    /**
+     * Insert one user under the write lock; returns why they were refused,
+     * or null.
+     */
+    private String insert(User user) {
+        if (user.getUsername() == null || user.getPassword() == null || user.getFullName() == null
+                || user.getEmail() == null || user.getUserType() == null) {
+            return "Username, password, name, email and type are required";
+        }
+        if (store.userIdsByUsername.containsKey(user.getUsername())) {
+            return "Username " + user.getUsername() + " is already taken";
+        }
+        if (store.emails.contains(user.getEmail())) {
+            return "Email " + user.getEmail() + " is already registered";
+        }
+        int id = store.nextUserId.getAndIncrement();
+        user.setUserId(id);
+        User stored = MemoryStore.copy(user);
+        store.users.put(id, stored);
+        store.userIdsByUsername.put(stored.getUsername(), id);
+        store.emails.add(stored.getEmail());
+        MemoryStore.index(store.usersByType, stored.getUserType(), id);
+        store.ensureRoom(stored.getAssignedRoom());
+        if (stored.isStudent()) {
+            MemoryStore.index(store.studentsByRoom, stored.getAssignedRoom(), id);
+        }
+        return null;
+    }
+
+    @Override
+    public User getUserById(int userId) {
+        User user = store.users.get(userId);
+        return user != null ? MemoryStore.copy(user) : null;
+    }
+
+    @Override
+    public List<User> getAllInstructors() {
+        return copies(MemoryStore.lookup(store.usersByType, "instructor"));
+    }
+
+    @Override
+    public List<User> getAllStudents() {
+        return copies(MemoryStore.lookup(store.usersByType, "student"));
+    }
+
+    @Override
+    public List<User> getStudentsByCourse(int courseId) {
+        List<User> students = new ArrayList<>();
+        for (int studentId : MemoryStore.lookup(store.studentsByCourse, courseId)) {
+            User user = store.users.get(studentId);
+            if (user != null && user.isStudent()) {
+                students.add(MemoryStore.copy(user));
+            }
+        }
+        return students;
+    }
+
+    @Override
+    public Set<String> getAllUsernames() {
+        return new HashSet<>(store.userIdsByUsername.keySet());
+    }
+
+    @Override
+    public Set<String> getAllEmails() {
+        return new HashSet<>(store.emails);
+    }
+
+    @Override
+    public Map<String, Integer> getInstructorIdsByUsername() {
+        Map<String, Integer> ids = new HashMap<>();
+        for (int id : MemoryStore.lookup(store.usersByType, "instructor")) {
+            User user = store.users.get(id);
+            if (user != null) {
+                ids.put(user.getUsername(), id);
+            }
+        }
+        return ids;
+    }
+
+    @Override
+    public boolean assignRoom(int studentId, String room) {
+        return store.write(() -> moveStudent(studentId, room));
+    }
+
+    /**
+     * Put a student in a room under the write lock; false if they are not a
+     * student.
+     */
+    private boolean moveStudent(int studentId, String room) {
+        User stored = store.users.get(studentId);
+        if (stored == null || !stored.isStudent()) {
+            return false;
+        }
+        store.ensureRoom(room);
+        User moved = MemoryStore.copy(stored);
+        moved.setAssignedRoom(room);
+        MemoryStore.unindex(store.studentsByRoom, stored.getAssignedRoom(), studentId);
+        store.users.put(studentId, moved);
+        MemoryStore.index(store.studentsByRoom, room, studentId);
+        return true;
+    }
+
+    @Override
+    public List<User> getStudentsByRoom(String room) {
+        return copies(MemoryStore.lookup(store.studentsByRoom, room));
+    }
+
+    @Override
+    public List<User> getUnassignedStudents() {
+        List<User> students = new ArrayList<>();
+        for (int id : MemoryStore.lookup(store.usersByType, "student")) {
+            User user = store.users.get(id);
+            if (user != null && user.getAssignedRoom() == null) {
+                students.add(MemoryStore.copy(user));
+            }
+        }
+        return students;
+    }
+
+    @Override
+    public boolean assignRoomRep(int studentId, String room) {
+        return store.write(() -> {
+            User stored = store.users.get(studentId);
+            if (stored == null || !stored.isStudent()) {
+                return false;
+            }
+            store.roomReps.removeAll(MemoryStore.lookup(store.studentsByRoom, room));
+            moveStudent(studentId, room);
+            store.roomReps.add(studentId);
+            return true;
+        });
+    }
+
+    @Override
+    public boolean removeRoomRep(int studentId) {
+        return store.write(() -> {
+            User stored = store.users.get(studentId);
+            if (stored == null || !stored.isStudent()) {
+                return false;
+            }
+            store.roomReps.remove(studentId);
+            return true;
+        });
+    }
+
+    @Override
+    public User getRoomRep(String room) {
+        for (int id : MemoryStore.lookup(store.studentsByRoom, room)) {
+            if (store.roomReps.contains(id)) {
+                return getUserById(id);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public boolean isRoomRep(int userId) {
+        User user = store.users.get(userId);
+        return user != null && user.isStudent() && store.roomReps.contains(userId);
+    }
+
+    private List<User> copies(Collection<Integer> ids) {
+        List<User> users = new ArrayList<>(ids.size());
+        for (int id : ids) {
+            User user = store.users.get(id);
+            if (user != null) {
+                users.add(MemoryStore.copy(user));
+            }
+        }
+        return users;
+    }
+}
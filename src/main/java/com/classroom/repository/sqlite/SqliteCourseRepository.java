@@ -0,0 +1,54 @@
+package com.classroom.repository.sqlite;
+
+import com.classroom.dao.CourseDAO;
+import com.classroom.model.Course;
+import com.classroom.repository.CourseRepository;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Courses in the application database, through {@link CourseDAO}.
+ */
+public class SqliteCourseRepository implements CourseRepository {
+
+    @Override
+    public boolean addCourse(Course course) {
+        return CourseDAO.addCourse(course);
+    }
+
+    @Override
+    public List<String> insertCourses(List<Course> courses) {
+        return CourseDAO.insertCourses(courses);
+    }
+
+    @Override
+    public List<Course> getAllCourses() {
+        return CourseDAO.getAllCourses();
+    }
+
+    @Override
+    public Course getCourseById(int courseId) {
+        return CourseDAO.getCourseById(courseId);
+    }
+
+    @Override
+    public Course getCourseByCode(String courseCode) {
+        return CourseDAO.getCourseByCode(courseCode);
+    }
+
+    @Override
+    public List<Course> getCoursesByStudentId(int studentId) {
+        return CourseDAO.getCoursesByStudentId(studentId);
+    }
+
+    @Override
+    public List<Course> getCoursesByRoom(String room) {
+        return CourseDAO.getCoursesByRoom(room);
+    }
+
+    @Override
+    public Map<String, Integer> getCourseIdsByCode() {
+        return CourseDAO.getCourseIdsByCode();
+    }
+}
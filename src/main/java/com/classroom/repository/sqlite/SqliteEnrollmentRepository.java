@@ -0,0 +1,38 @@
+package com.classroom.repository.sqlite;
+
+import com.classroom.dao.EnrollmentDAO;
+import com.classroom.repository.EnrollmentRepository;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Enrollments in the application database, through {@link EnrollmentDAO}.
+ */
+public class SqliteEnrollmentRepository implements EnrollmentRepository {
+
+    @Override
+    public int enrollStudent(int studentId, int courseId) {
+        return EnrollmentDAO.enrollStudent(studentId, courseId);
+    }
+
+    @Override
+    public boolean unenrollStudent(int studentId, int courseId) {
+        return EnrollmentDAO.unenrollStudent(studentId, courseId);
+    }
+
+    @Override
+    public boolean isStudentEnrolled(int studentId, int courseId) {
+        return EnrollmentDAO.isStudentEnrolled(studentId, courseId);
+    }
+
+    @Override
+    public int getEnrollmentCount(int courseId) {
+        return EnrollmentDAO.getEnrollmentCount(courseId);
+    }
+
+    @Override
+    public Map<Integer, List<Integer>> getCourseIdsByStudent() {
+        return EnrollmentDAO.getCourseIdsByStudent();
+    }
+}
@@ -0,0 +1,50 @@
+package com.classroom.repository.sqlite;
+
+import com.classroom.dao.BatchDecision;
+import com.classroom.dao.MakeupRequestDAO;
+import com.classroom.model.MakeupRequest;
+import com.classroom.repository.MakeupRequestRepository;
+
+import java.util.List;
+
+/**
+ * Makeup requests in the application database, through
+ * {@link MakeupRequestDAO}.
+ */
+public class SqliteMakeupRequestRepository implements MakeupRequestRepository {
+
+    @Override
+    public boolean createMakeupRequest(MakeupRequest request) {
+        return MakeupRequestDAO.createMakeupRequest(request);
+    }
+
+    @Override
+    public String findConflict(MakeupRequest request) {
+        return MakeupRequestDAO.findConflict(request);
+    }
+
+    @Override
+    public BatchDecision decideRequests(List<Integer> requestIds, String status) {
+        return MakeupRequestDAO.decideRequests(requestIds, status);
+    }
+
+    @Override
+    public MakeupRequest getMakeupRequestById(int requestId) {
+        return MakeupRequestDAO.getMakeupRequestById(requestId);
+    }
+
+    @Override
+    public List<MakeupRequest> getRequestsByInstructor(int instructorId) {
+        return MakeupRequestDAO.getRequestsByInstructor(instructorId);
+    }
+
+    @Override
+    public List<MakeupRequest> getRequestsByRep(int repId) {
+        return MakeupRequestDAO.getRequestsByRep(repId);
+    }
+
+    @Override
+    public List<MakeupRequest> getApprovedRequests() {
+        return MakeupRequestDAO.getApprovedRequests();
+    }
+}
@@ -0,0 +1,50 @@
+package com.classroom.repository.sqlite;
+
+import com.classroom.dao.NotificationDAO;
+import com.classroom.model.Notification;
+import com.classroom.repository.NotificationRepository;
+
+import java.util.List;
+
+/**
+ * Notifications in the application database, through
+ * {@link NotificationDAO}. Pages cover the live table only, not the
+ * archive.
+ */
+public class SqliteNotificationRepository implements NotificationRepository {
+
+    @Override
+    public boolean createNotification(Notification notification) {
+        return NotificationDAO.createNotification(notification);
+    }
+
+    @Override
+    public List<Notification> getNotificationsForUser(int userId) {
+        return NotificationDAO.getNotificationsForUser(userId);
+    }
+
+    @Override
+    public List<Notification> getNotificationsForUser(int userId, int beforeId, int limit) {
+        return NotificationDAO.getNotificationsForUser(userId, beforeId, limit, false);
+    }
+
+    @Override
+    public boolean markNotificationAsRead(int notificationId) {
+        return NotificationDAO.markNotificationAsRead(notificationId);
+    }
+
+    @Override
+    public int markNotificationsAsRead(int userId, List<Integer> notificationIds) {
+        return NotificationDAO.markNotificationsAsRead(userId, notificationIds);
+    }
+
+    @Override
+    public int markAllAsRead(int userId, int upToId) {
+        return NotificationDAO.markAllAsRead(userId, upToId);
+    }
+
+    @Override
+    public int getUnreadNotificationCount(int userId) {
+        return NotificationDAO.getUnreadNotificationCount(userId);
+    }
+}
@@ -0,0 +1,43 @@
+package com.classroom.repository.sqlite;
+
+import com.classroom.dao.ResourceDAO;
+import com.classroom.model.Resource;
+import com.classroom.repository.ResourceRepository;
+
+import java.util.List;
+
+/**
+ * Resources in the application database, through {@link ResourceDAO}.
+ */
+public class SqliteResourceRepository implements ResourceRepository {
+
+    @Override
+    public boolean addResource(Resource resource) {
+        return ResourceDAO.addResource(resource);
+    }
+
+    @Override
+    public List<Resource> getAvailableResources(String room) {
+        return ResourceDAO.getAvailableResources(room);
+    }
+
+    @Override
+    public Resource getResourceById(int resourceId) {
+        return ResourceDAO.getResourceById(resourceId);
+    }
+
+    @Override
+    public boolean updateResourceStatus(int resourceId, String status) {
+        return ResourceDAO.updateResourceStatus(resourceId, status);
+    }
+
+    @Override
+    public boolean isResourceAvailable(int resourceId, int quantityNeeded) {
+        return ResourceDAO.isResourceAvailable(resourceId, quantityNeeded);
+    }
+
+    @Override
+    public int getTotalResourceQuantity(String resourceType) {
+        return ResourceDAO.getTotalResourceQuantity(resourceType);
+    }
+}
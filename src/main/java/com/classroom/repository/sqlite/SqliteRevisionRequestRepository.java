@@ -0,0 +1,35 @@
+package com.classroom.repository.sqlite;
+
+import com.classroom.dao.BatchDecision;
+import com.classroom.dao.ScheduleRevisionRequestDAO;
+import com.classroom.model.ScheduleRevisionRequest;
+import com.classroom.repository.RevisionRequestRepository;
+
+import java.util.List;
+
+/**
+ * Revision requests in the application database, through
+ * {@link ScheduleRevisionRequestDAO}.
+ */
+public class SqliteRevisionRequestRepository implements RevisionRequestRepository {
+
+    @Override
+    public boolean createRevisionRequest(ScheduleRevisionRequest request) {
+        return ScheduleRevisionRequestDAO.createRevisionRequest(request);
+    }
+
+    @Override
+    public List<ScheduleRevisionRequest> getRevisionRequestsByInstructor(int instructorId) {
+        return ScheduleRevisionRequestDAO.getRevisionRequestsByInstructor(instructorId);
+    }
+
+    @Override
+    public List<ScheduleRevisionRequest> getAllPendingRevisionRequests() {
+        return ScheduleRevisionRequestDAO.getAllPendingRevisionRequests();
+    }
+
+    @Override
+    public BatchDecision decideRequests(List<Integer> requestIds, String status, String response) {
+        return ScheduleRevisionRequestDAO.decideRequests(requestIds, status, response);
+    }
+}
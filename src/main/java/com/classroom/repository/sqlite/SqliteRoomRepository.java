@@ -0,0 +1,34 @@
+package com.classroom.repository.sqlite;
+
+import com.classroom.dao.RoomDAO;
+import com.classroom.dao.RoomRegistry;
+import com.classroom.model.Room;
+import com.classroom.repository.RoomRepository;
+
+import java.util.List;
+
+/**
+ * The room catalog in the application database, through {@link RoomDAO}.
+ */
+public class SqliteRoomRepository implements RoomRepository {
+
+    @Override
+    public boolean saveRoom(Room room) {
+        return RoomDAO.saveRoom(room);
+    }
+
+    @Override
+    public List<Room> getAllRooms() {
+        return RoomDAO.getAllRooms();
+    }
+
+    @Override
+    public Room getRoomByName(String name) {
+        return RoomDAO.getRoomByName(name);
+    }
+
+    @Override
+    public RoomRegistry getRegistry() {
+        return RoomRegistry.current();
+    }
+}
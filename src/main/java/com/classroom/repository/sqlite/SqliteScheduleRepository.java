@@ -0,0 +1,85 @@
+package com.classroom.repository.sqlite;
+
+import com.classroom.dao.ScheduleDAO;
+import com.classroom.dao.ScheduleDAO.WriteResult;
+import com.classroom.model.Schedule;
+import com.classroom.repository.ScheduleRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Schedules in the application database, through {@link ScheduleDAO}.
+ */
+public class SqliteScheduleRepository implements ScheduleRepository {
+
+    @Override
+    public WriteResult insertSchedule(Schedule schedule) {
+        return ScheduleDAO.insertSchedule(schedule);
+    }
+
+    @Override
+    public List<String> insertSchedules(List<Schedule> schedules) {
+        return ScheduleDAO.insertSchedules(schedules);
+    }
+
+    @Override
+    public WriteResult updateScheduleChecked(Schedule schedule) {
+        return ScheduleDAO.updateScheduleChecked(schedule);
+    }
+
+    @Override
+    public WriteResult deleteSchedule(int scheduleId, int expectedVersion) {
+        return ScheduleDAO.deleteSchedule(scheduleId, expectedVersion);
+    }
+
+    @Override
+    public List<Schedule> getAllSchedulesWithDetails() {
+        return ScheduleDAO.getAllSchedulesWithDetails();
+    }
+
+    @Override
+    public List<Schedule> getPublishedSchedulesWithDetails() {
+        return ScheduleDAO.getPublishedSchedulesWithDetails();
+    }
+
+    @Override
+    public List<Schedule> getAllDraftSchedules() {
+        return ScheduleDAO.getAllDraftSchedules();
+    }
+
+    @Override
+    public List<Schedule> getSchedulesByStudentId(int studentId) {
+        return ScheduleDAO.getSchedulesByStudentId(studentId);
+    }
+
+    @Override
+    public List<Schedule> getSchedulesByRoom(String room) {
+        return ScheduleDAO.getSchedulesByRoom(room);
+    }
+
+    @Override
+    public List<Schedule> getSchedulesByInstructorId(int instructorId) {
+        return ScheduleDAO.getSchedulesByInstructorId(instructorId);
+    }
+
+    @Override
+    public List<Schedule> getSchedulesByCourseId(int courseId) {
+        return ScheduleDAO.getSchedulesByCourseId(courseId);
+    }
+
+    @Override
+    public List<String> getAllRooms() {
+        return ScheduleDAO.getAllRooms();
+    }
+
+    @Override
+    public String getConflictDetails(Schedule schedule) {
+        return ScheduleDAO.getConflictDetails(schedule);
+    }
+
+    @Override
+    public WriteResult publishSchedules(List<Integer> scheduleIds, LocalDate publishDate) {
+        return ScheduleDAO.publishSchedules(scheduleIds, publishDate);
+    }
+}
@@ -0,0 +1,100 @@
+package com.classroom.repository.sqlite;
+
+import com.classroom.dao.UserDAO;
+import com.classroom.model.User;
+import com.classroom.repository.UserRepository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Users in the application database, through {@link UserDAO}.
+ */
+public class SqliteUserRepository implements UserRepository {
+
+    @Override
+    public User authenticateUser(String username, String password) {
+        return UserDAO.authenticateUser(username, password);
+    }
+
+    @Override
+    public boolean registerUser(User user) {
+        return UserDAO.registerUser(user);
+    }
+
+    @Override
+    public List<String> insertUsers(List<User> users) {
+        return UserDAO.insertUsers(users);
+    }
+
+    @Override
+    public User getUserById(int userId) {
+        return UserDAO.getUserById(userId);
+    }
+
+    @Override
+    public List<User> getAllInstructors() {
+        return UserDAO.getAllInstructors();
+    }
+
+    @Override
+    public List<User> getAllStudents() {
+        return UserDAO.getAllStudents();
+    }
+
+    @Override
+    public List<User> getStudentsByCourse(int courseId) {
+        return UserDAO.getStudentsByCourse(courseId);
+    }
+
+    @Override
+    public Set<String> getAllUsernames() {
+        return UserDAO.getAllUsernames();
+    }
+
+    @Override
+    public Set<String> getAllEmails() {
+        return UserDAO.getAllEmails();
+    }
+
+    @Override
+    public Map<String, Integer> getInstructorIdsByUsername() {
+        return UserDAO.getInstructorIdsByUsername();
+    }
+
+    @Override
+    public boolean assignRoom(int studentId, String room) {
+        return UserDAO.assignRoom(studentId, room);
+    }
+
+    @Override
+    public List<User> getStudentsByRoom(String room) {
+        return UserDAO.getStudentsByRoom(room);
+    }
+
+    @Override
+    public List<User> getUnassignedStudents() {
+        return UserDAO.getUnassignedStudents();
+    }
+
+    @Override
+    public boolean assignRoomRep(int studentId, String room) {
+        return UserDAO.assignRoomRep(studentId, room);
+    }
+
+    @Override
+    public boolean removeRoomRep(int studentId) {
+        return UserDAO.removeRoomRep(studentId);
+    }
+
+    @Override
+    public User getRoomRep(String room) {
+        return UserDAO.getRoomRep(room);
+    }
+
+    @Override
+    public boolean isRoomRep(int userId) {
+        return UserDAO.isRoomRep(userId);
+    }
+}
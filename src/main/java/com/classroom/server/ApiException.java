@@ -0,0 +1,33 @@
+package com.classroom.server;
+
+/**
+ * A request failure that maps directly to an HTTP status and a JSON error body.
+ */
+public class ApiException extends RuntimeException {
+    private final int status;
+
+    public ApiException(int status, String message) {
+        super(message);
+        this.status = status;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public static ApiException badRequest(String message) {
+        return new ApiException(400, message);
+    }
+
+    public static ApiException unauthorized() {
+        return new ApiException(401, "Login required");
+    }
+
+    public static ApiException forbidden() {
+        return new ApiException(403, "Not allowed for this user");
+    }
+
+    public static ApiException notFound(String message) {
+        return new ApiException(404, message);
+    }
+}
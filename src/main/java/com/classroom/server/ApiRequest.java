@@ -0,0 +1,172 @@
+package com.classroom.server;
+
+import com.classroom.model.User;
+import com.classroom.util.JsonUtil;
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * One API call: path parameters, query string, JSON body and the logged-in
+ * user, with typed accessors that turn missing or malformed input into 400s.
+ */
+public class ApiRequest {
+    private final HttpExchange exchange;
+    private final Map<String, String> pathParams;
+    private final Map<String, String> query;
+    private final String token;
+    private final User user;
+    private final String syncClientId;
+    private Map<String, Object> body;
+
+    ApiRequest(HttpExchange exchange, Map<String, String> pathParams, String token, User user,
+            String syncClientId) {
+        this.exchange = exchange;
+        this.pathParams = pathParams;
+        this.query = parseQuery(exchange.getRequestURI().getRawQuery());
+        this.token = token;
+        this.user = user;
+        this.syncClientId = syncClientId;
+    }
+
+    public String getMethod() {
+        return exchange.getRequestMethod();
+    }
+
+    String getToken() {
+        return token;
+    }
+
+    /**
+     * The session's id in the change log's client list, or null without a
+     * session.
+     */
+    String getSyncClientId() {
+        return syncClientId;
+    }
+
+    /**
+     * The logged-in user, or null on unauthenticated routes.
+     */
+    public User getUser() {
+        return user;
+    }
+
+    public User requireUser() {
+        if (user == null) {
+            throw ApiException.unauthorized();
+        }
+        return user;
+    }
+
+    public User requireCoordinator() {
+        User current = requireUser();
+        if (!current.isCoordinator()) {
+            throw ApiException.forbidden();
+        }
+        return current;
+    }
+
+    public int pathInt(String name) {
+        return toInt(name, pathParams.get(name));
+    }
+
+    public String query(String name) {
+        return query.get(name);
+    }
+
+    public Integer queryInt(String name) {
+        String value = query.get(name);
+        return value == null ? null : toInt(name, value);
+    }
+
+    public int queryInt(String name, int defaultValue) {
+        Integer value = queryInt(name);
+        return value == null ? defaultValue : value;
+    }
+
+    public long queryLong(String name, long defaultValue) {
+        String value = query.get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw ApiException.badRequest("'" + name + "' must be a number");
+        }
+    }
+
+    /**
+     * The request body as a JSON object; an empty body is an empty object.
+     */
+    public Map<String, Object> body() {
+        if (body == null) {
+            try (InputStream in = exchange.getRequestBody()) {
+                String text = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+                body = text.isBlank() ? Collections.emptyMap() : JsonUtil.parseObject(text);
+            } catch (IOException e) {
+                throw ApiException.badRequest("Could not read request body");
+            } catch (IllegalArgumentException e) {
+                throw ApiException.badRequest("Invalid JSON: " + e.getMessage());
+            }
+        }
+        return body;
+    }
+
+    public String bodyString(String name) {
+        Object value = body().get(name);
+        if (value == null) {
+            throw ApiException.badRequest("Missing field '" + name + "'");
+        }
+        return value.toString();
+    }
+
+    public String bodyString(String name, String defaultValue) {
+        Object value = body().get(name);
+        return value == null ? defaultValue : value.toString();
+    }
+
+    public int bodyInt(String name) {
+        Object value = body().get(name);
+        if (value instanceof Number) {
+            return ((Number) value).intValue();
+        }
+        if (value == null) {
+            throw ApiException.badRequest("Missing field '" + name + "'");
+        }
+        return toInt(name, value.toString());
+    }
+
+    public int bodyInt(String name, int defaultValue) {
+        return body().containsKey(name) ? bodyInt(name) : defaultValue;
+    }
+
+    private static int toInt(String name, String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw ApiException.badRequest("'" + name + "' must be a number");
+        }
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return params;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            params.put(URLDecoder.decode(key, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+}
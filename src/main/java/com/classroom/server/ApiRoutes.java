@@ -0,0 +1,598 @@
+package com.classroom.server;
+
+import com.classroom.dao.ChangeLogDAO;
+import com.classroom.dao.CourseDAO;
+import com.classroom.dao.EnrollmentDAO;
+import com.classroom.dao.ExamDAO;
+import com.classroom.dao.MakeupRequestDAO;
+import com.classroom.dao.NotificationDAO;
+import com.classroom.dao.ResourceDAO;
+import com.classroom.dao.ScheduleDAO;
+import com.classroom.dao.TermDAO;
+import com.classroom.dao.TimetableClashDAO;
+import com.classroom.dao.UserDAO;
+import com.classroom.model.ClassMeeting;
+import com.classroom.model.Course;
+import com.classroom.model.MakeupRequest;
+import com.classroom.model.MakeupSlot;
+import com.classroom.model.ProgramType;
+import com.classroom.model.Schedule;
+import com.classroom.model.Term;
+import com.classroom.model.User;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Endpoint table for {@link ApiServer}. Each route is a thin adapter over an
+ * existing DAO call, with the same authorization rules the dashboards apply:
+ * coordinators manage schedules and courses, students enroll themselves,
+ * room representatives file makeup requests and instructors decide them.
+ *
+ * <pre>
+ * POST   /api/login                      {username, password}
+ * POST   /api/logout
+ * GET    /api/schedules                  ?room= | instructorId= | studentId= | courseId= | status=draft
+ * POST   /api/schedules                  schedule body
+ * PUT    /api/schedules/{id}             schedule body with version
+ * DELETE /api/schedules/{id}             ?version=
+ * POST   /api/schedules/publish          {scheduleIds: [..], publishDate}
+ * GET    /api/schedules/{id}/resources
+ * GET    /api/rooms
+ * GET    /api/meetings                   ?room= | instructorId= &amp;from=&amp;to=
+ * GET    /api/terms
+ * POST   /api/terms                      {name, startDate, endDate [, holidays: [{date, description}]]}
+ * POST   /api/terms/{id}/holidays        {date [, description]}
+ * GET    /api/courses                    ?studentId= | room= [&amp;programType=]
+ * POST   /api/courses                    {courseName, courseCode, description, creditHours}
+ * POST   /api/enrollments                {courseId [, studentId]}
+ * DELETE /api/enrollments                ?courseId= [&amp;studentId=]
+ * GET    /api/enrollments/count          ?courseId=
+ * POST   /api/enrollments/room           {room [, programType] [, dryRun]}
+ * GET    /api/clashes
+ * GET    /api/exams                      ?programType= | studentId=
+ * GET    /api/makeup-requests            ?instructorId= | repId=
+ * POST   /api/makeup-requests            {courseId, instructorId, requestedDate, requestedTime}
+ * GET    /api/makeup-requests/suggestions ?instructorId= [&amp;weeks=] [&amp;count=]
+ * POST   /api/makeup-requests/{id}/status {status}
+ * GET    /api/notifications              [?before=] [&amp;limit=] [&amp;archived=true]
+ * GET    /api/notifications/unread-count
+ * POST   /api/notifications/read         {notificationIds}
+ * POST   /api/notifications/read-all     [{upToId}]
+ * POST   /api/notifications/{id}/read
+ * GET    /api/resources                  ?room=
+ * GET    /api/resources/availability     ?type=
+ * GET    /api/changes                    ?since= [&amp;limit=] [&amp;tables=Schedule,Enrollments]
+ * </pre>
+ */
+class ApiRoutes {
+    private static final int MAX_CHANGE_PAGE = 1000;
+    private static final int DEFAULT_NOTIFICATION_PAGE = 50;
+    private static final int MAX_NOTIFICATION_PAGE = 200;
+    private static final int MAX_MEETING_DAYS = 366;
+    private static final int MAX_SUGGESTION_WEEKS = 12;
+    private static final int MAX_SUGGESTIONS = 50;
+
+    static void register(ApiServer server) {
+        server.publicRoute("POST", "/api/login", request -> login(server, request));
+        server.route("POST", "/api/logout", request -> {
+            server.closeSession(request.getToken());
+            return status("logged_out");
+        });
+
+        server.route("GET", "/api/schedules", ApiRoutes::listSchedules);
+        server.route("POST", "/api/schedules", ApiRoutes::createSchedule);
+        server.route("PUT", "/api/schedules/{id}", ApiRoutes::updateSchedule);
+        server.route("DELETE", "/api/schedules/{id}", ApiRoutes::deleteSchedule);
+        server.route("POST", "/api/schedules/publish", ApiRoutes::publishSchedules);
+        server.route("GET", "/api/schedules/{id}/resources", request -> ModelJson.list(
+                ScheduleDAO.getScheduleResources(request.pathInt("id")), ModelJson::scheduleResource));
+        server.route("GET", "/api/rooms", request -> ScheduleDAO.getAllRooms());
+        server.route("GET", "/api/meetings", ApiRoutes::listMeetings);
+        server.route("GET", "/api/terms", request -> ModelJson.list(TermDAO.getAllTerms(), ModelJson::term));
+        server.route("POST", "/api/terms", ApiRoutes::createTerm);
+        server.route("POST", "/api/terms/{id}/holidays", request -> {
+            request.requireCoordinator();
+            return result(TermDAO.addHoliday(request.pathInt("id"), date(request.bodyString("date"), "date"),
+                    request.bodyString("description", null)), "added");
+        });
+
+        server.route("GET", "/api/courses", ApiRoutes::listCourses);
+        server.route("POST", "/api/courses", ApiRoutes::createCourse);
+
+        server.route("POST", "/api/enrollments", ApiRoutes::enroll);
+        server.route("DELETE", "/api/enrollments", request -> {
+            int studentId = studentFor(request, request.queryInt("studentId"));
+            Integer courseId = request.queryInt("courseId");
+            if (courseId == null) {
+                throw ApiException.badRequest("courseId is required");
+            }
+            return result(EnrollmentDAO.unenrollStudent(studentId, courseId), "unenrolled");
+        });
+        server.route("POST", "/api/enrollments/room", ApiRoutes::enrollRoom);
+        server.route("GET", "/api/clashes", request -> {
+            request.requireCoordinator();
+            return ModelJson.list(TimetableClashDAO.findAllClashes(), ModelJson::clash);
+        });
+        server.route("GET", "/api/exams", request -> {
+            User user = request.requireUser();
+            if (user.isCoordinator() && request.queryInt("studentId") == null) {
+                return ModelJson.list(ExamDAO.getExamSlots(request.query("programType")), ModelJson::examSlot);
+            }
+            int studentId = studentFor(request, request.queryInt("studentId"));
+            return ModelJson.list(ExamDAO.getExamSlotsForStudent(studentId), ModelJson::examSlot);
+        });
+        server.route("GET", "/api/enrollments/count", request -> {
+            Integer courseId = request.queryInt("courseId");
+            if (courseId == null) {
+                throw ApiException.badRequest("courseId is required");
+            }
+            requireCoordinatorOrTeacher(request, courseId);
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("courseId", courseId);
+            body.put("count", EnrollmentDAO.getEnrollmentCount(courseId));
+            return body;
+        });
+
+        server.route("GET", "/api/makeup-requests", ApiRoutes::listMakeupRequests);
+        server.route("POST", "/api/makeup-requests", ApiRoutes::createMakeupRequest);
+        server.route("GET", "/api/makeup-requests/suggestions", ApiRoutes::suggestMakeupSlots);
+        server.route("POST", "/api/makeup-requests/{id}/status", ApiRoutes::decideMakeupRequest);
+
+        server.route("GET", "/api/notifications", request -> ModelJson.list(
+                NotificationDAO.getNotificationsForUser(request.requireUser().getUserId(),
+                        request.queryInt("before", 0),
+                        Math.min(request.queryInt("limit", DEFAULT_NOTIFICATION_PAGE), MAX_NOTIFICATION_PAGE),
+                        "true".equals(request.query("archived"))),
+                ModelJson::notification));
+        server.route("GET", "/api/notifications/unread-count", request -> {
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("unread", NotificationDAO.getUnreadNotificationCount(request.requireUser().getUserId()));
+            return body;
+        });
+        server.route("POST", "/api/notifications/read", ApiRoutes::markNotificationsRead);
+        server.route("POST", "/api/notifications/read-all", ApiRoutes::markAllNotificationsRead);
+        server.route("POST", "/api/notifications/{id}/read", ApiRoutes::markNotificationRead);
+
+        server.route("GET", "/api/resources", request -> ModelJson.list(
+                ResourceDAO.getAvailableResources(request.query("room") == null ? "POOL" : request.query("room")),
+                ModelJson::resource));
+        server.route("GET", "/api/resources/availability", request -> {
+            String type = request.query("type");
+            if (type == null) {
+                throw ApiException.badRequest("type is required");
+            }
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("resourceType", type);
+            body.put("total", ResourceDAO.getTotalResourceQuantity(type));
+            body.put("available", ResourceDAO.getAvailableResourceQuantity(type));
+            return body;
+        });
+
+        server.route("GET", "/api/changes", ApiRoutes::listChanges);
+    }
+
+    private static Object login(ApiServer server, ApiRequest request) {
+        User user = UserDAO.authenticateUser(request.bodyString("username"), request.bodyString("password"));
+        if (user == null) {
+            throw new ApiException(401, "Invalid username or password");
+        }
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("token", server.openSession(user));
+        body.put("user", ModelJson.user(user));
+        return body;
+    }
+
+    private static Object listSchedules(ApiRequest request) {
+        User user = request.requireUser();
+        Integer instructorId = request.queryInt("instructorId");
+        // Drafts are for coordinators and for the instructor who teaches them
+        boolean drafts = user.isCoordinator()
+                || (user.isInstructor() && instructorId != null && instructorId == user.getUserId());
+        List<Schedule> schedules;
+        if (request.query("room") != null) {
+            schedules = ScheduleDAO.getSchedulesByRoom(request.query("room"));
+        } else if (instructorId != null) {
+            schedules = ScheduleDAO.getSchedulesByInstructorId(instructorId);
+        } else if (request.queryInt("studentId") != null) {
+            schedules = ScheduleDAO.getSchedulesByStudentId(studentFor(request, request.queryInt("studentId")));
+        } else if (request.queryInt("courseId") != null) {
+            schedules = ScheduleDAO.getSchedulesByCourseId(request.queryInt("courseId"));
+        } else if ("draft".equals(request.query("status"))) {
+            request.requireCoordinator();
+            schedules = ScheduleDAO.getAllDraftSchedules();
+        } else {
+            schedules = ScheduleDAO.getAllSchedulesWithDetails();
+        }
+        if (!drafts) {
+            schedules = schedules.stream().filter(Schedule::isPublished).collect(Collectors.toList());
+        }
+        return ModelJson.list(schedules, ModelJson::schedule);
+    }
+
+    private static Object createSchedule(ApiRequest request) {
+        request.requireCoordinator();
+        Schedule schedule = ModelJson.toSchedule(request);
+        return writeResult(ScheduleDAO.insertSchedule(schedule), schedule);
+    }
+
+    private static Object updateSchedule(ApiRequest request) {
+        request.requireCoordinator();
+        Schedule schedule = ModelJson.toSchedule(request);
+        schedule.setScheduleId(request.pathInt("id"));
+        return writeResult(ScheduleDAO.updateScheduleChecked(schedule), schedule);
+    }
+
+    private static Object deleteSchedule(ApiRequest request) {
+        request.requireCoordinator();
+        Integer version = request.queryInt("version");
+        if (version == null) {
+            throw ApiException.badRequest("version is required");
+        }
+        ScheduleDAO.WriteResult result = ScheduleDAO.deleteSchedule(request.pathInt("id"), version);
+        if (result.isSaved()) {
+            return status("deleted");
+        }
+        return writeResult(result, null);
+    }
+
+    private static Object publishSchedules(ApiRequest request) {
+        request.requireCoordinator();
+        List<Integer> scheduleIds = bodyIds(request, "scheduleIds");
+        LocalDate publishDate;
+        try {
+            publishDate = LocalDate.parse(request.bodyString("publishDate"));
+        } catch (DateTimeParseException e) {
+            throw ApiException.badRequest("publishDate must be yyyy-MM-dd");
+        }
+
+        ScheduleDAO.WriteResult result = ScheduleDAO.publishSchedules(scheduleIds, publishDate);
+        if (result.isSaved()) {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("status", "published");
+            map.put("count", scheduleIds.size());
+            map.put("message", result.message);
+            return map;
+        }
+        return writeResult(result, null);
+    }
+
+    private static Object listMeetings(ApiRequest request) {
+        LocalDate from = date(request.query("from"), "from");
+        LocalDate to = date(request.query("to"), "to");
+        if (to.isBefore(from) || to.isAfter(from.plusDays(MAX_MEETING_DAYS))) {
+            throw ApiException.badRequest("to must be within " + MAX_MEETING_DAYS + " days after from");
+        }
+        Integer instructorId = ownIdOrCoordinator(request, "instructorId");
+        Iterable<ClassMeeting> meetings;
+        if (request.query("room") != null) {
+            meetings = ScheduleDAO.getMeetingsInRoom(request.query("room"), from, to);
+        } else if (instructorId != null) {
+            meetings = ScheduleDAO.getMeetingsForInstructor(instructorId, from, to);
+        } else {
+            throw ApiException.badRequest("room or instructorId is required");
+        }
+        List<Map<String, Object>> body = new ArrayList<>();
+        for (ClassMeeting meeting : meetings) {
+            body.add(ModelJson.meeting(meeting));
+        }
+        return body;
+    }
+
+    private static Object createTerm(ApiRequest request) {
+        request.requireCoordinator();
+        Term term = new Term(request.bodyString("name"), date(request.bodyString("startDate"), "startDate"),
+                date(request.bodyString("endDate"), "endDate"));
+        Object holidays = request.body().get("holidays");
+        if (holidays instanceof List) {
+            for (Object holiday : (List<?>) holidays) {
+                if (!(holiday instanceof Map)) {
+                    throw ApiException.badRequest("holidays must contain objects");
+                }
+                Map<?, ?> fields = (Map<?, ?>) holiday;
+                Object description = fields.get("description");
+                term.addHoliday(date(String.valueOf(fields.get("date")), "holidays.date"),
+                        description != null ? description.toString() : null);
+            }
+        }
+        if (!TermDAO.createTerm(term)) {
+            throw new ApiException(409, "Term not created; check the dates and that the name is unused");
+        }
+        return ModelJson.term(term);
+    }
+
+    private static LocalDate date(String value, String name) {
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException | NullPointerException e) {
+            throw ApiException.badRequest(name + " must be yyyy-MM-dd");
+        }
+    }
+
+    private static Object writeResult(ScheduleDAO.WriteResult result, Schedule schedule) {
+        switch (result.status) {
+            case SAVED:
+                return ModelJson.schedule(schedule);
+            case NOT_FOUND:
+                throw ApiException.notFound(result.message);
+            case CONFLICT:
+            case STALE:
+                throw new ApiException(409, result.message);
+            case INVALID:
+                throw new ApiException(422, result.message);
+            default:
+                throw new ApiException(503, result.message);
+        }
+    }
+
+    private static Object listCourses(ApiRequest request) {
+        List<Course> courses;
+        if (request.queryInt("studentId") != null) {
+            courses = CourseDAO.getCoursesByStudentId(studentFor(request, request.queryInt("studentId")));
+        } else if (request.query("room") != null && request.query("programType") != null) {
+            courses = CourseDAO.getCoursesByRoomAndProgramType(request.query("room"), request.query("programType"));
+        } else if (request.query("room") != null) {
+            courses = CourseDAO.getCoursesByRoom(request.query("room"));
+        } else {
+            courses = CourseDAO.getAllCourses();
+        }
+        return ModelJson.list(courses, ModelJson::course);
+    }
+
+    private static Object createCourse(ApiRequest request) {
+        request.requireCoordinator();
+        Course course = new Course(0, request.bodyString("courseName"), request.bodyString("courseCode"),
+                request.bodyString("description", ""), request.bodyInt("creditHours"));
+        if (!CourseDAO.addCourse(course)) {
+            throw new ApiException(409, "Course could not be added");
+        }
+        return ModelJson.course(course);
+    }
+
+    private static Object enrollRoom(ApiRequest request) {
+        request.requireCoordinator();
+        String room = request.bodyString("room");
+        String programType = request.bodyString("programType", null);
+        boolean dryRun = Boolean.TRUE.equals(request.body().get("dryRun"));
+        EnrollmentDAO.BulkEnrollmentResult result = EnrollmentDAO.enrollRoom(room, programType, dryRun);
+        if (result == null) {
+            throw new ApiException(503, "Enrollment failed");
+        }
+        return ModelJson.bulkEnrollment(result);
+    }
+
+    private static Object enroll(ApiRequest request) {
+        int studentId = studentFor(request, request.body().containsKey("studentId") ? request.bodyInt("studentId") : null);
+        int courseId = request.bodyInt("courseId");
+        int code = EnrollmentDAO.enrollStudent(studentId, courseId);
+        if (code == -3) {
+            throw new ApiException(503, "Enrollment failed");
+        }
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("studentId", studentId);
+        body.put("courseId", courseId);
+        body.put("result", EnrollmentDAO.describeResult(code));
+        return body;
+    }
+
+    /**
+     * Students act for themselves; coordinators may name any student.
+     */
+    private static int studentFor(ApiRequest request, Integer requested) {
+        User user = request.requireUser();
+        if (user.isCoordinator() && requested != null) {
+            return requested;
+        }
+        if (!user.isStudent() || (requested != null && requested != user.getUserId())) {
+            throw ApiException.forbidden();
+        }
+        return user.getUserId();
+    }
+
+    /**
+     * Coordinators see every course; an instructor only the courses they
+     * teach.
+     */
+    private static void requireCoordinatorOrTeacher(ApiRequest request, int courseId) {
+        User user = request.requireUser();
+        if (user.isCoordinator()) {
+            return;
+        }
+        if (!user.isInstructor() || ScheduleDAO.getSchedulesByCourseId(courseId).stream()
+                .noneMatch(schedule -> schedule.getInstructorId() == user.getUserId())) {
+            throw ApiException.forbidden();
+        }
+    }
+
+    /**
+     * A user id from the query that only coordinators may set to someone
+     * other than themselves.
+     */
+    private static Integer ownIdOrCoordinator(ApiRequest request, String name) {
+        User user = request.requireUser();
+        Integer requested = request.queryInt(name);
+        if (requested != null && !user.isCoordinator() && requested != user.getUserId()) {
+            throw ApiException.forbidden();
+        }
+        return requested;
+    }
+
+    private static Object listMakeupRequests(ApiRequest request) {
+        User user = request.requireUser();
+        Integer instructorId = ownIdOrCoordinator(request, "instructorId");
+        Integer repId = ownIdOrCoordinator(request, "repId");
+        List<MakeupRequest> requests;
+        if (instructorId != null) {
+            requests = MakeupRequestDAO.getRequestsByInstructor(instructorId);
+        } else if (repId != null) {
+            requests = MakeupRequestDAO.getRequestsByRep(repId);
+        } else if (user.isInstructor()) {
+            requests = MakeupRequestDAO.getRequestsByInstructor(user.getUserId());
+        } else {
+            requests = MakeupRequestDAO.getRequestsByRep(user.getUserId());
+        }
+        return ModelJson.list(requests, ModelJson::makeupRequest);
+    }
+
+    private static Object createMakeupRequest(ApiRequest request) {
+        User user = request.requireUser();
+        if (!UserDAO.isRoomRep(user.getUserId())) {
+            throw ApiException.forbidden();
+        }
+        Course course = CourseDAO.getCourseById(request.bodyInt("courseId"));
+        if (course == null) {
+            throw ApiException.notFound("Course not found");
+        }
+
+        MakeupRequest makeup = new MakeupRequest();
+        makeup.setRoom(user.getAssignedRoom());
+        makeup.setCourseId(course.getCourseId());
+        makeup.setCourseCode(course.getCourseCode());
+        makeup.setRepId(user.getUserId());
+        makeup.setInstructorId(request.bodyInt("instructorId"));
+        try {
+            makeup.setRequestedDate(LocalDate.parse(request.bodyString("requestedDate")));
+        } catch (DateTimeParseException e) {
+            throw ApiException.badRequest("requestedDate must be yyyy-MM-dd");
+        }
+        makeup.setRequestedTime(request.bodyString("requestedTime"));
+
+        String conflict = MakeupRequestDAO.findConflict(makeup);
+        if (conflict != null) {
+            throw new ApiException(409, conflict);
+        }
+        return result(MakeupRequestDAO.createMakeupRequest(makeup), "created");
+    }
+
+    private static Object suggestMakeupSlots(ApiRequest request) {
+        User user = request.requireUser();
+        if (!UserDAO.isRoomRep(user.getUserId())) {
+            throw ApiException.forbidden();
+        }
+        Integer instructorId = request.queryInt("instructorId");
+        if (instructorId == null) {
+            throw ApiException.badRequest("instructorId is required");
+        }
+        int weeks = Math.min(Math.max(request.queryInt("weeks", 3), 1), MAX_SUGGESTION_WEEKS);
+        int count = Math.min(Math.max(request.queryInt("count", 10), 1), MAX_SUGGESTIONS);
+        List<Map<String, Object>> body = new ArrayList<>();
+        for (MakeupSlot slot : MakeupRequestDAO.suggestSlots(user.getAssignedRoom(), instructorId,
+                ProgramType.fromString(user.getProgramType()), weeks, count)) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("date", slot.getDate().toString());
+            item.put("startTime", slot.getStartTime());
+            item.put("endTime", slot.getEndTime());
+            body.add(item);
+        }
+        return body;
+    }
+
+    private static Object decideMakeupRequest(ApiRequest request) {
+        User user = request.requireUser();
+        String status = request.bodyString("status");
+        if (!"Approved".equals(status) && !"Disapproved".equals(status)) {
+            throw ApiException.badRequest("status must be Approved or Disapproved");
+        }
+        MakeupRequest makeup = MakeupRequestDAO.getMakeupRequestById(request.pathInt("id"));
+        if (makeup == null) {
+            throw ApiException.notFound("Makeup request not found");
+        }
+        if (!user.isCoordinator() && makeup.getInstructorId() != user.getUserId()) {
+            throw ApiException.forbidden();
+        }
+        if ("Approved".equals(status) && "Pending".equals(makeup.getStatus())) {
+            String conflict = MakeupRequestDAO.findConflict(makeup);
+            if (conflict != null) {
+                throw new ApiException(409, conflict);
+            }
+        }
+        if (!MakeupRequestDAO.updateRequestStatus(makeup.getRequestId(), status)) {
+            throw new ApiException(409, "Request is no longer pending");
+        }
+        return status(status.toLowerCase());
+    }
+
+    private static Object markNotificationRead(ApiRequest request) {
+        int userId = request.requireUser().getUserId();
+        int marked = NotificationDAO.markNotificationsAsRead(userId, List.of(request.pathInt("id")));
+        if (marked == 0) {
+            throw ApiException.notFound("Notification not found");
+        }
+        return result(marked > 0, "read");
+    }
+
+    private static Object markNotificationsRead(ApiRequest request) {
+        int userId = request.requireUser().getUserId();
+        return readCount(NotificationDAO.markNotificationsAsRead(userId, bodyIds(request, "notificationIds")));
+    }
+
+    private static Object markAllNotificationsRead(ApiRequest request) {
+        int userId = request.requireUser().getUserId();
+        return readCount(NotificationDAO.markAllAsRead(userId, request.bodyInt("upToId", 0)));
+    }
+
+    private static Map<String, Object> readCount(int marked) {
+        if (marked < 0) {
+            throw new ApiException(503, "Could not update notifications");
+        }
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("status", "read");
+        body.put("count", marked);
+        return body;
+    }
+
+    /**
+     * A body field holding an array of ids.
+     */
+    private static List<Integer> bodyIds(ApiRequest request, String name) {
+        Object ids = request.body().get(name);
+        if (!(ids instanceof List)) {
+            throw ApiException.badRequest(name + " must be an array");
+        }
+        List<Integer> values = new ArrayList<>();
+        for (Object id : (List<?>) ids) {
+            if (!(id instanceof Number)) {
+                throw ApiException.badRequest(name + " must contain numbers");
+            }
+            values.add(((Number) id).intValue());
+        }
+        return values;
+    }
+
+    private static Object listChanges(ApiRequest request) {
+        long since = request.queryLong("since", 0);
+        int limit = Math.min(request.queryInt("limit", 500), MAX_CHANGE_PAGE);
+        String tables = request.query("tables");
+        String[] tableFilter = tables == null || tables.isEmpty() ? new String[0] : tables.split(",");
+
+        // Asking for changes after since means everything up to it is applied; the session
+        // holds back pruning from there until it logs out or expires
+        if (since > 0) {
+            ChangeLogDAO.acknowledge(request.getSyncClientId(), since);
+        }
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("resync", ChangeLogDAO.isResyncRequired(since));
+        body.put("latest", ChangeLogDAO.getLatestSequence());
+        body.put("changes", ModelJson.list(ChangeLogDAO.getChangesSince(since, limit, tableFilter), ModelJson::change));
+        return body;
+    }
+
+    private static Map<String, Object> status(String status) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("status", status);
+        return body;
+    }
+
+    private static Map<String, Object> result(boolean ok, String status) {
+        if (!ok) {
+            throw new ApiException(409, "Operation was not applied");
+        }
+        return status(status);
+    }
+}
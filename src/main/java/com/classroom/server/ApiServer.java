@@ -0,0 +1,271 @@
+package com.classroom.server;
+
+import com.classroom.dao.ChangeLogDAO;
+import com.classroom.dao.NotificationDispatcher;
+import com.classroom.model.User;
+import com.classroom.util.JsonUtil;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Headless JSON HTTP API over the DAO layer.
+ *
+ * One server process owns classroom.db and many clients talk to it, instead
+ * of every desktop opening the database file directly. Built on the JDK's
+ * com.sun.net.httpserver so it needs no extra dependencies. Requests run on
+ * a virtual-thread-per-task executor when the JVM provides one (JDK 21+) and
+ * on a bounded platform-thread pool otherwise; handlers block on JDBC either
+ * way, so the pool is sized well above the core count.
+ *
+ * Clients log in with {@code POST /api/login} and send the returned token
+ * as {@code Authorization: Bearer <token>}. A token ends with
+ * {@code POST /api/logout} or after {@value #DEFAULT_SESSION_IDLE_MINUTES}
+ * minutes without a request (see {@code classroom.api.sessionIdleMinutes}).
+ * Routes are listed in {@link ApiRoutes}.
+ */
+public class ApiServer {
+    public static final int DEFAULT_PORT = 8080;
+    static final int DEFAULT_SESSION_IDLE_MINUTES = 480;
+    private static final long SESSION_IDLE_MS = Integer.getInteger("classroom.api.sessionIdleMinutes",
+            DEFAULT_SESSION_IDLE_MINUTES) * 60_000L;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final List<Route> routes = new ArrayList<>();
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+
+    @FunctionalInterface
+    public interface Handler {
+        Object handle(ApiRequest request) throws Exception;
+    }
+
+    private static class Session {
+        final User user;
+        // Position in the change log this session has polled to; see ApiRoutes.listChanges
+        final String syncClientId = "api-" + UUID.randomUUID();
+        volatile long lastUsed = System.currentTimeMillis();
+
+        Session(User user) {
+            this.user = user;
+        }
+
+        boolean isExpired(long now) {
+            return now - lastUsed > SESSION_IDLE_MS;
+        }
+    }
+
+    private static class Route {
+        final String method;
+        final String[] segments;
+        final boolean authenticated;
+        final Handler handler;
+
+        Route(String method, String pattern, boolean authenticated, Handler handler) {
+            this.method = method;
+            this.segments = pattern.substring(1).split("/");
+            this.authenticated = authenticated;
+            this.handler = handler;
+        }
+
+        Map<String, String> match(String[] path) {
+            if (path.length != segments.length) {
+                return null;
+            }
+            Map<String, String> params = new HashMap<>();
+            for (int i = 0; i < segments.length; i++) {
+                if (segments[i].startsWith("{")) {
+                    params.put(segments[i].substring(1, segments[i].length() - 1), path[i]);
+                } else if (!segments[i].equals(path[i])) {
+                    return null;
+                }
+            }
+            return params;
+        }
+    }
+
+    public ApiServer(int port, int threads) throws IOException {
+        // Headers and body go out as separate writes; without TCP_NODELAY every
+        // response waits ~40 ms for the client's delayed ACK
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        this.server = HttpServer.create(new InetSocketAddress(port), 0);
+        this.executor = createExecutor(threads);
+        server.setExecutor(executor);
+        server.createContext("/api/", this::dispatch);
+        ApiRoutes.register(this);
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public void stop() {
+        server.stop(1);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Deliver notifications queued by the last requests before the process exits
+        NotificationDispatcher.flush(5000);
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Register a route that requires a logged-in user. Path segments in
+     * braces, e.g. {@code /api/schedules/{id}}, become path parameters.
+     */
+    public void route(String method, String pattern, Handler handler) {
+        routes.add(new Route(method, pattern, true, handler));
+    }
+
+    public void publicRoute(String method, String pattern, Handler handler) {
+        routes.add(new Route(method, pattern, false, handler));
+    }
+
+    String openSession(User user) {
+        // Sweep here so tokens that are never used or logged out again do not pile up
+        long now = System.currentTimeMillis();
+        sessions.entrySet().removeIf(entry -> {
+            if (entry.getValue().isExpired(now)) {
+                ChangeLogDAO.unregister(entry.getValue().syncClientId);
+                return true;
+            }
+            return false;
+        });
+        String token = UUID.randomUUID().toString();
+        sessions.put(token, new Session(user));
+        return token;
+    }
+
+    /**
+     * The session behind a token, or null if it is unknown or has expired.
+     * Each use keeps the session alive for another idle period.
+     */
+    private Session session(String token) {
+        Session session = token == null ? null : sessions.get(token);
+        if (session == null) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        if (session.isExpired(now)) {
+            if (sessions.remove(token, session)) {
+                ChangeLogDAO.unregister(session.syncClientId);
+            }
+            return null;
+        }
+        session.lastUsed = now;
+        return session;
+    }
+
+    void closeSession(String token) {
+        Session session = token == null ? null : sessions.remove(token);
+        if (session != null) {
+            // Stop holding back change log pruning for this session
+            ChangeLogDAO.unregister(session.syncClientId);
+        }
+    }
+
+    private static String bearerToken(HttpExchange exchange) {
+        String header = exchange.getRequestHeaders().getFirst("Authorization");
+        if (header == null || !header.startsWith("Bearer ")) {
+            return null;
+        }
+        return header.substring("Bearer ".length()).trim();
+    }
+
+    private void dispatch(HttpExchange exchange) throws IOException {
+        try {
+            String[] path = exchange.getRequestURI().getPath().substring(1).split("/");
+            String method = exchange.getRequestMethod();
+            boolean pathMatched = false;
+
+            for (Route route : routes) {
+                Map<String, String> params = route.match(path);
+                if (params == null) {
+                    continue;
+                }
+                pathMatched = true;
+                if (!route.method.equals(method)) {
+                    continue;
+                }
+
+                String token = bearerToken(exchange);
+                Session session = session(token);
+                if (route.authenticated && session == null) {
+                    throw ApiException.unauthorized();
+                }
+                Object result = route.handler.handle(session == null
+                        ? new ApiRequest(exchange, params, token, null, null)
+                        : new ApiRequest(exchange, params, token, session.user, session.syncClientId));
+                send(exchange, 200, result);
+                return;
+            }
+
+            throw pathMatched ? new ApiException(405, "Method not allowed")
+                    : ApiException.notFound("No such endpoint");
+        } catch (ApiException e) {
+            send(exchange, e.getStatus(), error(e.getMessage()));
+        } catch (Exception e) {
+            e.printStackTrace();
+            send(exchange, 500, error("Internal error"));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static Map<String, Object> error(String message) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("error", message);
+        return body;
+    }
+
+    private static void send(HttpExchange exchange, int status, Object body) throws IOException {
+        byte[] bytes = JsonUtil.toJson(body).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Virtual threads when available (looked up reflectively so the build
+     * stays on Java 17), otherwise a fixed pool of platform threads.
+     */
+    private static ExecutorService createExecutor(int threads) {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newFixedThreadPool(threads);
+        }
+    }
+
+    /**
+     * Run the server until the process is stopped.
+     */
+    public static void run(int port, int threads) throws IOException {
+        ApiServer apiServer = new ApiServer(port, threads);
+        Runtime.getRuntime().addShutdownHook(new Thread(apiServer::stop));
+        apiServer.start();
+        System.out.println("Classroom API listening on port " + apiServer.getPort());
+    }
+}
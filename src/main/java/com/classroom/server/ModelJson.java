@@ -0,0 +1,251 @@
+package com.classroom.server;
+
+import com.classroom.dao.EnrollmentDAO;
+import com.classroom.model.ChangeLogEntry;
+import com.classroom.model.ClassMeeting;
+import com.classroom.model.Course;
+import com.classroom.model.ExamSlot;
+import com.classroom.model.MakeupRequest;
+import com.classroom.model.Notification;
+import com.classroom.model.Resource;
+import com.classroom.model.Schedule;
+import com.classroom.model.ScheduleResource;
+import com.classroom.model.StudentClash;
+import com.classroom.model.Term;
+import com.classroom.model.TimeOfDay;
+import com.classroom.model.User;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Model to JSON-map conversions for the API. Passwords never leave the server.
+ */
+class ModelJson {
+
+    static <T> List<Map<String, Object>> list(List<T> items, Function<T, Map<String, Object>> mapper) {
+        List<Map<String, Object>> result = new ArrayList<>(items.size());
+        for (T item : items) {
+            result.add(mapper.apply(item));
+        }
+        return result;
+    }
+
+    static Map<String, Object> user(User user) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("userId", user.getUserId());
+        map.put("username", user.getUsername());
+        map.put("fullName", user.getFullName());
+        map.put("userType", user.getUserType());
+        map.put("email", user.getEmail());
+        map.put("programType", user.getProgramType());
+        map.put("assignedRoom", user.getAssignedRoom());
+        return map;
+    }
+
+    static Map<String, Object> schedule(Schedule schedule) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("scheduleId", schedule.getScheduleId());
+        map.put("courseId", schedule.getCourseId());
+        map.put("courseCode", schedule.getCourseCode());
+        map.put("courseName", schedule.getCourseName());
+        map.put("instructorId", schedule.getInstructorId());
+        map.put("instructorName", schedule.getInstructorName());
+        map.put("dayOfWeek", schedule.getDayOfWeek());
+        map.put("startTime", schedule.getStartTime());
+        map.put("endTime", schedule.getEndTime());
+        map.put("room", schedule.getRoom());
+        map.put("programType", schedule.getProgramType());
+        map.put("status", schedule.getStatus());
+        map.put("publishDate", schedule.getPublishDate());
+        map.put("version", schedule.getVersion());
+        return map;
+    }
+
+    /**
+     * Build a Schedule from a request body. Resources are given as
+     * {@code [{"resourceId": 1, "quantity": 2}, ...]}.
+     */
+    static Schedule toSchedule(ApiRequest request) {
+        Schedule schedule = new Schedule();
+        schedule.setCourseId(request.bodyInt("courseId"));
+        schedule.setInstructorId(request.bodyInt("instructorId"));
+        schedule.setDayOfWeek(request.bodyString("dayOfWeek"));
+        schedule.setStartTime(request.bodyString("startTime"));
+        schedule.setEndTime(request.bodyString("endTime"));
+        if (schedule.getStartMinutes() == TimeOfDay.UNSET || schedule.getEndMinutes() == TimeOfDay.UNSET) {
+            throw ApiException.badRequest("startTime and endTime must be HH:mm");
+        }
+        schedule.setRoom(request.bodyString("room"));
+        schedule.setProgramType(request.bodyString("programType", "Regular"));
+        schedule.setVersion(request.bodyInt("version", 0));
+
+        Object resources = request.body().get("resources");
+        if (resources instanceof List) {
+            for (Object item : (List<?>) resources) {
+                if (!(item instanceof Map)) {
+                    throw ApiException.badRequest("Each resource must be an object");
+                }
+                Map<?, ?> resource = (Map<?, ?>) item;
+                Object id = resource.get("resourceId");
+                Object quantity = resource.get("quantity");
+                if (!(id instanceof Number) || !(quantity instanceof Number)) {
+                    throw ApiException.badRequest("Resources need numeric resourceId and quantity");
+                }
+                schedule.addRequiredResource(new ScheduleResource(0, ((Number) id).intValue(),
+                        ((Number) quantity).intValue()));
+            }
+        }
+        return schedule;
+    }
+
+    static Map<String, Object> scheduleResource(ScheduleResource resource) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("resourceId", resource.getResourceId());
+        map.put("quantity", resource.getQuantityNeeded());
+        return map;
+    }
+
+    static Map<String, Object> course(Course course) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("courseId", course.getCourseId());
+        map.put("courseCode", course.getCourseCode());
+        map.put("courseName", course.getCourseName());
+        map.put("description", course.getDescription());
+        map.put("creditHours", course.getCreditHours());
+        return map;
+    }
+
+    static Map<String, Object> makeupRequest(MakeupRequest request) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("requestId", request.getRequestId());
+        map.put("room", request.getRoom());
+        map.put("courseId", request.getCourseId());
+        map.put("courseCode", request.getCourseCode());
+        map.put("courseName", request.getCourseName());
+        map.put("repId", request.getRepId());
+        map.put("repName", request.getRepName());
+        map.put("instructorId", request.getInstructorId());
+        map.put("instructorName", request.getInstructorName());
+        map.put("requestedDate", request.getRequestedDate());
+        map.put("requestedTime", request.getRequestedTime());
+        map.put("status", request.getStatus());
+        map.put("createdAt", request.getCreatedAt());
+        map.put("updatedAt", request.getUpdatedAt());
+        return map;
+    }
+
+    static Map<String, Object> notification(Notification notification) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("notificationId", notification.getNotificationId());
+        map.put("userId", notification.getUserId());
+        map.put("type", notification.getType());
+        map.put("message", notification.getMessage());
+        map.put("read", notification.isRead());
+        map.put("createdAt", notification.getCreatedAt());
+        return map;
+    }
+
+    static Map<String, Object> resource(Resource resource) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("resourceId", resource.getResourceId());
+        map.put("room", resource.getRoom());
+        map.put("resourceType", resource.getResourceType());
+        map.put("quantity", resource.getQuantity());
+        map.put("status", resource.getStatus());
+        map.put("lastChecked", resource.getLastChecked());
+        return map;
+    }
+
+    static Map<String, Object> change(ChangeLogEntry entry) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("seq", entry.getSeq());
+        map.put("table", entry.getTableName());
+        map.put("rowId", entry.getRowId());
+        map.put("operation", entry.getOperation());
+        map.put("userId", entry.getUserId());
+        map.put("changedAt", entry.getChangedAt());
+        return map;
+    }
+
+    static Map<String, Object> bulkEnrollment(EnrollmentDAO.BulkEnrollmentResult result) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("room", result.room);
+        map.put("dryRun", result.dryRun);
+        map.put("enrolled", result.enrolledCount);
+        map.put("students", list(result.students, student -> {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("studentId", student.studentId);
+            item.put("name", student.studentName);
+            item.put("enrolledCourseIds", student.enrolledCourseIds);
+            item.put("alreadyEnrolledCourseIds", student.alreadyEnrolledCourseIds);
+            item.put("clashingCourseIds", student.clashingCourseIds);
+            return item;
+        }));
+        return map;
+    }
+
+    static Map<String, Object> clash(StudentClash clash) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("studentId", clash.getStudentId());
+        map.put("studentName", clash.getStudentName());
+        map.put("courseId", clash.getCourseId());
+        map.put("courseCode", clash.getCourseCode());
+        map.put("otherCourseId", clash.getOtherCourseId());
+        map.put("otherCourseCode", clash.getOtherCourseCode());
+        map.put("overlap", clash.getOverlap());
+        return map;
+    }
+
+    static Map<String, Object> examSlot(ExamSlot slot) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("examId", slot.getExamId());
+        map.put("courseId", slot.getCourseId());
+        map.put("courseCode", slot.getCourseCode());
+        map.put("courseName", slot.getCourseName());
+        map.put("programType", slot.getProgramType());
+        map.put("period", slot.getPeriod());
+        map.put("examDay", slot.getExamDay());
+        map.put("dayOfWeek", slot.getDayOfWeek());
+        map.put("startTime", slot.getStartTime());
+        map.put("endTime", slot.getEndTime());
+        map.put("room", slot.getRoom());
+        map.put("students", slot.getStudents());
+        return map;
+    }
+
+    static Map<String, Object> term(Term term) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("termId", term.getTermId());
+        map.put("name", term.getName());
+        map.put("startDate", term.getStartDate().toString());
+        map.put("endDate", term.getEndDate().toString());
+        List<Map<String, Object>> holidays = new ArrayList<>();
+        for (Map.Entry<LocalDate, String> holiday : term.getHolidays().entrySet()) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("date", holiday.getKey().toString());
+            item.put("description", holiday.getValue());
+            holidays.add(item);
+        }
+        map.put("holidays", holidays);
+        return map;
+    }
+
+    static Map<String, Object> meeting(ClassMeeting meeting) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        Schedule schedule = meeting.getSchedule();
+        map.put("date", meeting.getDate().toString());
+        map.put("scheduleId", schedule.getScheduleId());
+        map.put("courseId", schedule.getCourseId());
+        map.put("courseCode", schedule.getCourseCode());
+        map.put("instructorId", schedule.getInstructorId());
+        map.put("startTime", schedule.getStartTime());
+        map.put("endTime", schedule.getEndTime());
+        map.put("room", schedule.getRoom());
+        return map;
+    }
+}
@@ -0,0 +1,163 @@
+package com.classroom.tools;
+
+import com.classroom.server.ApiServer;
+import com.classroom.tools.LoadTestDriver.LatencyRecorder;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Throughput benchmark for the HTTP API.
+ *
+ * Seeds a scratch database the same way {@link LoadTestDriver} does, starts an
+ * in-process {@link ApiServer} on a free port and then runs levels of
+ * concurrent student clients over HTTP: reading their room's timetable,
+ * enrolling, and polling the change feed.
+ *
+ * <pre>
+ * java -cp classroom-management.jar com.classroom.tools.ApiBenchmark \
+ *     [--db loadtest.db] [--duration 10] [--levels 1,4,16,64] [--threads 64]
+ * </pre>
+ */
+public class ApiBenchmark {
+    private static final String[] OPERATIONS = { "GET /api/schedules", "POST /api/enrollments", "GET /api/changes" };
+
+    public static void main(String[] args) throws Exception {
+        String db = "loadtest.db";
+        int duration = 10;
+        int[] levels = { 1, 4, 16, 64 };
+        int threads = 64;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--db":
+                    db = args[++i];
+                    break;
+                case "--duration":
+                    duration = Integer.parseInt(args[++i]);
+                    break;
+                case "--levels":
+                    levels = Arrays.stream(args[++i].split(",")).mapToInt(Integer::parseInt).toArray();
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(args[++i]);
+                    break;
+                default:
+                    System.err.println("Unknown option: " + args[i]);
+                    System.exit(2);
+            }
+        }
+
+        System.setProperty("java.awt.headless", "true");
+        LoadTestDriver seed = new LoadTestDriver(db, duration, levels, 0, 0, 0);
+        seed.prepareDatabase();
+
+        ApiServer server = new ApiServer(0, threads);
+        server.start();
+        String url = "http://localhost:" + server.getPort();
+        PrintStream console = System.out;
+        PrintStream err = System.err;
+        try {
+            console.printf("API benchmark against %s (%s, %d server threads), %d s per level%n", url, db, threads,
+                    duration);
+
+            for (int level : levels) {
+                System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+                System.setErr(new PrintStream(OutputStream.nullOutputStream()));
+                Map<String, LatencyRecorder> recorders;
+                double elapsed;
+                try {
+                    recorders = new LinkedHashMap<>();
+                    for (String op : OPERATIONS) {
+                        recorders.put(op, new LatencyRecorder());
+                    }
+                    elapsed = runLevel(url, level, duration, seed.courseIds, recorders);
+                } finally {
+                    System.setOut(console);
+                    System.setErr(err);
+                }
+                print(console, level, elapsed, recorders);
+            }
+        } finally {
+            server.stop();
+        }
+    }
+
+    private static double runLevel(String url, int clients, int duration, List<Integer> courseIds,
+            Map<String, LatencyRecorder> recorders) throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        AtomicBoolean running = new AtomicBoolean(true);
+
+        for (int c = 0; c < clients; c++) {
+            int student = c % LoadTestDriver.STUDENTS;
+            pool.execute(() -> clientLoop(url, student, courseIds, running, recorders));
+        }
+
+        long start = System.nanoTime();
+        Thread.sleep(TimeUnit.SECONDS.toMillis(duration));
+        running.set(false);
+        pool.shutdown();
+        pool.awaitTermination(1, TimeUnit.MINUTES);
+        return (System.nanoTime() - start) / 1e9;
+    }
+
+    private static void clientLoop(String url, int student, List<Integer> courseIds, AtomicBoolean running,
+            Map<String, LatencyRecorder> recorders) {
+        ApiClient client = new ApiClient(url);
+        String room = LoadTestDriver.ROOMS[student % LoadTestDriver.ROOMS.length];
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        try {
+            if (!client.login("lt_student" + student, "load")) {
+                return;
+            }
+            while (running.get()) {
+                int dice = random.nextInt(8);
+                long t0 = System.nanoTime();
+                ApiClient.Response response;
+                String op;
+                if (dice < 6) {
+                    op = OPERATIONS[0];
+                    response = client.get("/api/schedules?room=" + room);
+                } else if (dice == 6) {
+                    op = OPERATIONS[1];
+                    response = client.post("/api/enrollments",
+                            Map.of("courseId", courseIds.get(random.nextInt(courseIds.size()))));
+                } else {
+                    op = OPERATIONS[2];
+                    response = client.get("/api/changes?since=0&limit=100");
+                }
+                recorders.get(op).record(System.nanoTime() - t0, response.isOk());
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static void print(PrintStream out, int clients, double elapsed, Map<String, LatencyRecorder> recorders) {
+        long total = 0;
+        out.println();
+        out.printf("== %d clients, %.1f s ==%n", clients, elapsed);
+        out.printf("%-24s %9s %10s %10s %10s %9s%n", "operation", "count", "req/s", "p50 ms", "p99 ms", "failed");
+        for (Map.Entry<String, LatencyRecorder> entry : recorders.entrySet()) {
+            long[] samples = entry.getValue().sortedSamples();
+            total += samples.length;
+            out.printf("%-24s %9d %10.1f %10.2f %10.2f %9d%n",
+                    entry.getKey(),
+                    samples.length,
+                    samples.length / elapsed,
+                    LatencyRecorder.percentile(samples, 0.50) / 1e6,
+                    LatencyRecorder.percentile(samples, 0.99) / 1e6,
+                    entry.getValue().getFailures());
+        }
+        out.printf("total %.1f req/s%n", total / elapsed);
+    }
+}
@@ -0,0 +1,151 @@
+package com.classroom.tools;
+
+import com.classroom.util.JsonUtil;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Small client for the JSON HTTP API, used by {@link ApiBenchmark} and for
+ * poking a running server by hand:
+ *
+ * <pre>
+ * java -cp classroom-management.jar com.classroom.tools.ApiClient \
+ *     [--url http://localhost:8080] [--user admin --password admin123] \
+ *     GET /api/schedules?room=A101
+ * java -cp ... com.classroom.tools.ApiClient --user s1 --password pw \
+ *     POST /api/enrollments '{"courseId": 3}'
+ * </pre>
+ */
+public class ApiClient {
+    private final HttpClient http;
+    private final String baseUrl;
+    private String token;
+
+    public static class Response {
+        public final int status;
+        public final String body;
+
+        Response(int status, String body) {
+            this.status = status;
+            this.body = body;
+        }
+
+        public boolean isOk() {
+            return status == 200;
+        }
+
+        public Object json() {
+            return JsonUtil.parse(body);
+        }
+    }
+
+    public ApiClient(String baseUrl) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    }
+
+    /**
+     * Log in and keep the session token for later calls.
+     */
+    public boolean login(String username, String password) throws IOException, InterruptedException {
+        Response response = post("/api/login", Map.of("username", username, "password", password));
+        if (!response.isOk()) {
+            return false;
+        }
+        token = (String) JsonUtil.parseObject(response.body).get("token");
+        return true;
+    }
+
+    public Response get(String path) throws IOException, InterruptedException {
+        return send(request(path).GET());
+    }
+
+    public Response post(String path, Object body) throws IOException, InterruptedException {
+        return send(request(path).POST(HttpRequest.BodyPublishers.ofString(JsonUtil.toJson(body))));
+    }
+
+    public Response put(String path, Object body) throws IOException, InterruptedException {
+        return send(request(path).PUT(HttpRequest.BodyPublishers.ofString(JsonUtil.toJson(body))));
+    }
+
+    public Response delete(String path) throws IOException, InterruptedException {
+        return send(request(path).DELETE());
+    }
+
+    private HttpRequest.Builder request(String path) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json");
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+
+    private Response send(HttpRequest.Builder builder) throws IOException, InterruptedException {
+        HttpResponse<String> response = http.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+        return new Response(response.statusCode(), response.body());
+    }
+
+    public static void main(String[] args) throws Exception {
+        String url = "http://localhost:8080";
+        String user = null;
+        String password = null;
+        int i = 0;
+        for (; i < args.length && args[i].startsWith("--"); i++) {
+            switch (args[i]) {
+                case "--url":
+                    url = args[++i];
+                    break;
+                case "--user":
+                    user = args[++i];
+                    break;
+                case "--password":
+                    password = args[++i];
+                    break;
+                default:
+                    System.err.println("Unknown option: " + args[i]);
+                    System.exit(2);
+            }
+        }
+        if (args.length - i < 2) {
+            System.err.println("Usage: ApiClient [--url URL] [--user U --password P] METHOD PATH [JSON]");
+            System.exit(2);
+        }
+
+        ApiClient client = new ApiClient(url);
+        if (user != null && !client.login(user, password)) {
+            System.err.println("Login failed");
+            System.exit(1);
+        }
+
+        String method = args[i].toUpperCase();
+        String path = args[i + 1];
+        Object body = args.length > i + 2 ? JsonUtil.parse(args[i + 2]) : Map.of();
+        Response response;
+        switch (method) {
+            case "GET":
+                response = client.get(path);
+                break;
+            case "POST":
+                response = client.post(path, body);
+                break;
+            case "PUT":
+                response = client.put(path, body);
+                break;
+            case "DELETE":
+                response = client.delete(path);
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported method " + method);
+        }
+        System.out.println(response.status);
+        System.out.println(response.body);
+    }
+}
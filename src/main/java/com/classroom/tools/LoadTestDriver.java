@@ -0,0 +1,477 @@
+package com.classroom.tools;
+
+import com.classroom.dao.EnrollmentDAO;
+import com.classroom.dao.MakeupRequestDAO;
+import com.classroom.dao.ScheduleDAO;
+import com.classroom.model.MakeupRequest;
+import com.classroom.model.Schedule;
+import com.classroom.monitoring.DatabaseErrorStats;
+import com.classroom.util.DatabaseUtil;
+
+import java.io.File;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Headless multi-client load driver for the DAO layer.
+ *
+ * Simulates coordinators (add/update/delete schedules), students (enroll,
+ * read room timetable) and room representatives (makeup requests) hammering
+ * one SQLite file, and reports throughput, p50/p99 latency, SQLITE_BUSY
+ * counts and constraint violations per concurrency level. Running the
+ * levels back to back shows where the single-writer database saturates.
+ *
+ * Usage:
+ *
+ * <pre>
+ * java -cp classroom-management.jar com.classroom.tools.LoadTestDriver \
+ *     [--db loadtest.db] [--duration 10] [--levels 1,2,4,8,16]
+ *     [--coordinators 1] [--students 4] [--reps 1] [--burst 1]
+ * </pre>
+ *
+ * The role counts are multiplied by each level, so level 4 with the defaults
+ * runs 4 coordinators, 16 students and 4 reps. With {@code --burst N} each
+ * student enrollment step submits N enrollments to the database writer at
+ * once, which is where group commit pays off.
+ */
+public class LoadTestDriver {
+    static final String[] ROOMS = { "A101", "A102", "B201", "B202", "C301", "C302" };
+    static final String[] WEEKDAYS = { "Monday", "Tuesday", "Wednesday", "Thursday", "Friday" };
+    static final String[] REGULAR_SLOTS = { "08:00", "09:00", "10:00", "11:00", "13:00", "14:00",
+            "15:00", "16:00" };
+    private static final int COURSES = 40;
+    private static final int INSTRUCTORS = 20;
+    static final int STUDENTS = 600;
+
+    private final String dbFile;
+    private final int durationSeconds;
+    private final int[] levels;
+    private final int coordinators;
+    private final int students;
+    private final int reps;
+    private int enrollBurst = 1;
+
+    List<Integer> courseIds;
+    List<Integer> instructorIds;
+    List<Integer> studentIds;
+    List<Integer> repIds;
+
+    public LoadTestDriver(String dbFile, int durationSeconds, int[] levels, int coordinators, int students,
+            int reps) {
+        this.dbFile = dbFile;
+        this.durationSeconds = durationSeconds;
+        this.levels = levels;
+        this.coordinators = coordinators;
+        this.students = students;
+        this.reps = reps;
+    }
+
+    public static void main(String[] args) throws Exception {
+        String db = "loadtest.db";
+        int duration = 10;
+        int[] levels = { 1, 2, 4, 8, 16 };
+        int coordinators = 1;
+        int students = 4;
+        int reps = 1;
+        int burst = 1;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--db":
+                    db = args[++i];
+                    break;
+                case "--duration":
+                    duration = Integer.parseInt(args[++i]);
+                    break;
+                case "--levels":
+                    levels = Arrays.stream(args[++i].split(",")).mapToInt(Integer::parseInt).toArray();
+                    break;
+                case "--coordinators":
+                    coordinators = Integer.parseInt(args[++i]);
+                    break;
+                case "--students":
+                    students = Integer.parseInt(args[++i]);
+                    break;
+                case "--reps":
+                    reps = Integer.parseInt(args[++i]);
+                    break;
+                case "--burst":
+                    burst = Integer.parseInt(args[++i]);
+                    break;
+                default:
+                    System.err.println("Unknown option: " + args[i]);
+                    System.exit(2);
+            }
+        }
+
+        System.setProperty("java.awt.headless", "true");
+        LoadTestDriver driver = new LoadTestDriver(db, duration, levels, coordinators, students, reps);
+        driver.enrollBurst = burst;
+        driver.run();
+    }
+
+    public void run() throws Exception {
+        prepareDatabase();
+
+        PrintStream console = System.out;
+        PrintStream err = System.err;
+        console.printf("Load test on %s: %d s per level, roles per level = %d coordinator / %d student / %d rep%n",
+                dbFile, durationSeconds, coordinators, students, reps);
+
+        for (int level : levels) {
+            // The DAOs log every statement; keep that noise out of the measurement
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+            System.setErr(new PrintStream(OutputStream.nullOutputStream()));
+            LevelResult result;
+            try {
+                result = runLevel(level);
+            } finally {
+                System.setOut(console);
+                System.setErr(err);
+            }
+            result.print(console);
+        }
+    }
+
+    /**
+     * Recreate the scratch database and seed it. Also used by {@link ApiBenchmark}.
+     */
+    void prepareDatabase() throws SQLException {
+        File file = new File(dbFile);
+        if (file.exists() && !file.delete()) {
+            throw new IllegalStateException("Cannot remove old load-test database " + dbFile);
+        }
+        DatabaseUtil.setDatabaseUrl("jdbc:sqlite:" + dbFile);
+        DatabaseUtil.initializeDatabase();
+        seed();
+    }
+
+    private LevelResult runLevel(int level) throws InterruptedException {
+        DatabaseErrorStats.reset();
+        Map<String, LatencyRecorder> recorders = new LinkedHashMap<>();
+        for (String op : new String[] { "addSchedule", "updateSchedule", "deleteSchedule", "enrollStudent",
+                "getSchedulesByRoom", "createMakeupRequest" }) {
+            recorders.put(op, new LatencyRecorder());
+        }
+
+        int clients = level * (coordinators + students + reps);
+        // JDK 17 has no virtual threads; one platform thread per simulated client
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        AtomicBoolean running = new AtomicBoolean(true);
+
+        for (int i = 0; i < level * coordinators; i++) {
+            pool.execute(() -> coordinatorLoop(running, recorders));
+        }
+        for (int i = 0; i < level * students; i++) {
+            pool.execute(() -> studentLoop(running, recorders));
+        }
+        for (int i = 0; i < level * reps; i++) {
+            pool.execute(() -> repLoop(running, recorders));
+        }
+
+        long start = System.nanoTime();
+        Thread.sleep(TimeUnit.SECONDS.toMillis(durationSeconds));
+        running.set(false);
+        pool.shutdown();
+        pool.awaitTermination(1, TimeUnit.MINUTES);
+        double elapsed = (System.nanoTime() - start) / 1e9;
+
+        return new LevelResult(level, clients, elapsed, recorders, DatabaseErrorStats.getBusyCount(),
+                DatabaseErrorStats.getConstraintCount(), DatabaseErrorStats.getOtherCount());
+    }
+
+    private void coordinatorLoop(AtomicBoolean running, Map<String, LatencyRecorder> recorders) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<Schedule> owned = new ArrayList<>();
+
+        while (running.get()) {
+            int dice = random.nextInt(10);
+            if (dice < 5 || owned.isEmpty()) {
+                Schedule schedule = randomSchedule(random);
+                long t0 = System.nanoTime();
+                boolean ok = ScheduleDAO.addSchedule(schedule);
+                recorders.get("addSchedule").record(System.nanoTime() - t0, ok);
+                if (ok) {
+                    owned.add(schedule);
+                }
+            } else if (dice < 8) {
+                Schedule schedule = owned.get(random.nextInt(owned.size()));
+                String previousDay = schedule.getDayOfWeek();
+                String previousStart = schedule.getStartTime();
+                String previousEnd = schedule.getEndTime();
+                applyRandomSlot(schedule, random);
+                long t0 = System.nanoTime();
+                boolean ok = ScheduleDAO.updateSchedule(schedule);
+                recorders.get("updateSchedule").record(System.nanoTime() - t0, ok);
+                if (!ok) {
+                    schedule.setDayOfWeek(previousDay);
+                    schedule.setStartTime(previousStart);
+                    schedule.setEndTime(previousEnd);
+                }
+            } else {
+                Schedule schedule = owned.remove(random.nextInt(owned.size()));
+                long t0 = System.nanoTime();
+                boolean ok = ScheduleDAO.deleteSchedule(schedule.getScheduleId(), schedule.getVersion()).isSaved();
+                recorders.get("deleteSchedule").record(System.nanoTime() - t0, ok);
+            }
+        }
+    }
+
+    private void studentLoop(AtomicBoolean running, Map<String, LatencyRecorder> recorders) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        while (running.get()) {
+            if (random.nextInt(4) == 0) {
+                // A burst submits several enrollments at once and waits for all of them
+                List<CompletableFuture<Integer>> pending = new ArrayList<>(enrollBurst);
+                long t0 = System.nanoTime();
+                for (int i = 0; i < enrollBurst; i++) {
+                    int studentId = studentIds.get(random.nextInt(studentIds.size()));
+                    int courseId = courseIds.get(random.nextInt(courseIds.size()));
+                    pending.add(EnrollmentDAO.enrollStudentAsync(studentId, courseId));
+                }
+                for (CompletableFuture<Integer> future : pending) {
+                    int result = future.join();
+                    // Only database errors count as failures; the other codes are business answers
+                    recorders.get("enrollStudent").record(System.nanoTime() - t0, result != -3);
+                }
+            } else {
+                String room = ROOMS[random.nextInt(ROOMS.length)];
+                long t0 = System.nanoTime();
+                ScheduleDAO.getSchedulesByRoom(room);
+                recorders.get("getSchedulesByRoom").record(System.nanoTime() - t0, true);
+            }
+        }
+    }
+
+    private void repLoop(AtomicBoolean running, Map<String, LatencyRecorder> recorders) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        while (running.get()) {
+            MakeupRequest request = new MakeupRequest();
+            request.setRoom(ROOMS[random.nextInt(ROOMS.length)]);
+            request.setCourseId(courseIds.get(random.nextInt(courseIds.size())));
+            request.setRepId(repIds.get(random.nextInt(repIds.size())));
+            request.setInstructorId(instructorIds.get(random.nextInt(instructorIds.size())));
+            request.setRequestedDate(LocalDate.now().plusDays(1 + random.nextInt(30)));
+            request.setRequestedTime(REGULAR_SLOTS[random.nextInt(REGULAR_SLOTS.length)]);
+            request.setCourseCode("LT" + request.getCourseId());
+
+            long t0 = System.nanoTime();
+            boolean ok = MakeupRequestDAO.createMakeupRequest(request);
+            recorders.get("createMakeupRequest").record(System.nanoTime() - t0, ok);
+        }
+    }
+
+    private Schedule randomSchedule(ThreadLocalRandom random) {
+        Schedule schedule = new Schedule();
+        schedule.setCourseId(courseIds.get(random.nextInt(courseIds.size())));
+        schedule.setInstructorId(instructorIds.get(random.nextInt(instructorIds.size())));
+        schedule.setRoom(ROOMS[random.nextInt(ROOMS.length)]);
+        schedule.setProgramType("Regular");
+        applyRandomSlot(schedule, random);
+        return schedule;
+    }
+
+    private static void applyRandomSlot(Schedule schedule, ThreadLocalRandom random) {
+        String start = REGULAR_SLOTS[random.nextInt(REGULAR_SLOTS.length)];
+        schedule.setDayOfWeek(WEEKDAYS[random.nextInt(WEEKDAYS.length)]);
+        schedule.setStartTime(start);
+        schedule.setEndTime(start.substring(0, 3) + "50");
+    }
+
+    /**
+     * Populate the scratch database with courses, instructors, students and
+     * room representatives in a single transaction.
+     */
+    private void seed() throws SQLException {
+        courseIds = new ArrayList<>();
+        instructorIds = new ArrayList<>();
+        studentIds = new ArrayList<>();
+        repIds = new ArrayList<>();
+
+        try (Connection conn = DatabaseUtil.getConnection()) {
+            try (PreparedStatement course = conn.prepareStatement(
+                    "INSERT INTO Courses (course_name, course_code, description, credit_hours) VALUES (?, ?, ?, ?)")) {
+                for (int i = 0; i < COURSES; i++) {
+                    course.setString(1, "Load Test Course " + i);
+                    course.setString(2, "LT" + i);
+                    course.setString(3, "Generated by LoadTestDriver");
+                    course.setInt(4, 3);
+                    course.addBatch();
+                }
+                course.executeBatch();
+            }
+
+            try (PreparedStatement room = conn.prepareStatement("INSERT OR IGNORE INTO Rooms (name) VALUES (?)")) {
+                for (String name : ROOMS) {
+                    room.setString(1, name);
+                    room.addBatch();
+                }
+                room.executeBatch();
+            }
+
+            try (PreparedStatement user = conn.prepareStatement(
+                    "INSERT INTO users (username, password, full_name, user_type, email, program_type, assigned_room, is_room_rep, "
+                            + "room_id) VALUES (?, 'load', ?, ?, ?, 'Regular', ?, ?, "
+                            + "(SELECT room_id FROM Rooms WHERE name = ?5))")) {
+                for (int i = 0; i < INSTRUCTORS; i++) {
+                    user.setString(1, "lt_instructor" + i);
+                    user.setString(2, "Instructor " + i);
+                    user.setString(3, "instructor");
+                    user.setString(4, "lt_instructor" + i + "@example.com");
+                    user.setString(5, null);
+                    user.setBoolean(6, false);
+                    user.addBatch();
+                }
+                for (int i = 0; i < STUDENTS; i++) {
+                    String room = ROOMS[i % ROOMS.length];
+                    user.setString(1, "lt_student" + i);
+                    user.setString(2, "Student " + i);
+                    user.setString(3, "student");
+                    user.setString(4, "lt_student" + i + "@example.com");
+                    user.setString(5, room);
+                    user.setBoolean(6, i < ROOMS.length);
+                    user.addBatch();
+                }
+                user.executeBatch();
+            }
+
+            try (Statement stmt = conn.createStatement()) {
+                collect(stmt, "SELECT course_id FROM Courses", courseIds);
+                collect(stmt, "SELECT user_id FROM users WHERE user_type = 'instructor'", instructorIds);
+                collect(stmt, "SELECT user_id FROM users WHERE user_type = 'student'", studentIds);
+                collect(stmt, "SELECT user_id FROM users WHERE is_room_rep = 1", repIds);
+            }
+
+            // A published Saturday timetable with every course in some room, so
+            // enrollments have something to insert without blocking the weekday
+            // slots the coordinators book
+            try (PreparedStatement schedule = conn.prepareStatement(
+                    "INSERT INTO Schedule (course_id, instructor_id, day_of_week, start_time, end_time, room, "
+                            + "program_type, status, room_id) VALUES (?, ?, 'Saturday', ?, ?, ?, 'Regular', 'published', "
+                            + "(SELECT room_id FROM Rooms WHERE name = ?5))")) {
+                for (int i = 0; i < courseIds.size(); i++) {
+                    String start = REGULAR_SLOTS[(i / ROOMS.length) % REGULAR_SLOTS.length];
+                    schedule.setInt(1, courseIds.get(i));
+                    schedule.setInt(2, instructorIds.get(i % instructorIds.size()));
+                    schedule.setString(3, start);
+                    schedule.setString(4, start.substring(0, 3) + "50");
+                    schedule.setString(5, ROOMS[i % ROOMS.length]);
+                    schedule.addBatch();
+                }
+                schedule.executeBatch();
+            }
+            conn.commit();
+        }
+    }
+
+    private static void collect(Statement stmt, String sql, List<Integer> target) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery(sql)) {
+            while (rs.next()) {
+                target.add(rs.getInt(1));
+            }
+        }
+    }
+
+    /**
+     * Thread-safe latency sample collector for one operation type.
+     */
+    static class LatencyRecorder {
+        private long[] samples = new long[1024];
+        private int size;
+        private long failures;
+
+        synchronized void record(long nanos, boolean ok) {
+            if (size == samples.length) {
+                samples = Arrays.copyOf(samples, size * 2);
+            }
+            samples[size++] = nanos;
+            if (!ok) {
+                failures++;
+            }
+        }
+
+        synchronized long[] sortedSamples() {
+            long[] copy = Arrays.copyOf(samples, size);
+            Arrays.sort(copy);
+            return copy;
+        }
+
+        synchronized long getFailures() {
+            return failures;
+        }
+
+        static long percentile(long[] sorted, double p) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(p * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+        }
+    }
+
+    private static class LevelResult {
+        private final int level;
+        private final int clients;
+        private final double elapsedSeconds;
+        private final Map<String, LatencyRecorder> recorders;
+        private final long busy;
+        private final long constraint;
+        private final long otherErrors;
+
+        LevelResult(int level, int clients, double elapsedSeconds, Map<String, LatencyRecorder> recorders,
+                long busy, long constraint, long otherErrors) {
+            this.level = level;
+            this.clients = clients;
+            this.elapsedSeconds = elapsedSeconds;
+            this.recorders = recorders;
+            this.busy = busy;
+            this.constraint = constraint;
+            this.otherErrors = otherErrors;
+        }
+
+        void print(PrintStream out) {
+            long totalOps = 0;
+            long writeOps = 0;
+            out.println();
+            out.printf("== level %d (%d clients, %.1f s) ==%n", level, clients, elapsedSeconds);
+            out.printf("%-20s %9s %10s %10s %10s %9s%n", "operation", "count", "ops/s", "p50 ms", "p99 ms", "failed");
+            for (Map.Entry<String, LatencyRecorder> entry : recorders.entrySet()) {
+                long[] samples = entry.getValue().sortedSamples();
+                totalOps += samples.length;
+                if (!"getSchedulesByRoom".equals(entry.getKey())) {
+                    writeOps += samples.length;
+                }
+                out.printf("%-20s %9d %10.1f %10.2f %10.2f %9d%n",
+                        entry.getKey(),
+                        samples.length,
+                        samples.length / elapsedSeconds,
+                        LatencyRecorder.percentile(samples, 0.50) / 1e6,
+                        LatencyRecorder.percentile(samples, 0.99) / 1e6,
+                        entry.getValue().getFailures());
+            }
+            out.printf("total %.1f ops/s, writes %.1f ops/s%n", totalOps / elapsedSeconds,
+                    writeOps / elapsedSeconds);
+            out.printf("SQLITE_BUSY/LOCKED: %d, constraint violations: %d, other SQL errors: %d%n",
+                    busy, constraint, otherErrors);
+        }
+    }
+}
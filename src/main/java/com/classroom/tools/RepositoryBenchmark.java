@@ -0,0 +1,165 @@
+package com.classroom.tools;
+
+import com.classroom.model.Course;
+import com.classroom.model.Schedule;
+import com.classroom.model.User;
+import com.classroom.repository.Repositories;
+import com.classroom.util.DatabaseUtil;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs the same workload against the SQLite and in-memory storage backends
+ * and prints the time each phase takes on each.
+ *
+ * The workload loads courses, instructors and students, books every course
+ * into a free room slot with the checked insert, publishes the timetable,
+ * enrolls each student in their room's courses and then reads timetables
+ * and notifications back. The SQLite side runs on a scratch database file
+ * that is deleted afterwards.
+ *
+ * <pre>
+ * java -cp classroom-management.jar com.classroom.tools.RepositoryBenchmark [rooms] [students per room]
+ * </pre>
+ */
+public class RepositoryBenchmark {
+    private static final String[] DAYS = { "Monday", "Tuesday", "Wednesday", "Thursday", "Friday" };
+    private static final String[] STARTS = { "08:00", "09:00", "10:00", "11:00", "13:00", "14:00", "15:00" };
+    private static final int COURSES_PER_ROOM = 6;
+
+    public static void main(String[] args) throws Exception {
+        int rooms = args.length > 0 ? Integer.parseInt(args[0]) : 40;
+        int studentsPerRoom = args.length > 1 ? Integer.parseInt(args[1]) : 30;
+
+        System.setProperty("java.awt.headless", "true");
+        Path db = Files.createTempFile("repository-benchmark", ".db");
+        Files.delete(db);
+        DatabaseUtil.setDatabaseUrl("jdbc:sqlite:" + db.toAbsolutePath());
+
+        PrintStream console = System.out;
+        Map<String, Long> sqlite;
+        Map<String, Long> memory;
+        // The DAOs log every validation; keep the report readable
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            DatabaseUtil.initializeDatabase();
+            sqlite = run(Repositories.sqlite(), rooms, studentsPerRoom);
+            memory = run(Repositories.inMemory(), rooms, studentsPerRoom);
+        } finally {
+            System.setOut(console);
+            for (String suffix : new String[] { "", "-wal", "-shm" }) {
+                Files.deleteIfExists(Path.of(db + suffix));
+            }
+        }
+
+        System.out.printf("%d rooms, %d courses, %d students%n", rooms, rooms * COURSES_PER_ROOM,
+                rooms * studentsPerRoom);
+        System.out.printf("%-12s %12s %12s %9s%n", "phase", "sqlite ms", "memory ms", "speedup");
+        for (String phase : sqlite.keySet()) {
+            double s = sqlite.get(phase) / 1e6;
+            double m = memory.get(phase) / 1e6;
+            System.out.printf("%-12s %12.1f %12.1f %8.1fx%n", phase, s, m, m > 0 ? s / m : 0);
+        }
+    }
+
+    /**
+     * Run the workload on one backend; returns nanoseconds per phase.
+     */
+    private static Map<String, Long> run(Repositories repositories, int rooms, int studentsPerRoom) {
+        Map<String, Long> timings = new LinkedHashMap<>();
+
+        long start = System.nanoTime();
+        List<Course> courses = new ArrayList<>();
+        List<User> users = new ArrayList<>();
+        for (int r = 0; r < rooms; r++) {
+            for (int c = 0; c < COURSES_PER_ROOM; c++) {
+                courses.add(new Course(0, "Course " + r + "-" + c, code(r, c), null, 3));
+            }
+            users.add(new User(0, "instructor" + r, "password", "Instructor " + r, "instructor" + r + "@example.com",
+                    "instructor", "Regular"));
+            for (int s = 0; s < studentsPerRoom; s++) {
+                String name = "student" + r + "_" + s;
+                users.add(new User(0, name, "password", "Student " + r + "/" + s, name + "@example.com", "student",
+                        "Regular", room(r)));
+            }
+        }
+        repositories.courses().insertCourses(courses);
+        repositories.users().insertUsers(users);
+        timings.put("load", System.nanoTime() - start);
+
+        start = System.nanoTime();
+        Map<String, Integer> courseIds = repositories.courses().getCourseIdsByCode();
+        Map<String, Integer> instructorIds = repositories.users().getInstructorIdsByUsername();
+        List<Integer> scheduleIds = new ArrayList<>();
+        for (int r = 0; r < rooms; r++) {
+            for (int c = 0; c < COURSES_PER_ROOM; c++) {
+                // Each course meets twice a week in its room, taught by the room's instructor
+                for (int meeting = 0; meeting < 2; meeting++) {
+                    int slot = c * 2 + meeting;
+                    Schedule schedule = new Schedule();
+                    schedule.setCourseId(courseIds.get(code(r, c)));
+                    schedule.setInstructorId(instructorIds.get("instructor" + r));
+                    schedule.setDayOfWeek(DAYS[slot % DAYS.length]);
+                    String startTime = STARTS[slot / DAYS.length];
+                    schedule.setStartTime(startTime);
+                    schedule.setEndTime(startTime.replace(":00", ":50"));
+                    schedule.setRoom(room(r));
+                    schedule.setProgramType("Regular");
+                    if (!repositories.schedules().insertSchedule(schedule).isSaved()) {
+                        throw new IllegalStateException("Could not book " + code(r, c));
+                    }
+                    scheduleIds.add(schedule.getScheduleId());
+                }
+            }
+        }
+        timings.put("schedule", System.nanoTime() - start);
+
+        start = System.nanoTime();
+        if (!repositories.schedules().publishSchedules(scheduleIds, LocalDate.now()).isSaved()) {
+            throw new IllegalStateException("Could not publish the timetable");
+        }
+        timings.put("publish", System.nanoTime() - start);
+
+        start = System.nanoTime();
+        for (int r = 0; r < rooms; r++) {
+            for (User student : repositories.users().getStudentsByRoom(room(r))) {
+                for (int c = 0; c < COURSES_PER_ROOM; c++) {
+                    repositories.enrollments().enrollStudent(student.getUserId(), courseIds.get(code(r, c)));
+                }
+            }
+        }
+        timings.put("enroll", System.nanoTime() - start);
+
+        start = System.nanoTime();
+        long rows = 0;
+        for (int r = 0; r < rooms; r++) {
+            rows += repositories.schedules().getSchedulesByRoom(room(r)).size();
+            for (User student : repositories.users().getStudentsByRoom(room(r))) {
+                rows += repositories.schedules().getSchedulesByStudentId(student.getUserId()).size();
+                rows += repositories.notifications().getNotificationsForUser(student.getUserId(), 0, 20).size();
+                rows += repositories.notifications().getUnreadNotificationCount(student.getUserId());
+            }
+        }
+        timings.put("read", System.nanoTime() - start);
+        if (rows == 0) {
+            throw new IllegalStateException("Nothing was read back");
+        }
+        return timings;
+    }
+
+    private static String code(int room, int course) {
+        return "BM" + room + "-" + course;
+    }
+
+    private static String room(int room) {
+        return "R" + (100 + room);
+    }
+}
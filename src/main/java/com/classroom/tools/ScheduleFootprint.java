@@ -0,0 +1,134 @@
+package com.classroom.tools;
+
+import com.classroom.model.Schedule;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Heap footprint comparison between the compact {@link Schedule} and the
+ * previous all-String row layout.
+ *
+ * Both variants are filled the way ScheduleDAO fills them: every column value
+ * arrives as a fresh String, as it does from JDBC. The retained heap of N rows
+ * is measured as the used-heap delta after a forced GC, which is coarse but
+ * needs no agent (JOL is not on the classpath) and is stable for large N.
+ *
+ * <pre>
+ * java -cp classroom-management.jar com.classroom.tools.ScheduleFootprint [rows]
+ * </pre>
+ */
+public class ScheduleFootprint {
+    private static final String[] DAYS = { "Monday", "Tuesday", "Wednesday", "Thursday", "Friday" };
+    private static final String[] STARTS = { "08:00", "09:00", "10:00", "11:00", "13:00", "14:00", "15:00" };
+    private static final int ROOMS = 60;
+    private static final int COURSES = 400;
+    private static final int INSTRUCTORS = 120;
+
+    public static void main(String[] args) {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 50_000;
+
+        // Warm up class loading and the shared caches outside the measurement
+        fillCompact(1_000);
+        fillLegacy(1_000);
+
+        long legacy = measure(() -> fillLegacy(rows));
+        long compact = measure(() -> fillCompact(rows));
+
+        System.out.printf("rows:            %,d%n", rows);
+        System.out.printf("legacy layout:   %,d bytes (%.1f bytes/row)%n", legacy, (double) legacy / rows);
+        System.out.printf("compact layout:  %,d bytes (%.1f bytes/row)%n", compact, (double) compact / rows);
+        System.out.printf("saving:          %.1f%%%n", 100.0 * (legacy - compact) / legacy);
+    }
+
+    private static long measure(java.util.function.Supplier<List<?>> fill) {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        settle(memory);
+        long before = memory.getHeapMemoryUsage().getUsed();
+        List<?> retained = fill.get();
+        settle(memory);
+        long after = memory.getHeapMemoryUsage().getUsed();
+        if (retained.isEmpty()) {
+            throw new IllegalStateException("nothing retained");
+        }
+        return after - before;
+    }
+
+    private static void settle(MemoryMXBean memory) {
+        for (int i = 0; i < 3; i++) {
+            memory.gc();
+        }
+    }
+
+    private static List<?> fillCompact(int rows) {
+        List<Schedule> schedules = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            Schedule schedule = new Schedule();
+            schedule.setScheduleId(i);
+            schedule.setCourseId(i % COURSES);
+            schedule.setInstructorId(i % INSTRUCTORS);
+            schedule.setDayOfWeek(fresh(DAYS[i % DAYS.length]));
+            String start = STARTS[i % STARTS.length];
+            schedule.setStartTime(fresh(start));
+            schedule.setEndTime(fresh(start.substring(0, 3) + "50"));
+            schedule.setRoom(fresh("R" + (i % ROOMS)));
+            schedule.setProgramType(fresh("Regular"));
+            schedule.setStatus(fresh("published"));
+            schedule.setCourseDisplay(fresh("Course " + (i % COURSES)), fresh("C" + (i % COURSES)));
+            schedule.setInstructorName(fresh("Instructor " + (i % INSTRUCTORS)));
+            schedules.add(schedule);
+        }
+        return schedules;
+    }
+
+    private static List<?> fillLegacy(int rows) {
+        List<LegacySchedule> schedules = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            LegacySchedule schedule = new LegacySchedule();
+            schedule.scheduleId = i;
+            schedule.courseId = i % COURSES;
+            schedule.instructorId = i % INSTRUCTORS;
+            schedule.dayOfWeek = fresh(DAYS[i % DAYS.length]);
+            String start = STARTS[i % STARTS.length];
+            schedule.startTime = fresh(start);
+            schedule.endTime = fresh(start.substring(0, 3) + "50");
+            schedule.room = fresh("R" + (i % ROOMS));
+            schedule.programType = fresh("Regular");
+            schedule.status = fresh("published");
+            schedule.courseName = fresh("Course " + (i % COURSES));
+            schedule.courseCode = fresh("C" + (i % COURSES));
+            schedule.instructorName = fresh("Instructor " + (i % INSTRUCTORS));
+            schedule.requiredResources = new ArrayList<>();
+            schedules.add(schedule);
+        }
+        return schedules;
+    }
+
+    // JDBC hands back a new String for every column of every row
+    private static String fresh(String value) {
+        return new String(value.toCharArray());
+    }
+
+    /**
+     * Field layout of Schedule before the compact model.
+     */
+    @SuppressWarnings("unused")
+    private static class LegacySchedule {
+        int scheduleId;
+        int courseId;
+        int instructorId;
+        String dayOfWeek;
+        String startTime;
+        String endTime;
+        String room;
+        String programType;
+        String status;
+        String publishDate;
+        String courseName;
+        String courseCode;
+        String instructorName;
+        List<Object> requiredResources;
+    }
+}
@@ -1,12 +1,18 @@
 package com.classroom.ui;
 
 import com.classroom.dao.CourseDAO;
+import com.classroom.dao.EnrollmentDAO;
 import com.classroom.dao.ScheduleDAO;
+import com.classroom.dao.TimetableClashDAO;
 import com.classroom.dao.UserDAO;
 import com.classroom.model.Course;
 import com.classroom.model.Schedule;
+import com.classroom.model.StudentClash;
 import com.classroom.model.User;
 import com.classroom.ui.components.CalendarPanel;
+import com.classroom.ui.components.ExamTimetablePanel;
+import com.classroom.ui.components.NotificationBadge;
+import com.classroom.ui.components.NotificationInboxPanel;
 import com.classroom.ui.components.RepresentativeManagementPanel;
 import com.classroom.ui.components.ResourceAvailabilityPanel;
 import com.classroom.ui.components.RevisionRequestManagementPanel;
@@ -18,7 +24,9 @@ import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Dashboard for coordinator/instructor users.
@@ -35,6 +43,8 @@ public class CoordinatorDashboard extends JFrame implements ActionListener {
     // Schedule management components
     private JTable schedulesTable;
     private DefaultTableModel schedulesTableModel;
+    // Version of each row as loaded into the table, so a delete fails if someone changed it since
+    private final Map<Integer, Integer> scheduleVersions = new HashMap<>();
     private JButton addScheduleButton;
     private JButton editScheduleButton;
     private JButton deleteScheduleButton;
@@ -44,6 +54,8 @@ public class CoordinatorDashboard extends JFrame implements ActionListener {
     private DefaultTableModel coursesTableModel;
     private JButton addCourseButton;
     private JButton refreshCoursesButton;
+    private JButton importButton;
+    private JButton exportButton;
 
     // Student management components
     private JTable studentsTable;
@@ -93,6 +105,10 @@ public class CoordinatorDashboard extends JFrame implements ActionListener {
                 "Manage room representatives");
         tabbedPane.addTab("Revision Requests", new ImageIcon(), new RevisionRequestManagementPanel(),
                 "Handle schedule revision requests from instructors");
+        tabbedPane.addTab("Exams", new ImageIcon(), new ExamTimetablePanel(currentUser),
+                "Generate and view the exam timetable");
+        tabbedPane.addTab("Notifications", new ImageIcon(), new NotificationInboxPanel(currentUser),
+                "Read your notifications");
         tabbedPane.addTab("Profile", new ImageIcon(), profilePanel, "View and edit your profile");
 
         // Add components to main panel
@@ -124,6 +140,8 @@ public class CoordinatorDashboard extends JFrame implements ActionListener {
         logoutButton.setForeground(ColorScheme.PRIMARY);
         logoutButton.addActionListener(e -> logout());
 
+        userInfoPanel.add(new NotificationBadge(currentUser));
+        userInfoPanel.add(Box.createHorizontalStrut(20));
         userInfoPanel.add(userLabel);
         userInfoPanel.add(Box.createHorizontalStrut(10));
         userInfoPanel.add(logoutButton);
@@ -248,15 +266,23 @@ public class CoordinatorDashboard extends JFrame implements ActionListener {
 
         addCourseButton = new JButton("Add Course");
         refreshCoursesButton = new JButton("Refresh");
+        importButton = new JButton("Import...");
+        exportButton = new JButton("Export...");
 
         UIUtils.styleButton(addCourseButton, ColorScheme.PRIMARY);
         UIUtils.styleButton(refreshCoursesButton, ColorScheme.SECONDARY);
+        UIUtils.styleButton(importButton, ColorScheme.ACCENT);
+        UIUtils.styleButton(exportButton, ColorScheme.ACCENT);
 
         addCourseButton.addActionListener(this);
         refreshCoursesButton.addActionListener(this);
+        importButton.addActionListener(this);
+        exportButton.addActionListener(this);
 
         buttonsPanel.add(addCourseButton);
         buttonsPanel.add(refreshCoursesButton);
+        buttonsPanel.add(importButton);
+        buttonsPanel.add(exportButton);
 
         panel.add(titleLabel, BorderLayout.NORTH);
         panel.add(new JScrollPane(coursesTable), BorderLayout.CENTER);
@@ -349,6 +375,16 @@ public class CoordinatorDashboard extends JFrame implements ActionListener {
         filterPanel.add(Box.createHorizontalStrut(10));
         filterPanel.add(assignRoomButton);
 
+        JButton enrollRoomButton = new JButton("Enroll Room");
+        UIUtils.styleButton(enrollRoomButton, ColorScheme.SECONDARY);
+        enrollRoomButton.addActionListener(e -> showEnrollRoomDialog());
+        filterPanel.add(enrollRoomButton);
+
+        JButton clashesButton = new JButton("Check Clashes");
+        UIUtils.styleButton(clashesButton, ColorScheme.SECONDARY);
+        clashesButton.addActionListener(e -> showClashReport());
+        filterPanel.add(clashesButton);
+
         headerPanel.add(titleLabel, BorderLayout.WEST);
         headerPanel.add(filterPanel, BorderLayout.EAST);
 
@@ -573,15 +609,138 @@ public class CoordinatorDashboard extends JFrame implements ActionListener {
         }
     }
 
+    /**
+     * Enroll a whole room (optionally one program type) in its scheduled
+     * courses, after showing a dry-run preview of what will change.
+     */
+    private void showEnrollRoomDialog() {
+        List<String> rooms = ScheduleDAO.getAllRooms();
+        if (rooms.isEmpty()) {
+            JOptionPane.showMessageDialog(this, "No rooms have schedules yet", "Enroll Room",
+                    JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        JComboBox<String> roomCombo = new JComboBox<>(rooms.toArray(new String[0]));
+        JComboBox<String> programCombo = new JComboBox<>(new String[] { "All Programs", "Regular", "Evening" });
+
+        int choice = JOptionPane.showConfirmDialog(this,
+                new Object[] { "Room:", roomCombo, "Program type:", programCombo },
+                "Enroll Room",
+                JOptionPane.OK_CANCEL_OPTION,
+                JOptionPane.QUESTION_MESSAGE);
+        if (choice != JOptionPane.OK_OPTION) {
+            return;
+        }
+        String room = (String) roomCombo.getSelectedItem();
+        String programType = programCombo.getSelectedIndex() == 0 ? null : (String) programCombo.getSelectedItem();
+
+        EnrollmentDAO.BulkEnrollmentResult preview = EnrollmentDAO.enrollRoom(room, programType, true);
+        if (preview == null) {
+            JOptionPane.showMessageDialog(this, "Could not preview enrollment", "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        if (preview.enrolledCount == 0) {
+            JOptionPane.showMessageDialog(this,
+                    "Nothing to do: every student in " + room + " is already enrolled in the room's courses",
+                    "Enroll Room",
+                    JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+
+        Map<Integer, String> courseCodes = new HashMap<>();
+        for (Course course : CourseDAO.getAllCourses()) {
+            courseCodes.put(course.getCourseId(), course.getCourseCode());
+        }
+        DefaultTableModel previewModel = new DefaultTableModel(
+                new Object[] { "Student", "Will enroll in", "Already enrolled", "Skipped (clash)" }, 0);
+        for (EnrollmentDAO.StudentEnrollment student : preview.students) {
+            previewModel.addRow(new Object[] {
+                    student.studentName,
+                    courseList(student.enrolledCourseIds, courseCodes),
+                    courseList(student.alreadyEnrolledCourseIds, courseCodes),
+                    courseList(student.clashingCourseIds, courseCodes)
+            });
+        }
+        JScrollPane previewPane = new JScrollPane(new JTable(previewModel));
+        previewPane.setPreferredSize(new Dimension(600, 300));
+
+        choice = JOptionPane.showConfirmDialog(this,
+                new Object[] {
+                        preview.enrolledCount + " enrollments will be created for " + preview.students.size()
+                                + " students in " + room + ".",
+                        previewPane
+                },
+                "Confirm Enrollment",
+                JOptionPane.OK_CANCEL_OPTION,
+                JOptionPane.PLAIN_MESSAGE);
+        if (choice != JOptionPane.OK_OPTION) {
+            return;
+        }
+
+        EnrollmentDAO.BulkEnrollmentResult result = EnrollmentDAO.enrollRoom(room, programType, false);
+        if (result == null) {
+            JOptionPane.showMessageDialog(this, "Failed to enroll room", "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        JOptionPane.showMessageDialog(this,
+                result.enrolledCount + " enrollments created for " + result.students.size() + " students",
+                "Success",
+                JOptionPane.INFORMATION_MESSAGE);
+        loadStudentsData();
+        calendarPanel.refreshCalendar();
+    }
+
+    /**
+     * List every student enrolled in two courses that meet at the same time.
+     */
+    private void showClashReport() {
+        List<StudentClash> clashes = TimetableClashDAO.findAllClashes();
+        if (clashes.isEmpty()) {
+            JOptionPane.showMessageDialog(this, "No student has overlapping courses", "Timetable Clashes",
+                    JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+
+        DefaultTableModel clashModel = new DefaultTableModel(
+                new Object[] { "Student", "Course", "Clashes with", "When" }, 0);
+        for (StudentClash clash : clashes) {
+            clashModel.addRow(new Object[] {
+                    clash.getStudentName(),
+                    clash.getCourseCode(),
+                    clash.getOtherCourseCode(),
+                    clash.getOverlap()
+            });
+        }
+        JScrollPane clashPane = new JScrollPane(new JTable(clashModel));
+        clashPane.setPreferredSize(new Dimension(600, 300));
+        JOptionPane.showMessageDialog(this,
+                new Object[] { clashes.size() + " clashing course pairs found.", clashPane },
+                "Timetable Clashes",
+                JOptionPane.WARNING_MESSAGE);
+    }
+
+    private static String courseList(List<Integer> courseIds, Map<Integer, String> courseCodes) {
+        StringBuilder sb = new StringBuilder();
+        for (int courseId : courseIds) {
+            if (sb.length() > 0) {
+                sb.append(", ");
+            }
+            sb.append(courseCodes.getOrDefault(courseId, "#" + courseId));
+        }
+        return sb.toString();
+    }
+
     private void loadSchedulesData() {
         // Clear table
         schedulesTableModel.setRowCount(0);
+        scheduleVersions.clear();
 
         // Get all schedules
         List<Schedule> schedules = ScheduleDAO.getAllSchedulesWithDetails();
 
         // Add to table
         for (Schedule schedule : schedules) {
+            scheduleVersions.put(schedule.getScheduleId(), schedule.getVersion());
             schedulesTableModel.addRow(new Object[] {
                     schedule.getScheduleId(),
                     schedule.getCourseCode() + " - " + schedule.getCourseName(),
@@ -622,6 +781,21 @@ public class CoordinatorDashboard extends JFrame implements ActionListener {
             showAddCourseDialog();
         } else if (e.getSource() == refreshCoursesButton) {
             loadCoursesData();
+        } else if (e.getSource() == importButton) {
+            showImportDialog();
+        } else if (e.getSource() == exportButton) {
+            new ExportDialog(this).setVisible(true);
+        }
+    }
+
+    private void showImportDialog() {
+        ImportDialog dialog = new ImportDialog(this);
+        dialog.setVisible(true);
+
+        if (dialog.hasImported()) {
+            loadCoursesData();
+            loadSchedulesData();
+            calendarPanel.refreshCalendar();
         }
     }
 
@@ -690,15 +864,25 @@ public class CoordinatorDashboard extends JFrame implements ActionListener {
                 JOptionPane.YES_NO_OPTION);
 
         if (option == JOptionPane.YES_OPTION) {
-            boolean success = ScheduleDAO.deleteSchedule(scheduleId);
+            ScheduleDAO.WriteResult result = ScheduleDAO.deleteSchedule(scheduleId,
+                    scheduleVersions.getOrDefault(scheduleId, 0));
 
-            if (success) {
+            if (result.isSaved()) {
                 loadSchedulesData();
                 calendarPanel.refreshCalendar();
                 JOptionPane.showMessageDialog(this,
                         "Schedule deleted successfully",
                         "Success",
                         JOptionPane.INFORMATION_MESSAGE);
+            } else if (result.status == ScheduleDAO.WriteResult.Status.STALE
+                    || result.status == ScheduleDAO.WriteResult.Status.NOT_FOUND) {
+                // Show what is stored now before the user decides again
+                loadSchedulesData();
+                calendarPanel.refreshCalendar();
+                JOptionPane.showMessageDialog(this,
+                        result.message,
+                        "Schedule Changed",
+                        JOptionPane.WARNING_MESSAGE);
             } else {
                 JOptionPane.showMessageDialog(this,
                         "Failed to delete schedule",
@@ -0,0 +1,196 @@
+package com.classroom.ui;
+
+import com.classroom.dao.ScheduleDAO;
+import com.classroom.io.Exporter;
+import com.classroom.util.ColorScheme;
+import com.classroom.util.UIUtils;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.io.File;
+import java.util.List;
+
+/**
+ * Dialog for exporting the schedule, a room timetable or a course roster as
+ * CSV, JSON Lines or iCalendar, optionally gzipped.
+ */
+public class ExportDialog extends JDialog implements ActionListener {
+    private JComboBox<Exporter.Dataset> datasetCombo;
+    private JComboBox<String> keyCombo;
+    private JLabel keyLabel;
+    private JComboBox<Exporter.Format> formatCombo;
+    private JCheckBox gzipCheckBox;
+    private JLabel statusLabel;
+    private JButton exportButton;
+    private JButton closeButton;
+
+    public ExportDialog(JFrame parent) {
+        super(parent, "Export Data", true);
+
+        setSize(480, 280);
+        setLocationRelativeTo(parent);
+        setResizable(false);
+
+        initComponents();
+        updateKeyChoices();
+    }
+
+    private void initComponents() {
+        JPanel mainPanel = new JPanel(new BorderLayout());
+        mainPanel.setBackground(Color.WHITE);
+        mainPanel.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
+
+        JPanel formPanel = new JPanel(new GridBagLayout());
+        formPanel.setBackground(Color.WHITE);
+        GridBagConstraints gbc = new GridBagConstraints();
+        gbc.insets = new Insets(5, 5, 5, 5);
+        gbc.fill = GridBagConstraints.HORIZONTAL;
+
+        // Dataset
+        gbc.gridx = 0;
+        gbc.gridy = 0;
+        formPanel.add(new JLabel("Export:"), gbc);
+
+        gbc.gridx = 1;
+        gbc.weightx = 1.0;
+        datasetCombo = new JComboBox<>(Exporter.Dataset.values());
+        datasetCombo.addActionListener(this);
+        formPanel.add(datasetCombo, gbc);
+
+        // Room or course code
+        gbc.gridx = 0;
+        gbc.gridy = 1;
+        gbc.weightx = 0.0;
+        keyLabel = new JLabel("Room:");
+        formPanel.add(keyLabel, gbc);
+
+        gbc.gridx = 1;
+        gbc.weightx = 1.0;
+        keyCombo = new JComboBox<>();
+        keyCombo.setEditable(true);
+        formPanel.add(keyCombo, gbc);
+
+        // Format
+        gbc.gridx = 0;
+        gbc.gridy = 2;
+        gbc.weightx = 0.0;
+        formPanel.add(new JLabel("Format:"), gbc);
+
+        gbc.gridx = 1;
+        gbc.weightx = 1.0;
+        formatCombo = new JComboBox<>(Exporter.Format.values());
+        formPanel.add(formatCombo, gbc);
+
+        gbc.gridx = 1;
+        gbc.gridy = 3;
+        gzipCheckBox = new JCheckBox("Compress (gzip)");
+        gzipCheckBox.setBackground(Color.WHITE);
+        formPanel.add(gzipCheckBox, gbc);
+
+        gbc.gridx = 0;
+        gbc.gridy = 4;
+        gbc.gridwidth = 2;
+        statusLabel = new JLabel(" ");
+        formPanel.add(statusLabel, gbc);
+
+        // Button panel
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        buttonPanel.setBackground(Color.WHITE);
+
+        exportButton = new JButton("Export...");
+        closeButton = new JButton("Close");
+
+        UIUtils.styleButton(exportButton, ColorScheme.PRIMARY);
+        UIUtils.styleButton(closeButton, ColorScheme.SECONDARY);
+
+        exportButton.addActionListener(this);
+        closeButton.addActionListener(this);
+
+        buttonPanel.add(exportButton);
+        buttonPanel.add(closeButton);
+
+        mainPanel.add(formPanel, BorderLayout.CENTER);
+        mainPanel.add(buttonPanel, BorderLayout.SOUTH);
+
+        setContentPane(mainPanel);
+    }
+
+    @Override
+    public void actionPerformed(ActionEvent e) {
+        if (e.getSource() == datasetCombo) {
+            updateKeyChoices();
+        } else if (e.getSource() == exportButton) {
+            startExport();
+        } else if (e.getSource() == closeButton) {
+            dispose();
+        }
+    }
+
+    private void updateKeyChoices() {
+        Exporter.Dataset dataset = (Exporter.Dataset) datasetCombo.getSelectedItem();
+        keyCombo.removeAllItems();
+        keyCombo.setEnabled(dataset.isKeyed());
+        if (dataset == Exporter.Dataset.ROOM_TIMETABLE) {
+            keyLabel.setText("Room:");
+            for (String room : ScheduleDAO.getAllRooms()) {
+                keyCombo.addItem(room);
+            }
+        } else {
+            keyLabel.setText("Course Code:");
+        }
+    }
+
+    private void startExport() {
+        Exporter.Dataset dataset = (Exporter.Dataset) datasetCombo.getSelectedItem();
+        Exporter.Format format = (Exporter.Format) formatCombo.getSelectedItem();
+        Object selectedKey = keyCombo.getSelectedItem();
+        String key = selectedKey != null ? selectedKey.toString().trim() : "";
+        if (dataset.isKeyed() && key.isEmpty()) {
+            JOptionPane.showMessageDialog(this,
+                    "Please enter the " + keyLabel.getText().replace(":", "").toLowerCase() + " to export",
+                    "Missing Information",
+                    JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        boolean gzip = gzipCheckBox.isSelected();
+
+        JFileChooser chooser = new JFileChooser();
+        String baseName = dataset.isKeyed() ? key.replaceAll("[^A-Za-z0-9_-]", "_") : "schedules";
+        chooser.setSelectedFile(new File(baseName + "." + format.getExtension() + (gzip ? ".gz" : "")));
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        File file = chooser.getSelectedFile();
+
+        exportButton.setEnabled(false);
+        statusLabel.setText("Exporting...");
+
+        new SwingWorker<Long, Long>() {
+            @Override
+            protected Long doInBackground() throws Exception {
+                return Exporter.export(dataset, key, format, file.toPath(), gzip, this::publish);
+            }
+
+            @Override
+            protected void process(List<Long> chunks) {
+                statusLabel.setText(String.format("Exporting... %,d rows", chunks.get(chunks.size() - 1)));
+            }
+
+            @Override
+            protected void done() {
+                exportButton.setEnabled(true);
+                try {
+                    statusLabel.setText(String.format("Exported %,d rows to %s", get(), file.getName()));
+                } catch (Exception e) {
+                    e.printStackTrace();
+                    statusLabel.setText(" ");
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    JOptionPane.showMessageDialog(ExportDialog.this,
+                            "Failed to export: " + cause.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        }.execute();
+    }
+}
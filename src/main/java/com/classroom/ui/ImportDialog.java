@@ -0,0 +1,224 @@
+package com.classroom.ui;
+
+import com.classroom.io.BulkImporter;
+import com.classroom.io.ImportReport;
+import com.classroom.util.ColorScheme;
+import com.classroom.util.UIUtils;
+
+import javax.swing.*;
+import javax.swing.filechooser.FileNameExtensionFilter;
+import java.awt.*;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Dialog for importing courses, users, schedules or rooms from a CSV or JSON file,
+ * with live progress and a downloadable report of the rejected rows.
+ */
+public class ImportDialog extends JDialog implements ActionListener {
+    private JComboBox<BulkImporter.Kind> kindCombo;
+    private JTextField fileField;
+    private JButton browseButton;
+    private JProgressBar progressBar;
+    private JLabel statusLabel;
+    private JButton importButton;
+    private JButton saveErrorsButton;
+    private JButton closeButton;
+    private ImportReport lastReport;
+    private boolean imported = false;
+
+    public ImportDialog(JFrame parent) {
+        super(parent, "Import Data", true);
+
+        setSize(520, 260);
+        setLocationRelativeTo(parent);
+        setResizable(false);
+
+        initComponents();
+    }
+
+    private void initComponents() {
+        JPanel mainPanel = new JPanel(new BorderLayout());
+        mainPanel.setBackground(Color.WHITE);
+        mainPanel.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
+
+        JPanel formPanel = new JPanel(new GridBagLayout());
+        formPanel.setBackground(Color.WHITE);
+        GridBagConstraints gbc = new GridBagConstraints();
+        gbc.insets = new Insets(5, 5, 5, 5);
+        gbc.fill = GridBagConstraints.HORIZONTAL;
+
+        // Data type
+        gbc.gridx = 0;
+        gbc.gridy = 0;
+        formPanel.add(new JLabel("Import:"), gbc);
+
+        gbc.gridx = 1;
+        gbc.gridwidth = 2;
+        gbc.weightx = 1.0;
+        kindCombo = new JComboBox<>(BulkImporter.Kind.values());
+        formPanel.add(kindCombo, gbc);
+
+        // File
+        gbc.gridx = 0;
+        gbc.gridy = 1;
+        gbc.gridwidth = 1;
+        gbc.weightx = 0.0;
+        formPanel.add(new JLabel("File:"), gbc);
+
+        gbc.gridx = 1;
+        gbc.weightx = 1.0;
+        fileField = new JTextField(20);
+        UIUtils.styleTextField(fileField);
+        formPanel.add(fileField, gbc);
+
+        gbc.gridx = 2;
+        gbc.weightx = 0.0;
+        browseButton = new JButton("Browse...");
+        UIUtils.styleButton(browseButton, ColorScheme.SECONDARY);
+        browseButton.addActionListener(this);
+        formPanel.add(browseButton, gbc);
+
+        // Progress
+        gbc.gridx = 0;
+        gbc.gridy = 2;
+        gbc.gridwidth = 3;
+        progressBar = new JProgressBar();
+        progressBar.setStringPainted(true);
+        progressBar.setString("");
+        formPanel.add(progressBar, gbc);
+
+        gbc.gridy = 3;
+        statusLabel = new JLabel(" ");
+        formPanel.add(statusLabel, gbc);
+
+        // Button panel
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        buttonPanel.setBackground(Color.WHITE);
+
+        importButton = new JButton("Import");
+        saveErrorsButton = new JButton("Save Errors...");
+        closeButton = new JButton("Close");
+
+        UIUtils.styleButton(importButton, ColorScheme.PRIMARY);
+        UIUtils.styleButton(saveErrorsButton, ColorScheme.ACCENT);
+        UIUtils.styleButton(closeButton, ColorScheme.SECONDARY);
+
+        importButton.addActionListener(this);
+        saveErrorsButton.addActionListener(this);
+        closeButton.addActionListener(this);
+        saveErrorsButton.setEnabled(false);
+
+        buttonPanel.add(importButton);
+        buttonPanel.add(saveErrorsButton);
+        buttonPanel.add(closeButton);
+
+        mainPanel.add(formPanel, BorderLayout.CENTER);
+        mainPanel.add(buttonPanel, BorderLayout.SOUTH);
+
+        setContentPane(mainPanel);
+    }
+
+    @Override
+    public void actionPerformed(ActionEvent e) {
+        if (e.getSource() == browseButton) {
+            chooseFile();
+        } else if (e.getSource() == importButton) {
+            startImport();
+        } else if (e.getSource() == saveErrorsButton) {
+            saveErrors();
+        } else if (e.getSource() == closeButton) {
+            dispose();
+        }
+    }
+
+    private void chooseFile() {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setFileFilter(new FileNameExtensionFilter("CSV or JSON files", "csv", "json", "jsonl", "ndjson",
+                "gz"));
+        if (chooser.showOpenDialog(this) == JFileChooser.APPROVE_OPTION) {
+            fileField.setText(chooser.getSelectedFile().getAbsolutePath());
+        }
+    }
+
+    private void startImport() {
+        String path = fileField.getText().trim();
+        if (path.isEmpty() || !new File(path).isFile()) {
+            JOptionPane.showMessageDialog(this,
+                    "Please choose a file to import",
+                    "Missing Information",
+                    JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+
+        BulkImporter.Kind kind = (BulkImporter.Kind) kindCombo.getSelectedItem();
+        importButton.setEnabled(false);
+        closeButton.setEnabled(false);
+        saveErrorsButton.setEnabled(false);
+        progressBar.setIndeterminate(true);
+        progressBar.setString("Importing " + kind + "...");
+        statusLabel.setText(" ");
+
+        new SwingWorker<ImportReport, ImportReport>() {
+            @Override
+            protected ImportReport doInBackground() throws IOException {
+                return BulkImporter.importFile(kind, new File(path).toPath(), this::publish);
+            }
+
+            @Override
+            protected void process(List<ImportReport> chunks) {
+                ImportReport report = chunks.get(chunks.size() - 1);
+                statusLabel.setText(String.format("%,d read, %,d imported, %,d rejected",
+                        report.getRowsRead(), report.getImported(), report.getRejected()));
+            }
+
+            @Override
+            protected void done() {
+                importButton.setEnabled(true);
+                closeButton.setEnabled(true);
+                progressBar.setIndeterminate(false);
+                try {
+                    lastReport = get();
+                } catch (Exception e) {
+                    e.printStackTrace();
+                    progressBar.setString("Import failed");
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    JOptionPane.showMessageDialog(ImportDialog.this,
+                            "Failed to import: " + cause.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+                    return;
+                }
+
+                imported |= lastReport.getImported() > 0;
+                progressBar.setValue(progressBar.getMaximum());
+                progressBar.setString("Done");
+                statusLabel.setText(lastReport.summary());
+                saveErrorsButton.setEnabled(lastReport.getRejected() > 0);
+            }
+        }.execute();
+    }
+
+    private void saveErrors() {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setSelectedFile(new File("import-errors.csv"));
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        try {
+            lastReport.writeErrorReport(chooser.getSelectedFile().toPath());
+        } catch (IOException e) {
+            e.printStackTrace();
+            JOptionPane.showMessageDialog(this,
+                    "Failed to save the error report: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    /**
+     * Whether any rows were imported, so the caller knows to refresh.
+     */
+    public boolean hasImported() {
+        return imported;
+    }
+}
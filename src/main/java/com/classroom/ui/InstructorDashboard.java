@@ -8,6 +8,8 @@ import com.classroom.util.UIUtils;
 import com.classroom.ui.components.CalendarPanel;
 import com.classroom.ui.components.MakeupApprovalPanel;
 import com.classroom.ui.components.DraftSchedulePanel;
+import com.classroom.ui.components.NotificationBadge;
+import com.classroom.ui.components.NotificationInboxPanel;
 
 public class InstructorDashboard extends JFrame {
     private User currentUser;
@@ -48,6 +50,8 @@ public class InstructorDashboard extends JFrame {
                 "View and request revisions for draft schedules");
         tabbedPane.addTab("Makeup Requests", new ImageIcon(), new MakeupApprovalPanel(currentUser),
                 "Manage makeup class requests");
+        tabbedPane.addTab("Notifications", new ImageIcon(), new NotificationInboxPanel(currentUser),
+                "Read your notifications");
         tabbedPane.addTab("Profile", new ImageIcon(), profilePanel, "View and edit your profile");
 
         // Add components to main panel
@@ -74,8 +78,14 @@ public class InstructorDashboard extends JFrame {
             this.dispose();
         });
 
+        JPanel userInfoPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        userInfoPanel.setOpaque(false);
+        userInfoPanel.add(new NotificationBadge(currentUser));
+        userInfoPanel.add(Box.createHorizontalStrut(10));
+        userInfoPanel.add(logoutButton);
+
         headerPanel.add(welcomeLabel, BorderLayout.WEST);
-        headerPanel.add(logoutButton, BorderLayout.EAST);
+        headerPanel.add(userInfoPanel, BorderLayout.EAST);
 
         return headerPanel;
     }
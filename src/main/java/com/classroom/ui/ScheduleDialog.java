@@ -342,6 +342,10 @@ public class ScheduleDialog extends JDialog implements ActionListener {
         // Create schedule object
         Schedule schedule = new Schedule();
         schedule.setScheduleId(scheduleId);
+        if (!isNewSchedule) {
+            // The version that was loaded, so the update can tell whether someone else saved in between
+            schedule.setVersion(this.schedule.getVersion());
+        }
         schedule.setCourseId(((Course) courseCombo.getSelectedItem()).getCourseId());
         schedule.setInstructorId(((User) instructorCombo.getSelectedItem()).getUserId());
         schedule.setDayOfWeek((String) dayCombo.getSelectedItem());
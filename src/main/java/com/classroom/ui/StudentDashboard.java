@@ -7,6 +7,8 @@ import com.classroom.dao.ScheduleDAO;
 import com.classroom.dao.UserDAO;
 import com.classroom.util.DatabaseUtil;
 import com.classroom.ui.components.MakeupRequestPanel;
+import com.classroom.ui.components.NotificationBadge;
+import com.classroom.ui.components.NotificationInboxPanel;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
@@ -16,6 +18,7 @@ import java.util.List;
 
 import com.classroom.dao.EnrollmentDAO;
 import com.classroom.ui.components.CalendarPanel;
+import com.classroom.ui.components.ExamTimetablePanel;
 import com.classroom.util.ColorScheme;
 import com.classroom.util.UIUtils;
 
@@ -64,12 +67,15 @@ public class StudentDashboard extends JFrame {
 
         tabbedPane.addTab("Schedule", new ImageIcon(), new JScrollPane(calendarPanel), "View your weekly schedule");
         tabbedPane.addTab("My Courses", new ImageIcon(), new JScrollPane(coursesPanel), "View your enrolled courses");
+        tabbedPane.addTab("Exams", new ImageIcon(), new ExamTimetablePanel(currentUser), "View your exam timetable");
 
         // Add Makeup tab if user is a room representative
         if (UserDAO.isRoomRep(currentUser.getUserId())) {
             tabbedPane.addTab("Makeup", new ImageIcon(), new MakeupRequestPanel(currentUser), "Request makeup classes");
         }
 
+        tabbedPane.addTab("Notifications", new ImageIcon(), new NotificationInboxPanel(currentUser),
+                "Read your notifications");
         tabbedPane.addTab("Profile", new ImageIcon(), new JScrollPane(profilePanel), "View and edit your profile");
 
         // Add components to main panel
@@ -112,6 +118,8 @@ public class StudentDashboard extends JFrame {
         logoutButton.setForeground(ColorScheme.PRIMARY);
         logoutButton.addActionListener(e -> logout());
 
+        userInfoPanel.add(new NotificationBadge(currentUser));
+        userInfoPanel.add(Box.createHorizontalStrut(20));
         userInfoPanel.add(roomLabel);
         userInfoPanel.add(Box.createHorizontalStrut(20));
         userInfoPanel.add(userLabel);
@@ -292,6 +300,12 @@ public class StudentDashboard extends JFrame {
                                         "Course Not Available",
                                         JOptionPane.WARNING_MESSAGE);
                                 break;
+                            case -4:
+                                JOptionPane.showMessageDialog(dialog,
+                                        "This course meets at the same time as a course you are already enrolled in",
+                                        "Timetable Clash",
+                                        JOptionPane.WARNING_MESSAGE);
+                                break;
                             default:
                                 JOptionPane.showMessageDialog(dialog,
                                         "Failed to enroll in the course. Please try again later.",
@@ -422,6 +436,12 @@ public class StudentDashboard extends JFrame {
                                 "Course Not Available",
                                 JOptionPane.WARNING_MESSAGE);
                         break;
+                    case -4:
+                        JOptionPane.showMessageDialog(this,
+                                "This course meets at the same time as a course you are already enrolled in",
+                                "Timetable Clash",
+                                JOptionPane.WARNING_MESSAGE);
+                        break;
                     default:
                         JOptionPane.showMessageDialog(this,
                                 "Failed to enroll in the course. Please try again later.",
@@ -613,7 +633,7 @@ public class StudentDashboard extends JFrame {
     // Add this method to refresh all components
     public void refreshAll() {
         // Refresh user data from database
-        try (Connection conn = DatabaseUtil.getConnection()) {
+        try (Connection conn = DatabaseUtil.getReadConnection()) {
             String sql = "SELECT * FROM Users WHERE user_id = ?";
             PreparedStatement pstmt = conn.prepareStatement(sql);
             pstmt.setInt(1, currentUser.getUserId());
@@ -1,8 +1,10 @@
 package com.classroom.ui.components;
 
+import com.classroom.dao.ChangeLogDAO;
 import com.classroom.dao.ScheduleDAO;
 import com.classroom.model.Schedule;
 import com.classroom.model.User;
+import com.classroom.monitoring.CalendarRebuildEvent;
 import com.classroom.util.ColorScheme;
 
 import javax.swing.*;
@@ -10,6 +12,8 @@ import java.awt.*;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
 
 /**
  * Component for displaying the schedule in a calendar format.
@@ -23,6 +27,18 @@ public class CalendarPanel extends JPanel {
     private JComboBox<String> statusFilter;
     private String selectedRoom;
 
+    // Incremental sync: poll the change log instead of reloading on a timer.
+    // Database work runs on SwingWorkers; these fields are only touched on the EDT.
+    private static final int CHANGE_POLL_MS = 5000;
+    private static final int CHANGE_POLL_LIMIT = 500;
+    private final String syncClientId = "calendar-" + UUID.randomUUID();
+    private Timer changePoller;
+    private long lastChangeSeq = -1;
+    private boolean polling;
+    private int reloadGeneration;
+    // Read by workers, so a poll finishing after the panel closes does not register it again
+    private volatile boolean active = true;
+
     // Time slots
     private static final String[] REGULAR_TIMES = {
             "08:00", "09:00", "10:00", "11:00", "12:00",
@@ -50,6 +66,73 @@ public class CalendarPanel extends JPanel {
 
         initComponents();
         refreshCalendar();
+
+        changePoller = new Timer(CHANGE_POLL_MS, e -> pollChanges());
+    }
+
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        active = true;
+        changePoller.start();
+    }
+
+    @Override
+    public void removeNotify() {
+        changePoller.stop();
+        active = false;
+        new SwingWorker<Void, Void>() {
+            @Override
+            protected Void doInBackground() {
+                ChangeLogDAO.unregister(syncClientId);
+                return null;
+            }
+        }.execute();
+        super.removeNotify();
+    }
+
+    /**
+     * Reload the calendar only if schedules or enrollments changed since the
+     * last load. Otherwise acknowledge the latest position, which also tells
+     * {@link ChangeLogDAO#pruneAcknowledged()} this panel is still alive. The
+     * log is read off the EDT.
+     */
+    private void pollChanges() {
+        if (polling || lastChangeSeq < 0) {
+            return; // Previous poll or first load still running
+        }
+        polling = true;
+        long since = lastChangeSeq;
+        new SwingWorker<Long, Void>() {
+            @Override
+            protected Long doInBackground() {
+                // Read before the check, so a change committed in between is not acknowledged unseen
+                long latest = ChangeLogDAO.getLatestSequence();
+                if (!ChangeLogDAO.getChangesSince(since, CHANGE_POLL_LIMIT, "Schedule", "Enrollments").isEmpty()
+                        || ChangeLogDAO.isResyncRequired(since)) {
+                    return -1L;
+                }
+                if (active) {
+                    ChangeLogDAO.acknowledge(syncClientId, latest);
+                }
+                return latest;
+            }
+
+            @Override
+            protected void done() {
+                polling = false;
+                try {
+                    long latest = get();
+                    if (latest < 0) {
+                        refreshCalendar();
+                    } else {
+                        lastChangeSeq = Math.max(lastChangeSeq, latest);
+                    }
+                } catch (InterruptedException | ExecutionException e) {
+                    e.printStackTrace();
+                }
+            }
+        }.execute();
     }
 
     private void initComponents() {
@@ -113,7 +196,90 @@ public class CalendarPanel extends JPanel {
         }
     }
 
+    /**
+     * Reload the schedules on a background thread and rebuild the grid when
+     * they arrive. Only the latest of overlapping reloads is shown.
+     */
     public void refreshCalendar() {
+        if (!SwingUtilities.isEventDispatchThread()) {
+            SwingUtilities.invokeLater(this::refreshCalendar);
+            return;
+        }
+        int generation = ++reloadGeneration;
+        long acknowledged = lastChangeSeq;
+        String programType = (String) programTypeFilter.getSelectedItem();
+        String selectedStatus = (String) statusFilter.getSelectedItem();
+        String selectedRoom = roomFilter != null ? (String) roomFilter.getSelectedItem() : "All Rooms";
+
+        new SwingWorker<List<Schedule>, Void>() {
+            private long position;
+
+            @Override
+            protected List<Schedule> doInBackground() {
+                // Take the position before loading so nothing committed meanwhile is skipped
+                position = ChangeLogDAO.getLatestSequence();
+                List<Schedule> schedules = loadSchedules(programType, selectedStatus, selectedRoom);
+                if (active && position > acknowledged) {
+                    ChangeLogDAO.acknowledge(syncClientId, position);
+                }
+                return schedules;
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    List<Schedule> schedules = get();
+                    lastChangeSeq = Math.max(lastChangeSeq, position);
+                    if (generation == reloadGeneration) {
+                        buildCalendar(schedules, programType, selectedStatus);
+                    }
+                } catch (InterruptedException | ExecutionException e) {
+                    e.printStackTrace();
+                }
+            }
+        }.execute();
+    }
+
+    /**
+     * The schedules this user sees, filtered by program and status. Runs off
+     * the EDT.
+     */
+    private List<Schedule> loadSchedules(String programType, String selectedStatus, String selectedRoom) {
+        List<Schedule> schedules;
+        if (currentUser.isStudent()) {
+            String assignedRoom = currentUser.getAssignedRoom();
+            if (assignedRoom != null && !assignedRoom.trim().isEmpty()) {
+                // Get schedules only for student's assigned room
+                schedules = ScheduleDAO.getSchedulesByRoom(assignedRoom);
+            } else {
+                // If no room assigned, show only enrolled courses
+                schedules = ScheduleDAO.getSchedulesByStudentId(currentUser.getUserId());
+            }
+        } else {
+            // For coordinator, show filtered room's schedule
+            if ("All Rooms".equals(selectedRoom)) {
+                schedules = ScheduleDAO.getAllSchedulesWithDetails();
+            } else {
+                schedules = ScheduleDAO.getSchedulesByRoom(selectedRoom);
+            }
+        }
+
+        // Filter by program type if needed
+        if (!"All".equals(programType)) {
+            schedules.removeIf(s -> !s.getProgramType().equalsIgnoreCase(programType));
+        }
+
+        // Filter by status if needed
+        if (!"All".equals(selectedStatus)) {
+            schedules.removeIf(s -> !s.getStatus().equalsIgnoreCase(selectedStatus.toLowerCase()));
+        }
+        return schedules;
+    }
+
+    private void buildCalendar(List<Schedule> schedules, String programType, String selectedStatus) {
+        CalendarRebuildEvent event = new CalendarRebuildEvent();
+        event.begin();
+
         calendarGrid.removeAll();
         calendarGrid.setLayout(new GridBagLayout());
 
@@ -123,9 +289,6 @@ public class CalendarPanel extends JPanel {
         gbc.weighty = 1.0;
         gbc.insets = new Insets(1, 1, 1, 1);
 
-        // Get selected program type
-        String programType = (String) programTypeFilter.getSelectedItem();
-
         // Add header row with days
         gbc.gridy = 0;
         gbc.gridx = 0;
@@ -154,37 +317,7 @@ public class CalendarPanel extends JPanel {
             calendarGrid.add(dayLabel, gbc);
         }
 
-        // Get schedules
-        List<Schedule> schedules;
-        if (currentUser.isStudent()) {
-            String assignedRoom = currentUser.getAssignedRoom();
-            if (assignedRoom != null && !assignedRoom.trim().isEmpty()) {
-                // Get schedules only for student's assigned room
-                schedules = ScheduleDAO.getSchedulesByRoom(assignedRoom);
-            } else {
-                // If no room assigned, show only enrolled courses
-                schedules = ScheduleDAO.getSchedulesByStudentId(currentUser.getUserId());
-            }
-        } else {
-            // For coordinator, show filtered room's schedule
-            String selected = roomFilter != null ? (String) roomFilter.getSelectedItem() : "All Rooms";
-            if ("All Rooms".equals(selected)) {
-                schedules = ScheduleDAO.getAllSchedulesWithDetails();
-            } else {
-                schedules = ScheduleDAO.getSchedulesByRoom(selected);
-            }
-        }
-
-        // Filter by program type if needed
-        if (!"All".equals(programType)) {
-            schedules.removeIf(s -> !s.getProgramType().equalsIgnoreCase(programType));
-        }
-
-        // Filter by status if needed
-        String selectedStatus = (String) statusFilter.getSelectedItem();
-        if (!"All".equals(selectedStatus)) {
-            schedules.removeIf(s -> !s.getStatus().equalsIgnoreCase(selectedStatus.toLowerCase()));
-        }
+        event.rows = schedules.size();
 
         // Create a map to store schedules by day and time
         Map<String, Map<String, Schedule>> scheduleMap = new HashMap<>();
@@ -350,6 +483,17 @@ public class CalendarPanel extends JPanel {
 
         revalidate();
         repaint();
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.userType = currentUser.getUserType();
+            event.room = currentUser.isStudent() ? currentUser.getAssignedRoom()
+                    : roomFilter != null ? (String) roomFilter.getSelectedItem() : null;
+            event.programType = programType;
+            event.status = selectedStatus;
+            event.cells = calendarGrid.getComponentCount();
+            event.commit();
+        }
     }
 
     private JPanel createScheduleCell(Schedule schedule) {
@@ -0,0 +1,257 @@
+package com.classroom.ui.components;
+
+import com.classroom.dao.ExamDAO;
+import com.classroom.model.ExamSlot;
+import com.classroom.model.ProgramType;
+import com.classroom.model.User;
+import com.classroom.util.ColorScheme;
+import com.classroom.util.ExamTimetabler;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Component for displaying the exam timetable as a calendar of exam days.
+ * Coordinators see every exam and can regenerate the timetable; students
+ * only see the exams of their own courses.
+ */
+public class ExamTimetablePanel extends JPanel {
+    private User currentUser;
+    private JPanel examGrid;
+    private JComboBox<String> programTypeFilter;
+    private JButton generateButton;
+    private JLabel statusLabel;
+
+    public ExamTimetablePanel(User user) {
+        this.currentUser = user;
+        setLayout(new BorderLayout(0, 10));
+        setBackground(Color.WHITE);
+        setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
+
+        initComponents();
+        refreshTimetable();
+    }
+
+    private void initComponents() {
+        JPanel titlePanel = new JPanel(new BorderLayout());
+        titlePanel.setBackground(Color.WHITE);
+
+        JLabel titleLabel = new JLabel("Exam Timetable");
+        titleLabel.setFont(new Font("Segoe UI", Font.BOLD, 20));
+        titleLabel.setForeground(ColorScheme.PRIMARY);
+
+        JPanel filterPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        filterPanel.setBackground(Color.WHITE);
+
+        JLabel filterLabel = new JLabel("Program Type:");
+        programTypeFilter = new JComboBox<>(new String[] { "Regular", "Evening" });
+        programTypeFilter.addActionListener(e -> refreshTimetable());
+        filterPanel.add(filterLabel);
+        filterPanel.add(programTypeFilter);
+
+        if (currentUser.isCoordinator()) {
+            generateButton = new JButton("Generate Timetable");
+            generateButton.setBackground(ColorScheme.PRIMARY);
+            generateButton.setForeground(Color.WHITE);
+            generateButton.addActionListener(e -> generateTimetable());
+            filterPanel.add(generateButton);
+        }
+
+        titlePanel.add(titleLabel, BorderLayout.WEST);
+        titlePanel.add(filterPanel, BorderLayout.EAST);
+
+        examGrid = new JPanel(new GridBagLayout());
+        examGrid.setBackground(Color.WHITE);
+
+        statusLabel = new JLabel(" ");
+        statusLabel.setFont(new Font("Segoe UI", Font.ITALIC, 12));
+
+        add(titlePanel, BorderLayout.NORTH);
+        add(new JScrollPane(examGrid), BorderLayout.CENTER);
+        add(statusLabel, BorderLayout.SOUTH);
+    }
+
+    /**
+     * Recolor the whole timetable in the background; it can take a few
+     * seconds on a large enrollment.
+     */
+    private void generateTimetable() {
+        int confirm = JOptionPane.showConfirmDialog(this,
+                "Regenerate the exam timetable from current enrollments?\nThe existing timetable will be replaced.",
+                "Generate Exam Timetable", JOptionPane.YES_NO_OPTION);
+        if (confirm != JOptionPane.YES_OPTION) {
+            return;
+        }
+
+        generateButton.setEnabled(false);
+        statusLabel.setText("Generating exam timetable...");
+        long started = System.currentTimeMillis();
+
+        new SwingWorker<ExamTimetabler.Result, Void>() {
+            @Override
+            protected ExamTimetabler.Result doInBackground() {
+                return ExamDAO.generateExamTimetable();
+            }
+
+            @Override
+            protected void done() {
+                generateButton.setEnabled(true);
+                ExamTimetabler.Result result;
+                try {
+                    result = get();
+                } catch (Exception e) {
+                    e.printStackTrace();
+                    result = null;
+                }
+                if (result == null) {
+                    statusLabel.setText(" ");
+                    JOptionPane.showMessageDialog(ExamTimetablePanel.this,
+                            "Failed to generate the exam timetable.", "Error", JOptionPane.ERROR_MESSAGE);
+                    return;
+                }
+
+                statusLabel.setText(String.format("Generated in %.1f s: periods used %s",
+                        (System.currentTimeMillis() - started) / 1000.0, result.periodsUsed));
+                if (!result.unplacedCourseIds.isEmpty()) {
+                    JOptionPane.showMessageDialog(ExamTimetablePanel.this,
+                            result.unplacedCourseIds.size() + " course(s) have more students than all rooms "
+                                    + "can seat and were not scheduled: " + result.unplacedCourseIds,
+                            "Unplaced Exams", JOptionPane.WARNING_MESSAGE);
+                }
+                refreshTimetable();
+            }
+        }.execute();
+    }
+
+    public void refreshTimetable() {
+        examGrid.removeAll();
+
+        String programType = (String) programTypeFilter.getSelectedItem();
+        List<ExamSlot> slots = currentUser.isStudent()
+                ? ExamDAO.getExamSlotsForStudent(currentUser.getUserId())
+                : ExamDAO.getExamSlots(programType);
+        slots.removeIf(s -> !s.getProgramType().equalsIgnoreCase(programType));
+
+        // Exam day -> session start -> exams, with the day's weekday for the header
+        Map<Integer, String> dayNames = new TreeMap<>();
+        Map<Integer, Map<String, List<ExamSlot>>> byDay = new TreeMap<>();
+        for (ExamSlot slot : slots) {
+            dayNames.put(slot.getExamDay(), slot.getDayOfWeek());
+            byDay.computeIfAbsent(slot.getExamDay(), d -> new LinkedHashMap<>())
+                    .computeIfAbsent(slot.getStartTime(), t -> new ArrayList<>()).add(slot);
+        }
+
+        if (slots.isEmpty()) {
+            JLabel emptyLabel = new JLabel(currentUser.isCoordinator()
+                    ? "No exams scheduled. Use Generate Timetable to create one."
+                    : "No exams scheduled.");
+            emptyLabel.setFont(new Font("Segoe UI", Font.PLAIN, 14));
+            examGrid.add(emptyLabel);
+            examGrid.revalidate();
+            examGrid.repaint();
+            return;
+        }
+
+        // Rows are the program's session times in order
+        Set<String> times = new LinkedHashSet<>();
+        for (ExamTimetabler.Session session : ExamTimetabler.sessions(ProgramType.fromString(programType))) {
+            times.add(session.startTime + "-" + session.endTime);
+        }
+        times.removeIf(t -> byDay.values().stream().noneMatch(m -> m.containsKey(t.substring(0, 5))));
+
+        GridBagConstraints gbc = new GridBagConstraints();
+        gbc.fill = GridBagConstraints.BOTH;
+        gbc.weightx = 1.0;
+        gbc.weighty = 1.0;
+        gbc.insets = new Insets(1, 1, 1, 1);
+
+        gbc.gridy = 0;
+        gbc.gridx = 0;
+        gbc.weightx = 0.15;
+        examGrid.add(createHeaderLabel("Time/Day"), gbc);
+
+        int column = 1;
+        for (Map.Entry<Integer, String> day : dayNames.entrySet()) {
+            gbc.gridx = column++;
+            gbc.weightx = 1.0;
+            examGrid.add(createHeaderLabel("Day " + day.getKey() + " (" + day.getValue() + ")"), gbc);
+        }
+
+        int rowIndex = 1;
+        for (String time : times) {
+            gbc.gridy = rowIndex++;
+            gbc.gridx = 0;
+            gbc.weightx = 0.15;
+
+            JLabel timeLabel = new JLabel(time);
+            timeLabel.setHorizontalAlignment(JLabel.CENTER);
+            timeLabel.setFont(new Font("Segoe UI", Font.PLAIN, 14));
+            timeLabel.setBackground(ColorScheme.LIGHT_ACCENT);
+            timeLabel.setOpaque(true);
+            timeLabel.setBorder(BorderFactory.createEmptyBorder(5, 5, 5, 5));
+            examGrid.add(timeLabel, gbc);
+
+            column = 1;
+            for (Integer day : dayNames.keySet()) {
+                gbc.gridx = column++;
+                gbc.weightx = 1.0;
+                List<ExamSlot> exams = byDay.get(day).get(time.substring(0, 5));
+                examGrid.add(exams != null ? createExamCell(exams) : createEmptyCell(), gbc);
+            }
+        }
+
+        examGrid.revalidate();
+        examGrid.repaint();
+    }
+
+    private JLabel createHeaderLabel(String text) {
+        JLabel label = new JLabel(text);
+        label.setHorizontalAlignment(JLabel.CENTER);
+        label.setFont(new Font("Segoe UI", Font.BOLD, 14));
+        label.setBackground(ColorScheme.PRIMARY);
+        label.setForeground(Color.WHITE);
+        label.setOpaque(true);
+        label.setBorder(BorderFactory.createEmptyBorder(10, 5, 10, 5));
+        return label;
+    }
+
+    private JPanel createExamCell(List<ExamSlot> exams) {
+        JPanel cell = new JPanel();
+        cell.setLayout(new BoxLayout(cell, BoxLayout.Y_AXIS));
+        cell.setBackground(ColorScheme.LIGHT_ACCENT);
+        cell.setBorder(BorderFactory.createCompoundBorder(
+                BorderFactory.createLineBorder(ColorScheme.PRIMARY),
+                BorderFactory.createEmptyBorder(5, 5, 5, 5)));
+
+        // One line per course, listing every room its exam is split across
+        Map<String, List<String>> roomsByCourse = new LinkedHashMap<>();
+        StringBuilder tooltip = new StringBuilder("<html>");
+        for (ExamSlot exam : exams) {
+            roomsByCourse.computeIfAbsent(exam.getCourseCode(), c -> new ArrayList<>()).add(exam.getRoom());
+            tooltip.append(exam.getCourseCode()).append(" - ").append(exam.getCourseName())
+                    .append(": ").append(exam.getRoom()).append(" (").append(exam.getStudents())
+                    .append(" students)<br>");
+        }
+        for (Map.Entry<String, List<String>> course : roomsByCourse.entrySet()) {
+            JLabel label = new JLabel(course.getKey() + " @ " + String.join(", ", course.getValue()));
+            label.setFont(new Font("Segoe UI", Font.PLAIN, 12));
+            cell.add(label);
+        }
+        cell.setToolTipText(tooltip.append("</html>").toString());
+        return cell;
+    }
+
+    private JPanel createEmptyCell() {
+        JPanel cell = new JPanel();
+        cell.setBackground(Color.WHITE);
+        cell.setBorder(BorderFactory.createLineBorder(Color.LIGHT_GRAY));
+        return cell;
+    }
+}
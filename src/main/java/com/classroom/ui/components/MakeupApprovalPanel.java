@@ -1,5 +1,6 @@
 package com.classroom.ui.components;
 
+import com.classroom.dao.BatchDecision;
 import com.classroom.dao.MakeupRequestDAO;
 import com.classroom.model.MakeupRequest;
 import com.classroom.model.User;
@@ -12,6 +13,7 @@ import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
 
 public class MakeupApprovalPanel extends JPanel {
@@ -19,6 +21,9 @@ public class MakeupApprovalPanel extends JPanel {
     private JTable requestsTable;
     private DefaultTableModel tableModel;
     private JButton refreshButton;
+    private JButton approveButton;
+    private JButton disapproveButton;
+    private List<MakeupRequest> requests = new ArrayList<>(); // rows of the table, in order
 
     public MakeupApprovalPanel(User user) {
         this.currentUser = user;
@@ -59,6 +64,8 @@ public class MakeupApprovalPanel extends JPanel {
 
         JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
         buttonPanel.setBackground(Color.WHITE);
+        buttonPanel.add(approveButton);
+        buttonPanel.add(disapproveButton);
         buttonPanel.add(refreshButton);
 
         headerPanel.add(titleLabel, BorderLayout.WEST);
@@ -81,7 +88,7 @@ public class MakeupApprovalPanel extends JPanel {
         requestsTable.getTableHeader().setReorderingAllowed(false);
         requestsTable.getTableHeader().setBackground(ColorScheme.PRIMARY);
         requestsTable.getTableHeader().setForeground(Color.WHITE);
-        requestsTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        requestsTable.setSelectionMode(ListSelectionModel.MULTIPLE_INTERVAL_SELECTION);
         requestsTable.setShowGrid(true);
         requestsTable.setGridColor(Color.LIGHT_GRAY);
     }
@@ -90,11 +97,19 @@ public class MakeupApprovalPanel extends JPanel {
         refreshButton = new JButton("Refresh");
         UIUtils.styleButton(refreshButton, ColorScheme.SECONDARY);
         refreshButton.addActionListener(e -> loadRequests());
+
+        approveButton = new JButton("Approve Selected");
+        UIUtils.styleButton(approveButton, ColorScheme.PRIMARY);
+        approveButton.addActionListener(e -> decideSelected("Approved"));
+
+        disapproveButton = new JButton("Disapprove Selected");
+        UIUtils.styleButton(disapproveButton, ColorScheme.ACCENT);
+        disapproveButton.addActionListener(e -> decideSelected("Disapproved"));
     }
 
     private void loadRequests() {
         tableModel.setRowCount(0);
-        List<MakeupRequest> requests = MakeupRequestDAO.getRequestsByInstructor(currentUser.getUserId());
+        requests = MakeupRequestDAO.getRequestsByInstructor(currentUser.getUserId());
 
         DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("MMM dd, yyyy");
         DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern("HH:mm");
@@ -115,7 +130,6 @@ public class MakeupApprovalPanel extends JPanel {
     private void handleRequestSelection() {
         int selectedRow = requestsTable.getSelectedRow();
         if (selectedRow >= 0) {
-            List<MakeupRequest> requests = MakeupRequestDAO.getRequestsByInstructor(currentUser.getUserId());
             MakeupRequest request = requests.get(selectedRow);
 
             if (!"Pending".equals(request.getStatus())) {
@@ -148,22 +162,53 @@ public class MakeupApprovalPanel extends JPanel {
                     options[0]);
 
             if (choice == JOptionPane.YES_OPTION) {
-                if (MakeupRequestDAO.updateRequestStatus(request.getRequestId(), "Approved")) {
-                    loadRequests();
-                    JOptionPane.showMessageDialog(this,
-                            "Request approved successfully",
-                            "Success",
-                            JOptionPane.INFORMATION_MESSAGE);
-                }
+                decide(List.of(request.getRequestId()), "Approved");
             } else if (choice == JOptionPane.NO_OPTION) {
-                if (MakeupRequestDAO.updateRequestStatus(request.getRequestId(), "Disapproved")) {
-                    loadRequests();
-                    JOptionPane.showMessageDialog(this,
-                            "Request disapproved",
-                            "Success",
-                            JOptionPane.INFORMATION_MESSAGE);
-                }
+                decide(List.of(request.getRequestId()), "Disapproved");
+            }
+        }
+    }
+
+    private void decideSelected(String status) {
+        int[] selectedRows = requestsTable.getSelectedRows();
+        List<Integer> requestIds = new ArrayList<>();
+        for (int row : selectedRows) {
+            if ("Pending".equals(requests.get(row).getStatus())) {
+                requestIds.add(requests.get(row).getRequestId());
             }
         }
+        if (requestIds.isEmpty()) {
+            JOptionPane.showMessageDialog(this,
+                    "Please select one or more pending requests",
+                    "No Selection",
+                    JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        decide(requestIds, status);
+    }
+
+    /**
+     * Decide the requests in one transaction and report any that were skipped.
+     */
+    private void decide(List<Integer> requestIds, String status) {
+        BatchDecision decision = MakeupRequestDAO.decideRequests(requestIds, status);
+        loadRequests();
+        if (decision == null) {
+            JOptionPane.showMessageDialog(this,
+                    "Failed to update the selected requests",
+                    "Error",
+                    JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+
+        String summary = decision.decidedIds.size() + " request(s) " + status.toLowerCase();
+        if (decision.skipped.isEmpty()) {
+            JOptionPane.showMessageDialog(this, summary, "Success", JOptionPane.INFORMATION_MESSAGE);
+        } else {
+            JOptionPane.showMessageDialog(this,
+                    summary + "\n" + decision.skipped.size() + " skipped:\n" + decision.describeSkipped(),
+                    decision.decidedIds.isEmpty() ? "Error" : "Partially Completed",
+                    JOptionPane.WARNING_MESSAGE);
+        }
     }
-}
\ No newline at end of file
+}
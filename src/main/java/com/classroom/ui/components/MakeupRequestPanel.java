@@ -3,6 +3,8 @@ package com.classroom.ui.components;
 import com.classroom.dao.MakeupRequestDAO;
 import com.classroom.dao.ScheduleDAO;
 import com.classroom.model.MakeupRequest;
+import com.classroom.model.MakeupSlot;
+import com.classroom.model.ProgramType;
 import com.classroom.model.Schedule;
 import com.classroom.model.User;
 import com.classroom.util.ColorScheme;
@@ -16,6 +18,9 @@ import java.time.format.DateTimeFormatter;
 import java.util.List;
 
 public class MakeupRequestPanel extends JPanel {
+    private static final int SUGGESTION_WEEKS = 3;
+    private static final int SUGGESTION_COUNT = 10;
+
     private final User currentUser;
     private JTable requestsTable;
     private DefaultTableModel tableModel;
@@ -129,9 +134,35 @@ public class MakeupRequestPanel extends JPanel {
         datePicker.setEditor(dateEditor);
 
         // Create time picker
-        String[] times = { "08:00", "09:00", "10:00", "11:00", "12:00", "13:00", "14:00", "15:00", "16:00", "17:00" };
+        String[] times = { "08:00", "09:00", "10:00", "11:00", "12:00", "13:00", "14:00", "15:00", "16:00", "17:00",
+                "18:00", "19:00" };
         JComboBox<String> timeCombo = new JComboBox<>(times);
 
+        // Earliest free slots for the selected course's room and instructor; picking one fills date and time
+        DefaultListModel<MakeupSlot> suggestionModel = new DefaultListModel<>();
+        JList<MakeupSlot> suggestionList = new JList<>(suggestionModel);
+        suggestionList.setVisibleRowCount(6);
+        suggestionList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        suggestionList.addListSelectionListener(e -> {
+            MakeupSlot slot = suggestionList.getSelectedValue();
+            if (!e.getValueIsAdjusting() && slot != null) {
+                datePicker.setValue(java.util.Date.from(
+                        slot.getDate().atStartOfDay(java.time.ZoneId.systemDefault()).toInstant()));
+                timeCombo.setSelectedItem(slot.getStartTime());
+            }
+        });
+        Runnable loadSuggestions = () -> {
+            Schedule schedule = (Schedule) courseCombo.getSelectedItem();
+            suggestionModel.clear();
+            for (MakeupSlot slot : MakeupRequestDAO.suggestSlots(currentUser.getAssignedRoom(),
+                    schedule.getInstructorId(), ProgramType.fromString(currentUser.getProgramType()),
+                    SUGGESTION_WEEKS, SUGGESTION_COUNT)) {
+                suggestionModel.addElement(slot);
+            }
+        };
+        courseCombo.addActionListener(e -> loadSuggestions.run());
+        loadSuggestions.run();
+
         // Show dialog
         JPanel panel = new JPanel(new GridBagLayout());
         panel.setBackground(Color.WHITE);
@@ -152,6 +183,10 @@ public class MakeupRequestPanel extends JPanel {
         panel.add(new JLabel("Time:"), gbc);
         gbc.gridy++;
         panel.add(timeCombo, gbc);
+        gbc.gridy++;
+        panel.add(new JLabel("Suggested free slots:"), gbc);
+        gbc.gridy++;
+        panel.add(new JScrollPane(suggestionList), gbc);
 
         int result = JOptionPane.showConfirmDialog(this,
                 panel,
@@ -173,6 +208,16 @@ public class MakeupRequestPanel extends JPanel {
                     java.time.ZoneId.systemDefault()));
             request.setRequestedTime(selectedTime);
 
+            String conflict = MakeupRequestDAO.findConflict(request);
+            if (conflict != null) {
+                JOptionPane.showMessageDialog(this,
+                        "This makeup cannot be booked: " + conflict
+                                + "\nChoose one of the suggested free slots instead.",
+                        "Not Available",
+                        JOptionPane.WARNING_MESSAGE);
+                return;
+            }
+
             if (MakeupRequestDAO.createMakeupRequest(request)) {
                 loadRequests();
                 JOptionPane.showMessageDialog(this,
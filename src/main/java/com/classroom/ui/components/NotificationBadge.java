@@ -0,0 +1,46 @@
+package com.classroom.ui.components;
+
+import com.classroom.dao.NotificationWatcher;
+import com.classroom.model.User;
+import com.classroom.util.ColorScheme;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.function.IntConsumer;
+
+/**
+ * Header label showing a user's unread notification count. The count is
+ * pushed by {@link NotificationWatcher} while the label is on screen, so
+ * it updates without a refresh.
+ */
+public class NotificationBadge extends JLabel {
+    private final int userId;
+    private final IntConsumer listener = count -> SwingUtilities.invokeLater(() -> showCount(count));
+
+    public NotificationBadge(User user) {
+        this.userId = user.getUserId();
+        setFont(new Font("Segoe UI", Font.BOLD, 14));
+        setForeground(Color.WHITE);
+        setOpaque(true);
+        setBorder(BorderFactory.createEmptyBorder(4, 10, 4, 10));
+        showCount(0);
+    }
+
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        NotificationWatcher.addListener(userId, listener);
+    }
+
+    @Override
+    public void removeNotify() {
+        NotificationWatcher.removeListener(userId, listener);
+        super.removeNotify();
+    }
+
+    private void showCount(int count) {
+        setText("Notifications: " + count);
+        setBackground(count > 0 ? ColorScheme.ACCENT : ColorScheme.DARK_ACCENT);
+        setToolTipText(count == 0 ? "No unread notifications" : count + " unread notification(s)");
+    }
+}
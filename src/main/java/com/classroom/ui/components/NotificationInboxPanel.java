@@ -0,0 +1,240 @@
+package com.classroom.ui.components;
+
+import com.classroom.dao.NotificationDAO;
+import com.classroom.dao.NotificationWatcher;
+import com.classroom.model.Notification;
+import com.classroom.model.User;
+import com.classroom.util.ColorScheme;
+import com.classroom.util.UIUtils;
+
+import javax.swing.*;
+import javax.swing.table.DefaultTableModel;
+import java.awt.*;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * A user's notifications, newest first, one page at a time. Only the page on
+ * screen is loaded; older pages are fetched by id when the user asks for
+ * them. The first page reloads by itself when new notifications arrive.
+ */
+public class NotificationInboxPanel extends JPanel {
+    private static final int PAGE_SIZE = 25;
+    private static final DateTimeFormatter RECEIVED_FORMAT = DateTimeFormatter.ofPattern("MMM dd, yyyy HH:mm");
+
+    private final User currentUser;
+    private JTable notificationsTable;
+    private DefaultTableModel tableModel;
+    private JButton newerButton;
+    private JButton olderButton;
+    private JCheckBox archivedCheckBox;
+    private JLabel pageLabel;
+
+    private List<Notification> notifications = new ArrayList<>(); // rows of the table, in order
+    private final Deque<Integer> newerPages = new ArrayDeque<>(); // cursors of the pages before this one
+    private int pageBefore; // 0 on the first page
+    private int newestSeenId;
+
+    private final IntConsumer unreadListener = count -> SwingUtilities.invokeLater(() -> {
+        if (pageBefore == 0) {
+            loadPage();
+        }
+    });
+
+    public NotificationInboxPanel(User user) {
+        this.currentUser = user;
+        setLayout(new BorderLayout());
+        setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
+        setBackground(Color.WHITE);
+
+        initializeTable();
+        add(createHeaderPanel(), BorderLayout.NORTH);
+        JScrollPane scrollPane = new JScrollPane(notificationsTable);
+        scrollPane.setBorder(BorderFactory.createEmptyBorder());
+        add(scrollPane, BorderLayout.CENTER);
+        add(createPagingPanel(), BorderLayout.SOUTH);
+
+        loadPage();
+    }
+
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        NotificationWatcher.addListener(currentUser.getUserId(), unreadListener);
+    }
+
+    @Override
+    public void removeNotify() {
+        NotificationWatcher.removeListener(currentUser.getUserId(), unreadListener);
+        super.removeNotify();
+    }
+
+    private JPanel createHeaderPanel() {
+        JPanel headerPanel = new JPanel(new BorderLayout());
+        headerPanel.setBackground(Color.WHITE);
+        headerPanel.setBorder(BorderFactory.createEmptyBorder(0, 0, 20, 0));
+
+        JLabel titleLabel = new JLabel("Notifications");
+        titleLabel.setFont(new Font("Arial", Font.BOLD, 24));
+        titleLabel.setForeground(ColorScheme.PRIMARY);
+
+        archivedCheckBox = new JCheckBox("Include archived");
+        archivedCheckBox.setBackground(Color.WHITE);
+        archivedCheckBox.addActionListener(e -> showFirstPage());
+
+        JButton markSelectedButton = new JButton("Mark Selected Read");
+        UIUtils.styleButton(markSelectedButton, ColorScheme.PRIMARY);
+        markSelectedButton.addActionListener(e -> markSelectedRead());
+
+        JButton markAllButton = new JButton("Mark All Read");
+        UIUtils.styleButton(markAllButton, ColorScheme.ACCENT);
+        markAllButton.addActionListener(e -> markAllRead());
+
+        JButton refreshButton = new JButton("Refresh");
+        UIUtils.styleButton(refreshButton, ColorScheme.SECONDARY);
+        refreshButton.addActionListener(e -> showFirstPage());
+
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        buttonPanel.setBackground(Color.WHITE);
+        buttonPanel.add(archivedCheckBox);
+        buttonPanel.add(markSelectedButton);
+        buttonPanel.add(markAllButton);
+        buttonPanel.add(refreshButton);
+
+        headerPanel.add(titleLabel, BorderLayout.WEST);
+        headerPanel.add(buttonPanel, BorderLayout.EAST);
+        return headerPanel;
+    }
+
+    private JPanel createPagingPanel() {
+        newerButton = new JButton("< Newer");
+        UIUtils.styleButton(newerButton, ColorScheme.SECONDARY);
+        newerButton.addActionListener(e -> showNewerPage());
+
+        olderButton = new JButton("Older >");
+        UIUtils.styleButton(olderButton, ColorScheme.SECONDARY);
+        olderButton.addActionListener(e -> showOlderPage());
+
+        pageLabel = new JLabel();
+
+        JPanel pagingPanel = new JPanel(new FlowLayout(FlowLayout.CENTER));
+        pagingPanel.setBackground(Color.WHITE);
+        pagingPanel.add(newerButton);
+        pagingPanel.add(pageLabel);
+        pagingPanel.add(olderButton);
+        return pagingPanel;
+    }
+
+    private void initializeTable() {
+        String[] columnNames = { "Status", "Type", "Message", "Received" };
+        tableModel = new DefaultTableModel(columnNames, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+
+        notificationsTable = new JTable(tableModel);
+        notificationsTable.setRowHeight(30);
+        notificationsTable.getTableHeader().setReorderingAllowed(false);
+        notificationsTable.getTableHeader().setBackground(ColorScheme.PRIMARY);
+        notificationsTable.getTableHeader().setForeground(Color.WHITE);
+        notificationsTable.setSelectionMode(ListSelectionModel.MULTIPLE_INTERVAL_SELECTION);
+        notificationsTable.setShowGrid(true);
+        notificationsTable.setGridColor(Color.LIGHT_GRAY);
+        notificationsTable.getColumnModel().getColumn(0).setMaxWidth(80);
+        notificationsTable.getColumnModel().getColumn(1).setPreferredWidth(140);
+        notificationsTable.getColumnModel().getColumn(2).setPreferredWidth(500);
+        notificationsTable.getColumnModel().getColumn(3).setPreferredWidth(150);
+    }
+
+    private void loadPage() {
+        notifications = NotificationDAO.getNotificationsForUser(currentUser.getUserId(), pageBefore, PAGE_SIZE,
+                archivedCheckBox.isSelected());
+        if (pageBefore == 0 && !notifications.isEmpty()) {
+            newestSeenId = Math.max(newestSeenId, notifications.get(0).getNotificationId());
+        }
+
+        tableModel.setRowCount(0);
+        for (Notification notification : notifications) {
+            tableModel.addRow(new Object[] {
+                    notification.isRead() ? "Read" : "New",
+                    notification.getType(),
+                    notification.getMessage(),
+                    notification.getCreatedAt() == null ? "" : notification.getCreatedAt().format(RECEIVED_FORMAT)
+            });
+        }
+
+        newerButton.setEnabled(!newerPages.isEmpty());
+        // A short page is the last one
+        olderButton.setEnabled(notifications.size() == PAGE_SIZE);
+        pageLabel.setText("Page " + (newerPages.size() + 1));
+    }
+
+    private void showFirstPage() {
+        newerPages.clear();
+        pageBefore = 0;
+        loadPage();
+    }
+
+    private void showOlderPage() {
+        if (notifications.isEmpty()) {
+            return;
+        }
+        newerPages.push(pageBefore);
+        pageBefore = notifications.get(notifications.size() - 1).getNotificationId();
+        loadPage();
+    }
+
+    private void showNewerPage() {
+        if (newerPages.isEmpty()) {
+            return;
+        }
+        pageBefore = newerPages.pop();
+        loadPage();
+    }
+
+    private void markSelectedRead() {
+        int[] selectedRows = notificationsTable.getSelectedRows();
+        if (selectedRows.length == 0) {
+            JOptionPane.showMessageDialog(this,
+                    "Please select one or more notifications",
+                    "No Selection",
+                    JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+
+        List<Integer> ids = new ArrayList<>();
+        for (int row : selectedRows) {
+            ids.add(notifications.get(row).getNotificationId());
+        }
+        if (NotificationDAO.markNotificationsAsRead(currentUser.getUserId(), ids) < 0) {
+            JOptionPane.showMessageDialog(this,
+                    "Failed to update notifications",
+                    "Error",
+                    JOptionPane.ERROR_MESSAGE);
+        }
+        loadPage();
+    }
+
+    /**
+     * Marks read everything up to the newest notification shown so far, so
+     * one that arrives while the user is reading stays unread.
+     */
+    private void markAllRead() {
+        if (newestSeenId == 0) {
+            return;
+        }
+        if (NotificationDAO.markAllAsRead(currentUser.getUserId(), newestSeenId) < 0) {
+            JOptionPane.showMessageDialog(this,
+                    "Failed to update notifications",
+                    "Error",
+                    JOptionPane.ERROR_MESSAGE);
+        }
+        loadPage();
+    }
+}
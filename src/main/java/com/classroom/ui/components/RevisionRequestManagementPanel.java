@@ -1,5 +1,6 @@
 package com.classroom.ui.components;
 
+import com.classroom.dao.BatchDecision;
 import com.classroom.dao.ScheduleRevisionRequestDAO;
 import com.classroom.dao.ScheduleDAO;
 import com.classroom.model.ScheduleRevisionRequest;
@@ -11,6 +12,7 @@ import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 
 public class RevisionRequestManagementPanel extends JPanel {
@@ -67,8 +69,8 @@ public class RevisionRequestManagementPanel extends JPanel {
         JPanel buttonsPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
         buttonsPanel.setBackground(Color.WHITE);
 
-        approveButton = new JButton("Approve Request");
-        rejectButton = new JButton("Reject Request");
+        approveButton = new JButton("Approve Selected");
+        rejectButton = new JButton("Reject Selected");
         viewDetailsButton = new JButton("View Details");
 
         UIUtils.styleButton(approveButton, ColorScheme.PRIMARY);
@@ -102,7 +104,7 @@ public class RevisionRequestManagementPanel extends JPanel {
         tableModel.addColumn("Created At");
 
         requestsTable = new JTable(tableModel);
-        requestsTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        requestsTable.setSelectionMode(ListSelectionModel.MULTIPLE_INTERVAL_SELECTION);
         requestsTable.getTableHeader().setReorderingAllowed(false);
         requestsTable.getTableHeader().setFont(new Font("Segoe UI", Font.BOLD, 14));
         requestsTable.setRowHeight(25);
@@ -184,36 +186,45 @@ public class RevisionRequestManagementPanel extends JPanel {
     }
 
     private void handleRequest(String status) {
-        int selectedRow = requestsTable.getSelectedRow();
-        if (selectedRow == -1) {
+        int[] selectedRows = requestsTable.getSelectedRows();
+        if (selectedRows.length == 0) {
             JOptionPane.showMessageDialog(this,
-                    "Please select a request to " + status,
+                    "Please select one or more requests to " + status.replace("ed", ""),
                     "No Selection",
                     JOptionPane.WARNING_MESSAGE);
             return;
         }
 
-        int requestId = (int) requestsTable.getValueAt(selectedRow, 0);
-        String courseName = (String) requestsTable.getValueAt(selectedRow, 1);
+        List<Integer> requestIds = new ArrayList<>();
+        for (int row : selectedRows) {
+            requestIds.add((int) requestsTable.getValueAt(row, 0));
+        }
 
-        // Get coordinator's response
+        // One response goes to every instructor in the selection
         String response = JOptionPane.showInputDialog(this,
-                "Enter your response for " + status + " request:",
-                status.substring(0, 1).toUpperCase() + status.substring(1) + " Request",
+                "Enter your response for the " + requestIds.size() + " " + status + " request(s):",
+                status.substring(0, 1).toUpperCase() + status.substring(1) + " Requests",
                 JOptionPane.PLAIN_MESSAGE);
 
         if (response != null) {
-            if (ScheduleRevisionRequestDAO.updateRequestStatus(requestId, status)) {
+            BatchDecision decision = ScheduleRevisionRequestDAO.decideRequests(requestIds, status, response);
+            loadRevisionRequests();
+            if (decision == null) {
                 JOptionPane.showMessageDialog(this,
-                        "Request " + status + " successfully",
+                        "Failed to update the selected requests",
+                        "Error",
+                        JOptionPane.ERROR_MESSAGE);
+            } else if (decision.skipped.isEmpty()) {
+                JOptionPane.showMessageDialog(this,
+                        decision.decidedIds.size() + " request(s) " + status + " successfully",
                         "Success",
                         JOptionPane.INFORMATION_MESSAGE);
-                loadRevisionRequests();
             } else {
                 JOptionPane.showMessageDialog(this,
-                        "Failed to " + status + " request",
-                        "Error",
-                        JOptionPane.ERROR_MESSAGE);
+                        decision.decidedIds.size() + " request(s) " + status + "\n"
+                                + decision.skipped.size() + " skipped:\n" + decision.describeSkipped(),
+                        "Partially Completed",
+                        JOptionPane.WARNING_MESSAGE);
             }
         }
     }
@@ -313,26 +324,25 @@ public class RevisionRequestManagementPanel extends JPanel {
                     .atZone(java.time.ZoneId.systemDefault())
                     .toLocalDate();
 
-            boolean success = true;
+            List<Integer> scheduleIds = new ArrayList<>();
             for (int row : selectedRows) {
-                int scheduleId = (int) draftSchedulesTable.getValueAt(row, 0);
-                if (!ScheduleDAO.finalizeSchedule(scheduleId, publishDate)) {
-                    success = false;
-                }
+                scheduleIds.add((int) draftSchedulesTable.getValueAt(row, 0));
             }
 
-            if (success) {
+            // All-or-nothing: either every selected schedule is published or none is
+            ScheduleDAO.WriteResult publishResult = ScheduleDAO.publishSchedules(scheduleIds, publishDate);
+            if (publishResult.isSaved()) {
                 JOptionPane.showMessageDialog(this,
                         "Selected schedules have been finalized",
                         "Success",
                         JOptionPane.INFORMATION_MESSAGE);
-                loadDraftSchedules();
             } else {
                 JOptionPane.showMessageDialog(this,
-                        "Some schedules could not be finalized",
+                        "No schedules were finalized: " + publishResult.message,
                         "Error",
                         JOptionPane.ERROR_MESSAGE);
             }
+            loadDraftSchedules();
         }
     }
 
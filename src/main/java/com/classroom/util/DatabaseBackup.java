@@ -0,0 +1,330 @@
+package com.classroom.util;
+
+import com.classroom.dao.RoomRegistry;
+import com.classroom.monitoring.DatabaseErrorStats;
+import org.sqlite.SQLiteConfig;
+import org.sqlite.SQLiteConnection;
+import org.sqlite.core.DB;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Hot backups of the live database with SQLite's online backup API.
+ *
+ * The copy runs on its own connection, {@value #PAGES_PER_STEP} pages per
+ * step, from one read snapshot held for the whole copy. In WAL mode that
+ * snapshot does not block the writer, so the application keeps committing
+ * while the backup runs and the snapshot shows the database as of its
+ * start. Each snapshot is written under a temporary name, switched to a
+ * self-contained rollback journal, checked with {@code PRAGMA integrity_check}
+ * and only then moved into place, so a snapshot file that exists is always
+ * a verified one.
+ */
+public class DatabaseBackup {
+    private static final int PAGES_PER_STEP = 1024;
+    // Retries, and the pause between them, while the source or target is locked
+    private static final int BUSY_RETRY_MS = 100;
+    private static final int BUSY_RETRIES = 50;
+    private static final long INITIAL_DELAY_MS = 5 * 60_000;
+    private static final DateTimeFormatter STAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private static Thread snapshotThread;
+
+    /**
+     * Where scheduled snapshots go, how often they are taken and how many
+     * are kept. An interval of 0 disables scheduled snapshots.
+     */
+    public static final class Policy {
+        public static final Policy DEFAULT = new Policy(
+                Path.of(System.getProperty("classroom.backup.dir", "backups")),
+                Integer.getInteger("classroom.backup.intervalMinutes", 360),
+                Integer.getInteger("classroom.backup.keep", 14));
+
+        public final Path directory;
+        public final int intervalMinutes;
+        /** Only this many newest snapshots are kept, at least one. */
+        public final int keep;
+
+        public Policy(Path directory, int intervalMinutes, int keep) {
+            this.directory = directory;
+            this.intervalMinutes = intervalMinutes;
+            this.keep = keep;
+        }
+    }
+
+    /**
+     * Outcome of one backup or restore.
+     */
+    public static final class Result {
+        public final Path file;
+        public final long pages;
+        public final long elapsedMillis;
+        /** Times the copy started over because the source changed. */
+        public final int restarts;
+
+        Result(Path file, long pages, long elapsedMillis, int restarts) {
+            this.file = file;
+            this.pages = pages;
+            this.elapsedMillis = elapsedMillis;
+            this.restarts = restarts;
+        }
+
+        public double getPagesPerSecond() {
+            return elapsedMillis > 0 ? pages * 1000.0 / elapsedMillis : pages;
+        }
+
+        public String summary() {
+            return String.format("%s: %,d pages in %,d ms (%,.0f pages/s, %d restarts)",
+                    file, pages, elapsedMillis, getPagesPerSecond(), restarts);
+        }
+    }
+
+    /**
+     * Page counts reported by SQLite after every step.
+     */
+    private static final class Progress implements DB.ProgressObserver {
+        int pageCount;
+        int lastRemaining = Integer.MAX_VALUE;
+        int restarts;
+
+        @Override
+        public void progress(int remaining, int pageCount) {
+            if (remaining > lastRemaining) {
+                restarts++;
+            }
+            lastRemaining = remaining;
+            this.pageCount = pageCount;
+        }
+    }
+
+    private DatabaseBackup() {
+    }
+
+    /**
+     * Take a snapshot every {@code intervalMinutes} on a background thread,
+     * the first a few minutes from now.
+     */
+    public static synchronized void start(Policy policy) {
+        if (policy.intervalMinutes <= 0 || (snapshotThread != null && snapshotThread.isAlive())) {
+            return;
+        }
+        snapshotThread = new Thread(() -> {
+            try {
+                Thread.sleep(INITIAL_DELAY_MS);
+                while (true) {
+                    try {
+                        System.out.println("Database snapshot " + snapshot(policy).summary());
+                    } catch (SQLException e) {
+                        DatabaseErrorStats.record(e);
+                        e.printStackTrace();
+                    } catch (IOException e) {
+                        e.printStackTrace();
+                    }
+                    Thread.sleep(policy.intervalMinutes * 60_000L);
+                }
+            } catch (InterruptedException e) {
+                // Stopped
+            }
+        }, "database-snapshots");
+        snapshotThread.setDaemon(true);
+        snapshotThread.start();
+    }
+
+    public static synchronized void stop() {
+        if (snapshotThread != null) {
+            snapshotThread.interrupt();
+            snapshotThread = null;
+        }
+    }
+
+    /**
+     * Write a timestamped snapshot into the policy's directory, then delete
+     * the oldest snapshots beyond the number to keep.
+     */
+    public static Result snapshot(Policy policy) throws SQLException, IOException {
+        Files.createDirectories(policy.directory);
+        String prefix = snapshotPrefix();
+        Result result = backup(policy.directory.resolve(prefix + STAMP.format(LocalDateTime.now()) + ".db"));
+
+        List<Path> snapshots = listSnapshots(policy.directory);
+        for (int i = Math.max(1, policy.keep); i < snapshots.size(); i++) {
+            Files.deleteIfExists(snapshots.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * Snapshots in the directory taken of the current database, newest first.
+     */
+    public static List<Path> listSnapshots(Path directory) throws IOException {
+        List<Path> snapshots = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return snapshots;
+        }
+        String pattern = Pattern.quote(snapshotPrefix()) + "\\d{8}-\\d{6}\\.db";
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                if (file.getFileName().toString().matches(pattern)) {
+                    snapshots.add(file);
+                }
+            }
+        }
+        // The timestamp format sorts by name
+        snapshots.sort(Collections.reverseOrder());
+        return snapshots;
+    }
+
+    /**
+     * Copy the live database to {@code target}, replacing it. The target is
+     * only written once the copy has passed its integrity check.
+     *
+     * @throws SQLException if the copy fails or the copy is not intact
+     */
+    public static Result backup(Path target) throws SQLException, IOException {
+        Path partial = target.resolveSibling(target.getFileName() + ".part");
+        Files.deleteIfExists(partial);
+        try {
+            long startTime = System.currentTimeMillis();
+            Progress progress = new Progress();
+            try (Connection conn = DriverManager.getConnection(DatabaseUtil.getDatabaseUrl())) {
+                holdReadSnapshot(conn);
+                DB db = conn.unwrap(SQLiteConnection.class).getDatabase();
+                int rc = db.backup("main", partial.toAbsolutePath().toString(), progress,
+                        BUSY_RETRY_MS, BUSY_RETRIES, PAGES_PER_STEP);
+                if (rc != 0) {
+                    throw new SQLException("Backup to " + target + " failed with SQLite code " + rc, null, rc);
+                }
+            }
+            long elapsed = System.currentTimeMillis() - startTime;
+
+            // The copy keeps the WAL flag of the source; a snapshot should be one file
+            try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + partial.toAbsolutePath());
+                    Statement stmt = conn.createStatement()) {
+                stmt.execute("PRAGMA journal_mode = DELETE");
+            }
+            List<String> problems = verify(partial);
+            if (!problems.isEmpty()) {
+                throw new SQLException("Backup to " + target + " failed its integrity check: " + problems.get(0));
+            }
+
+            Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return new Result(target, progress.pageCount, elapsed, progress.restarts);
+        } finally {
+            Files.deleteIfExists(partial);
+        }
+    }
+
+    /**
+     * Open a read transaction on the backup's source connection and keep it
+     * across the steps. Without it each step reads the latest commit, and a
+     * write between steps sends the copy back to the first page, so a busy
+     * writer could keep a backup from ever finishing. In WAL mode the open
+     * snapshot does not hold up the writer; it only keeps checkpoints from
+     * moving past it until the copy is done.
+     */
+    private static void holdReadSnapshot(Connection conn) throws SQLException {
+        conn.setAutoCommit(false);
+        try (Statement stmt = conn.createStatement();
+                ResultSet rs = stmt.executeQuery("SELECT count(*) FROM sqlite_master")) {
+            rs.next();
+        }
+    }
+
+    /**
+     * Run {@code PRAGMA integrity_check} on a database file, read-only.
+     *
+     * @return the problems found, empty if the file is intact
+     */
+    public static List<String> verify(Path file) throws SQLException {
+        if (!Files.isRegularFile(file)) {
+            throw new SQLException("No database file at " + file);
+        }
+        SQLiteConfig config = new SQLiteConfig();
+        config.setReadOnly(true);
+        List<String> problems = new ArrayList<>();
+        try (Connection conn = config.createConnection("jdbc:sqlite:" + file.toAbsolutePath());
+                Statement stmt = conn.createStatement();
+                ResultSet rs = stmt.executeQuery("PRAGMA integrity_check")) {
+            while (rs.next()) {
+                String line = rs.getString(1);
+                if (!"ok".equals(line)) {
+                    problems.add(line);
+                }
+            }
+        }
+        return problems;
+    }
+
+    /**
+     * Replace the contents of the live database with a snapshot. The
+     * snapshot is verified first, and the current database is backed up
+     * next to it, so a bad restore can be undone. Run it while nothing else
+     * is using the database.
+     *
+     * @return the restore, with the safety copy available as {@code file}
+     */
+    public static Result restore(Path snapshot) throws SQLException, IOException {
+        List<String> problems = verify(snapshot);
+        if (!problems.isEmpty()) {
+            throw new SQLException("Snapshot " + snapshot + " failed its integrity check: " + problems.get(0));
+        }
+        Path live = databaseFile();
+        Path safetyCopy = live.resolveSibling(live.getFileName() + ".before-restore-"
+                + STAMP.format(LocalDateTime.now()));
+        backup(safetyCopy);
+
+        long startTime = System.currentTimeMillis();
+        Progress progress = new Progress();
+        try (Connection conn = DriverManager.getConnection(DatabaseUtil.getDatabaseUrl())) {
+            DB db = conn.unwrap(SQLiteConnection.class).getDatabase();
+            int rc = db.restore("main", snapshot.toAbsolutePath().toString(), progress,
+                    BUSY_RETRY_MS, BUSY_RETRIES, PAGES_PER_STEP);
+            if (rc != 0) {
+                throw new SQLException("Restore from " + snapshot + " failed with SQLite code " + rc, null, rc);
+            }
+        } finally {
+            // The restored ChangeLog may be behind the position the registry has reached
+            RoomRegistry.invalidate();
+        }
+        return new Result(safetyCopy, progress.pageCount, System.currentTimeMillis() - startTime,
+                progress.restarts);
+    }
+
+    /**
+     * The file behind the database URL.
+     *
+     * @throws IllegalStateException for an in-memory database
+     */
+    private static Path databaseFile() {
+        String url = DatabaseUtil.getDatabaseUrl();
+        String path = url.startsWith("jdbc:sqlite:") ? url.substring("jdbc:sqlite:".length()) : url;
+        int query = path.indexOf('?');
+        if (query >= 0) {
+            path = path.substring(0, query);
+        }
+        if (path.startsWith("file:")) {
+            path = path.substring("file:".length());
+        }
+        if (path.isEmpty() || path.equals(":memory:")) {
+            throw new IllegalStateException("Database " + url + " is not a file");
+        }
+        return Path.of(path);
+    }
+
+    private static String snapshotPrefix() {
+        String name = databaseFile().getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return (dot > 0 ? name.substring(0, dot) : name) + "-";
+    }
+}
@@ -3,13 +3,47 @@ package com.classroom.util;
 import java.sql.*;
 
 public class DatabaseUtil {
-    private static final String DB_URL = "jdbc:sqlite:classroom.db";
+    private static volatile String dbUrl = System.getProperty("classroom.db.url", "jdbc:sqlite:classroom.db");
+    private static final int READ_POOL_SIZE = Integer.getInteger("classroom.db.readPoolSize",
+            Math.max(4, Runtime.getRuntime().availableProcessors()));
+    private static ReadConnectionPool readPool;
+
+    // Shared by createTables and the migration that widens the type CHECK
+    private static final String NOTIFICATIONS_TABLE = """
+                CREATE TABLE IF NOT EXISTS %s (
+                    notification_id INTEGER PRIMARY KEY AUTOINCREMENT,
+                    user_id INTEGER NOT NULL,
+                    message TEXT NOT NULL,
+                    type TEXT NOT NULL,
+                    is_read BOOLEAN DEFAULT 0,
+                    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                    FOREIGN KEY (user_id) REFERENCES Users(user_id),
+                    CHECK (type IN ('MakeupRequest', 'MakeupApproval', 'MakeupDisapproval', 'SchedulePublished',
+                        'RevisionDecision', 'MakeupScheduled'))
+                )
+            """;
+
+    /**
+     * Point the application at a different SQLite database, e.g. a scratch file
+     * for load tests. Must be called before {@link #initializeDatabase()}.
+     */
+    public static void setDatabaseUrl(String url) {
+        dbUrl = url;
+    }
+
+    public static String getDatabaseUrl() {
+        return dbUrl;
+    }
 
     public static void initializeDatabase() {
         Connection conn = null;
         try {
+            enableWriteAheadLog();
             conn = getConnection();
             createTables(conn);
+            migrateSchema(conn);
+            createNotificationIndexes(conn);
+            createChangeLogTriggers(conn);
             insertDefaultAdmin(conn);
             initializeDefaultResources(conn);
             conn.commit(); // Commit the changes
@@ -35,13 +69,78 @@ public class DatabaseUtil {
         }
     }
 
+    /**
+     * Open a connection of its own, outside the writer thread. Only for
+     * setup and maintenance that runs while nothing else writes (schema
+     * creation, the load-test seed); application writes go through
+     * {@link DatabaseWriter}.
+     */
     public static Connection getConnection() throws SQLException {
-        Connection conn = DriverManager.getConnection(DB_URL);
+        Connection conn = DriverManager.getConnection(dbUrl);
         conn.setAutoCommit(false); // Enable transaction management
         return conn;
     }
 
+    /**
+     * Borrow a read-only connection for queries. Readers see a consistent
+     * WAL snapshot and never wait for, or hold up, the writer. Closing the
+     * connection returns it to the pool.
+     */
+    public static Connection getReadConnection() throws SQLException {
+        ReadConnectionPool pool;
+        synchronized (DatabaseUtil.class) {
+            if (readPool == null || !readPool.getUrl().equals(dbUrl)) {
+                if (readPool != null) {
+                    readPool.close();
+                }
+                readPool = new ReadConnectionPool(dbUrl, READ_POOL_SIZE);
+            }
+            pool = readPool;
+        }
+        return pool.borrow();
+    }
+
+    /**
+     * Switch the database to write-ahead logging so readers keep working on
+     * their snapshot while the writer commits. The mode is persistent, but it
+     * cannot be changed inside a transaction, hence the separate connection.
+     */
+    private static void enableWriteAheadLog() throws SQLException {
+        try (Connection conn = DriverManager.getConnection(dbUrl);
+                Statement stmt = conn.createStatement()) {
+            stmt.execute("PRAGMA journal_mode = WAL");
+        }
+    }
+
+    /**
+     * Run work inside a BEGIN IMMEDIATE transaction and commit it.
+     *
+     * The work is handed to the {@link DatabaseWriter} thread, which holds the
+     * write lock for the whole transaction, so a check-then-write inside the
+     * work (e.g. a conflict check followed by an insert) cannot interleave
+     * with another client's write. If the work throws, only its own changes
+     * are rolled back and the exception is rethrown here; work that decides
+     * not to write simply returns without modifying anything.
+     */
+    public static <T> T inImmediateTransaction(SqlWork<T> work) throws SQLException {
+        return DatabaseWriter.write(work);
+    }
+
     private static void createTables(Connection conn) throws SQLException {
+        // Room catalog; Schedule and users keep the room name and point at the row by room_id
+        String createRoomsTable = """
+                    CREATE TABLE IF NOT EXISTS Rooms (
+                        room_id INTEGER PRIMARY KEY AUTOINCREMENT,
+                        name TEXT UNIQUE NOT NULL,
+                        building TEXT,
+                        capacity INTEGER,
+                        equipment TEXT,
+                        regular_program BOOLEAN DEFAULT 1 NOT NULL,
+                        evening_program BOOLEAN DEFAULT 1 NOT NULL,
+                        CHECK (capacity IS NULL OR capacity > 0)
+                    )
+                """;
+
         String createUsersTable = """
                     CREATE TABLE IF NOT EXISTS users (
                         user_id INTEGER PRIMARY KEY AUTOINCREMENT,
@@ -52,6 +151,7 @@ public class DatabaseUtil {
                         email TEXT UNIQUE NOT NULL,
                         program_type TEXT,
                         assigned_room TEXT,
+                        room_id INTEGER REFERENCES Rooms(room_id),
                         is_room_rep BOOLEAN DEFAULT 0,
                         created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
                     )
@@ -76,11 +176,14 @@ public class DatabaseUtil {
                         start_time TEXT NOT NULL,
                         end_time TEXT NOT NULL,
                         room TEXT NOT NULL,
+                        room_id INTEGER,
                         program_type TEXT NOT NULL,
                         status TEXT DEFAULT 'draft' NOT NULL,
                         publish_date DATE,
+                        version INTEGER DEFAULT 0 NOT NULL,
                         FOREIGN KEY (course_id) REFERENCES Courses(course_id),
                         FOREIGN KEY (instructor_id) REFERENCES Users(user_id),
+                        FOREIGN KEY (room_id) REFERENCES Rooms(room_id),
                         CHECK (start_time < end_time),
                         CHECK (program_type IN ('Regular', 'Evening')),
                         CHECK (status IN ('draft', 'published', 'revision_requested'))
@@ -97,6 +200,7 @@ public class DatabaseUtil {
                         status TEXT DEFAULT 'pending' NOT NULL,
                         created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
                         updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                        version INTEGER DEFAULT 0 NOT NULL,
                         FOREIGN KEY (schedule_id) REFERENCES Schedule(schedule_id),
                         FOREIGN KEY (instructor_id) REFERENCES Users(user_id),
                         CHECK (status IN ('pending', 'approved', 'rejected'))
@@ -150,6 +254,7 @@ public class DatabaseUtil {
                         status TEXT DEFAULT 'Pending' NOT NULL,
                         created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
                         updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                        version INTEGER DEFAULT 0 NOT NULL,
                         FOREIGN KEY (course_id) REFERENCES Courses(course_id),
                         FOREIGN KEY (rep_id) REFERENCES Users(user_id),
                         FOREIGN KEY (instructor_id) REFERENCES Users(user_id),
@@ -157,20 +262,85 @@ public class DatabaseUtil {
                     )
                 """;
 
-        String createNotificationsTable = """
-                    CREATE TABLE IF NOT EXISTS Notifications (
-                        notification_id INTEGER PRIMARY KEY AUTOINCREMENT,
+        String createNotificationsTable = String.format(NOTIFICATIONS_TABLE, "Notifications");
+
+        // Append-only log of row changes, written by triggers (see createChangeLogTriggers)
+        String createChangeLogTable = """
+                    CREATE TABLE IF NOT EXISTS ChangeLog (
+                        seq INTEGER PRIMARY KEY AUTOINCREMENT,
+                        table_name TEXT NOT NULL,
+                        row_id INTEGER NOT NULL,
+                        operation TEXT NOT NULL,
+                        user_id INTEGER,
+                        changed_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                        CHECK (operation IN ('insert', 'update', 'delete'))
+                    )
+                """;
+
+        // Last change-log position each polling client has applied
+        String createSyncClientsTable = """
+                    CREATE TABLE IF NOT EXISTS SyncClients (
+                        client_id TEXT PRIMARY KEY,
+                        last_seq INTEGER NOT NULL,
+                        last_seen TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+                    )
+                """;
+
+        // Output of the exam timetabler; one row per course and room
+        String createExamSlotsTable = """
+                    CREATE TABLE IF NOT EXISTS ExamSlots (
+                        exam_id INTEGER PRIMARY KEY AUTOINCREMENT,
+                        course_id INTEGER NOT NULL,
+                        program_type TEXT NOT NULL,
+                        period INTEGER NOT NULL,
+                        exam_day INTEGER NOT NULL,
+                        day_of_week TEXT NOT NULL,
+                        start_time TEXT NOT NULL,
+                        end_time TEXT NOT NULL,
+                        room TEXT NOT NULL,
+                        students INTEGER NOT NULL,
+                        FOREIGN KEY (course_id) REFERENCES Courses(course_id),
+                        UNIQUE (program_type, period, room),
+                        CHECK (program_type IN ('Regular', 'Evening'))
+                    )
+                """;
+
+        // Academic terms bound when weekly schedules meet; holidays cancel a day's classes
+        String createTermsTable = """
+                    CREATE TABLE IF NOT EXISTS Terms (
+                        term_id INTEGER PRIMARY KEY AUTOINCREMENT,
+                        name TEXT UNIQUE NOT NULL,
+                        start_date DATE NOT NULL,
+                        end_date DATE NOT NULL,
+                        CHECK (start_date <= end_date)
+                    )
+                """;
+
+        String createTermHolidaysTable = """
+                    CREATE TABLE IF NOT EXISTS TermHolidays (
+                        term_id INTEGER NOT NULL,
+                        holiday_date DATE NOT NULL,
+                        description TEXT,
+                        PRIMARY KEY (term_id, holiday_date),
+                        FOREIGN KEY (term_id) REFERENCES Terms(term_id) ON DELETE CASCADE
+                    )
+                """;
+
+        // Notifications moved out of the live table by retention; ids are kept
+        String createNotificationArchiveTable = """
+                    CREATE TABLE IF NOT EXISTS NotificationArchive (
+                        notification_id INTEGER PRIMARY KEY,
                         user_id INTEGER NOT NULL,
                         message TEXT NOT NULL,
                         type TEXT NOT NULL,
                         is_read BOOLEAN DEFAULT 0,
-                        created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-                        FOREIGN KEY (user_id) REFERENCES Users(user_id),
-                        CHECK (type IN ('MakeupRequest', 'MakeupApproval', 'MakeupDisapproval'))
+                        created_at TIMESTAMP,
+                        archived_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
                     )
                 """;
 
         try (Statement stmt = conn.createStatement()) {
+            stmt.execute(createRoomsTable);
             stmt.execute(createUsersTable);
             stmt.execute(createCoursesTable);
             stmt.execute(createScheduleTable);
@@ -180,6 +350,164 @@ public class DatabaseUtil {
             stmt.execute(createScheduleResourcesTable);
             stmt.execute(createMakeupRequestsTable);
             stmt.execute(createNotificationsTable);
+            stmt.execute(createChangeLogTable);
+            stmt.execute(createSyncClientsTable);
+            stmt.execute(createExamSlotsTable);
+            stmt.execute(createTermsTable);
+            stmt.execute(createTermHolidaysTable);
+            stmt.execute(createNotificationArchiveTable);
+
+            // Conflict checks look up overlaps by room or by instructor on a day
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_schedule_room_day ON Schedule(room, day_of_week)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_schedule_instructor_day ON Schedule(instructor_id, day_of_week)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_enrollments_course ON Enrollments(course_id)");
+
+            // Dated meeting queries find the terms overlapping a date range
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_terms_dates ON Terms(start_date, end_date)");
+
+            // Makeup checks look up approved makeups by room or by instructor over a date range
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_makeup_room_date ON MakeupRequests(room, requested_date)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_makeup_instructor_date "
+                    + "ON MakeupRequests(instructor_id, requested_date)");
+
+            // Room notifications fan out to the students assigned to a room
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_users_room ON Users(assigned_room)");
+        }
+    }
+
+    /**
+     * Indexes on the notification tables. Runs after {@link #migrateSchema},
+     * since rebuilding Notifications drops its indexes.
+     */
+    private static void createNotificationIndexes(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            // Unread counts look up a user's unread notifications
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_notifications_user_read ON Notifications(user_id, is_read)");
+            // Inbox pages walk a user's notifications newest first
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_notifications_user_id "
+                    + "ON Notifications(user_id, notification_id)");
+            // Retention finds notifications past their age limit
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_notifications_created ON Notifications(created_at)");
+
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_notification_archive_user "
+                    + "ON NotificationArchive(user_id, notification_id)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_notification_archive_created "
+                    + "ON NotificationArchive(created_at)");
+        }
+    }
+
+    /**
+     * Install the triggers that feed ChangeLog. Each entry records which row of
+     * which table changed and, where there is one, the user it belongs to, so
+     * clients can fetch only what they display. Tables rebuilt by a migration
+     * lose their triggers, so this runs after {@link #migrateSchema}.
+     */
+    private static void createChangeLogTriggers(Connection conn) throws SQLException {
+        // table, key column, owning user column (null when rows have no owner)
+        String[][] tracked = {
+                { "Schedule", "schedule_id", "instructor_id" },
+                { "Enrollments", "enrollment_id", "student_id" },
+                { "MakeupRequests", "request_id", "rep_id" },
+                { "Notifications", "notification_id", "user_id" },
+                { "Rooms", "room_id", null }
+        };
+
+        try (Statement stmt = conn.createStatement()) {
+            for (String[] t : tracked) {
+                String table = t[0];
+                for (String op : new String[] { "insert", "update", "delete" }) {
+                    String row = op.equals("delete") ? "OLD" : "NEW";
+                    String owner = t[2] != null ? row + "." + t[2] : "NULL";
+                    stmt.execute(String.format(
+                            "CREATE TRIGGER IF NOT EXISTS trg_changelog_%s_%s AFTER %s ON %s BEGIN "
+                                    + "INSERT INTO ChangeLog (table_name, row_id, operation, user_id) "
+                                    + "VALUES ('%s', %s.%s, '%s', %s); END",
+                            table.toLowerCase(), op, op.toUpperCase(), table,
+                            table, row, t[1], op, owner));
+                }
+            }
+        }
+    }
+
+    /**
+     * Bring databases created by older versions up to the current schema.
+     */
+    private static void migrateSchema(Connection conn) throws SQLException {
+        // Row versions for optimistic concurrency control
+        addColumnIfMissing(conn, "Schedule", "version", "INTEGER DEFAULT 0 NOT NULL");
+        addColumnIfMissing(conn, "ScheduleRevisionRequests", "version", "INTEGER DEFAULT 0 NOT NULL");
+        addColumnIfMissing(conn, "MakeupRequests", "version", "INTEGER DEFAULT 0 NOT NULL");
+
+        // Notification types added after the table was first created
+        rebuildIfMissing(conn, "Notifications", "'MakeupScheduled'", NOTIFICATIONS_TABLE,
+                "notification_id, user_id, message, type, is_read, created_at");
+
+        // Rooms were free text before the catalog
+        addColumnIfMissing(conn, "Schedule", "room_id", "INTEGER REFERENCES Rooms(room_id)");
+        addColumnIfMissing(conn, "users", "room_id", "INTEGER REFERENCES Rooms(room_id)");
+        linkRooms(conn);
+    }
+
+    /**
+     * Catalog every room name used by a schedule or a student and point
+     * those rows at their room. Only rows without a room id are touched, so
+     * after the first run this just picks up rows written by older versions
+     * or by tools that write SQL directly.
+     */
+    private static void linkRooms(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("INSERT OR IGNORE INTO Rooms (name) "
+                    + "SELECT room FROM Schedule WHERE room_id IS NULL "
+                    + "UNION SELECT assigned_room FROM users WHERE room_id IS NULL AND assigned_room IS NOT NULL");
+            stmt.execute("UPDATE Schedule SET room_id = (SELECT r.room_id FROM Rooms r WHERE r.name = Schedule.room) "
+                    + "WHERE room_id IS NULL");
+            stmt.execute("UPDATE users SET room_id = (SELECT r.room_id FROM Rooms r WHERE r.name = users.assigned_room) "
+                    + "WHERE room_id IS NULL AND assigned_room IS NOT NULL");
+
+            // Created here rather than with the tables, as older databases only now have the columns
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_schedule_room_id ON Schedule(room_id)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_users_room_id ON users(room_id)");
+        }
+    }
+
+    /**
+     * Recreate a table from its current definition when its stored CREATE
+     * statement lacks the given fragment. SQLite cannot alter a CHECK
+     * constraint in place, so the rows are copied into a new table.
+     */
+    private static void rebuildIfMissing(Connection conn, String table, String fragment, String definition,
+            String columns) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "SELECT sql FROM sqlite_master WHERE type = 'table' AND name = ?")) {
+            pstmt.setString(1, table);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (!rs.next() || rs.getString(1).contains(fragment)) {
+                    return;
+                }
+            }
+        }
+        String rebuilt = table + "_rebuild";
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP TABLE IF EXISTS " + rebuilt);
+            stmt.execute(String.format(definition, rebuilt));
+            stmt.execute("INSERT INTO " + rebuilt + " (" + columns + ") SELECT " + columns + " FROM " + table);
+            stmt.execute("DROP TABLE " + table);
+            stmt.execute("ALTER TABLE " + rebuilt + " RENAME TO " + table);
+        }
+    }
+
+    private static void addColumnIfMissing(Connection conn, String table, String column, String definition)
+            throws SQLException {
+        try (Statement stmt = conn.createStatement();
+                ResultSet rs = stmt.executeQuery("PRAGMA table_info(" + table + ")")) {
+            while (rs.next()) {
+                if (column.equalsIgnoreCase(rs.getString("name"))) {
+                    return;
+                }
+            }
+        }
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("ALTER TABLE " + table + " ADD COLUMN " + column + " " + definition);
         }
     }
 
@@ -0,0 +1,295 @@
+package com.classroom.util;
+
+import com.classroom.monitoring.DatabaseErrorStats;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Single writer for all database mutations.
+ *
+ * SQLite allows one writer at a time, so instead of every DAO opening its
+ * own connection and racing for the write lock, writes are queued to one
+ * thread that owns one long-lived connection. Whatever has queued up while
+ * the previous batch was committing goes into the next transaction (group
+ * commit): one BEGIN IMMEDIATE, one SAVEPOINT per task so a failing task
+ * rolls back alone, and one COMMIT (one fsync) for the whole batch. A
+ * task's future completes only after the batch has committed.
+ *
+ * Work submitted from inside a running task (e.g. a notification created
+ * while updating a makeup request) runs inline in the caller's transaction
+ * instead of being queued behind it.
+ */
+public class DatabaseWriter {
+    // Upper bound on tasks per transaction, so one commit never holds the lock for long
+    private static final int MAX_BATCH = 256;
+    private static final int MAX_BUSY_RETRIES = 8;
+    private static final long BUSY_BACKOFF_BASE_MS = 10;
+
+    private static final BlockingQueue<Task<?>> queue = new LinkedBlockingQueue<>();
+    private static final List<Runnable> rollbackListeners = new CopyOnWriteArrayList<>();
+    private static Thread writerThread;
+
+    // Owned by the writer thread
+    private static Connection writerConnection;
+    private static String connectedUrl;
+    private static int nestedSavepoints;
+
+    private static class Task<T> {
+        final SqlWork<T> work;
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        T result;
+        Throwable failure;
+
+        Task(SqlWork<T> work) {
+            this.work = work;
+        }
+
+        void run(Connection conn) {
+            try {
+                result = work.run(conn);
+            } catch (Throwable e) {
+                // Errors too: the savepoint must be rolled back and the caller told
+                failure = e;
+            }
+        }
+
+        void complete() {
+            if (failure != null) {
+                future.completeExceptionally(failure);
+            } else {
+                future.complete(result);
+            }
+        }
+    }
+
+    /**
+     * Queue a write. The work runs on the writer thread inside a transaction
+     * and must only use the connection it is given.
+     */
+    public static <T> CompletableFuture<T> submit(SqlWork<T> work) {
+        if (Thread.currentThread() == writerThread) {
+            return runNested(work);
+        }
+        Task<T> task = new Task<>(work);
+        ensureStarted();
+        queue.add(task);
+        return task.future;
+    }
+
+    /**
+     * Queue a write and wait for it to commit.
+     */
+    public static <T> T write(SqlWork<T> work) throws SQLException {
+        try {
+            return submit(work).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for the database writer", e);
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        }
+    }
+
+    /**
+     * Convert a future's failure back into the SQLException the work threw.
+     */
+    public static SQLException unwrap(Throwable failure) {
+        if (failure instanceof CompletionException && failure.getCause() != null) {
+            failure = failure.getCause();
+        }
+        if (failure instanceof SQLException) {
+            return (SQLException) failure;
+        }
+        if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        }
+        if (failure instanceof Error) {
+            throw (Error) failure;
+        }
+        return new SQLException(failure);
+    }
+
+    /**
+     * Register a callback run on the writer thread whenever a batch, a task
+     * or a nested write is rolled back, for caches that were filled from
+     * uncommitted state.
+     */
+    public static void addRollbackListener(Runnable listener) {
+        rollbackListeners.add(listener);
+    }
+
+    private static <T> CompletableFuture<T> runNested(SqlWork<T> work) {
+        Connection conn = writerConnection;
+        String savepoint = "nested" + (++nestedSavepoints);
+        try {
+            execute(conn, "SAVEPOINT " + savepoint);
+            try {
+                T result = work.run(conn);
+                execute(conn, "RELEASE " + savepoint);
+                return CompletableFuture.completedFuture(result);
+            } catch (Throwable e) {
+                execute(conn, "ROLLBACK TO " + savepoint);
+                execute(conn, "RELEASE " + savepoint);
+                notifyRollback();
+                return CompletableFuture.failedFuture(e);
+            }
+        } catch (SQLException e) {
+            return CompletableFuture.failedFuture(e);
+        } finally {
+            nestedSavepoints--;
+        }
+    }
+
+    private static synchronized void ensureStarted() {
+        if (writerThread != null && writerThread.isAlive()) {
+            return;
+        }
+        writerThread = new Thread(DatabaseWriter::loop, "db-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    private static void loop() {
+        Connection conn = null;
+        List<Task<?>> batch = new ArrayList<>();
+        while (true) {
+            try {
+                batch.add(queue.take());
+                queue.drainTo(batch, MAX_BATCH - 1);
+
+                // Reconnect if the database was switched (load tests point at a scratch file)
+                if (conn == null || !DatabaseUtil.getDatabaseUrl().equals(connectedUrl)) {
+                    if (conn != null) {
+                        conn.close();
+                    }
+                    connectedUrl = DatabaseUtil.getDatabaseUrl();
+                    conn = DriverManager.getConnection(connectedUrl);
+                    // In WAL mode NORMAL only skips the fsync per commit; the database stays consistent
+                    execute(conn, "PRAGMA synchronous = NORMAL");
+                    writerConnection = conn;
+                }
+
+                runBatch(conn, batch);
+            } catch (InterruptedException e) {
+                return;
+            } catch (SQLException e) {
+                // Connection-level failure: fail this batch and reconnect for the next one
+                for (Task<?> task : batch) {
+                    task.failure = e;
+                    task.complete();
+                }
+                try {
+                    if (conn != null) {
+                        conn.close();
+                    }
+                } catch (SQLException ex) {
+                    ex.printStackTrace();
+                }
+                conn = null;
+            } catch (RuntimeException | Error e) {
+                // runBatch has rolled back; keep the thread alive for the next batch
+                e.printStackTrace();
+                for (Task<?> task : batch) {
+                    if (!task.future.isDone()) {
+                        task.future.completeExceptionally(e);
+                    }
+                }
+            } finally {
+                // However the batch ended, no caller is left waiting on it
+                for (Task<?> task : batch) {
+                    if (!task.future.isDone()) {
+                        task.future.completeExceptionally(new SQLException("Database writer stopped"));
+                    }
+                }
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Run one group-commit transaction, retrying the whole batch if another
+     * process holds the write lock.
+     */
+    private static void runBatch(Connection conn, List<Task<?>> batch) throws SQLException {
+        int attempt = 0;
+        while (true) {
+            try {
+                execute(conn, "BEGIN IMMEDIATE");
+                boolean committed = false;
+                try {
+                    for (Task<?> task : batch) {
+                        task.result = null;
+                        task.failure = null;
+                        execute(conn, "SAVEPOINT task");
+                        task.run(conn);
+                        if (task.failure != null) {
+                            execute(conn, "ROLLBACK TO task");
+                            notifyRollback();
+                        }
+                        execute(conn, "RELEASE task");
+                    }
+                    execute(conn, "COMMIT");
+                    committed = true;
+                } finally {
+                    // Whatever failed, including an Error, must not leave the write lock held
+                    if (!committed) {
+                        try {
+                            execute(conn, "ROLLBACK");
+                        } catch (SQLException ex) {
+                            // Already rolled back by SQLite
+                        }
+                        notifyRollback();
+                    }
+                }
+                break;
+            } catch (SQLException e) {
+                if (!DatabaseErrorStats.isBusy(e) || ++attempt >= MAX_BUSY_RETRIES) {
+                    throw e;
+                }
+                DatabaseErrorStats.record(e);
+                backoff(attempt);
+            }
+        }
+
+        for (Task<?> task : batch) {
+            task.complete();
+        }
+    }
+
+    private static void notifyRollback() {
+        for (Runnable listener : rollbackListeners) {
+            try {
+                listener.run();
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private static void execute(Connection conn, String sql) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(sql);
+        }
+    }
+
+    private static void backoff(int attempt) {
+        long ceiling = BUSY_BACKOFF_BASE_MS << Math.min(attempt, 8);
+        try {
+            Thread.sleep(ceiling / 2 + ThreadLocalRandom.current().nextLong(ceiling / 2 + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,357 @@
+package com.classroom.util;
+
+import com.classroom.model.ExamSlot;
+import com.classroom.model.ProgramType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+/**
+ * Assigns exams to periods and rooms by coloring the course conflict graph.
+ *
+ * Two courses conflict when a student takes both. Courses are colored with
+ * DSatur (always color the course whose conflicting neighbours already use
+ * the most distinct periods), where a period is only usable if it still has
+ * free rooms to seat the course. Several runs with randomized tie-breaking
+ * are made in parallel and the one with the fewest unplaced exams, then the
+ * fewest periods, wins.
+ *
+ * Each program type is colored separately onto its own exam sessions (see
+ * {@link #sessions}); Regular and Evening sessions never overlap in time, so
+ * conflicts between the two programs need no periods of their own.
+ */
+public class ExamTimetabler {
+
+    /**
+     * One exam sitting in the repeating weekly exam pattern.
+     */
+    public static class Session {
+        public final String day;
+        public final String startTime;
+        public final String endTime;
+
+        Session(String day, String startTime, String endTime) {
+            this.day = day;
+            this.startTime = startTime;
+            this.endTime = endTime;
+        }
+    }
+
+    private static final Session[] REGULAR_SESSIONS = weekdays(
+            new String[][] { { "09:00", "11:00" }, { "14:00", "16:00" } });
+
+    // Evening program hours as in TimeSlotUtil: weekday evenings and weekend blocks
+    private static final Session[] EVENING_SESSIONS = {
+            new Session("Monday", "18:00", "20:00"),
+            new Session("Tuesday", "18:00", "20:00"),
+            new Session("Wednesday", "18:00", "20:00"),
+            new Session("Thursday", "18:00", "20:00"),
+            new Session("Friday", "18:00", "20:00"),
+            new Session("Saturday", "13:00", "15:00"),
+            new Session("Saturday", "15:00", "17:00"),
+            new Session("Sunday", "08:00", "10:00"),
+            new Session("Sunday", "10:00", "12:00")
+    };
+
+    /**
+     * Outcome of {@link #solve(int)}.
+     */
+    public static class Result {
+        public final List<ExamSlot> slots;
+        public final List<Integer> unplacedCourseIds;
+        public final Map<ProgramType, Integer> periodsUsed;
+
+        Result(List<ExamSlot> slots, List<Integer> unplacedCourseIds, Map<ProgramType, Integer> periodsUsed) {
+            this.slots = slots;
+            this.unplacedCourseIds = unplacedCourseIds;
+            this.periodsUsed = periodsUsed;
+        }
+
+        int totalPeriods() {
+            return periodsUsed.values().stream().mapToInt(Integer::intValue).sum();
+        }
+    }
+
+    private final Map<ProgramType, Map<String, Integer>> roomCapacities;
+    private final Map<Integer, Integer> indexByCourse = new HashMap<>();
+    private final List<Integer> courseIds = new ArrayList<>();
+    private final List<ProgramType> programs = new ArrayList<>();
+    private final List<BitSet> conflicts = new ArrayList<>();
+    private int[] sizes = new int[16];
+
+    /**
+     * Exams of every program share the same rooms.
+     */
+    public ExamTimetabler(Map<String, Integer> roomCapacities) {
+        this(sameRooms(roomCapacities));
+    }
+
+    /**
+     * @param roomCapacities seats per room, for each program the rooms are
+     *        open to; a program with no entry has no rooms
+     */
+    public ExamTimetabler(EnumMap<ProgramType, Map<String, Integer>> roomCapacities) {
+        this.roomCapacities = roomCapacities;
+    }
+
+    private static EnumMap<ProgramType, Map<String, Integer>> sameRooms(Map<String, Integer> roomCapacities) {
+        EnumMap<ProgramType, Map<String, Integer>> byProgram = new EnumMap<>(ProgramType.class);
+        for (ProgramType program : ProgramType.values()) {
+            byProgram.put(program, roomCapacities);
+        }
+        return byProgram;
+    }
+
+    /**
+     * The weekly exam sessions for a program, in period order.
+     */
+    public static Session[] sessions(ProgramType program) {
+        return program == ProgramType.EVENING ? EVENING_SESSIONS : REGULAR_SESSIONS;
+    }
+
+    /**
+     * Register a course that needs an exam. Courses only seen through
+     * {@link #addStudent} default to the Regular program.
+     */
+    public void addCourse(int courseId, ProgramType program) {
+        int index = index(courseId);
+        programs.set(index, program != null ? program : ProgramType.REGULAR);
+    }
+
+    /**
+     * Record one student's courses: each course gains a seat and every pair
+     * becomes a conflict.
+     */
+    public void addStudent(int[] studentCourseIds) {
+        int[] indexes = new int[studentCourseIds.length];
+        for (int i = 0; i < studentCourseIds.length; i++) {
+            indexes[i] = index(studentCourseIds[i]);
+            sizes[indexes[i]]++;
+        }
+        for (int i = 0; i < indexes.length; i++) {
+            BitSet row = conflicts.get(indexes[i]);
+            for (int j = 0; j < indexes.length; j++) {
+                if (i != j) {
+                    row.set(indexes[j]);
+                }
+            }
+        }
+    }
+
+    public int getCourseCount() {
+        return courseIds.size();
+    }
+
+    private int index(int courseId) {
+        Integer index = indexByCourse.get(courseId);
+        if (index == null) {
+            index = courseIds.size();
+            indexByCourse.put(courseId, index);
+            courseIds.add(courseId);
+            programs.add(ProgramType.REGULAR);
+            conflicts.add(new BitSet());
+            if (index == sizes.length) {
+                sizes = Arrays.copyOf(sizes, sizes.length * 2);
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Run the given number of independent colorings in parallel and return
+     * the best. The first run breaks ties deterministically.
+     */
+    public Result solve(int restarts) {
+        return IntStream.range(0, Math.max(1, restarts))
+                .parallel()
+                .mapToObj(this::solveOnce)
+                .min(Comparator.<Result>comparingInt(r -> r.unplacedCourseIds.size())
+                        .thenComparingInt(Result::totalPeriods))
+                .orElseThrow();
+    }
+
+    private Result solveOnce(int seed) {
+        List<ExamSlot> slots = new ArrayList<>();
+        List<Integer> unplaced = new ArrayList<>();
+        Map<ProgramType, Integer> periodsUsed = new LinkedHashMap<>();
+        for (ProgramType program : ProgramType.values()) {
+            int periods = color(program, seed, slots, unplaced);
+            if (periods > 0) {
+                periodsUsed.put(program, periods);
+            }
+        }
+        return new Result(slots, unplaced, periodsUsed);
+    }
+
+    /**
+     * DSatur over the courses of one program. Returns the number of periods used.
+     */
+    private int color(ProgramType program, int seed, List<ExamSlot> slots, List<Integer> unplaced) {
+        int n = courseIds.size();
+        BitSet pending = new BitSet(n);
+        for (int v = 0; v < n; v++) {
+            if (programs.get(v) == program && sizes[v] > 0) {
+                pending.set(v); // Courses nobody takes need no exam
+            }
+        }
+        if (pending.isEmpty()) {
+            return 0;
+        }
+
+        int[] degree = new int[n];
+        double[] noise = new double[n];
+        Random random = new Random(seed);
+        for (int v = pending.nextSetBit(0); v >= 0; v = pending.nextSetBit(v + 1)) {
+            BitSet neighbours = (BitSet) conflicts.get(v).clone();
+            neighbours.and(pending);
+            degree[v] = neighbours.cardinality();
+            noise[v] = seed == 0 ? 0 : random.nextDouble();
+        }
+
+        BitSet[] saturation = new BitSet[n];
+        int[] saturationCount = new int[n];
+        List<PeriodRooms> periods = new ArrayList<>();
+        Session[] sessions = sessions(program);
+
+        while (!pending.isEmpty()) {
+            int best = -1;
+            for (int v = pending.nextSetBit(0); v >= 0; v = pending.nextSetBit(v + 1)) {
+                if (best < 0 || isBetter(v, best, saturationCount, degree, noise)) {
+                    best = v;
+                }
+            }
+            pending.clear(best);
+
+            int period = -1;
+            for (int p = 0; p < periods.size(); p++) {
+                if ((saturation[best] == null || !saturation[best].get(p)) && periods.get(p).fits(sizes[best])) {
+                    period = p;
+                    break;
+                }
+            }
+            if (period < 0) {
+                PeriodRooms fresh = new PeriodRooms(roomCapacities.getOrDefault(program, Collections.emptyMap()));
+                if (!fresh.fits(sizes[best])) {
+                    unplaced.add(courseIds.get(best)); // Larger than all rooms together
+                    continue;
+                }
+                periods.add(fresh);
+                period = periods.size() - 1;
+            }
+
+            Session session = sessions[period % sessions.length];
+            int examDay = period / sessions.length * dayCount(sessions) + dayIndex(sessions, period % sessions.length) + 1;
+            for (Map.Entry<String, Integer> seat : periods.get(period).allocate(sizes[best]).entrySet()) {
+                slots.add(new ExamSlot(courseIds.get(best), program.getLabel(), period, examDay, session.day,
+                        session.startTime, session.endTime, seat.getKey(), seat.getValue()));
+            }
+
+            BitSet neighbours = conflicts.get(best);
+            for (int u = neighbours.nextSetBit(0); u >= 0; u = neighbours.nextSetBit(u + 1)) {
+                if (!pending.get(u)) {
+                    continue;
+                }
+                if (saturation[u] == null) {
+                    saturation[u] = new BitSet();
+                }
+                if (!saturation[u].get(period)) {
+                    saturation[u].set(period);
+                    saturationCount[u]++;
+                }
+            }
+        }
+        return periods.size();
+    }
+
+    private boolean isBetter(int v, int best, int[] saturationCount, int[] degree, double[] noise) {
+        if (saturationCount[v] != saturationCount[best]) {
+            return saturationCount[v] > saturationCount[best];
+        }
+        if (degree[v] != degree[best]) {
+            return degree[v] > degree[best];
+        }
+        if (sizes[v] != sizes[best]) {
+            return sizes[v] > sizes[best]; // Large exams first while rooms are free
+        }
+        return noise[v] > noise[best];
+    }
+
+    private static int dayCount(Session[] sessions) {
+        return dayIndex(sessions, sessions.length - 1) + 1;
+    }
+
+    private static int dayIndex(Session[] sessions, int position) {
+        int index = 0;
+        for (int i = 1; i <= position; i++) {
+            if (!sessions[i].day.equals(sessions[i - 1].day)) {
+                index++;
+            }
+        }
+        return index;
+    }
+
+    private static Session[] weekdays(String[][] times) {
+        String[] days = { "Monday", "Tuesday", "Wednesday", "Thursday", "Friday" };
+        Session[] sessions = new Session[days.length * times.length];
+        int i = 0;
+        for (String day : days) {
+            for (String[] time : times) {
+                sessions[i++] = new Session(day, time[0], time[1]);
+            }
+        }
+        return sessions;
+    }
+
+    /**
+     * Rooms still free in one period.
+     */
+    private static class PeriodRooms {
+        private final List<Map.Entry<String, Integer>> free; // ascending capacity
+        private int freeSeats;
+
+        PeriodRooms(Map<String, Integer> capacities) {
+            free = new ArrayList<>(capacities.entrySet());
+            free.sort(Map.Entry.comparingByValue());
+            for (Map.Entry<String, Integer> room : free) {
+                freeSeats += room.getValue();
+            }
+        }
+
+        boolean fits(int students) {
+            return students <= freeSeats;
+        }
+
+        /**
+         * Take the smallest room that seats everyone, or else the largest
+         * rooms until everyone is seated. Returns seats per room.
+         */
+        Map<String, Integer> allocate(int students) {
+            Map<String, Integer> seats = new LinkedHashMap<>();
+            for (int i = 0; i < free.size(); i++) {
+                if (free.get(i).getValue() >= students) {
+                    seats.put(free.get(i).getKey(), students);
+                    freeSeats -= free.remove(i).getValue();
+                    return seats;
+                }
+            }
+            int remaining = students;
+            while (remaining > 0) {
+                Map.Entry<String, Integer> room = free.remove(free.size() - 1);
+                freeSeats -= room.getValue();
+                seats.put(room.getKey(), Math.min(remaining, room.getValue()));
+                remaining -= room.getValue();
+            }
+            return seats;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.classroom.util;
+
+import com.classroom.model.ClassMeeting;
+import com.classroom.model.MakeupSlot;
+import com.classroom.model.ProgramType;
+import com.classroom.model.Schedule;
+import com.classroom.model.TimeOfDay;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * When a room and its instructor are busy over a range of dates: their class
+ * meetings, approved makeups and blocked days such as holidays. Built once
+ * per check from a few indexed queries, then answered in memory.
+ */
+public class MakeupAvailability {
+    private final LocalDate from;
+    private final LocalDate to;
+    private final Map<LocalDate, List<Busy>> busyByDate = new HashMap<>();
+    private final Map<LocalDate, String> blockedDays = new HashMap<>();
+
+    private static final class Busy {
+        final int start;
+        final int end;
+        final String reason;
+
+        Busy(int start, int end, String reason) {
+            this.start = start;
+            this.end = end;
+            this.reason = reason;
+        }
+    }
+
+    public MakeupAvailability(LocalDate from, LocalDate to) {
+        this.from = from;
+        this.to = to;
+    }
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    public void addBusy(LocalDate date, int startMinutes, int endMinutes, String reason) {
+        busyByDate.computeIfAbsent(date, d -> new ArrayList<>()).add(new Busy(startMinutes, endMinutes, reason));
+    }
+
+    public void addMeeting(ClassMeeting meeting, String who) {
+        Schedule schedule = meeting.getSchedule();
+        addBusy(meeting.getDate(), schedule.getStartMinutes(), schedule.getEndMinutes(),
+                who + " has " + schedule.getCourseCode() + " " + schedule.getStartTime() + "-"
+                        + schedule.getEndTime());
+    }
+
+    public void blockDay(LocalDate date, String reason) {
+        blockedDays.put(date, reason);
+    }
+
+    /**
+     * Why the time is unavailable, or null if it is free.
+     */
+    public String conflict(LocalDate date, int startMinutes, int endMinutes) {
+        String blocked = blockedDays.get(date);
+        if (blocked != null) {
+            return date + " is " + blocked;
+        }
+        for (Busy busy : busyByDate.getOrDefault(date, List.of())) {
+            if (busy.start < endMinutes && startMinutes < busy.end) {
+                return busy.reason + " on " + date;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The earliest free slots from the start of the range, at most one per
+     * hour and only within the program's class hours.
+     */
+    public List<MakeupSlot> suggest(ProgramType program, int durationMinutes, int count) {
+        List<MakeupSlot> slots = new ArrayList<>();
+        for (LocalDate date = from; !date.isAfter(to) && slots.size() < count; date = date.plusDays(1)) {
+            String day = Schedule.dayName(date.getDayOfWeek());
+            for (int start = 8 * 60; start + durationMinutes <= 20 * 60 && slots.size() < count; start += 60) {
+                String startTime = TimeOfDay.format(start);
+                String endTime = TimeOfDay.format(start + durationMinutes);
+                boolean inProgramHours = program == ProgramType.EVENING
+                        ? TimeSlotUtil.isValidEveningProgramTime(day, startTime, endTime)
+                        : TimeSlotUtil.isValidRegularProgramTime(day, startTime, endTime);
+                if (inProgramHours && conflict(date, start, start + durationMinutes) == null) {
+                    slots.add(new MakeupSlot(date, startTime, endTime));
+                }
+            }
+        }
+        return slots;
+    }
+}
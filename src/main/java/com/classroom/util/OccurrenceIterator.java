@@ -0,0 +1,106 @@
+package com.classroom.util;
+
+import com.classroom.model.ClassMeeting;
+import com.classroom.model.Schedule;
+import com.classroom.model.Term;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Expands weekly schedules into dated meetings between two dates, in date
+ * then start-time order. Meetings are produced one day at a time as the
+ * caller iterates, so a year of a busy room never sits in memory at once.
+ *
+ * A meeting happens on a date that is a teaching day of one of the given
+ * terms. With no terms at all, the weekly timetable runs every week.
+ */
+public class OccurrenceIterator implements Iterator<ClassMeeting> {
+    private final List<List<Schedule>> byDay = new ArrayList<>(7); // index 0 = Monday
+    private final List<Term> terms;
+    private final LocalDate last;
+    private LocalDate date;
+    private List<Schedule> today = List.of();
+    private int position;
+
+    /**
+     * @param schedules weekly templates to expand
+     * @param terms     terms in start-date order; empty means no term limits
+     * @param from      first date, inclusive
+     * @param to        last date, inclusive
+     */
+    public OccurrenceIterator(List<Schedule> schedules, List<Term> terms, LocalDate from, LocalDate to) {
+        for (int i = 0; i < 7; i++) {
+            byDay.add(new ArrayList<>());
+        }
+        for (Schedule schedule : schedules) {
+            if (schedule.getDay() != null) {
+                byDay.get(schedule.getDay().getValue() - 1).add(schedule);
+            }
+        }
+        for (List<Schedule> day : byDay) {
+            day.sort(Comparator.comparingInt(Schedule::getStartMinutes));
+        }
+        this.terms = terms;
+        this.date = from.minusDays(1);
+        this.last = to;
+    }
+
+    /**
+     * An iterable over the meetings, for use in for-each loops.
+     */
+    public static Iterable<ClassMeeting> meetings(List<Schedule> schedules, List<Term> terms,
+            LocalDate from, LocalDate to) {
+        return () -> new OccurrenceIterator(schedules, terms, from, to);
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (position >= today.size()) {
+            if (!date.isBefore(last)) {
+                return false;
+            }
+            date = date.plusDays(1);
+            today = isTeachingDay(date) ? byDay.get(date.getDayOfWeek().getValue() - 1) : List.of();
+            position = 0;
+        }
+        return true;
+    }
+
+    @Override
+    public ClassMeeting next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return new ClassMeeting(today.get(position++), date);
+    }
+
+    private boolean isTeachingDay(LocalDate day) {
+        if (terms.isEmpty()) {
+            return true;
+        }
+        for (Term term : terms) {
+            if (term.contains(day)) {
+                return term.isTeachingDay(day);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The days of week the range covers, so callers can fetch only those
+     * templates. A range of a week or longer covers every day.
+     */
+    public static List<DayOfWeek> daysCovered(LocalDate from, LocalDate to) {
+        List<DayOfWeek> days = new ArrayList<>();
+        for (LocalDate day = from; !day.isAfter(to) && days.size() < 7; day = day.plusDays(1)) {
+            days.add(day.getDayOfWeek());
+        }
+        return days;
+    }
+}
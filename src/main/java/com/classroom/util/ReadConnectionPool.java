@@ -0,0 +1,185 @@
+package com.classroom.util;
+
+import org.sqlite.SQLiteConfig;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Small fixed-size pool of read-only SQLite connections.
+ *
+ * Connections are opened read-only with {@code PRAGMA query_only} and stay
+ * in auto-commit mode, so each statement reads its own WAL snapshot and
+ * never takes the write lock. They use SQLite's default private page cache
+ * rather than shared cache: in shared-cache mode all connections share one
+ * b-tree and take table-level locks against each other, which would make
+ * readers wait on the writer again - the opposite of what WAL buys us.
+ *
+ * Callers get a wrapper whose close() returns the connection to the pool
+ * and closes any statements the caller left open (so no forgotten
+ * ResultSet keeps a snapshot alive). commit() and rollback() are no-ops,
+ * so existing DAO code that calls them on a read path keeps working.
+ */
+class ReadConnectionPool {
+    private static final long BORROW_TIMEOUT_SECONDS = 10;
+
+    private final String url;
+    private final int size;
+    private final BlockingQueue<Connection> idle = new LinkedBlockingQueue<>();
+    private final AtomicInteger opened = new AtomicInteger();
+    private volatile boolean closed;
+
+    ReadConnectionPool(String url, int size) {
+        this.url = url;
+        this.size = size;
+    }
+
+    String getUrl() {
+        return url;
+    }
+
+    Connection borrow() throws SQLException {
+        Connection physical = idle.poll();
+        if (physical == null && opened.incrementAndGet() <= size) {
+            try {
+                physical = open();
+            } catch (SQLException e) {
+                opened.decrementAndGet();
+                throw e;
+            }
+        } else if (physical == null) {
+            opened.decrementAndGet();
+            try {
+                physical = idle.poll(BORROW_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while waiting for a read connection", e);
+            }
+            if (physical == null) {
+                throw new SQLException("No read connection available after " + BORROW_TIMEOUT_SECONDS + " s");
+            }
+        }
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[] { Connection.class }, new Lease(physical));
+    }
+
+    private Connection open() throws SQLException {
+        SQLiteConfig config = new SQLiteConfig();
+        config.setReadOnly(true);
+        Connection conn = config.createConnection(url);
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("PRAGMA query_only = 1");
+        }
+        return conn;
+    }
+
+    /**
+     * Return a connection to the pool. DAOs open read transactions with a
+     * raw BEGIN, which the driver's auto-commit flag does not see, so one
+     * left open is rolled back here; a connection that cannot be reset is
+     * closed instead of being handed to the next caller.
+     */
+    private void release(Connection physical) {
+        try {
+            if (closed || physical.isClosed() || !physical.getAutoCommit()) {
+                discard(physical);
+                return;
+            }
+            try (Statement stmt = physical.createStatement()) {
+                stmt.execute("ROLLBACK");
+            } catch (SQLException e) {
+                String message = e.getMessage();
+                if (message == null || !message.contains("no transaction is active")) {
+                    throw e;
+                }
+            }
+        } catch (SQLException e) {
+            discard(physical);
+            return;
+        }
+        idle.add(physical);
+    }
+
+    private void discard(Connection physical) {
+        opened.decrementAndGet();
+        try {
+            physical.close();
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+
+    void close() {
+        closed = true;
+        Connection physical;
+        while ((physical = idle.poll()) != null) {
+            discard(physical);
+        }
+    }
+
+    /**
+     * One borrowing of a pooled connection.
+     */
+    private class Lease implements InvocationHandler {
+        private final Connection physical;
+        private final List<Statement> statements = new ArrayList<>();
+        private boolean returned;
+
+        Lease(Connection physical) {
+            this.physical = physical;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!returned) {
+                        returned = true;
+                        for (Statement statement : statements) {
+                            statement.close();
+                        }
+                        release(physical);
+                    }
+                    return null;
+                case "isClosed":
+                    return returned || physical.isClosed();
+                case "commit":
+                case "rollback":
+                case "setAutoCommit":
+                    return null; // Read-only and always auto-commit
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                case "toString":
+                    return "ReadConnection[" + url + "]";
+                default:
+                    break;
+            }
+
+            if (returned) {
+                throw new SQLException("Connection is closed");
+            }
+            try {
+                Object result = method.invoke(physical, args);
+                if (result instanceof Statement) {
+                    statements.add((Statement) result);
+                }
+                return result;
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -2,10 +2,15 @@ package com.classroom.util;
 
 import com.classroom.dao.CourseDAO;
 import com.classroom.dao.ScheduleDAO;
+import com.classroom.dao.EnrollmentDAO;
 import com.classroom.dao.ResourceDAO;
+import com.classroom.dao.RoomRegistry;
 import com.classroom.model.Course;
+import com.classroom.model.Room;
 import com.classroom.model.Schedule;
 import com.classroom.model.ScheduleResource;
+import com.classroom.model.TimeOfDay;
+import com.classroom.monitoring.ScheduleValidationEvent;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
@@ -14,6 +19,7 @@ import java.sql.SQLException;
 import java.time.LocalTime;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.function.IntSupplier;
 
 public class ScheduleValidationUtil {
 
@@ -28,6 +34,29 @@ public class ScheduleValidationUtil {
     }
 
     public static ValidationResult validateSchedule(Schedule schedule, List<ScheduleResource> resources) {
+        ScheduleValidationEvent event = new ScheduleValidationEvent();
+        event.begin();
+
+        ValidationResult result = runValidation(schedule, resources);
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.scheduleId = schedule.getScheduleId();
+            event.courseId = schedule.getCourseId();
+            event.room = schedule.getRoom();
+            event.day = schedule.getDayOfWeek();
+            event.startTime = schedule.getStartTime();
+            event.endTime = schedule.getEndTime();
+            event.programType = schedule.getProgramType();
+            event.resources = resources != null ? resources.size() : 0;
+            event.valid = result.isValid;
+            event.outcome = result.message;
+            event.commit();
+        }
+        return result;
+    }
+
+    private static ValidationResult runValidation(Schedule schedule, List<ScheduleResource> resources) {
         System.out.println("\nValidating schedule:");
         System.out.println("Course ID: " + schedule.getCourseId());
         System.out.println("Instructor ID: " + schedule.getInstructorId());
@@ -37,22 +66,15 @@ public class ScheduleValidationUtil {
         System.out.println("Program Type: " + schedule.getProgramType());
         System.out.println("Required Resources: " + (resources != null ? resources.size() : 0));
 
-        // Validate time range
-        if (!TimeSlotUtil.isValidTimeRange(schedule.getStartTime(), schedule.getEndTime())) {
-            return new ValidationResult(false, "End time must be after start time");
+        ValidationResult slot = validateSlot(schedule);
+        if (!slot.isValid) {
+            return slot;
         }
 
-        // Validate program time
-        boolean isRegularProgram = schedule.getProgramType().equalsIgnoreCase("Regular");
-        if (isRegularProgram && !TimeSlotUtil.isValidRegularProgramTime(
-                schedule.getDayOfWeek(), schedule.getStartTime(), schedule.getEndTime())) {
-            return new ValidationResult(false,
-                    "Invalid time slot for regular program. Regular program hours are 8:00-17:00 on weekdays");
-        } else if (!isRegularProgram && !TimeSlotUtil.isValidEveningProgramTime(
-                schedule.getDayOfWeek(), schedule.getStartTime(), schedule.getEndTime())) {
-            return new ValidationResult(false,
-                    "Invalid time slot for evening program.\nEvening program hours are:\n" +
-                            "Weekdays: 18:00-20:00\nSaturday: 13:00-17:00\nSunday: 8:00-12:00");
+        ValidationResult room = validateRoom(schedule, RoomRegistry.current(),
+                () -> EnrollmentDAO.getEnrollmentCount(schedule.getCourseId()));
+        if (!room.isValid) {
+            return room;
         }
 
         // Check for schedule conflicts
@@ -81,6 +103,67 @@ public class ScheduleValidationUtil {
         return new ValidationResult(true, "Validation successful");
     }
 
+    /**
+     * The checks that need no stored data: a known day and program, a valid
+     * time range and the program's teaching hours.
+     */
+    public static ValidationResult validateSlot(Schedule schedule) {
+        if (schedule.getDay() == null) {
+            return new ValidationResult(false, "Invalid day of week");
+        }
+        if (schedule.getProgram() == null) {
+            return new ValidationResult(false, "Invalid program type");
+        }
+        if (schedule.getStartMinutes() == TimeOfDay.UNSET || schedule.getEndMinutes() == TimeOfDay.UNSET) {
+            return new ValidationResult(false, "Start and end time are required");
+        }
+
+        // Validate time range
+        if (!TimeSlotUtil.isValidTimeRange(schedule.getStartTime(), schedule.getEndTime())) {
+            return new ValidationResult(false, "End time must be after start time");
+        }
+
+        // Validate program time
+        boolean isRegularProgram = schedule.getProgramType().equalsIgnoreCase("Regular");
+        if (isRegularProgram && !TimeSlotUtil.isValidRegularProgramTime(
+                schedule.getDayOfWeek(), schedule.getStartTime(), schedule.getEndTime())) {
+            return new ValidationResult(false,
+                    "Invalid time slot for regular program. Regular program hours are 8:00-17:00 on weekdays");
+        } else if (!isRegularProgram && !TimeSlotUtil.isValidEveningProgramTime(
+                schedule.getDayOfWeek(), schedule.getStartTime(), schedule.getEndTime())) {
+            return new ValidationResult(false,
+                    "Invalid time slot for evening program.\nEvening program hours are:\n" +
+                            "Weekdays: 18:00-20:00\nSaturday: 13:00-17:00\nSunday: 8:00-12:00");
+        }
+
+        return new ValidationResult(true, "Validation successful");
+    }
+
+    /**
+     * Check the schedule's room against the room catalog: it must be open to
+     * the schedule's program and seat everyone enrolled in the course. The
+     * enrollment is only counted for a room of known capacity, and a room the
+     * catalog knows nothing about passes.
+     */
+    public static ValidationResult validateRoom(Schedule schedule, RoomRegistry rooms, IntSupplier enrolled) {
+        Room room = rooms.get(schedule.getRoom());
+        if (room == null) {
+            return new ValidationResult(true, "Validation successful");
+        }
+        if (schedule.getProgram() != null && !room.isAvailableFor(schedule.getProgram())) {
+            return new ValidationResult(false, "Room " + room.getName() + " is not available to the "
+                    + schedule.getProgram().getLabel() + " program");
+        }
+        if (room.hasCapacity()) {
+            int students = enrolled.getAsInt();
+            if (!room.seats(students)) {
+                return new ValidationResult(false, "Room " + room.getName() + " seats " + room.getCapacity()
+                        + " but " + students + " students are enrolled in the course");
+            }
+        }
+        return new ValidationResult(true, "Validation successful");
+    }
+
     private static ValidationResult checkInstructorAvailability(Schedule schedule) {
         try (Connection conn = DatabaseUtil.getConnection()) {
             String sql = "SELECT s.*, c.course_name FROM Schedule s " +
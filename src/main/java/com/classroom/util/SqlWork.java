@@ -0,0 +1,13 @@
+package com.classroom.util;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * A unit of database work run against a connection supplied by
+ * {@link DatabaseUtil}, which owns the transaction around it.
+ */
+@FunctionalInterface
+public interface SqlWork<T> {
+    T run(Connection conn) throws SQLException;
+}
@@ -0,0 +1,11 @@
+package com.classroom.repository;
+
+/**
+ * The repository contract against the in-memory backend.
+ */
+class MemoryRepositoriesTest extends RepositoryContract {
+    @Override
+    protected Repositories createRepositories() {
+        return Repositories.inMemory();
+    }
+}
@@ -0,0 +1,219 @@
+package com.classroom.repository;
+
+import com.classroom.dao.ScheduleDAO.WriteResult;
+import com.classroom.model.Course;
+import com.classroom.model.Notification;
+import com.classroom.model.Schedule;
+import com.classroom.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Behaviour every {@link Repositories} backend must share. Each backend's
+ * test extends this and supplies an empty store; the tests only go through
+ * the repository interfaces, so ids are looked up rather than assumed.
+ */
+public abstract class RepositoryContract {
+    private static final String ROOM = "Contract-101";
+
+    protected Repositories repositories;
+
+    /**
+     * A store with no courses, schedules or users other than what the
+     * backend always creates.
+     */
+    protected abstract Repositories createRepositories() throws Exception;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        repositories = createRepositories();
+    }
+
+    @Test
+    void coursesRejectDuplicateCodes() {
+        CourseRepository courses = repositories.courses();
+        assertTrue(courses.addCourse(new Course(0, "Algebra", "MATH101", "Intro", 3)));
+        assertFalse(courses.addCourse(new Course(0, "Algebra again", "MATH101", null, 3)));
+
+        Course stored = courses.getCourseByCode("MATH101");
+        assertNotNull(stored);
+        assertEquals("Algebra", stored.getCourseName());
+        assertEquals(stored.getCourseName(), courses.getCourseById(stored.getCourseId()).getCourseName());
+        assertEquals(stored.getCourseId(), courses.getCourseIdsByCode().get("MATH101"));
+        assertNull(courses.getCourseByCode("NOPE999"));
+
+        List<String> errors = courses.insertCourses(List.of(new Course(0, "Physics", "PHYS101", null, 4),
+                new Course(0, "Duplicate", "MATH101", null, 3)));
+        assertNotNull(errors);
+        assertEquals(2, errors.size());
+        assertNull(errors.get(0));
+        assertNotNull(errors.get(1));
+        assertNotNull(courses.getCourseByCode("PHYS101"));
+    }
+
+    @Test
+    void usersRegisterOnceAndAuthenticate() {
+        UserRepository users = repositories.users();
+        assertTrue(users.registerUser(student("alice")));
+        assertFalse(users.registerUser(student("alice")));
+
+        User alice = users.authenticateUser("alice", "secret");
+        assertNotNull(alice);
+        assertEquals("alice", alice.getUsername());
+        assertNull(users.authenticateUser("alice", "wrong"));
+        assertEquals("alice", users.getUserById(alice.getUserId()).getUsername());
+        assertTrue(users.getAllUsernames().contains("alice"));
+        assertTrue(users.getAllEmails().contains("alice@example.com"));
+        assertTrue(users.getUnassignedStudents().stream().anyMatch(u -> u.getUserId() == alice.getUserId()));
+    }
+
+    @Test
+    void roomRepresentativeIsReplaced() {
+        UserRepository users = repositories.users();
+        users.registerUser(student("alice"));
+        users.registerUser(student("bob"));
+        int alice = users.authenticateUser("alice", "secret").getUserId();
+        int bob = users.authenticateUser("bob", "secret").getUserId();
+
+        assertTrue(users.assignRoom(alice, ROOM));
+        assertEquals(List.of(alice), users.getStudentsByRoom(ROOM).stream().map(User::getUserId).toList());
+
+        assertTrue(users.assignRoomRep(alice, ROOM));
+        assertTrue(users.isRoomRep(alice));
+        assertTrue(users.assignRoomRep(bob, ROOM));
+        assertEquals(bob, users.getRoomRep(ROOM).getUserId());
+        assertFalse(users.isRoomRep(alice));
+        assertEquals(ROOM, users.getUserById(bob).getAssignedRoom());
+
+        assertTrue(users.removeRoomRep(bob));
+        assertNull(users.getRoomRep(ROOM));
+    }
+
+    @Test
+    void schedulesConflictAndDetectStaleEdits() {
+        int courseId = addCourse("CS101");
+        int instructorId = addInstructor("turing");
+
+        Schedule first = schedule(courseId, instructorId, "09:00", "11:00");
+        WriteResult saved = repositories.schedules().insertSchedule(first);
+        assertEquals(WriteResult.Status.SAVED, saved.status, saved.message);
+        assertTrue(first.getScheduleId() > 0);
+
+        // An existing booking fails validation; CONFLICT is left for a booking that commits in between
+        Schedule clash = schedule(courseId, instructorId, "10:00", "12:00");
+        assertNotNull(repositories.schedules().getConflictDetails(clash));
+        assertEquals(WriteResult.Status.INVALID, repositories.schedules().insertSchedule(clash).status);
+
+        WriteResult invalid = repositories.schedules().insertSchedule(schedule(courseId, instructorId, "19:00", "20:00"));
+        assertEquals(WriteResult.Status.INVALID, invalid.status);
+
+        Schedule edit = repositories.schedules().getSchedulesByRoom(ROOM).get(0);
+        Schedule concurrent = repositories.schedules().getSchedulesByRoom(ROOM).get(0);
+        edit.setEndTime("10:30");
+        WriteResult updated = repositories.schedules().updateScheduleChecked(edit);
+        assertEquals(WriteResult.Status.SAVED, updated.status, updated.message);
+        assertEquals(concurrent.getVersion() + 1, edit.getVersion());
+
+        concurrent.setEndTime("11:30");
+        assertEquals(WriteResult.Status.STALE, repositories.schedules().updateScheduleChecked(concurrent).status);
+        assertEquals("10:30", repositories.schedules().getSchedulesByCourseId(courseId).get(0).getEndTime());
+
+        assertTrue(repositories.schedules().getAllDraftSchedules().stream()
+                .anyMatch(s -> s.getScheduleId() == first.getScheduleId()));
+        // first still carries the version from before the edit
+        assertEquals(WriteResult.Status.STALE,
+                repositories.schedules().deleteSchedule(first.getScheduleId(), first.getVersion()).status);
+        assertEquals(WriteResult.Status.SAVED,
+                repositories.schedules().deleteSchedule(first.getScheduleId(), edit.getVersion()).status);
+        assertEquals(WriteResult.Status.NOT_FOUND,
+                repositories.schedules().deleteSchedule(first.getScheduleId(), edit.getVersion()).status);
+        assertTrue(repositories.schedules().getSchedulesByInstructorId(instructorId).isEmpty());
+    }
+
+    @Test
+    void enrollmentRequiresTheStudentsRoom() {
+        int courseId = addCourse("CS102");
+        int instructorId = addInstructor("hopper");
+        assertTrue(repositories.schedules().insertSchedule(schedule(courseId, instructorId, "13:00", "14:00"))
+                .isSaved());
+
+        UserRepository users = repositories.users();
+        users.registerUser(student("carol"));
+        int carol = users.authenticateUser("carol", "secret").getUserId();
+        EnrollmentRepository enrollments = repositories.enrollments();
+
+        assertEquals(-1, enrollments.enrollStudent(carol, courseId));
+        users.assignRoom(carol, ROOM);
+        assertEquals(1, enrollments.enrollStudent(carol, courseId));
+        assertEquals(0, enrollments.enrollStudent(carol, courseId));
+        assertTrue(enrollments.isStudentEnrolled(carol, courseId));
+        assertEquals(1, enrollments.getEnrollmentCount(courseId));
+        assertEquals(List.of(courseId), enrollments.getCourseIdsByStudent().get(carol));
+        assertEquals(List.of(carol), users.getStudentsByCourse(courseId).stream().map(User::getUserId).toList());
+        assertEquals(1, repositories.schedules().getSchedulesByStudentId(carol).size());
+
+        assertTrue(enrollments.unenrollStudent(carol, courseId));
+        assertFalse(enrollments.isStudentEnrolled(carol, courseId));
+        assertEquals(0, enrollments.getEnrollmentCount(courseId));
+    }
+
+    @Test
+    void notificationsCountUnreadPerUser() {
+        UserRepository users = repositories.users();
+        users.registerUser(student("dave"));
+        users.registerUser(student("erin"));
+        int dave = users.authenticateUser("dave", "secret").getUserId();
+        int erin = users.authenticateUser("erin", "secret").getUserId();
+
+        NotificationRepository notifications = repositories.notifications();
+        for (int i = 0; i < 3; i++) {
+            assertTrue(notifications.createNotification(new Notification(dave, "Message " + i, "RevisionDecision")));
+        }
+        Notification other = new Notification(erin, "Not dave's", "RevisionDecision");
+        assertTrue(notifications.createNotification(other));
+        assertEquals(3, notifications.getUnreadNotificationCount(dave));
+
+        List<Notification> page = notifications.getNotificationsForUser(dave, 0, 2);
+        assertEquals(2, page.size());
+        assertTrue(page.get(0).getNotificationId() > page.get(1).getNotificationId());
+        int newest = page.get(0).getNotificationId();
+
+        int erinsId = notifications.getNotificationsForUser(erin).get(0).getNotificationId();
+        assertEquals(1, notifications.markNotificationsAsRead(dave, Arrays.asList(newest, erinsId)));
+        assertEquals(2, notifications.getUnreadNotificationCount(dave));
+        assertEquals(1, notifications.getUnreadNotificationCount(erin));
+
+        assertEquals(2, notifications.markAllAsRead(dave, 0));
+        assertEquals(0, notifications.getUnreadNotificationCount(dave));
+    }
+
+    private int addCourse(String code) {
+        assertTrue(repositories.courses().addCourse(new Course(0, "Course " + code, code, null, 3)));
+        return repositories.courses().getCourseByCode(code).getCourseId();
+    }
+
+    private int addInstructor(String username) {
+        User instructor = new User(0, username, "secret", "Instructor " + username, username + "@example.com",
+                "instructor", null);
+        assertTrue(repositories.users().registerUser(instructor));
+        return repositories.users().getInstructorIdsByUsername().get(username);
+    }
+
+    private static User student(String username) {
+        return new User(0, username, "secret", "Student " + username, username + "@example.com", "student",
+                "Regular");
+    }
+
+    private static Schedule schedule(int courseId, int instructorId, String start, String end) {
+        return new Schedule(0, courseId, instructorId, "Monday", start, end, ROOM, "Regular");
+    }
+}
@@ -0,0 +1,31 @@
+package com.classroom.repository;
+
+import com.classroom.util.DatabaseUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+/**
+ * The repository contract against the SQLite backend, on a new database
+ * file for each test.
+ */
+class SqliteRepositoriesTest extends RepositoryContract {
+    @TempDir
+    Path directory;
+
+    private String previousUrl;
+
+    @Override
+    protected Repositories createRepositories() {
+        previousUrl = DatabaseUtil.getDatabaseUrl();
+        DatabaseUtil.setDatabaseUrl("jdbc:sqlite:" + directory.resolve("contract.db"));
+        DatabaseUtil.initializeDatabase();
+        return Repositories.sqlite();
+    }
+
+    @AfterEach
+    void restoreDatabase() {
+        DatabaseUtil.setDatabaseUrl(previousUrl);
+    }
+}